@@ -0,0 +1,84 @@
+package com.selimhorri.app.config.compression;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Size-bounded LRU of recently compressed response bodies, keyed by request
+ * path and query. Each entry keeps the uncompressed body alongside its
+ * compressed variants, so a hit is confirmed with a plain byte comparison
+ * (much cheaper than re-deflating) and a changed upstream body simply replaces
+ * the entry.
+ */
+@Component
+public class CompressedBodyCache {
+	
+	private final int maxEntrySize;
+	private final Map<String, Entry> entries;
+	
+	public CompressedBodyCache(final CompressionProperties properties, final MeterRegistry meterRegistry) {
+		this.maxEntrySize = properties.getCacheMaxEntrySize();
+		final int maxEntries = properties.getCacheMaxEntries();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+				return this.size() > maxEntries;
+			}
+			
+		};
+		Gauge.builder("gateway.compression.cache.size", this, CompressedBodyCache::size)
+				.register(meterRegistry);
+	}
+	
+	public byte[] get(final String key, final byte[] body, final ContentCoding coding) {
+		synchronized (this.entries) {
+			final var entry = this.entries.get(key);
+			if (entry == null || !Arrays.equals(entry.body, body))
+				return null;
+			return entry.variants.get(coding);
+		}
+	}
+	
+	public void put(final String key, final byte[] body, final ContentCoding coding, final byte[] compressed) {
+		if (body.length > this.maxEntrySize)
+			return;
+		synchronized (this.entries) {
+			var entry = this.entries.get(key);
+			if (entry == null || !Arrays.equals(entry.body, body)) {
+				entry = new Entry(body);
+				this.entries.put(key, entry);
+			}
+			entry.variants.put(coding, compressed);
+		}
+	}
+	
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+	
+	private static final class Entry {
+		
+		private final byte[] body;
+		private final Map<ContentCoding, byte[]> variants = new EnumMap<>(ContentCoding.class);
+		
+		private Entry(final byte[] body) {
+			this.body = body;
+		}
+		
+	}
+	
+	
+	
+}
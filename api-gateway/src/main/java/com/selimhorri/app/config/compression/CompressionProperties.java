@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.compression;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.gateway.compression")
+public class CompressionProperties {
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Responses smaller than this (in bytes) are passed through untouched, the
+	 * framing overhead of gzip/deflate outweighs the savings below ~1-2KB.
+	 */
+	private int minResponseSize = 2048;
+	
+	private List<String> mimeTypes = List.of(
+			"application/json",
+			"application/problem+json",
+			"application/xml",
+			"text/html",
+			"text/plain",
+			"text/css",
+			"application/javascript");
+	
+	private int cacheMaxEntries = 256;
+	private int cacheMaxEntrySize = 2 * 1024 * 1024;
+	
+}
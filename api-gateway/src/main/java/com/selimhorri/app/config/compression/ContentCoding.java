@@ -0,0 +1,89 @@
+package com.selimhorri.app.config.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public enum ContentCoding {
+	
+	GZIP("gzip"),
+	DEFLATE("deflate");
+	
+	private final String token;
+	
+	public byte[] compress(final byte[] input) {
+		final var out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+		try (final var stream = (this == GZIP) ? new GZIPOutputStream(out, 8192) : new DeflaterOutputStream(out)) {
+			stream.write(input);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Picks the coding to use for the given Accept-Encoding header, honouring
+	 * q-values ("q=0" disables a coding). gzip wins ties over deflate, since some
+	 * clients still mishandle zlib-wrapped deflate.
+	 * 
+	 * @return the coding to apply, or null when the client accepts neither
+	 */
+	public static ContentCoding negotiate(final String acceptEncoding) {
+		if (acceptEncoding == null || acceptEncoding.isBlank())
+			return null;
+		
+		double gzipQ = -1;
+		double deflateQ = -1;
+		double wildcardQ = -1;
+		
+		for (final String part : acceptEncoding.split(",")) {
+			final String[] tokens = part.trim().split(";");
+			final String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+			double q = 1.0;
+			for (int i = 1; i < tokens.length; i++) {
+				final String param = tokens[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						q = Double.parseDouble(param.substring(2));
+					}
+					catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			switch (coding) {
+				case "gzip":
+				case "x-gzip":
+					gzipQ = q;
+					break;
+				case "deflate":
+					deflateQ = q;
+					break;
+				case "*":
+					wildcardQ = q;
+					break;
+				default:
+					break;
+			}
+		}
+		
+		if (gzipQ < 0)
+			gzipQ = wildcardQ;
+		if (deflateQ < 0)
+			deflateQ = wildcardQ;
+		
+		if (gzipQ <= 0 && deflateQ <= 0)
+			return null;
+		return (gzipQ >= deflateQ) ? GZIP : DEFLATE;
+	}
+	
+}
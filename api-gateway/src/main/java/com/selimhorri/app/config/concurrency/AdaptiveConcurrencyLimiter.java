@@ -0,0 +1,104 @@
+package com.selimhorri.app.config.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency bulkhead for one route whose limit is recomputed from observed
+ * latency and drops. {@link #tryAcquire()} never blocks, callers reject the
+ * request straight away when it returns false.
+ */
+public class AdaptiveConcurrencyLimiter {
+	
+	private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+	
+	private final ConcurrencyLimitProperties properties;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final AtomicLong rejected = new AtomicLong();
+	
+	private volatile int limit;
+	private double estimatedLimit;
+	private double longRttNanos = -1;
+	
+	public AdaptiveConcurrencyLimiter(final ConcurrencyLimitProperties properties) {
+		this.properties = properties;
+		this.estimatedLimit = properties.getInitialLimit();
+		this.limit = properties.getInitialLimit();
+	}
+	
+	public boolean tryAcquire() {
+		while (true) {
+			final int current = this.inflight.get();
+			if (current >= this.limit) {
+				this.rejected.incrementAndGet();
+				return false;
+			}
+			if (this.inflight.compareAndSet(current, current + 1))
+				return true;
+		}
+	}
+	
+	/**
+	 * Releases a permit taken by {@link #tryAcquire()} and feeds the outcome back
+	 * into the limit.
+	 * 
+	 * @param rttNanos time the request held the permit
+	 * @param dropped  whether the upstream failed, timed out or shed the request
+	 */
+	public void release(final long rttNanos, final boolean dropped) {
+		final int inflightAtStart = this.inflight.getAndDecrement();
+		synchronized (this) {
+			if (dropped)
+				this.estimatedLimit *= this.properties.getBackoffRatio();
+			else if (this.properties.getAlgorithm() == LimitAlgorithm.AIMD)
+				this.updateAimd(inflightAtStart);
+			else
+				this.updateGradient(rttNanos, inflightAtStart);
+			
+			this.estimatedLimit = Math.max(this.properties.getMinLimit(),
+					Math.min(this.properties.getMaxLimit(), this.estimatedLimit));
+			this.limit = (int) this.estimatedLimit;
+		}
+	}
+	
+	private void updateAimd(final int inflightAtStart) {
+		// only grow while the current limit is actually being exercised
+		if (inflightAtStart * 2 >= this.estimatedLimit)
+			this.estimatedLimit += 1;
+	}
+	
+	private void updateGradient(final long rttNanos, final int inflightAtStart) {
+		
+		if (this.longRttNanos < 0)
+			this.longRttNanos = rttNanos;
+		else
+			this.longRttNanos += LONG_RTT_ALPHA * (rttNanos - this.longRttNanos);
+		
+		final double gradient = Math.max(0.5, Math.min(1.0,
+				this.properties.getRttTolerance() * this.longRttNanos / Math.max(1, rttNanos)));
+		
+		// an app-limited route tells nothing about upstream capacity
+		if (gradient >= 1.0 && inflightAtStart * 2 < this.estimatedLimit)
+			return;
+		
+		final double queueSize = Math.sqrt(this.estimatedLimit);
+		final double newLimit = this.estimatedLimit * gradient + queueSize;
+		this.estimatedLimit = this.estimatedLimit * (1 - this.properties.getSmoothing())
+				+ newLimit * this.properties.getSmoothing();
+	}
+	
+	public int getLimit() {
+		return this.limit;
+	}
+	
+	public int getInflight() {
+		return this.inflight.get();
+	}
+	
+	public long getRejected() {
+		return this.rejected.get();
+	}
+	
+	
+	
+}
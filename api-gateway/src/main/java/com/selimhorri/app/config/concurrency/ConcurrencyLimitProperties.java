@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.gateway.concurrency")
+public class ConcurrencyLimitProperties {
+	
+	private boolean enabled = true;
+	private LimitAlgorithm algorithm = LimitAlgorithm.GRADIENT;
+	
+	private int initialLimit = 20;
+	private int minLimit = 4;
+	private int maxLimit = 500;
+	
+	/**
+	 * Weight of each new estimate in the limit, lower values react slower but
+	 * oscillate less.
+	 */
+	private double smoothing = 0.2;
+	
+	/**
+	 * How much slower than the long-term average a request may be before the
+	 * gradient algorithm starts shrinking the limit.
+	 */
+	private double rttTolerance = 1.5;
+	
+	/**
+	 * Multiplicative decrease applied on errors, 5xx and 429 responses.
+	 */
+	private double backoffRatio = 0.9;
+	
+}
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.concurrency;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimiterRegistry {
+	
+	private final ConcurrencyLimitProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+	
+	public AdaptiveConcurrencyLimiter forRoute(final String routeId) {
+		return this.limiters.computeIfAbsent(routeId, this::create);
+	}
+	
+	public Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+		return Collections.unmodifiableMap(this.limiters);
+	}
+	
+	private AdaptiveConcurrencyLimiter create(final String routeId) {
+		final var limiter = new AdaptiveConcurrencyLimiter(this.properties);
+		final var tags = Tags.of("route", routeId);
+		Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+				.tags(tags)
+				.register(this.meterRegistry);
+		Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+				.tags(tags)
+				.register(this.meterRegistry);
+		FunctionCounter.builder("gateway.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+				.tags(tags)
+				.register(this.meterRegistry);
+		return limiter;
+	}
+	
+	
+	
+}
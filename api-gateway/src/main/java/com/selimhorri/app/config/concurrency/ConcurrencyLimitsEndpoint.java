@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.concurrency;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Live per-route limits at {@code /actuator/concurrencylimits}.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+@RequiredArgsConstructor
+public class ConcurrencyLimitsEndpoint {
+	
+	private final ConcurrencyLimitProperties properties;
+	private final ConcurrencyLimiterRegistry registry;
+	
+	@ReadOperation
+	public Map<String, Object> limits() {
+		final Map<String, Object> routes = new TreeMap<>();
+		this.registry.getLimiters().forEach((routeId, limiter) -> routes.put(routeId, Map.of(
+				"limit", limiter.getLimit(),
+				"inflight", limiter.getInflight(),
+				"rejected", limiter.getRejected())));
+		return Map.of(
+				"algorithm", this.properties.getAlgorithm(),
+				"routes", routes);
+	}
+	
+	
+	
+}
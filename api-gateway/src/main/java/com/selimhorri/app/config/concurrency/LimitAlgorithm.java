@@ -0,0 +1,17 @@
+package com.selimhorri.app.config.concurrency;
+
+public enum LimitAlgorithm {
+	
+	/**
+	 * Additive increase while the limit is being used, multiplicative decrease
+	 * on drops.
+	 */
+	AIMD,
+	
+	/**
+	 * Scales the limit by the ratio of long-term to current latency, so queueing
+	 * upstream shrinks it before anything starts failing.
+	 */
+	GRADIENT
+	
+}
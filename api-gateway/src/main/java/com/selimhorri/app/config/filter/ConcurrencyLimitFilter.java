@@ -0,0 +1,78 @@
+package com.selimhorri.app.config.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.concurrency.ConcurrencyLimitProperties;
+import com.selimhorri.app.config.concurrency.ConcurrencyLimiterRegistry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Per-route bulkhead: each route gets its own adaptive concurrency limit, and
+ * requests above it are answered with 503 before any upstream work is done,
+ * so one slow service cannot tie up the event loops and connections the other
+ * routes need.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+	
+	private final ConcurrencyLimitProperties properties;
+	private final ConcurrencyLimiterRegistry limiterRegistry;
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		
+		final Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (!this.properties.isEnabled() || route == null)
+			return chain.filter(exchange);
+		
+		final var limiter = this.limiterRegistry.forRoute(route.getId());
+		if (!limiter.tryAcquire()) {
+			log.debug("** Concurrency limit filter, rejecting request to route {} at limit {}",
+					route.getId(), limiter.getLimit());
+			exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			return exchange.getResponse().setComplete();
+		}
+		
+		final long start = System.nanoTime();
+		final var released = new AtomicBoolean();
+		return chain.filter(exchange)
+				.doFinally(signal -> {
+					if (released.compareAndSet(false, true))
+						limiter.release(System.nanoTime() - start, isDropped(exchange, signal));
+				});
+	}
+	
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 100;
+	}
+	
+	private static boolean isDropped(final ServerWebExchange exchange, final SignalType signal) {
+		if (signal == SignalType.ON_ERROR)
+			return true;
+		// a cancelled request (client went away) says nothing about the upstream
+		if (signal == SignalType.CANCEL)
+			return false;
+		final var status = exchange.getResponse().getStatusCode();
+		return status != null && (status.is5xxServerError() || status == HttpStatus.TOO_MANY_REQUESTS);
+	}
+	
+	
+	
+}
@@ -0,0 +1,295 @@
+package com.selimhorri.app.config.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter.Type;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.hedging.HedgeBudget;
+import com.selimhorri.app.config.hedging.HedgingProperties;
+import com.selimhorri.app.config.hedging.LatencyTracker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Hedged reads for routes flagged with the {@code hedging} metadata. When the
+ * load-balanced instance has not answered a GET within the route's observed
+ * latency percentile, the same request is sent to a different instance and
+ * whichever answers first is returned, the other call being cancelled. Hedges
+ * are paid for out of a shared {@link HedgeBudget}.
+ * <p>
+ * Every attempt feeds the route's {@link LatencyTracker}, not only the winner:
+ * a window of winners alone would drift towards the hedge delay and hedge ever
+ * earlier. A primary cancelled by a faster hedge is recorded with the time it
+ * had been running, a lower bound of its real latency.
+ * <p>
+ * The race is decided on the response headers: the first attempt to get them
+ * streams its body through unbuffered, like {@code NettyRoutingFilter}, and
+ * the other is cancelled. When no attempt gets a response the client sees the
+ * primary's failure as a 502 or 504.
+ * <p>
+ * Runs right after the load balancer has picked the primary instance and
+ * {@link InstancePortRoutingFilter} has set its port, and routes the request
+ * itself, so {@code NettyRoutingFilter} is skipped for hedged routes.
+ */
+@Component
+@Slf4j
+public class HedgingRoutingFilter implements GlobalFilter, Ordered {
+	
+	private final HedgingProperties properties;
+	private final DiscoveryClient discoveryClient;
+	private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+	private final MeterRegistry meterRegistry;
+	private final WebClient webClient;
+	private final HedgeBudget hedgeBudget;
+	private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+	
+	public HedgingRoutingFilter(final HedgingProperties properties, final DiscoveryClient discoveryClient,
+			final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+			final MeterRegistry meterRegistry, final WebClient.Builder webClientBuilder,
+			final HttpClient gatewayHttpClient) {
+		this.properties = properties;
+		this.discoveryClient = discoveryClient;
+		this.headersFiltersProvider = headersFiltersProvider;
+		this.meterRegistry = meterRegistry;
+		// same Netty client (pool, timeouts, protocol) as the routing filter it stands in for
+		this.webClient = webClientBuilder.clone()
+				.clientConnector(new ReactorClientHttpConnector(gatewayHttpClient))
+				.build();
+		this.hedgeBudget = new HedgeBudget(properties.getBudgetPercent(), properties.getBudgetMaxTokens());
+		Gauge.builder("gateway.hedge.budget.tokens", this.hedgeBudget, HedgeBudget::getAvailableTokens)
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		
+		final Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		final URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+		
+		if (!this.properties.isEnabled() || isAlreadyRouted(exchange) || route == null || requestUrl == null
+				|| !HttpMethod.GET.equals(exchange.getRequest().getMethod()) || !isHedged(route)
+				|| !"lb".equals(route.getUri().getScheme()))
+			return chain.filter(exchange);
+		
+		setAlreadyRouted(exchange);
+		this.hedgeBudget.deposit();
+		this.counter("gateway.hedge.requests", route).increment();
+		
+		final String serviceId = route.getUri().getHost();
+		final var tracker = this.latencyTrackers.computeIfAbsent(route.getId(), this::newTracker);
+		final var headers = new HttpHeaders();
+		headers.addAll(HttpHeadersFilter.filterRequest(this.headersFiltersProvider.getIfAvailable(), exchange));
+		headers.remove(HttpHeaders.HOST);
+		
+		final var race = new Race();
+		final Mono<Boolean> primary = this.send(exchange, race, requestUrl, headers, false, tracker)
+				.doOnError(race.primaryError::set);
+		final Mono<Boolean> hedge = Mono.delay(this.hedgeDelay(tracker))
+				.flatMap(tick -> Mono.justOrEmpty(this.alternateInstance(route, serviceId, requestUrl)))
+				.filter(uri -> this.hedgeBudget.tryWithdraw())
+				.doOnNext(uri -> this.counter("gateway.hedge.sent", route).increment())
+				.flatMap(uri -> this.send(exchange, race, uri, headers, true, tracker));
+		
+		return Mono.firstWithValue(
+						primary.takeUntilOther(race.wonBy(true)),
+						// a primary that already answered also stops a hedge that has not been sent yet
+						hedge.takeUntilOther(race.wonBy(false)))
+				.doOnNext(hedgeWon -> {
+					if (hedgeWon)
+						this.counter("gateway.hedge.wins", route).increment();
+				})
+				.then()
+				// no attempt answered: fail like NettyRoutingFilter would with the primary's error
+				.onErrorMap(NoSuchElementException.class,
+						e -> race.primaryError.get() == null ? e : routingError(race.primaryError.get()));
+	}
+	
+	/**
+	 * After the load balancer and after {@link InstancePortRoutingFilter}, so
+	 * the primary is sent to the port that filter picked.
+	 */
+	@Override
+	public int getOrder() {
+		return InstancePortRoutingFilter.ORDER + 1;
+	}
+	
+	private static boolean isHedged(final Route route) {
+		return Boolean.parseBoolean(String.valueOf(route.getMetadata().get(HedgingProperties.ROUTE_METADATA_KEY)));
+	}
+	
+	private LatencyTracker newTracker(final String routeId) {
+		final var tracker = new LatencyTracker(this.properties.getPercentile());
+		FunctionCounter.builder("gateway.hedge.latency.samples", tracker, LatencyTracker::getCount)
+				.tag("route", routeId)
+				.register(this.meterRegistry);
+		Gauge.builder("gateway.hedge.delay", tracker, t -> this.hedgeDelay(t).toNanos() / 1_000_000.0)
+				.tag("route", routeId)
+				.baseUnit("milliseconds")
+				.register(this.meterRegistry);
+		return tracker;
+	}
+	
+	private Duration hedgeDelay(final LatencyTracker tracker) {
+		final long percentileNanos = tracker.getPercentileNanos();
+		if (percentileNanos < 0)
+			return this.properties.getMaxDelay();
+		final long clamped = Math.max(this.properties.getMinDelay().toNanos(),
+				Math.min(this.properties.getMaxDelay().toNanos(), percentileNanos));
+		return Duration.ofNanos(clamped);
+	}
+	
+	private Optional<URI> alternateInstance(final Route route, final String serviceId, final URI primaryUrl) {
+		final List<URI> candidates = this.discoveryClient.getInstances(serviceId).stream()
+				.map(instance -> InstancePortRoutingFilter.instanceUrl(route, instance,
+						LoadBalancerUriTools.reconstructURI(instance, primaryUrl)))
+				.filter(uri -> !(uri.getHost().equalsIgnoreCase(primaryUrl.getHost())
+						&& uri.getPort() == primaryUrl.getPort()))
+				.collect(Collectors.toList());
+		if (candidates.isEmpty())
+			return Optional.empty();
+		return Optional.of(candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())));
+	}
+	
+	/**
+	 * Sends one attempt. The first one whose response headers arrive wins the
+	 * race and streams its body to the client; a later one releases its body
+	 * and completes empty. Emits whether the winner was the hedge once the
+	 * body has been written.
+	 */
+	private Mono<Boolean> send(final ServerWebExchange exchange, final Race race, final URI uri,
+			final HttpHeaders headers, final boolean hedge, final LatencyTracker tracker) {
+		return Mono.defer(() -> {
+			final long start = System.nanoTime();
+			final var recorded = new AtomicBoolean();
+			final Runnable record = () -> {
+				if (recorded.compareAndSet(false, true))
+					tracker.record(System.nanoTime() - start);
+			};
+			return this.webClient.get()
+					.uri(uri)
+					.headers(target -> target.addAll(headers))
+					.exchangeToMono(response -> {
+						// the latency of the instance, not of the client reading the body
+						record.run();
+						if (!race.claim(hedge))
+							return response.releaseBody().then(Mono.<Boolean>empty());
+						return this.writeResponse(exchange, response).thenReturn(hedge);
+					})
+					.doOnError(e -> log.debug("** Hedging filter, {} attempt to {} failed: {}",
+							hedge ? "hedge" : "primary", uri, e.getMessage()))
+					.doFinally(signal -> {
+						// a cancelled hedge only ran for a fraction of the route's latency, it says nothing about it
+						if (!hedge || signal != SignalType.CANCEL)
+							record.run();
+					});
+		});
+	}
+	
+	private Mono<Void> writeResponse(final ServerWebExchange exchange, final ClientResponse upstream) {
+		final var response = exchange.getResponse();
+		response.setRawStatusCode(upstream.rawStatusCode());
+		response.getHeaders().putAll(HttpHeadersFilter.filter(this.headersFiltersProvider.getIfAvailable(),
+				upstream.headers().asHttpHeaders(), exchange, Type.RESPONSE));
+		if (response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH))
+			response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+		// streamed as it arrives, like NettyRoutingFilter does, never buffered whole
+		return response.writeWith(upstream.body(BodyExtractors.toDataBuffers()));
+	}
+	
+	/**
+	 * The error NettyRoutingFilter would surface for the same failure: a
+	 * timeout becomes a 504, any other failure to get a response a 502.
+	 */
+	private static Throwable routingError(final Throwable error) {
+		final Throwable cause = (error instanceof WebClientRequestException && error.getCause() != null)
+				? error.getCause()
+				: error;
+		if (cause instanceof ResponseStatusException)
+			return cause;
+		if (cause instanceof TimeoutException || cause instanceof ReadTimeoutException)
+			return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, cause.getMessage(), cause);
+		return new ResponseStatusException(HttpStatus.BAD_GATEWAY, cause.getMessage(), cause);
+	}
+	
+	private Counter counter(final String name, final Route route) {
+		return Counter.builder(name)
+				.tag("route", route.getId())
+				.register(this.meterRegistry);
+	}
+	
+	/**
+	 * Shared by the attempts of one request: who answered first, and why the
+	 * primary failed if it did.
+	 */
+	private static final class Race {
+		
+		private final AtomicReference<Boolean> winner = new AtomicReference<>();
+		private final Sinks.One<Boolean> claimed = Sinks.one();
+		private final AtomicReference<Throwable> primaryError = new AtomicReference<>();
+		
+		private boolean claim(final boolean hedge) {
+			if (!this.winner.compareAndSet(null, hedge))
+				return false;
+			this.claimed.tryEmitValue(hedge);
+			return true;
+		}
+		
+		/**
+		 * Signals once the given side has won, and never otherwise, so the
+		 * other side can be cancelled with {@code takeUntilOther}.
+		 */
+		private Mono<Boolean> wonBy(final boolean hedge) {
+			return this.claimed.asMono().flatMap(winnerIsHedge -> winnerIsHedge == hedge
+					? Mono.just(winnerIsHedge)
+					: Mono.never());
+		}
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,88 @@
+package com.selimhorri.app.config.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.URI;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends a load-balanced route to a second port of the picked instance. A
+ * route names the Eureka instance metadata key holding that port in its
+ * {@value #ROUTE_METADATA_KEY} metadata; product-service, for instance,
+ * registers the Netty port of its reactive catalog as {@code reactive-port}.
+ * <p>
+ * An instance that does not register the key is called on its main port,
+ * which serves the same paths.
+ */
+@Component
+@Slf4j
+public class InstancePortRoutingFilter implements GlobalFilter, Ordered {
+	
+	public static final String ROUTE_METADATA_KEY = "instance-port-metadata";
+	
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		
+		final Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		final Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+		final URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+		if (route == null || response == null || !response.hasServer() || url == null
+				|| !route.getMetadata().containsKey(ROUTE_METADATA_KEY))
+			return chain.filter(exchange);
+		
+		final URI routed = instanceUrl(route, response.getServer(), url);
+		if (routed.getPort() == url.getPort())
+			log.debug("** Instance port routing filter, {} has no {} metadata, keeping port {}",
+					response.getServer().getInstanceId(), route.getMetadata().get(ROUTE_METADATA_KEY), url.getPort());
+		exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, routed);
+		return chain.filter(exchange);
+	}
+	
+	/**
+	 * The URL to call the given instance on for the route: the port named by
+	 * the route's {@value #ROUTE_METADATA_KEY}, when both sides have it, or
+	 * the URL unchanged.
+	 */
+	public static URI instanceUrl(final Route route, final ServiceInstance instance, final URI url) {
+		final Object metadataKey = route.getMetadata().get(ROUTE_METADATA_KEY);
+		if (metadataKey == null)
+			return url;
+		final String port = instance.getMetadata().get(metadataKey.toString());
+		if (port == null)
+			return url;
+		return UriComponentsBuilder.fromUri(url)
+				.port(Integer.parseInt(port))
+				.build(true)
+				.toUri();
+	}
+	
+	/**
+	 * Right after the load balancer has resolved lb:// to an instance, and
+	 * before {@link HedgingRoutingFilter}, which has to send its primary to
+	 * the rewritten port.
+	 */
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+	
+	
+
+}
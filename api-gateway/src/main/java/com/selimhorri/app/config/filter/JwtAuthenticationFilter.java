@@ -0,0 +1,130 @@
+package com.selimhorri.app.config.filter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.security.EdgeSecurityProperties;
+import com.selimhorri.app.config.security.IdentityHeaders;
+import com.selimhorri.app.config.security.JwtVerifier;
+import com.selimhorri.app.config.security.VerifiedIdentity;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the bearer token once at the edge and forwards the caller's
+ * identity as signed {@link IdentityHeaders}. Identity headers sent by clients
+ * are always stripped, so downstream services only ever see values the gateway
+ * put there.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+	
+	private static final String BEARER_PREFIX = "Bearer ";
+	private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+	
+	private final EdgeSecurityProperties properties;
+	private final JwtVerifier jwtVerifier;
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		
+		if (!this.properties.isEnabled())
+			return chain.filter(exchange);
+		
+		final var request = exchange.getRequest();
+		final String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		
+		if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+			if (this.properties.isRequireAuthentication() && !this.isPublic(request))
+				return this.unauthorized(exchange, null);
+			return chain.filter(exchange.mutate().request(stripIdentity(request)).build());
+		}
+		
+		final VerifiedIdentity identity;
+		try {
+			identity = this.jwtVerifier.verify(authorization.substring(BEARER_PREFIX.length()));
+		}
+		catch (JwtException | IllegalArgumentException e) {
+			log.debug("** JwtAuthenticationFilter, rejecting token: {}", e.getMessage());
+			return this.unauthorized(exchange, "invalid_token");
+		}
+		
+		final String userId = Objects.toString(identity.getUserId(), "");
+		final String username = Objects.toString(identity.getUsername(), "");
+		final String roles = String.join(",", identity.getRoles());
+		final long issuedAt = Instant.now().getEpochSecond();
+		final String signature = IdentityHeaders.sign(this.properties.getIdentitySecret(), userId, username, roles,
+				issuedAt);
+		final var mutated = request.mutate()
+				.headers(headers -> {
+					IdentityHeaders.ALL.forEach(headers::remove);
+					headers.set(IdentityHeaders.USER_ID, userId);
+					headers.set(IdentityHeaders.USERNAME, username);
+					headers.set(IdentityHeaders.ROLES, roles);
+					headers.set(IdentityHeaders.ISSUED_AT, Long.toString(issuedAt));
+					headers.set(IdentityHeaders.SIGNATURE, signature);
+				})
+				.build();
+		
+		return chain.filter(exchange.mutate().request(mutated).build());
+	}
+	
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 50;
+	}
+	
+	private boolean isPublic(final ServerHttpRequest request) {
+		if (HttpMethod.OPTIONS.equals(request.getMethod()))
+			return true;
+		final String path = request.getPath().value();
+		final String method = request.getMethodValue();
+		return this.properties.getPublicPaths().stream()
+				.anyMatch(entry -> {
+					final String[] parts = entry.trim().split("\\s+", 2);
+					return (parts.length == 1)
+							? PATH_MATCHER.match(parts[0], path)
+							: parts[0].equalsIgnoreCase(method) && PATH_MATCHER.match(parts[1], path);
+				});
+	}
+	
+	private static ServerHttpRequest stripIdentity(final ServerHttpRequest request) {
+		final List<String> present = IdentityHeaders.ALL.stream()
+				.filter(request.getHeaders()::containsKey)
+				.collect(Collectors.toList());
+		if (present.isEmpty())
+			return request;
+		return request.mutate()
+				.headers(headers -> present.forEach(headers::remove))
+				.build();
+	}
+	
+	private Mono<Void> unauthorized(final ServerWebExchange exchange, final String error) {
+		final var response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.UNAUTHORIZED);
+		response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+				(error == null) ? "Bearer" : "Bearer error=\"" + error + "\"");
+		return response.setComplete();
+	}
+	
+	
+	
+}
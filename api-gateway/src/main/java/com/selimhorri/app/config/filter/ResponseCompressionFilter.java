@@ -0,0 +1,186 @@
+package com.selimhorri.app.config.filter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.compression.CompressedBodyCache;
+import com.selimhorri.app.config.compression.CompressionProperties;
+import com.selimhorri.app.config.compression.ContentCoding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compresses upstream responses with gzip or deflate according to the client's
+ * Accept-Encoding, for configured content types above a minimum size.
+ * Compressed bodies are kept in {@link CompressedBodyCache} next to the
+ * uncompressed body they came from, so unchanged listings are not recompressed
+ * on every hit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+	
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+	
+	private final CompressionProperties properties;
+	private final CompressedBodyCache compressedBodyCache;
+	private final MeterRegistry meterRegistry;
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		
+		if (!this.properties.isEnabled() || HttpMethod.HEAD.equals(exchange.getRequest().getMethod()))
+			return chain.filter(exchange);
+		
+		final var coding = ContentCoding.negotiate(exchange.getRequest().getHeaders()
+				.getFirst(HttpHeaders.ACCEPT_ENCODING));
+		if (coding == null)
+			return chain.filter(exchange);
+		
+		final String cacheKey = exchange.getRequest().getURI().getRawPath()
+				+ "?" + exchange.getRequest().getURI().getRawQuery();
+		final var response = new CompressingResponse(exchange.getResponse(), coding, cacheKey);
+		
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+	
+	@Override
+	public int getOrder() {
+		// must wrap the response before NettyWriteResponseFilter writes upstream bytes to it
+		return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+	}
+	
+	private boolean isCompressible(final ServerHttpResponse response) {
+		
+		final var headers = response.getHeaders();
+		final var status = response.getStatusCode();
+		
+		if (status == HttpStatus.NO_CONTENT || status == HttpStatus.NOT_MODIFIED)
+			return false;
+		if (headers.containsKey(HttpHeaders.CONTENT_ENCODING))
+			return false;
+		if (headers.getContentLength() >= 0 && headers.getContentLength() < this.properties.getMinResponseSize())
+			return false;
+		
+		final MediaType contentType = headers.getContentType();
+		return contentType != null && this.properties.getMimeTypes().stream()
+				.map(MediaType::parseMediaType)
+				.anyMatch(mimeType -> mimeType.includes(contentType));
+	}
+	
+	private byte[] compress(final byte[] body, final ContentCoding coding, final String cacheKey) {
+		
+		final byte[] cached = this.compressedBodyCache.get(cacheKey, body, coding);
+		if (cached != null) {
+			this.counter("gateway.compression.cache.requests", coding, "result", "hit").increment();
+			this.counter("gateway.compression.bytes.saved", coding).increment(body.length - cached.length);
+			return cached;
+		}
+		this.counter("gateway.compression.cache.requests", coding, "result", "miss").increment();
+		
+		final long cpuStart = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+		final byte[] compressed = coding.compress(body);
+		final long cpuNanos = THREAD_MX_BEAN.getCurrentThreadCpuTime() - cpuStart;
+		
+		Timer.builder("gateway.compression.cpu")
+				.tag("encoding", coding.getToken())
+				.register(this.meterRegistry)
+				.record(cpuNanos, TimeUnit.NANOSECONDS);
+		this.counter("gateway.compression.bytes.in", coding).increment(body.length);
+		this.counter("gateway.compression.bytes.out", coding).increment(compressed.length);
+		this.counter("gateway.compression.bytes.saved", coding).increment(body.length - compressed.length);
+		
+		this.compressedBodyCache.put(cacheKey, body, coding, compressed);
+		return compressed;
+	}
+	
+	/**
+	 * A strong validator no longer matches the bytes on the wire once the body is
+	 * re-encoded, so it is downgraded to a weak one (same approach as nginx).
+	 */
+	private static void weakenETag(final HttpHeaders headers) {
+		final String eTag = headers.getETag();
+		if (eTag != null && !eTag.startsWith("W/"))
+			headers.setETag("W/" + eTag);
+	}
+	
+	private Counter counter(final String name, final ContentCoding coding, final String... tags) {
+		return Counter.builder(name)
+				.tag("encoding", coding.getToken())
+				.tags(tags)
+				.register(this.meterRegistry);
+	}
+	
+	private final class CompressingResponse extends ServerHttpResponseDecorator {
+		
+		private final ContentCoding coding;
+		private final String cacheKey;
+		
+		private CompressingResponse(final ServerHttpResponse delegate, final ContentCoding coding, final String cacheKey) {
+			super(delegate);
+			this.coding = coding;
+			this.cacheKey = cacheKey;
+		}
+		
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			
+			if (!isCompressible(this.getDelegate()))
+				return super.writeWith(body);
+			
+			return DataBufferUtils.join(Flux.from(body))
+					.defaultIfEmpty(this.bufferFactory().wrap(new byte[0]))
+					.flatMap(joined -> {
+						final byte[] bytes = new byte[joined.readableByteCount()];
+						joined.read(bytes);
+						DataBufferUtils.release(joined);
+						
+						final var headers = this.getHeaders();
+						if (bytes.length < properties.getMinResponseSize())
+							return super.writeWith(Mono.just(this.bufferFactory().wrap(bytes)));
+						
+						final byte[] compressed = compress(bytes, this.coding, this.cacheKey);
+						headers.set(HttpHeaders.CONTENT_ENCODING, this.coding.getToken());
+						headers.setContentLength(compressed.length);
+						weakenETag(headers);
+						if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING))
+							headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+						
+						return super.writeWith(Mono.just(this.bufferFactory().wrap(compressed)));
+					});
+		}
+		
+		@Override
+		public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return this.writeWith(Flux.from(body).flatMapSequential(publisher -> publisher));
+		}
+		
+	}
+	
+	
+	
+}
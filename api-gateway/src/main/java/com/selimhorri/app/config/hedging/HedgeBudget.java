@@ -0,0 +1,45 @@
+package com.selimhorri.app.config.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway-wide token bucket capping hedges to a share of primary traffic. Every
+ * primary request deposits {@code budgetPercent / 100} of a token and every
+ * hedge withdraws a whole one, so under sustained load hedges never exceed the
+ * configured percentage no matter how slow upstreams get.
+ */
+public class HedgeBudget {
+	
+	private static final long TOKEN = 1000;
+	
+	private final long depositPerRequest;
+	private final long maxBalance;
+	private final AtomicLong balance;
+	
+	public HedgeBudget(final int budgetPercent, final int maxTokens) {
+		this.depositPerRequest = TOKEN * budgetPercent / 100;
+		this.maxBalance = TOKEN * maxTokens;
+		this.balance = new AtomicLong(0);
+	}
+	
+	public void deposit() {
+		this.balance.accumulateAndGet(this.depositPerRequest, (current, delta) -> Math.min(this.maxBalance, current + delta));
+	}
+	
+	public boolean tryWithdraw() {
+		while (true) {
+			final long current = this.balance.get();
+			if (current < TOKEN)
+				return false;
+			if (this.balance.compareAndSet(current, current - TOKEN))
+				return true;
+		}
+	}
+	
+	public double getAvailableTokens() {
+		return (double) this.balance.get() / TOKEN;
+	}
+	
+	
+	
+}
@@ -0,0 +1,40 @@
+package com.selimhorri.app.config.hedging;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Global settings for hedged reads. Routes opt in individually through the
+ * {@value #ROUTE_METADATA_KEY} route metadata flag.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.gateway.hedging")
+public class HedgingProperties {
+	
+	public static final String ROUTE_METADATA_KEY = "hedging";
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Latency percentile of the route after which a hedge is sent.
+	 */
+	private double percentile = 0.95;
+	private Duration minDelay = Duration.ofMillis(20);
+	private Duration maxDelay = Duration.ofMillis(500);
+	
+	/**
+	 * Extra upstream load allowed for hedges, as a percentage of primary traffic.
+	 */
+	private int budgetPercent = 10;
+	
+	/**
+	 * Hedges that can be spent in a burst before the budget has to refill.
+	 */
+	private int budgetMaxTokens = 100;
+	
+}
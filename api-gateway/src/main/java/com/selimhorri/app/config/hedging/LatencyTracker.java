@@ -0,0 +1,58 @@
+package com.selimhorri.app.config.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the last observed latencies of one route, with the
+ * requested percentile cached and refreshed every {@value #REFRESH_EVERY}
+ * samples so reading it on the hot path is a volatile read.
+ */
+public class LatencyTracker {
+	
+	private static final int WINDOW_SIZE = 1024;
+	private static final int REFRESH_EVERY = 64;
+	private static final int MIN_SAMPLES = 32;
+	
+	private final double percentile;
+	private final long[] samples = new long[WINDOW_SIZE];
+	private int next;
+	private long count;
+	private volatile long percentileNanos = -1;
+	
+	public LatencyTracker(final double percentile) {
+		this.percentile = percentile;
+	}
+	
+	public void record(final long latencyNanos) {
+		long[] snapshot = null;
+		synchronized (this.samples) {
+			this.samples[this.next] = latencyNanos;
+			this.next = (this.next + 1) % WINDOW_SIZE;
+			this.count++;
+			if (this.count >= MIN_SAMPLES && this.count % REFRESH_EVERY == 0)
+				snapshot = Arrays.copyOf(this.samples, (int) Math.min(this.count, WINDOW_SIZE));
+		}
+		if (snapshot != null) {
+			Arrays.sort(snapshot);
+			final int index = (int) Math.min(snapshot.length - 1, Math.ceil(this.percentile * snapshot.length) - 1);
+			this.percentileNanos = snapshot[Math.max(0, index)];
+		}
+	}
+	
+	public long getCount() {
+		synchronized (this.samples) {
+			return this.count;
+		}
+	}
+	
+	/**
+	 * @return the cached percentile in nanoseconds, or -1 while there are not
+	 *         enough samples yet
+	 */
+	public long getPercentileNanos() {
+		return this.percentileNanos;
+	}
+	
+	
+	
+}
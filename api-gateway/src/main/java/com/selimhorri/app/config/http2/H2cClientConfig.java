@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.http2;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Switches the upstream clients of the gateway to HTTP/2 cleartext with prior
+ * knowledge, so concurrent requests to one instance share a single connection.
+ * Only active with the {@code h2c} profile, which also enables h2c on every
+ * downstream server: a prior-knowledge client cannot talk to an HTTP/1.1-only
+ * Tomcat.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.http2", name = "h2c", havingValue = "true")
+public class H2cClientConfig {
+
+	/**
+	 * Client used by the routing filter for every proxied route. The hedging filter
+	 * builds on the same client, so nothing else in the gateway is switched to h2c.
+	 */
+	@Bean
+	public HttpClientCustomizer h2cGatewayHttpClientCustomizer() {
+		return httpClient -> httpClient.protocol(HttpProtocol.H2C);
+	}
+
+
+
+}
+
+
+
+
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.security;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Refuses to start the gateway with a blank token or identity secret, or with
+ * one of the well-known development values, unless the {@value #LOCAL_PROFILE}
+ * profile is active. Anyone knowing the identity secret can mint admin headers
+ * proxy-client trusts, so neither may fall back to a default. The dev profile
+ * is what compose and k8s run, so it does not count.
+ */
+@Component
+@RequiredArgsConstructor
+public class EdgeSecretsValidator implements InitializingBean {
+	
+	public static final String LOCAL_PROFILE = "local";
+	
+	static final String DEV_JWT_SECRET = "secret";
+	static final String DEV_IDENTITY_SECRET = "dev-internal-identity-secret";
+	
+	private final EdgeSecurityProperties properties;
+	private final Environment environment;
+	
+	@Override
+	public void afterPropertiesSet() {
+		if (!this.properties.isEnabled())
+			return;
+		final boolean local = this.environment.acceptsProfiles(Profiles.of(LOCAL_PROFILE));
+		check("app.gateway.security.jwt-secret", this.properties.getJwtSecret(), DEV_JWT_SECRET, local);
+		check("app.gateway.security.identity-secret", this.properties.getIdentitySecret(), DEV_IDENTITY_SECRET, local);
+	}
+	
+	static void check(final String property, final String value, final String devValue, final boolean local) {
+		if (value == null || value.isBlank())
+			throw new IllegalStateException(property + " must be set");
+		if (value.equals(devValue) && !local)
+			throw new IllegalStateException(property + " is the development value; set a real secret or run with the "
+					+ LOCAL_PROFILE + " profile");
+	}
+	
+	
+	
+}
@@ -0,0 +1,44 @@
+package com.selimhorri.app.config.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.gateway.security")
+public class EdgeSecurityProperties {
+	
+	private boolean enabled = true;
+	
+	/**
+	 * When false, requests without a token are still let through (without
+	 * identity headers); a present but invalid token is always rejected.
+	 */
+	private boolean requireAuthentication = true;
+	
+	/**
+	 * Signing key of the tokens issued by proxy-client; required, see
+	 * {@link EdgeSecretsValidator}.
+	 */
+	private String jwtSecret;
+	
+	/**
+	 * Shared with downstream services to sign the forwarded identity headers;
+	 * required, see {@link EdgeSecretsValidator}.
+	 */
+	private String identitySecret;
+	
+	private int tokenCacheMaxEntries = 10_000;
+	
+	/**
+	 * Entries of the form "METHOD /path/pattern" (or just "/path/pattern" for any
+	 * method) reachable without a token.
+	 */
+	private List<String> publicPaths = new ArrayList<>();
+	
+}
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Internal headers carrying the identity verified at the edge. The signature
+ * is an HMAC-SHA256 over the other four values, including the second they were
+ * issued at, so a service that receives them can trust them without repeating
+ * any token or credential work, and a captured set stops verifying once it is
+ * older than the receiver's window. proxy-client is the service that verifies
+ * them; the domain services behind the direct routes receive but ignore them.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class IdentityHeaders {
+	
+	public static final String USER_ID = "X-User-Id";
+	public static final String USERNAME = "X-User-Name";
+	public static final String ROLES = "X-User-Roles";
+	public static final String ISSUED_AT = "X-User-Issued-At";
+	public static final String SIGNATURE = "X-User-Signature";
+	
+	public static final List<String> ALL = List.of(USER_ID, USERNAME, ROLES, ISSUED_AT, SIGNATURE);
+	
+	public static String sign(final String secret, final String userId, final String username, final String roles,
+			final long issuedAtEpochSecond) {
+		try {
+			final var mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+			final String payload = userId + "\n" + username + "\n" + roles + "\n" + issuedAtEpochSecond;
+			return Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException | InvalidKeyException e) {
+			throw new IllegalStateException("Unable to sign identity headers", e);
+		}
+	}
+	
+}
@@ -0,0 +1,63 @@
+package com.selimhorri.app.config.security;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Verifies the HS256 tokens issued by proxy-client and caches the result until
+ * the token expires, so a client reusing its token costs one map lookup per
+ * request instead of a signature check.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtVerifier {
+	
+	private final EdgeSecurityProperties properties;
+	private final VerifiedTokenCache verifiedTokenCache;
+	
+	/**
+	 * @throws JwtException if the token is malformed, badly signed or expired
+	 */
+	public VerifiedIdentity verify(final String token) {
+		
+		final var now = Instant.now();
+		final var cached = this.verifiedTokenCache.get(token, now);
+		if (cached != null)
+			return cached;
+		
+		final Claims claims = Jwts.parser()
+				.setSigningKey(this.properties.getJwtSecret())
+				.parseClaimsJws(token)
+				.getBody();
+		
+		final var identity = new VerifiedIdentity(
+				claims.get("userId", String.class),
+				claims.getSubject(),
+				extractRoles(claims),
+				claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+		this.verifiedTokenCache.put(token, identity);
+		return identity;
+	}
+	
+	private static List<String> extractRoles(final Map<String, Object> claims) {
+		final Object roles = claims.get("roles");
+		if (!(roles instanceof Collection))
+			return List.of();
+		return ((Collection<?>) roles).stream()
+				.map(String::valueOf)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	
+	
+}
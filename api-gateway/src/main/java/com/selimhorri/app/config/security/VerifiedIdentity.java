@@ -0,0 +1,22 @@
+package com.selimhorri.app.config.security;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public final class VerifiedIdentity {
+	
+	private final String userId;
+	private final String username;
+	private final List<String> roles;
+	private final Instant expiresAt;
+	
+	public boolean isExpired(final Instant now) {
+		return this.expiresAt != null && !now.isBefore(this.expiresAt);
+	}
+	
+}
@@ -0,0 +1,64 @@
+package com.selimhorri.app.config.security;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Size-bounded LRU of already verified tokens. Entries are only returned
+ * while the token itself is unexpired.
+ */
+@Component
+public class VerifiedTokenCache {
+	
+	private final Map<String, VerifiedIdentity> entries;
+	
+	public VerifiedTokenCache(final EdgeSecurityProperties properties, final MeterRegistry meterRegistry) {
+		final int maxEntries = properties.getTokenCacheMaxEntries();
+		this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, VerifiedIdentity> eldest) {
+				return this.size() > maxEntries;
+			}
+			
+		};
+		Gauge.builder("gateway.security.token.cache.size", this, VerifiedTokenCache::size)
+				.register(meterRegistry);
+	}
+	
+	public VerifiedIdentity get(final String token, final Instant now) {
+		synchronized (this.entries) {
+			final var identity = this.entries.get(token);
+			if (identity == null)
+				return null;
+			if (identity.isExpired(now)) {
+				this.entries.remove(token);
+				return null;
+			}
+			return identity;
+		}
+	}
+	
+	public void put(final String token, final VerifiedIdentity identity) {
+		synchronized (this.entries) {
+			this.entries.put(token, identity);
+		}
+	}
+	
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+	
+	
+	
+}
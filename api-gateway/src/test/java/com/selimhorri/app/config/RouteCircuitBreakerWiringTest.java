@@ -0,0 +1,102 @@
+package com.selimhorri.app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Checks application.yml itself: every load-balanced route goes through a
+ * CircuitBreaker filter, and the breaker it names is a declared resilience4j
+ * instance built on the shared default config. Each route has a breaker of
+ * its own, so one stack tripping does not open another.
+ */
+class RouteCircuitBreakerWiringTest {
+
+    private static final String INSTANCES_PREFIX = "resilience4j.circuitbreaker.instances.";
+
+    private StandardEnvironment environment;
+    private List<RouteDefinition> routes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
+        routes = Binder.get(environment)
+                .bind("spring.cloud.gateway.routes", Bindable.listOf(RouteDefinition.class))
+                .get();
+    }
+
+    private static String breakerName(final RouteDefinition route) {
+        return route.getFilters().stream()
+                .filter(filter -> "CircuitBreaker".equals(filter.getName()))
+                .map(FilterDefinition::getArgs)
+                .map(args -> args.get("name"))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Set<String> declaredInstances() {
+        return environment.getPropertySources().stream()
+                .filter(EnumerablePropertySource.class::isInstance)
+                .map(EnumerablePropertySource.class::cast)
+                .flatMap(source -> Stream.of(source.getPropertyNames()))
+                .filter(name -> name.startsWith(INSTANCES_PREFIX))
+                .map(name -> name.substring(INSTANCES_PREFIX.length(), name.indexOf('.', INSTANCES_PREFIX.length())))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void everyLoadBalancedRouteShouldHaveACircuitBreaker() {
+        assertFalse(routes.isEmpty());
+        for (final RouteDefinition route : routes) {
+            if ("lb".equals(route.getUri().getScheme()))
+                assertNotNull(breakerName(route), route.getId());
+        }
+    }
+
+    @Test
+    void everyBreakerShouldBeADeclaredInstanceOnTheDefaultConfig() {
+        for (final RouteDefinition route : routes) {
+            final String name = breakerName(route);
+            if (name != null)
+                assertEquals("default", environment.getProperty(INSTANCES_PREFIX + name + ".base-config"), route.getId());
+        }
+    }
+
+    @Test
+    void routesShouldNotShareABreaker() {
+        final List<String> names = routes.stream()
+                .map(RouteCircuitBreakerWiringTest::breakerName)
+                .filter(name -> name != null)
+                .collect(Collectors.toList());
+
+        assertEquals(names.size(), Set.copyOf(names).size(), names.toString());
+    }
+
+    @Test
+    void everyDeclaredInstanceShouldBeUsedByARoute() {
+        final Set<String> used = routes.stream()
+                .map(RouteCircuitBreakerWiringTest::breakerName)
+                .collect(Collectors.toSet());
+
+        for (final String instance : declaredInstances())
+            assertTrue(used.contains(instance), instance);
+    }
+
+}
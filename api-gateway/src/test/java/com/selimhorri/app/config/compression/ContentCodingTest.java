@@ -0,0 +1,47 @@
+package com.selimhorri.app.config.compression;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ContentCodingTest {
+
+    @Test
+    void negotiate_shouldPreferGzipOnTie() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate, br"));
+    }
+
+    @Test
+    void negotiate_shouldHonourQValues() {
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0, *"));
+        assertNull(ContentCoding.negotiate("gzip;q=0, deflate;q=0"));
+    }
+
+    @Test
+    void negotiate_shouldReturnNullWhenNothingSupported() {
+        assertNull(ContentCoding.negotiate(null));
+        assertNull(ContentCoding.negotiate(""));
+        assertNull(ContentCoding.negotiate("br, identity"));
+    }
+
+    @Test
+    void compress_shouldRoundTrip() throws IOException {
+        final byte[] body = "{\"collection\":[]}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        final byte[] gzip = ContentCoding.GZIP.compress(body);
+        final byte[] deflate = ContentCoding.DEFLATE.compress(body);
+
+        assertTrue(gzip.length < body.length);
+        assertTrue(deflate.length < body.length);
+        assertArrayEquals(body, new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes());
+        assertArrayEquals(body, new InflaterInputStream(new ByteArrayInputStream(deflate)).readAllBytes());
+    }
+}
@@ -0,0 +1,80 @@
+package com.selimhorri.app.config.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private ConcurrencyLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(100);
+    }
+
+    @Test
+    void tryAcquire_shouldRejectAboveLimit() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 10; i++)
+            assertTrue(limiter.tryAcquire());
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(10, limiter.getInflight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void release_shouldBackOffOnDrops() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void release_shouldGrowAimdLimitWhileSaturated() {
+        properties.setAlgorithm(LimitAlgorithm.AIMD);
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 10; i++)
+            limiter.tryAcquire();
+        for (int i = 0; i < 5; i++)
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void release_shouldShrinkGradientLimitWhenLatencyRises() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < limiter.getLimit(); j++)
+                limiter.tryAcquire();
+            final int inflight = limiter.getInflight();
+            for (int j = 0; j < inflight; j++)
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+        final int steadyLimit = limiter.getLimit();
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(200), false);
+        }
+
+        assertTrue(limiter.getLimit() < steadyLimit);
+    }
+}
@@ -0,0 +1,100 @@
+package com.selimhorri.app.config.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.selimhorri.app.config.concurrency.AdaptiveConcurrencyLimiter;
+import com.selimhorri.app.config.concurrency.ConcurrencyLimitProperties;
+import com.selimhorri.app.config.concurrency.ConcurrencyLimiterRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final String ROUTE_ID = "ORDER-SERVICE";
+
+    private ConcurrencyLimitProperties properties;
+    private ConcurrencyLimiterRegistry registry;
+    private ConcurrencyLimitFilter filter;
+    private AtomicInteger upstreamCalls;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(2);
+        registry = new ConcurrencyLimiterRegistry(properties, new SimpleMeterRegistry());
+        filter = new ConcurrencyLimitFilter(properties, registry);
+        upstreamCalls = new AtomicInteger();
+        chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange() {
+        final Route route = Route.async()
+                .id(ROUTE_ID)
+                .uri(URI.create("lb://ORDER-SERVICE"))
+                .predicate(exchange -> true)
+                .build();
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/order-service/api/orders"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    @Test
+    void filter_shouldAnswerServiceUnavailableAtTheLimitWithoutCallingUpstream() {
+        final AdaptiveConcurrencyLimiter limiter = registry.forRoute(ROUTE_ID);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        final MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals(0, upstreamCalls.get());
+        assertEquals(1, limiter.getRejected());
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void filter_shouldReleaseThePermitOnceTheUpstreamAnswers() {
+        final MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, registry.forRoute(ROUTE_ID).getInflight());
+    }
+
+    @Test
+    void filter_shouldLetEverythingThroughWhenDisabled() {
+        properties.setEnabled(false);
+        final AdaptiveConcurrencyLimiter limiter = registry.forRoute(ROUTE_ID);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        final MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+}
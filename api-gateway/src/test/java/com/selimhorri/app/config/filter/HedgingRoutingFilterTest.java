@@ -0,0 +1,215 @@
+package com.selimhorri.app.config.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.selimhorri.app.config.hedging.HedgingProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+class HedgingRoutingFilterTest {
+
+    private static final String ROUTE_ID = "product-service";
+    private static final GatewayFilterChain NOT_ROUTED =
+            exchange -> Mono.error(new AssertionError("a hedged route must not reach the routing filter"));
+
+    private final Map<String, Duration> delays = new ConcurrentHashMap<>();
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    private final List<String> calledHosts = new CopyOnWriteArrayList<>();
+    private final Set<String> cancelledHosts = ConcurrentHashMap.newKeySet();
+
+    private HedgingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DiscoveryClient discoveryClient;
+    private ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new HedgingProperties();
+        properties.setMinDelay(Duration.ofMillis(1));
+        properties.setMaxDelay(Duration.ofMillis(30));
+        meterRegistry = new SimpleMeterRegistry();
+
+        discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances("PRODUCT-SERVICE")).thenReturn(List.of(
+                new DefaultServiceInstance("1", "PRODUCT-SERVICE", "primary", 8500, false),
+                new DefaultServiceInstance("2", "PRODUCT-SERVICE", "hedge", 8500, false)));
+        headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable()).thenReturn(List.of());
+    }
+
+    private HedgingRoutingFilter filter() {
+        final WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+            final String host = request.url().getHost();
+            calledHosts.add(host);
+            if (failures.containsKey(host))
+                return Mono.error(failures.get(host));
+            return Mono.delay(delays.get(host))
+                    .map(tick -> ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                            .body(bodies.getOrDefault(host, host))
+                            .build())
+                    .doOnCancel(() -> cancelledHosts.add(host));
+        });
+        // the exchange function takes precedence over the connector built from the Netty client
+        return new HedgingRoutingFilter(properties, discoveryClient, headersFilters, meterRegistry, webClient,
+                HttpClient.create());
+    }
+
+    private static MockServerWebExchange exchange() {
+        final Route route = Route.async()
+                .id(ROUTE_ID)
+                .uri(URI.create("lb://PRODUCT-SERVICE"))
+                .predicate(exchange -> true)
+                .metadata(HedgingProperties.ROUTE_METADATA_KEY, true)
+                .build();
+        final var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/product-service/api/products"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://primary:8500/product-service/api/products"));
+        return exchange;
+    }
+
+    private static String send(final HedgingRoutingFilter filter) {
+        final var exchange = exchange();
+        filter.filter(exchange, NOT_ROUTED).block(Duration.ofSeconds(5));
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    private double counter(final String name) {
+        return meterRegistry.counter(name, "route", ROUTE_ID).count();
+    }
+
+    private double recordedSamples() {
+        return meterRegistry.get("gateway.hedge.latency.samples").tag("route", ROUTE_ID).functionCounter().count();
+    }
+
+    @Test
+    void filter_shouldReturnTheHedgeAndCancelASlowPrimary() {
+        properties.setBudgetPercent(100);
+        delays.put("primary", Duration.ofSeconds(2));
+        delays.put("hedge", Duration.ZERO);
+
+        assertEquals("hedge", send(filter()));
+
+        assertEquals(List.of("primary", "hedge"), calledHosts);
+        assertEquals(Set.of("primary"), cancelledHosts);
+        assertEquals(1.0, counter("gateway.hedge.sent"));
+        assertEquals(1.0, counter("gateway.hedge.wins"));
+        // the hedge that won and the primary it cancelled
+        assertEquals(2.0, recordedSamples());
+    }
+
+    @Test
+    void filter_shouldCancelTheHedgeWhenThePrimaryAnswersFirst() {
+        properties.setBudgetPercent(100);
+        delays.put("primary", Duration.ofMillis(100));
+        delays.put("hedge", Duration.ofSeconds(2));
+
+        assertEquals("primary", send(filter()));
+
+        assertEquals(Set.of("hedge"), cancelledHosts);
+        assertEquals(1.0, counter("gateway.hedge.sent"));
+        assertEquals(0.0, counter("gateway.hedge.wins"));
+        assertEquals(1.0, recordedSamples());
+    }
+
+    @Test
+    void filter_shouldNotHedgeAFastPrimary() {
+        properties.setBudgetPercent(100);
+        properties.setMaxDelay(Duration.ofMillis(500));
+        delays.put("primary", Duration.ZERO);
+
+        assertEquals("primary", send(filter()));
+
+        assertEquals(List.of("primary"), calledHosts);
+        assertEquals(0.0, counter("gateway.hedge.sent"));
+        assertEquals(1.0, recordedSamples());
+    }
+
+    @Test
+    void filter_shouldWaitForThePrimaryOnceTheBudgetIsSpent() {
+        // a tenth of a token per request: the first request cannot pay for a hedge
+        properties.setBudgetPercent(10);
+        delays.put("primary", Duration.ofMillis(150));
+        delays.put("hedge", Duration.ZERO);
+
+        assertEquals("primary", send(filter()));
+
+        assertEquals(List.of("primary"), calledHosts);
+        assertTrue(cancelledHosts.isEmpty());
+        assertEquals(0.0, counter("gateway.hedge.sent"));
+    }
+
+    @Test
+    void filter_shouldStreamABodyOverTheCodecBufferLimit() {
+        properties.setBudgetPercent(100);
+        delays.put("primary", Duration.ZERO);
+        // twice WebClient's default 256 KB in-memory limit
+        bodies.put("primary", "x".repeat(512 * 1024));
+
+        assertEquals(512 * 1024, send(filter()).length());
+    }
+
+    @Test
+    void filter_shouldFailWithBadGatewayWhenThePrimaryFailsAndNoHedgeIsSent() {
+        properties.setBudgetPercent(10);
+        failures.put("primary", new ConnectException("Connection refused"));
+
+        final var error = assertThrows(ResponseStatusException.class,
+                () -> filter().filter(exchange(), NOT_ROUTED).block(Duration.ofSeconds(5)));
+
+        assertEquals(HttpStatus.BAD_GATEWAY, error.getStatus());
+        assertEquals(List.of("primary"), calledHosts);
+    }
+
+    @Test
+    void filter_shouldFailWithGatewayTimeoutWhenThePrimaryTimesOutAndNoHedgeIsSent() {
+        properties.setBudgetPercent(10);
+        failures.put("primary", new TimeoutException("Response took longer than 1s"));
+
+        final var error = assertThrows(ResponseStatusException.class,
+                () -> filter().filter(exchange(), NOT_ROUTED).block(Duration.ofSeconds(5)));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, error.getStatus());
+    }
+
+    @Test
+    void getOrder_shouldRunAfterTheInstancePortRoutingFilter() {
+        assertTrue(new InstancePortRoutingFilter().getOrder() < filter().getOrder());
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.config.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+class InstancePortRoutingFilterTest {
+
+    private final InstancePortRoutingFilter filter = new InstancePortRoutingFilter();
+
+    private static MockServerWebExchange exchange(final Map<String, Object> routeMetadata,
+            final Map<String, String> instanceMetadata) {
+        final Route route = Route.async()
+                .id("PRODUCT-SERVICE-REACTIVE")
+                .uri(URI.create("lb://PRODUCT-SERVICE"))
+                .predicate(exchange -> true)
+                .metadata(routeMetadata)
+                .build();
+        final var exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/product-service-reactive/api/products/1"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(
+                new DefaultServiceInstance("1", "PRODUCT-SERVICE", "primary", 8500, false, instanceMetadata)));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://primary:8500/product-service/api/products/1?fields=sku"));
+        return exchange;
+    }
+
+    private URI routedUrl(final MockServerWebExchange exchange) {
+        final AtomicReference<URI> routed = new AtomicReference<>();
+        filter.filter(exchange, chained -> {
+            routed.set(chained.getAttribute(GATEWAY_REQUEST_URL_ATTR));
+            return Mono.empty();
+        }).block();
+        return routed.get();
+    }
+
+    @Test
+    void filter_shouldSwapInThePortFromTheInstanceMetadata() {
+        final URI url = routedUrl(exchange(Map.of(InstancePortRoutingFilter.ROUTE_METADATA_KEY, "reactive-port"),
+                Map.of("reactive-port", "8510")));
+
+        assertEquals(URI.create("http://primary:8510/product-service/api/products/1?fields=sku"), url);
+    }
+
+    @Test
+    void filter_shouldKeepTheMainPortOfAnInstanceWithoutTheMetadata() {
+        final URI url = routedUrl(exchange(Map.of(InstancePortRoutingFilter.ROUTE_METADATA_KEY, "reactive-port"),
+                Map.of()));
+
+        assertEquals(8500, url.getPort());
+    }
+
+    @Test
+    void filter_shouldIgnoreRoutesThatDoNotAskForIt() {
+        final URI url = routedUrl(exchange(Map.of(), Map.of("reactive-port", "8510")));
+
+        assertEquals(8500, url.getPort());
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.selimhorri.app.config.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.selimhorri.app.config.compression.CompressedBodyCache;
+import com.selimhorri.app.config.compression.CompressionProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ResponseCompressionFilterTest {
+
+    private static final byte[] LARGE_JSON =
+            "{\"productId\":1,\"productTitle\":\"asus\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL_JSON = "{\"productId\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private CompressionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompressionProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ResponseCompressionFilter(properties,
+                new CompressedBodyCache(properties, meterRegistry), meterRegistry);
+    }
+
+    private static GatewayFilterChain upstream(final MediaType contentType, final byte[] body) {
+        return exchange -> {
+            final var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(contentType);
+            response.getHeaders().setETag("\"v1\"");
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private MockServerWebExchange exchange(final String acceptEncoding) {
+        final var request = MockServerHttpRequest.get("/product-service/api/products");
+        if (acceptEncoding != null)
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return MockServerWebExchange.from(request);
+    }
+
+    private MockServerHttpResponse run(final MockServerWebExchange exchange, final MediaType contentType,
+            final byte[] body) {
+        this.filter.filter(exchange, upstream(contentType, body)).block();
+        return exchange.getResponse();
+    }
+
+    private static byte[] bodyOf(final MockServerHttpResponse response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    final byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block();
+    }
+
+    @Test
+    void filter_shouldGzipWhenTheClientAcceptsIt() throws IOException {
+        final var response = run(exchange("gzip, deflate"), MediaType.APPLICATION_JSON, LARGE_JSON);
+
+        final HttpHeaders headers = response.getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals("W/\"v1\"", headers.getETag());
+
+        final byte[] body = bodyOf(response);
+        assertEquals(body.length, headers.getContentLength());
+        assertTrue(body.length < LARGE_JSON.length);
+        assertArrayEquals(LARGE_JSON, new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes());
+    }
+
+    @Test
+    void filter_shouldDeflateWhenThatIsPreferred() throws IOException {
+        final var response = run(exchange("gzip;q=0.5, deflate"), MediaType.APPLICATION_JSON, LARGE_JSON);
+
+        assertEquals("deflate", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE_JSON,
+                new InflaterInputStream(new ByteArrayInputStream(bodyOf(response))).readAllBytes());
+    }
+
+    @Test
+    void filter_shouldPassThroughWithoutAcceptEncoding() {
+        final var response = run(exchange(null), MediaType.APPLICATION_JSON, LARGE_JSON);
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE_JSON, bodyOf(response));
+    }
+
+    @Test
+    void filter_shouldPassThroughBelowTheMinimumSize() {
+        final var response = run(exchange("gzip"), MediaType.APPLICATION_JSON, SMALL_JSON);
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertFalse(response.getHeaders().getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertArrayEquals(SMALL_JSON, bodyOf(response));
+    }
+
+    @Test
+    void filter_shouldCompressAtExactlyTheMinimumSize() {
+        properties.setMinResponseSize(LARGE_JSON.length);
+
+        final var atThreshold = run(exchange("gzip"), MediaType.APPLICATION_JSON, LARGE_JSON);
+        assertEquals("gzip", atThreshold.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        properties.setMinResponseSize(LARGE_JSON.length + 1);
+
+        final var belowThreshold = run(exchange("gzip"), MediaType.APPLICATION_JSON, LARGE_JSON);
+        assertNull(belowThreshold.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void filter_shouldSkipContentTypesThatAreNotConfigured() {
+        final var response = run(exchange("gzip"), MediaType.IMAGE_PNG, LARGE_JSON);
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE_JSON, bodyOf(response));
+    }
+
+    @Test
+    void filter_shouldServeARepeatedBodyFromTheCache() {
+        run(exchange("gzip"), MediaType.APPLICATION_JSON, LARGE_JSON);
+        final var second = run(exchange("gzip"), MediaType.APPLICATION_JSON, LARGE_JSON);
+
+        assertEquals("gzip", second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(1.0, meterRegistry.counter("gateway.compression.cache.requests",
+                "encoding", "gzip", "result", "hit").count());
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.hedging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HedgeBudgetTest {
+
+    @Test
+    void tryWithdraw_shouldCapHedgesToBudgetPercent() {
+        final HedgeBudget budget = new HedgeBudget(10, 100);
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit();
+            if (budget.tryWithdraw())
+                hedges++;
+        }
+
+        assertEquals(100, hedges);
+    }
+
+    @Test
+    void deposit_shouldNotExceedMaxTokens() {
+        final HedgeBudget budget = new HedgeBudget(50, 3);
+
+        for (int i = 0; i < 100; i++)
+            budget.deposit();
+
+        assertEquals(3.0, budget.getAvailableTokens());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+}
@@ -0,0 +1,54 @@
+package com.selimhorri.app.config.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class EdgeSecretsValidatorTest {
+
+    private static EdgeSecurityProperties properties(final String jwtSecret, final String identitySecret) {
+        final var properties = new EdgeSecurityProperties();
+        properties.setJwtSecret(jwtSecret);
+        properties.setIdentitySecret(identitySecret);
+        return properties;
+    }
+
+    private static MockEnvironment environment(final String... profiles) {
+        final var environment = new MockEnvironment();
+        environment.setActiveProfiles(profiles);
+        return environment;
+    }
+
+    @Test
+    void afterPropertiesSet_shouldRefuseAMissingIdentitySecret() {
+        final var validator = new EdgeSecretsValidator(properties("a-real-jwt-secret", null), environment("dev"));
+
+        assertThrows(IllegalStateException.class, validator::afterPropertiesSet);
+    }
+
+    @Test
+    void afterPropertiesSet_shouldRefuseTheDevSecretsUnderTheDevProfile() {
+        final var validator = new EdgeSecretsValidator(properties(EdgeSecretsValidator.DEV_JWT_SECRET,
+                EdgeSecretsValidator.DEV_IDENTITY_SECRET), environment("dev"));
+
+        assertThrows(IllegalStateException.class, validator::afterPropertiesSet);
+    }
+
+    @Test
+    void afterPropertiesSet_shouldAcceptTheDevSecretsUnderTheLocalProfile() {
+        final var validator = new EdgeSecretsValidator(properties(EdgeSecretsValidator.DEV_JWT_SECRET,
+                EdgeSecretsValidator.DEV_IDENTITY_SECRET), environment("dev", EdgeSecretsValidator.LOCAL_PROFILE));
+
+        assertDoesNotThrow(validator::afterPropertiesSet);
+    }
+
+    @Test
+    void afterPropertiesSet_shouldSkipTheCheckWhenEdgeSecurityIsDisabled() {
+        final var properties = properties(null, null);
+        properties.setEnabled(false);
+
+        assertDoesNotThrow(new EdgeSecretsValidator(properties, environment())::afterPropertiesSet);
+    }
+
+}
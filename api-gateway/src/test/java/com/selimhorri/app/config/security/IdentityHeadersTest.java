@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class IdentityHeadersTest {
+
+    @Test
+    void sign_shouldBeStableForTheSameIdentityAndSecond() {
+        assertEquals(IdentityHeaders.sign("secret", "7", "selimhorri", "ROLE_USER", 1_700_000_000L),
+                IdentityHeaders.sign("secret", "7", "selimhorri", "ROLE_USER", 1_700_000_000L));
+    }
+
+    @Test
+    void sign_shouldCoverTheIssuedAtSecond() {
+        assertNotEquals(IdentityHeaders.sign("secret", "7", "selimhorri", "ROLE_USER", 1_700_000_000L),
+                IdentityHeaders.sign("secret", "7", "selimhorri", "ROLE_USER", 1_700_000_001L));
+    }
+
+    @Test
+    void sign_shouldCoverEveryIdentityField() {
+        final String signature = IdentityHeaders.sign("secret", "7", "selimhorri", "ROLE_USER", 1_700_000_000L);
+
+        assertNotEquals(signature, IdentityHeaders.sign("secret", "8", "selimhorri", "ROLE_USER", 1_700_000_000L));
+        assertNotEquals(signature, IdentityHeaders.sign("secret", "7", "other", "ROLE_USER", 1_700_000_000L));
+        assertNotEquals(signature, IdentityHeaders.sign("secret", "7", "selimhorri", "ROLE_ADMIN", 1_700_000_000L));
+        assertNotEquals(signature, IdentityHeaders.sign("other", "7", "selimhorri", "ROLE_USER", 1_700_000_000L));
+    }
+
+    @Test
+    void all_shouldIncludeTheIssuedAtHeaderSoClientsCannotSendIt() {
+        assertTrue(IdentityHeaders.ALL.contains(IdentityHeaders.ISSUED_AT));
+    }
+
+}
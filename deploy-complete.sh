@@ -91,6 +91,19 @@ deploy_microservices() {
     # Deploy to Kubernetes
     print_status "Deploying to Kubernetes..."
     kubectl apply -f k8s/namespace.yaml
+    
+    # Shared by the api-gateway, proxy-client and the order, payment and shipping
+    # services; generated once per cluster, never committed
+    print_status "Creating internal secrets..."
+    kubectl get secret internal-secrets -n ecommerce-microservices >/dev/null 2>&1 || \
+        kubectl create secret generic internal-secrets -n ecommerce-microservices \
+            --from-literal=jwt-secret="$(openssl rand -hex 32)" \
+            --from-literal=identity-secret="$(openssl rand -hex 32)" \
+            --from-literal=order-view-notification-token="$(openssl rand -hex 32)"
+    # Secrets created before the order view token existed
+    [ -n "$(kubectl get secret internal-secrets -n ecommerce-microservices -o jsonpath='{.data.order-view-notification-token}')" ] || \
+        kubectl patch secret internal-secrets -n ecommerce-microservices \
+            -p "{\"stringData\":{\"order-view-notification-token\":\"$(openssl rand -hex 32)\"}}"
     kubectl apply -f k8s/zipkin-deployment.yaml
     kubectl apply -f k8s/service-discovery-deployment.yaml
     kubectl apply -f k8s/cloud-config-deployment.yaml
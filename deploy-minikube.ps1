@@ -53,6 +53,26 @@ Write-Host ""
 # 4. Crear namespace
 Write-Host "[4/7] Creando namespace..." -ForegroundColor Yellow
 kubectl apply -f k8s/namespace.yaml
+# Compartidos por api-gateway, proxy-client y los servicios de órdenes, pagos y envíos;
+# se generan una vez por cluster y nunca se versionan
+function New-Secret { -join ([System.Security.Cryptography.RandomNumberGenerator]::GetBytes(32) | ForEach-Object { $_.ToString("x2") }) }
+kubectl get secret internal-secrets -n ecommerce-microservices 2>&1 | Out-Null
+if ($LASTEXITCODE -ne 0) {
+    kubectl create secret generic internal-secrets -n ecommerce-microservices `
+        --from-literal=jwt-secret="$(New-Secret)" `
+        --from-literal=identity-secret="$(New-Secret)" `
+        --from-literal=order-view-notification-token="$(New-Secret)"
+}
+# Secretos creados antes de que existiera el token de la vista de órdenes
+$orderViewToken = kubectl get secret internal-secrets -n ecommerce-microservices -o jsonpath="{.data.order-view-notification-token}"
+if (-not $orderViewToken) {
+    $patch = @{ stringData = @{ "order-view-notification-token" = (New-Secret) } } | ConvertTo-Json -Compress
+    # Por archivo: Windows PowerShell quita las comillas del JSON al pasarlo como argumento
+    $patchFile = New-TemporaryFile
+    Set-Content -Path $patchFile -Value $patch
+    kubectl patch secret internal-secrets -n ecommerce-microservices --patch-file $patchFile
+    Remove-Item $patchFile
+}
 Write-Host "✅ Namespace creado/actualizado" -ForegroundColor Green
 Write-Host ""
 
@@ -1,5 +1,6 @@
 package com.selimhorri.app.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,8 @@ import com.selimhorri.app.domain.id.FavouriteId;
 public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId> {
     Optional<Favourite> findByUserIdAndProductId(Integer userId, Integer productId);
 
+    List<Favourite> findAllByUserId(Integer userId);
+
     void deleteByUserIdAndProductId(Integer userId, Integer productId);
 
     boolean existsByUserIdAndProductId(Integer userId, Integer productId);
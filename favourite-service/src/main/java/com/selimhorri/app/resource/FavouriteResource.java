@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.domain.id.FavouriteId;
@@ -36,6 +37,13 @@ public class FavouriteResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findAll()));
 	}
 	
+	// Obtiene los favoritos de un usuario
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAllByUserId(@RequestParam("userId") final Integer userId) {
+		log.info("Obteniendo favoritos del usuario {}", userId);
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findAllByUserId(userId)));
+	}
+	
 	// Obtiene un favorito específico por ID de usuario e ID de producto
 	@GetMapping("/{userId}/{productId}")
 	public ResponseEntity<FavouriteDto> findById(
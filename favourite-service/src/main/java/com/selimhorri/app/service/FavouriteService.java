@@ -9,6 +9,7 @@ public interface FavouriteService {
 	
 	List<FavouriteDto> findAll();
 	FavouriteDto findById(final FavouriteId favouriteId);
+	List<FavouriteDto> findAllByUserId(final Integer userId);
 	FavouriteDto save(final FavouriteDto favouriteDto);
 	void deleteById(final FavouriteId favouriteId);
 	
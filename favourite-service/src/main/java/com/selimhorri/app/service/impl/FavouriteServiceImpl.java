@@ -1,11 +1,18 @@
 package com.selimhorri.app.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
@@ -16,6 +23,7 @@ import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
@@ -34,6 +42,13 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class FavouriteServiceImpl implements FavouriteService {
 
+	// IDs por llamada de lote, para no superar el tamaño de URL del gateway
+	private static final int BATCH_SIZE = 100;
+	private static final ParameterizedTypeReference<DtoCollectionResponse<UserDto>> USERS =
+			new ParameterizedTypeReference<>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCTS =
+			new ParameterizedTypeReference<>() {};
+
 	private final FavouriteRepository favouriteRepository;
 	private final RestTemplate restTemplate;
 
@@ -68,15 +83,45 @@ public class FavouriteServiceImpl implements FavouriteService {
 	public List<FavouriteDto> findAll() {
 		log.info("Obteniendo lista completa de favoritos");
 		
-		return this.favouriteRepository.findAll()
+		final List<FavouriteDto> favourites = this.favouriteRepository.findAll()
 				.stream()
 				.map(FavouriteMappingHelper::map)
-				.map(this::enrichFavouriteWithExternalData)
+				.collect(Collectors.toUnmodifiableList());
+
+		// Una llamada por lote de usuarios y otra por lote de productos, no dos por favorito
+		final Map<Integer, UserDto> users = this.fetchUsers(favourites.stream()
+				.map(FavouriteDto::getUserId)
+				.collect(Collectors.toSet()));
+		final Map<Integer, ProductDto> products = this.fetchProducts(favourites.stream()
+				.map(FavouriteDto::getProductId)
+				.collect(Collectors.toSet()));
+
+		return favourites.stream()
+				.map(f -> this.enrichFavouriteWithExternalData(f, users, products))
 				.filter(Objects::nonNull)
 				.distinct()
 				.collect(Collectors.toUnmodifiableList());
 	}
 
+	// Favoritos de un usuario: usa el prefijo user_id de la clave primaria y solo
+	// enriquece con el producto, porque quien consulta ya conoce al usuario
+	@Override
+	public List<FavouriteDto> findAllByUserId(final Integer userId) {
+		log.info("Obteniendo favoritos del usuario {}", userId);
+		
+		final List<FavouriteDto> favourites = this.favouriteRepository.findAllByUserId(userId)
+				.stream()
+				.map(FavouriteMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+		final Map<Integer, ProductDto> products = this.fetchProducts(favourites.stream()
+				.map(FavouriteDto::getProductId)
+				.collect(Collectors.toSet()));
+
+		// Si el producto no llega se devuelve el favorito sin enriquecer
+		favourites.forEach(f -> f.setProductDto(products.get(f.getProductId())));
+		return favourites;
+	}
+
 	// ============================================================================
 	// CREACIÓN - Método para guardar favoritos
 	// ============================================================================
@@ -152,29 +197,53 @@ public class FavouriteServiceImpl implements FavouriteService {
 		}
 	}
 
-	// Enriquece un favorito con datos externos (usuario y producto)
-	private FavouriteDto enrichFavouriteWithExternalData(FavouriteDto f) {
-		try {
-			UserDto userDto = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + f.getUserId(),
-					UserDto.class);
-			ProductDto productDto = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(),
-					ProductDto.class);
+	// Enriquece un favorito con usuario y producto ya obtenidos; si falta alguno se excluye
+	private FavouriteDto enrichFavouriteWithExternalData(final FavouriteDto f, final Map<Integer, UserDto> users,
+			final Map<Integer, ProductDto> products) {
+		final UserDto userDto = users.get(f.getUserId());
+		final ProductDto productDto = products.get(f.getProductId());
+		if (userDto == null || productDto == null) {
+			log.warn("Usuario {} o producto {} no encontrado, excluyendo favorito", f.getUserId(), f.getProductId());
+			return null;
+		}
+		f.setUserDto(userDto);
+		f.setProductDto(productDto);
+		return f;
+	}
 
-			if (userDto == null || productDto == null) {
-				log.warn("Usuario {} o producto {} no encontrado, excluyendo favorito", f.getUserId(), f.getProductId());
-				return null;
-			}
+	// Usuarios desde user-service en lotes: GET /api/users?userIds=1,2,3
+	private Map<Integer, UserDto> fetchUsers(final Collection<Integer> userIds) {
+		return this.fetchAllByIds(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "?userIds=",
+				userIds, USERS, UserDto::getUserId);
+	}
 
-			f.setUserDto(userDto);
-			f.setProductDto(productDto);
-			return f;
-		} catch (Exception e) {
-			log.warn("Error enriqueciendo favorito (usuario: {}, producto: {}): {}", 
-					f.getUserId(), f.getProductId(), e.getMessage());
-			return null;
+	// Productos desde product-service en lotes: GET /api/products?productIds=1,2,3
+	private Map<Integer, ProductDto> fetchProducts(final Collection<Integer> productIds) {
+		return this.fetchAllByIds(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "?productIds=",
+				productIds, PRODUCTS, ProductDto::getProductId);
+	}
+
+	// Un lote fallido solo deja sin enriquecer sus propios IDs
+	private <T> Map<Integer, T> fetchAllByIds(final String apiUrl, final Collection<Integer> ids,
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> type, final Function<T, Integer> idOf) {
+		final List<Integer> pending = new ArrayList<>(ids);
+		final Map<Integer, T> found = new HashMap<>();
+		for (int from = 0; from < pending.size(); from += BATCH_SIZE) {
+			final String batch = pending.subList(from, Math.min(from + BATCH_SIZE, pending.size()))
+					.stream()
+					.map(String::valueOf)
+					.collect(Collectors.joining(","));
+			try {
+				final DtoCollectionResponse<T> response = this.restTemplate
+						.exchange(apiUrl + batch, HttpMethod.GET, null, type)
+						.getBody();
+				if (response != null && response.getCollection() != null)
+					response.getCollection().forEach(item -> found.put(idOf.apply(item), item));
+			} catch (RestClientException e) {
+				log.warn("Error obteniendo el lote {}{}: {}", apiUrl, batch, e.getMessage());
+			}
 		}
+		return found;
 	}
 
 	// Valida que el usuario existe
@@ -0,0 +1,137 @@
+package com.selimhorri.app.config.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.service.FavouriteService;
+
+/**
+ * Transporte interno HTTP/1.1 frente a h2c (perfil h2c) con el mismo
+ * servidor Tomcat: CALLERS llamadas concurrentes a una sola instancia, como
+ * el fan-out de un servicio hacia otro. El servicio responde tras
+ * SERVICE_DELAY_MS para que las peticiones se solapen de verdad. No corre
+ * en el build normal:
+ * mvn test -Dbenchmark=true -Dtest=H2cTransportBenchmarkTest
+ *
+ * Imprime p50/p99, tiempo total y el máximo de conexiones TCP abiertas en
+ * el conector. Con HTTP/1.1 cada llamada en vuelo ocupa una conexión; con
+ * h2c se multiplexan sobre la conexión del pool de OkHttp.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.http2.enabled=true",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+class H2cTransportBenchmarkTest {
+
+    private static final int CALLERS = 64;
+    private static final int CALLS_PER_CALLER = 50;
+    private static final int ROUNDS = 3;
+    private static final long SERVICE_DELAY_MS = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @MockBean
+    private FavouriteService favouriteService;
+
+    @BeforeEach
+    void setUp() {
+        when(favouriteService.findAll()).thenAnswer(invocation -> {
+            Thread.sleep(SERVICE_DELAY_MS);
+            return Collections.emptyList();
+        });
+    }
+
+    @Test
+    void http11VersusH2c() throws Exception {
+        final RestTemplate http11 = new RestTemplate();
+        final RestTemplate h2c = new RestTemplate(new OkHttp3ClientHttpRequestFactory(ClientConfig.h2cClient()));
+        // Calienta ambos clientes y el servidor antes de medir
+        run(http11, 200);
+        run(h2c, 200);
+        for (int round = 0; round < ROUNDS; round++) {
+            measure("http/1.1", http11);
+            measure("h2c", h2c);
+        }
+    }
+
+    private void measure(String transport, RestTemplate restTemplate) throws Exception {
+        final AbstractProtocol<?> protocol = (AbstractProtocol<?>) ((TomcatWebServer) context.getWebServer())
+                .getTomcat().getConnector().getProtocolHandler();
+        final AtomicLong maxConnections = new AtomicLong();
+        final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> maxConnections.accumulateAndGet(protocol.getConnectionCount(), Math::max),
+                0, 1, TimeUnit.MILLISECONDS);
+
+        final long start = System.nanoTime();
+        final List<Long> latencies = run(restTemplate, CALLS_PER_CALLER);
+        final long elapsed = System.nanoTime() - start;
+        sampler.shutdownNow();
+
+        Collections.sort(latencies);
+        System.out.printf("%-8s %d calls  %6d ms  p50 %6.2f ms  p99 %6.2f ms  tcp connections %4d%n",
+                transport, latencies.size(), elapsed / 1_000_000,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), maxConnections.get());
+        assertEquals(CALLERS * CALLS_PER_CALLER, latencies.size(), transport);
+    }
+
+    // Latencia en nanosegundos de cada llamada que respondió 200
+    private List<Long> run(RestTemplate restTemplate, int callsPerCaller) throws Exception {
+        final String url = "http://localhost:" + port + "/favourite-service/api/favourites";
+        final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++)
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int call = 0; call < callsPerCaller; call++) {
+                        final long start = System.nanoTime();
+                        if (restTemplate.getForEntity(url, String.class).getStatusCode().is2xxSuccessful())
+                            latencies.add(System.nanoTime() - start);
+                    }
+                }, callers));
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        }
+        finally {
+            callers.shutdownNow();
+        }
+        return latencies;
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        final int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+}
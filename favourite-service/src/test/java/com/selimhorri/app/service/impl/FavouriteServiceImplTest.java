@@ -11,11 +11,15 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
@@ -24,6 +28,7 @@ import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.DuplicateEntityException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
@@ -84,16 +89,24 @@ class FavouriteServiceImplTest {
                 .build();
     }
 
+    private void givenUsers(final String ids, final UserDto... users) {
+        when(restTemplate.exchange(eq(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "?userIds=" + ids),
+                eq(HttpMethod.GET), isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<UserDto>>>any()))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(users))));
+    }
+
+    private void givenProducts(final String ids, final ProductDto... products) {
+        when(restTemplate.exchange(eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "?productIds=" + ids),
+                eq(HttpMethod.GET), isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(products))));
+    }
+
     @Test
     void findAll_ShouldReturnListOfFavourites() {
         // Arrange
         when(favouriteRepository.findAll()).thenReturn(Collections.singletonList(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/7", UserDto.class))
-                .thenReturn(userDto);
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/22", ProductDto.class))
-                .thenReturn(productDto);
+        givenUsers("7", userDto);
+        givenProducts("22", productDto);
 
         // Act
         List<FavouriteDto> result = favouriteService.findAll();
@@ -103,21 +116,43 @@ class FavouriteServiceImplTest {
         assertEquals(1, result.size());
         assertEquals(favouriteDto.getUserId(), result.get(0).getUserId());
         assertEquals(favouriteDto.getProductId(), result.get(0).getProductId());
+        assertEquals(userDto, result.get(0).getUserDto());
+        assertEquals(productDto, result.get(0).getProductDto());
         
         verify(favouriteRepository, times(1)).findAll();
-        verify(restTemplate, times(1)).getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/7", UserDto.class);
-        verify(restTemplate, times(1)).getForObject(
-                AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/22", ProductDto.class);
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void findAll_ShouldFetchEachUserAndProductOnceForManyFavourites() {
+        // Arrange: dos favoritos del mismo usuario y dos del mismo producto
+        Favourite sameUser = new Favourite();
+        sameUser.setUserId(7);
+        sameUser.setProductId(23);
+        sameUser.setLikeDate(favourite.getLikeDate());
+        Favourite sameProduct = new Favourite();
+        sameProduct.setUserId(8);
+        sameProduct.setProductId(22);
+        sameProduct.setLikeDate(favourite.getLikeDate());
+        when(favouriteRepository.findAll()).thenReturn(List.of(favourite, sameUser, sameProduct));
+        givenUsers("7,8", userDto, UserDto.builder().userId(8).build());
+        givenProducts("22,23", productDto, ProductDto.builder().productId(23).build());
+
+        // Act
+        List<FavouriteDto> result = favouriteService.findAll();
+
+        // Assert: una llamada de lote por servicio
+        assertEquals(3, result.size());
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                ArgumentMatchers.<ParameterizedTypeReference<Object>>any());
     }
 
     @Test
     void findAll_ShouldFilterNullResults() {
         // Arrange
         when(favouriteRepository.findAll()).thenReturn(Collections.singletonList(favourite));
-        when(restTemplate.getForObject(
-                AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/7", UserDto.class))
-                .thenReturn(null); // Simulate user not found
+        givenUsers("7"); // Simulate user not found
+        givenProducts("22", productDto);
 
         // Act
         List<FavouriteDto> result = favouriteService.findAll();
@@ -127,6 +162,37 @@ class FavouriteServiceImplTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void findAll_ShouldExcludeFavouritesWhenABatchFails() {
+        // Arrange
+        when(favouriteRepository.findAll()).thenReturn(Collections.singletonList(favourite));
+        givenUsers("7", userDto);
+        when(restTemplate.exchange(eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "?productIds=22"),
+                eq(HttpMethod.GET), isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .thenThrow(new ResourceAccessException("product-service caído"));
+
+        // Act & Assert
+        assertTrue(favouriteService.findAll().isEmpty());
+    }
+
+    @Test
+    void findAllByUserId_ShouldEnrichOnlyWithProduct() {
+        // Arrange
+        when(favouriteRepository.findAllByUserId(7)).thenReturn(Collections.singletonList(favourite));
+        givenProducts("22", productDto);
+
+        // Act
+        List<FavouriteDto> result = favouriteService.findAllByUserId(7);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(productDto, result.get(0).getProductDto());
+        assertNull(result.get(0).getUserDto());
+        verify(favouriteRepository, never()).findAll();
+        verify(restTemplate, never()).exchange(startsWith(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL),
+                any(HttpMethod.class), any(), ArgumentMatchers.<ParameterizedTypeReference<Object>>any());
+    }
+
     @Test
     void findById_ShouldReturnFavourite() {
         // Arrange
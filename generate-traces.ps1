@@ -2,8 +2,9 @@ Write-Host ""
 Write-Host "Generando trazas a traves de PROXY-CLIENT..." -ForegroundColor Cyan
 Write-Host ""
 
-$authUrl = "http://localhost:8900/app/api/authenticate"
-$proxyUrl = "http://localhost:8900/app/api"
+# proxy-client no publica puerto: se llega a traves del api-gateway
+$authUrl = "http://localhost:8080/app/api/authenticate"
+$proxyUrl = "http://localhost:8080/app/api"
 
 # 1. Autenticar
 Write-Host "Autenticando con usuario Miguel..." -ForegroundColor Yellow
@@ -0,0 +1,76 @@
+package com.selimhorri.app.config.cache;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hibernate second-level and query cache, kept in Caffeine through JCache.
+ * The entity and query results regions are sized in
+ * {@code app.hibernate-cache.regions}, where the cached entities of this
+ * service are listed, and a region missing there fails startup rather than
+ * growing unbounded. Bulk JPQL updates invalidate the regions of the entity
+ * they touch; plain JDBC writes do not.
+ *
+ * <p>Hit, miss and put counts per region are published as the
+ * {@code hibernate.second.level.cache.*} and {@code hibernate.cache.query.*}
+ * meters.</p>
+ *
+ * <p>The same class lives in user-, product- and order-service, which are
+ * built one by one; keep the three in step.</p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+	@Bean(destroyMethod = "close")
+	public CacheManager hibernateCacheManager(final HibernateCacheProperties hibernateCacheProperties) {
+		// A manager of its own: contexts sharing a JVM, as in tests, must not share regions
+		final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+				.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), this.getClass().getClassLoader());
+		hibernateCacheProperties.getRegions().forEach((name, region) -> {
+			final CaffeineConfiguration<Object, Object> configuration = configuration();
+			configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+			if (region.getExpireAfterWrite() != null)
+				configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+			cacheManager.createCache(name, configuration);
+		});
+		// One entry per table, each of which has to outlive every cached query result on it: never evicted
+		cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuration());
+		return cacheManager;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer hibernateSecondLevelCache(final CacheManager hibernateCacheManager) {
+		return hibernateProperties -> {
+			hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+			hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+			hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+			hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+			hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+			hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+		};
+	}
+
+	private static CaffeineConfiguration<Object, Object> configuration() {
+		final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		// Hibernate caches immutable disassembled state: no copy on every read
+		configuration.setStoreByValue(false);
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+
+}
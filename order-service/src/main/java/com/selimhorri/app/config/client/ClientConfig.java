@@ -1,19 +1,46 @@
 package com.selimhorri.app.config.client;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
 @Configuration
 public class ClientConfig {
 	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
+	public RestTemplate restTemplateBean(@Value("${app.http2.h2c:false}") final boolean h2c) {
+		if (h2c)
+			return new RestTemplate(new OkHttp3ClientHttpRequestFactory(h2cClient()));
 		return new RestTemplate();
 	}
 	
+	/**
+	 * HTTP/2 cleartext with prior knowledge ({@code h2c} profile): concurrent calls
+	 * to one instance share a pooled connection. Kept private to this load-balanced
+	 * template so no other client is switched to h2c.
+	 */
+	private static OkHttpClient h2cClient() {
+		return new OkHttpClient.Builder()
+				.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE))
+				.connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+				.connectTimeout(Duration.ofSeconds(2))
+				.readTimeout(Duration.ofSeconds(10))
+				.pingInterval(Duration.ofSeconds(30))
+				.build();
+	}
+	
 	
 	
 }
@@ -13,6 +13,9 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
@@ -24,6 +27,7 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "carts")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "carts")
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString(exclude = "orders") // IMPORTANT: Exclude orders collection
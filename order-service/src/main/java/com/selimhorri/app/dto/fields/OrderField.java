@@ -0,0 +1,56 @@
+package com.selimhorri.app.dto.fields;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.helper.FieldSelectionHelper;
+
+import lombok.Getter;
+
+/**
+ * Selectable fields of the order listing. The JSON path is what clients name
+ * in {@code fields=}; the attribute is where it lives on {@code Order}, which
+ * differs for {@code orderStatus}. {@code cart} selects the whole cart.
+ */
+public enum OrderField {
+
+	ORDER_ID("orderId", "orderId", (order, value) -> order.setOrderId((Integer) value)),
+	ORDER_DATE("orderDate", "orderDate", (order, value) -> order.setOrderDate((LocalDateTime) value)),
+	ORDER_DESC("orderDesc", "orderDesc", (order, value) -> order.setOrderDesc((String) value)),
+	ORDER_FEE("orderFee", "orderFee", (order, value) -> order.setOrderFee((Double) value)),
+	ORDER_STATUS("orderStatus", "status", (order, value) -> order.setOrderStatus((OrderStatus) value)),
+	CART_ID("cart.cartId", "cart.cartId", (order, value) -> cart(order).setCartId((Integer) value)),
+	CART_USER_ID("cart.userId", "cart.userId", (order, value) -> cart(order).setUserId((Integer) value));
+
+	@Getter
+	private final String path;
+	@Getter
+	private final String attribute;
+	private final BiConsumer<OrderDto, Object> setter;
+
+	OrderField(final String path, final String attribute, final BiConsumer<OrderDto, Object> setter) {
+		this.path = path;
+		this.attribute = attribute;
+		this.setter = setter;
+	}
+
+	public void copy(final OrderDto orderDto, final Object value) {
+		if (value != null)
+			this.setter.accept(orderDto, value);
+	}
+
+	public static List<OrderField> parse(final String fields) {
+		return FieldSelectionHelper.parse(OrderField.class, OrderField::getPath, fields, "orden");
+	}
+
+	private static CartDto cart(final OrderDto orderDto) {
+		if (orderDto.getCartDto() == null)
+			orderDto.setCartDto(new CartDto());
+		return orderDto.getCartDto();
+	}
+
+}
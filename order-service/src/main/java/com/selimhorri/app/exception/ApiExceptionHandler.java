@@ -66,6 +66,30 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	/**
+	 * Maneja parámetros de consulta inválidos, como un campo desconocido en
+	 * {@code fields}.
+	 *
+	 * @param e Excepción con el motivo del rechazo
+	 * @return ResponseEntity con mensaje de error y HTTP 400
+	 */
+	@ExceptionHandler(value = {
+			IllegalArgumentException.class
+	})
+	public ResponseEntity<ExceptionMsg> handleIllegalArgumentException(final IllegalArgumentException e) {
+
+		log.info("Petición rechazada: {}", e.getMessage());
+		final var badRequest = HttpStatus.BAD_REQUEST;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg(e.getMessage())
+						.httpStatus(badRequest)
+						.timestamp(ZonedDateTime.now(ZoneId.systemDefault()))
+						.build(),
+				badRequest);
+	}
+
 	// ========== MANEJO DE EXCEPCIONES DE NEGOCIO ==========
 
 	/**
@@ -1,12 +1,16 @@
 package com.selimhorri.app.helper;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.persistence.Tuple;
 
 import com.selimhorri.app.domain.Cart;
 import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.fields.OrderField;
 
 /**
  * Utilidad para mapeo entre entidades de Orden y DTOs.
@@ -36,6 +40,7 @@ public interface OrderMappingHelper {
 						.cartDto(
 										CartDto.builder()
 										.cartId(order.getCart().getCartId())
+										.userId(order.getCart().getUserId())
 										.build())
 						.build();
 	}
@@ -110,4 +115,19 @@ public interface OrderMappingHelper {
 						.cart(cart)
 						.build();
 	}
+
+	/**
+	 * Construye un OrderDto parcial a partir de una tupla de proyección.
+	 * Solo se informan los campos pedidos; el resto queda a null.
+	 *
+	 * @param tuple Fila con los valores en el orden de los campos
+	 * @param fields Campos seleccionados en la consulta
+	 * @return OrderDto con los campos de la tupla
+	 */
+	public static OrderDto map(final Tuple tuple, final List<OrderField> fields) {
+		final OrderDto orderDto = new OrderDto();
+		for (int i = 0; i < fields.size(); i++)
+			fields.get(i).copy(orderDto, tuple.get(i));
+		return orderDto;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.selimhorri.app.notification;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Avisa a proxy-client de que una orden cambió, para que refresque su vista
+ * desnormalizada de órdenes. El aviso solo lleva el orderId: proxy-client
+ * vuelve a leer el estado actual de cada servicio.
+ *
+ * El envío es best-effort: se hace después del commit, en un hilo propio y
+ * con cola acotada. Un aviso perdido solo retrasa el refresco hasta que la
+ * vista supera su antigüedad máxima. Sin token no se envía nada: proxy-client
+ * rechaza los avisos sin token.
+ *
+ * La misma clase vive en order-, payment- y shipping-service (solo cambia
+ * SOURCE), que se construyen por separado; mantener las tres iguales.
+ */
+@Slf4j
+@Component
+public class OrderViewNotifier {
+
+	private static final String SOURCE = "order-service";
+	private static final String PROXY_CLIENT_SERVICE_ID = "PROXY-CLIENT";
+	private static final String NOTIFICATIONS_PATH = "/app/api/order-views/notifications";
+	private static final String TOKEN_HEADER = "X-Order-View-Token";
+
+	private final DiscoveryClient discoveryClient;
+	private final String token;
+	private final boolean enabled;
+	private final RestTemplate restTemplate;
+	private final ThreadPoolExecutor executor;
+
+	public OrderViewNotifier(final DiscoveryClient discoveryClient,
+			@Value("${app.order-view.notification-token:}") final String token,
+			@Value("${app.order-view.notifications-enabled:true}") final boolean enabled) {
+		this.discoveryClient = discoveryClient;
+		this.token = token;
+		this.enabled = enabled && !token.isBlank();
+		if (enabled && token.isBlank())
+			log.warn("app.order-view.notification-token vacío: no se avisará a proxy-client de los cambios de órdenes");
+		// Sin @LoadBalanced: cada instancia de proxy-client mantiene su propia vista
+		this.restTemplate = new RestTemplateBuilder()
+				.setConnectTimeout(Duration.ofSeconds(1))
+				.setReadTimeout(Duration.ofSeconds(2))
+				.build();
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(1000),
+				runnable -> {
+					final Thread thread = new Thread(runnable, "order-view-notifier");
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.DiscardPolicy());
+	}
+
+	/**
+	 * Programa el aviso para después del commit de la transacción en curso,
+	 * o lo envía de inmediato si no hay transacción activa.
+	 *
+	 * @param orderId ID de la orden modificada
+	 */
+	public void orderChanged(final Integer orderId) {
+		if (!this.enabled || orderId == null)
+			return;
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					publish(orderId);
+				}
+			});
+		}
+		else {
+			this.publish(orderId);
+		}
+	}
+
+	private void publish(final Integer orderId) {
+		this.executor.execute(() -> this.send(orderId));
+	}
+
+	private void send(final Integer orderId) {
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set(TOKEN_HEADER, this.token);
+		final HttpEntity<Map<String, Object>> notification = new HttpEntity<>(
+				Map.of("source", SOURCE, "orderId", orderId), headers);
+
+		for (final ServiceInstance instance : this.discoveryClient.getInstances(PROXY_CLIENT_SERVICE_ID)) {
+			try {
+				this.restTemplate.postForLocation(instance.getUri() + NOTIFICATIONS_PATH, notification);
+			}
+			catch (RestClientException e) {
+				log.warn("No se pudo notificar el cambio de la orden {} a {}: {}", orderId, instance.getUri(), e.getMessage());
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+}
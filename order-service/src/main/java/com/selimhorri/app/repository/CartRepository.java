@@ -3,7 +3,10 @@ package com.selimhorri.app.repository;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.selimhorri.app.domain.Cart;
 
@@ -11,6 +14,9 @@ public interface CartRepository extends JpaRepository<Cart, Integer> {
 
     List<Cart> findAllByIsActiveTrue();
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Cart> findByCartIdAndIsActiveTrue(Integer cartId);
 
+    List<Cart> findAllByUserIdAndIsActiveTrue(Integer userId);
+
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import javax.persistence.Tuple;
+
+public interface OrderProjectionRepository {
+
+	/**
+	 * Órdenes activas, ordenadas por id, como tuplas con solo los atributos
+	 * indicados. El carrito se une únicamente si alguno de ellos lo usa.
+	 */
+	List<Tuple> findAllProjected(final List<String> attributes);
+
+}
@@ -0,0 +1,39 @@
+package com.selimhorri.app.repository;
+
+import java.util.HashMap;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.helper.FieldSelectionHelper;
+
+/**
+ * Consulta de proyección para el listado parcial de órdenes.
+ * A diferencia de findAllByIsActiveTrue no carga entidades, así que el
+ * carrito EAGER de cada orden no se resuelve si no se pide.
+ */
+public class OrderProjectionRepositoryImpl implements OrderProjectionRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Tuple> findAllProjected(final List<String> attributes) {
+		final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		final CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+		final Root<Order> order = cq.from(Order.class);
+
+		cq.multiselect(FieldSelectionHelper.select(order, new HashMap<>(), attributes))
+				.where(cb.isTrue(order.get("isActive")))
+				.orderBy(cb.asc(order.get("orderId")));
+
+		return this.entityManager.createQuery(cq).getResultList();
+	}
+
+}
@@ -7,10 +7,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.selimhorri.app.domain.Order;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderProjectionRepository {
 
     List<Order> findAllByIsActiveTrue();
 
     Optional<Order> findByOrderIdAndIsActiveTrue(Integer orderId);
 
+    List<Order> findAllByCartUserIdAndIsActiveTrue(Integer userId);
+
 }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.dto.CartDto;
@@ -62,6 +63,18 @@ public class CartResource {
 		return ResponseEntity.ok(this.cartService.findById(Integer.parseInt(cartId)));
 	}
 	
+	/**
+	 * Obtiene los carritos activos de un usuario.
+	 *
+	 * @param userId ID del usuario propietario
+	 * @return ResponseEntity con los carritos del usuario
+	 */
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<CartDto>> findAllByUserId(@RequestParam("userId") final Integer userId) {
+		log.info("Obteniendo carritos del usuario ID: {}", userId);
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.cartService.findAllByUserId(userId)));
+	}
+	
 	// ========== CREACIÓN ==========
 
 	/**
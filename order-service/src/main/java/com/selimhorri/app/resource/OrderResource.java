@@ -1,5 +1,8 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -13,11 +16,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.fields.OrderField;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.FieldSelectionHelper;
 import com.selimhorri.app.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -35,18 +42,31 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderResource {
 
 	private final OrderService orderService;
+	private final ObjectMapper objectMapper;
 
 	// ========== BÚSQUEDA ==========
 
 	/**
 	 * Obtiene la lista completa de órdenes activas.
+	 * Con {@code fields}, p. ej. {@code orderId,orderStatus,cart.userId}, cada
+	 * orden trae solo esos campos y el carrito únicamente si se pide.
 	 *
+	 * @param fields Campos separados por comas (opcional)
 	 * @return ResponseEntity con lista de todas las órdenes activas
 	 */
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<?>> findAll(
+			@RequestParam(name = "fields", required = false) final String fields) {
 		log.info("Obteniendo lista completa de órdenes");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
+		if (fields == null)
+			return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
+
+		final List<OrderField> orderFields = OrderField.parse(fields);
+		final List<String> paths = orderFields.stream()
+				.map(OrderField::getPath)
+				.collect(Collectors.toUnmodifiableList());
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				FieldSelectionHelper.retain(this.objectMapper, this.orderService.findAll(orderFields), paths)));
 	}
 
 	/**
@@ -62,6 +82,18 @@ public class OrderResource {
 		return ResponseEntity.ok(this.orderService.findById(Integer.parseInt(orderId)));
 	}
 
+	/**
+	 * Obtiene las órdenes activas de un usuario.
+	 *
+	 * @param userId ID del usuario propietario
+	 * @return ResponseEntity con las órdenes del usuario
+	 */
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAllByUserId(@RequestParam("userId") final Integer userId) {
+		log.info("Obteniendo órdenes del usuario ID: {}", userId);
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAllByUserId(userId)));
+	}
+
 	// ========== CREACIÓN ==========
 
 	/**
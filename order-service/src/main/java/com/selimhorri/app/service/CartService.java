@@ -8,6 +8,7 @@ public interface CartService {
 	
 	List<CartDto> findAll();
 	CartDto findById(final Integer cartId);
+	List<CartDto> findAllByUserId(final Integer userId);
 	CartDto save(final CartDto cartDto);
 	void deleteById(final Integer cartId);
 	
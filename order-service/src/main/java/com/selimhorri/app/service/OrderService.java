@@ -3,11 +3,14 @@ package com.selimhorri.app.service;
 import java.util.List;
 
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.fields.OrderField;
 
 public interface OrderService {
 	
 	List<OrderDto> findAll();
+	List<OrderDto> findAll(final List<OrderField> fields);
 	OrderDto findById(final Integer orderId);
+	List<OrderDto> findAllByUserId(final Integer userId);
 	OrderDto save(final OrderDto orderDto);
 	OrderDto updateStatus(final int orderId);
 	OrderDto update(final Integer orderId, final OrderDto orderDto);
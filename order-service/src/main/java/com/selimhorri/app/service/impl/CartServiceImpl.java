@@ -81,6 +81,22 @@ public class CartServiceImpl implements CartService {
 						String.format("Carrito activo con ID %d no encontrado", cartId)));
 	}
 
+	/**
+	 * Obtiene los carritos activos de un usuario usando el índice por user_id.
+	 * No enriquece con datos del usuario: quien consulta por usuario ya los tiene.
+	 *
+	 * @param userId ID del usuario propietario
+	 * @return Lista de carritos activos del usuario como DTOs
+	 */
+	@Override
+	public List<CartDto> findAllByUserId(final Integer userId) {
+		log.info("Obteniendo carritos activos del usuario ID: {}", userId);
+		return this.cartRepository.findAllByUserIdAndIsActiveTrue(userId)
+				.stream()
+				.map(CartMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
 	// ========== CREACIÓN ==========
 
 	/**
@@ -10,9 +10,11 @@ import org.springframework.stereotype.Service;
 import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.fields.OrderField;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
 import com.selimhorri.app.helper.OrderMappingHelper;
+import com.selimhorri.app.notification.OrderViewNotifier;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
 import com.selimhorri.app.service.OrderService;
@@ -34,6 +36,7 @@ public class OrderServiceImpl implements OrderService {
 
 	private final OrderRepository orderRepository;
 	private final CartRepository cartRepository;
+	private final OrderViewNotifier orderViewNotifier;
 
 	// ========== BÚSQUEDA ==========
 
@@ -53,6 +56,25 @@ public class OrderServiceImpl implements OrderService {
 						.collect(Collectors.toUnmodifiableList());
 	}
 
+	/**
+	 * Obtiene las órdenes activas con solo los campos indicados.
+	 * Consulta únicamente las columnas necesarias y solo une el carrito si se pide alguno de sus campos.
+	 *
+	 * @param fields Campos a devolver
+	 * @return Lista de órdenes activas con los campos pedidos
+	 */
+	@Override
+	public List<OrderDto> findAll(final List<OrderField> fields) {
+		log.info("Obteniendo campos {} de las órdenes activas", fields);
+		final List<String> attributes = fields.stream()
+						.map(OrderField::getAttribute)
+						.collect(Collectors.toUnmodifiableList());
+		return this.orderRepository.findAllProjected(attributes)
+						.stream()
+						.map(tuple -> OrderMappingHelper.map(tuple, fields))
+						.collect(Collectors.toUnmodifiableList());
+	}
+
 	/**
 	 * Obtiene una orden activa específica por su ID.
 	 * Lanza excepción si la orden no existe o no está activa.
@@ -70,6 +92,22 @@ public class OrderServiceImpl implements OrderService {
 								String.format("Orden activa con ID %d no encontrada", orderId)));
 	}
 
+	/**
+	 * Obtiene las órdenes activas de un usuario a través de sus carritos,
+	 * sin recorrer el listado global de órdenes.
+	 *
+	 * @param userId ID del usuario propietario de los carritos
+	 * @return Lista de órdenes activas del usuario como DTOs
+	 */
+	@Override
+	public List<OrderDto> findAllByUserId(final Integer userId) {
+		log.info("Obteniendo órdenes activas del usuario ID: {}", userId);
+		return this.orderRepository.findAllByCartUserIdAndIsActiveTrue(userId)
+						.stream()
+						.map(OrderMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList());
+	}
+
 	// ========== CREACIÓN ==========
 
 	/**
@@ -91,8 +129,10 @@ public class OrderServiceImpl implements OrderService {
 		validateOrderHasCart(orderDto);
 		validateCartExists(orderDto.getCartDto().getCartId());
 
-		return OrderMappingHelper.map(
+		final OrderDto savedOrder = OrderMappingHelper.map(
 						this.orderRepository.save(OrderMappingHelper.mapForCreationOrder(orderDto)));
+		this.orderViewNotifier.orderChanged(savedOrder.getOrderId());
+		return savedOrder;
 	}
 
 	// ========== ACTUALIZACIÓN DE ESTADO ==========
@@ -120,6 +160,7 @@ public class OrderServiceImpl implements OrderService {
 			Order updatedOrder = this.orderRepository.save(existingOrder);
 
 			log.info("Estado de orden {} actualizado de {} a {}", orderId, existingOrder.getStatus(), newStatus);
+			this.orderViewNotifier.orderChanged(orderId);
 			return OrderMappingHelper.map(updatedOrder);
 
 		} catch (Exception e) {
@@ -152,7 +193,9 @@ public class OrderServiceImpl implements OrderService {
 		Order updatedOrder = OrderMappingHelper.mapForUpdate(orderDto, existingOrder.getCart());
 		updatedOrder.setOrderDate(existingOrder.getOrderDate());
 
-		return OrderMappingHelper.map(this.orderRepository.save(updatedOrder));
+		final OrderDto savedOrder = OrderMappingHelper.map(this.orderRepository.save(updatedOrder));
+		this.orderViewNotifier.orderChanged(orderId);
+		return savedOrder;
 	}
 
 	// ========== ELIMINACIÓN ==========
@@ -179,6 +222,7 @@ public class OrderServiceImpl implements OrderService {
 
 		order.setActive(false);
 		orderRepository.save(order);
+		this.orderViewNotifier.orderChanged(orderId);
 		log.info("Orden con ID {} marcada como inactiva", orderId);
 	}
 
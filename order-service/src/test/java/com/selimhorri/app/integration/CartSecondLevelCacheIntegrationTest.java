@@ -0,0 +1,131 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.OrderRepository;
+
+/**
+ * Caché de segundo nivel de Hibernate para Cart: el carrito EAGER de cada
+ * Order se resuelve desde la región carts en lugar de un join, y un UPDATE
+ * masivo en JPQL sobre carts invalida la región y las consultas.
+ */
+@Tag("integration")
+@SpringBootTest
+class CartSecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Cart cart;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        cart = cartRepository.save(Cart.builder().userId(99).isActive(true).build());
+        order = orderRepository.save(Order.builder()
+                .orderDate(LocalDateTime.now())
+                .orderDesc("cache test")
+                .orderFee(10.0)
+                .isActive(true)
+                .cart(cart)
+                .build());
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteById(order.getOrderId());
+        cartRepository.deleteById(cart.getCartId());
+    }
+
+    private CacheRegionStatistics carts() {
+        return statistics.getDomainDataRegionStatistics("carts");
+    }
+
+    @Test
+    void shouldLoadTheCartOfAnOrderFromTheCartsRegion() {
+        orderRepository.findById(order.getOrderId()).orElseThrow();
+        final long statements = statistics.getPrepareStatementCount();
+
+        final Order reloaded = orderRepository.findById(order.getOrderId()).orElseThrow();
+
+        assertEquals(99, reloaded.getCart().getUserId());
+        // Solo el SELECT de orders: el carrito sale de la caché
+        assertEquals(statements + 1, statistics.getPrepareStatementCount());
+        assertEquals(1, carts().getPutCount());
+        assertEquals(1, carts().getHitCount());
+    }
+
+    @Test
+    void shouldServeTheUpdatedCartAfterASave() {
+        orderRepository.findById(order.getOrderId()).orElseThrow();
+
+        cart.setUserId(100);
+        cartRepository.save(cart);
+
+        assertEquals(100, orderRepository.findById(order.getOrderId()).orElseThrow().getCart().getUserId());
+    }
+
+    @Test
+    void shouldCacheTheActiveCartLookup() {
+        cartRepository.findByCartIdAndIsActiveTrue(cart.getCartId()).orElseThrow();
+        cartRepository.findByCartIdAndIsActiveTrue(cart.getCartId()).orElseThrow();
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldInvalidateCartsOnABulkCartUpdate() {
+        orderRepository.findById(order.getOrderId()).orElseThrow();
+        cartRepository.findByCartIdAndIsActiveTrue(cart.getCartId()).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(Cart.class, cart.getCartId()));
+
+        transactionTemplate.execute(status -> entityManager
+                .createQuery("UPDATE Cart c SET c.userId = :userId WHERE c.cartId = :cartId")
+                .setParameter("userId", 100)
+                .setParameter("cartId", cart.getCartId())
+                .executeUpdate());
+
+        assertFalse(entityManagerFactory.getCache().contains(Cart.class, cart.getCartId()));
+        assertEquals(100, orderRepository.findById(order.getOrderId()).orElseThrow().getCart().getUserId());
+        assertEquals(100, cartRepository.findByCartIdAndIsActiveTrue(cart.getCartId()).orElseThrow().getUserId());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+}
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.fields.OrderField;
 import com.selimhorri.app.service.OrderService;
 
 /**
@@ -96,6 +97,36 @@ class OrderResourceIntegrationTest {
         verify(orderService, times(1)).findAll();
     }
 
+    @Test
+    void shouldFetchOnlyTheRequestedOrderFields() throws Exception {
+        OrderDto orderDto = OrderDto.builder()
+                .orderId(1)
+                .orderDate(LocalDateTime.of(2024, 3, 1, 10, 30))
+                .orderStatus(OrderStatus.CREATED)
+                .build();
+        List<OrderField> fields = List.of(OrderField.ORDER_ID, OrderField.ORDER_DATE, OrderField.ORDER_STATUS);
+        when(orderService.findAll(fields)).thenReturn(List.of(orderDto));
+
+        mockMvc.perform(get("/api/orders").param("fields", "orderStatus,orderId,orderDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].orderId").value(1))
+                // El formato de fecha del DTO se conserva en la respuesta parcial
+                .andExpect(jsonPath("$.collection[0].orderDate").value("01-03-2024__10:30:00:000000"))
+                .andExpect(jsonPath("$.collection[0].orderStatus").value("CREATED"))
+                .andExpect(jsonPath("$.collection[0].orderFee").doesNotExist())
+                .andExpect(jsonPath("$.collection[0].cart").doesNotExist());
+
+        verify(orderService, never()).findAll();
+    }
+
+    @Test
+    void shouldReturnBadRequestForAnUnknownField() throws Exception {
+        mockMvc.perform(get("/api/orders").param("fields", "orderId,isActive"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     void shouldFetchOrderById() throws Exception {
         // Mock data
@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.Tuple;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,7 +21,9 @@ import com.selimhorri.app.domain.Order;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.fields.OrderField;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.notification.OrderViewNotifier;
 import com.selimhorri.app.repository.CartRepository;
 import com.selimhorri.app.repository.OrderRepository;
 
@@ -32,6 +36,9 @@ class OrderServiceImplTest {
     @Mock
     private CartRepository cartRepository;
 
+    @Mock
+    private OrderViewNotifier orderViewNotifier;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -76,6 +83,33 @@ class OrderServiceImplTest {
         verify(orderRepository, times(1)).findAllByIsActiveTrue();
     }
 
+    @Test
+    void findAllWithFields_shouldMapTheProjectedColumns() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(0)).thenReturn(1);
+        when(tuple.get(1)).thenReturn(OrderStatus.CREATED);
+        when(tuple.get(2)).thenReturn(7);
+        // orderStatus se lee del atributo status de la entidad
+        when(orderRepository.findAllProjected(List.of("orderId", "status", "cart.userId")))
+                .thenReturn(List.of(tuple));
+
+        List<OrderDto> result = orderService.findAll(OrderField.parse("cart.userId,orderStatus,orderId"));
+
+        assertEquals(1, result.size());
+        assertEquals(OrderStatus.CREATED, result.get(0).getOrderStatus());
+        assertNull(result.get(0).getOrderFee());
+        assertEquals(7, result.get(0).getCartDto().getUserId());
+        assertNull(result.get(0).getCartDto().getCartId());
+        verify(orderRepository, never()).findAllByIsActiveTrue();
+    }
+
+    @Test
+    void findAllWithFields_shouldExpandTheCart() {
+        assertEquals(List.of(OrderField.ORDER_ID, OrderField.CART_ID, OrderField.CART_USER_ID),
+                OrderField.parse("orderId, cart"));
+        assertThrows(IllegalArgumentException.class, () -> OrderField.parse("cart.orders"));
+    }
+
     @Test
     void findById_shouldReturnOrderWhenFound() {
         when(orderRepository.findByOrderIdAndIsActiveTrue(15)).thenReturn(Optional.of(testOrder));
@@ -102,6 +136,18 @@ class OrderServiceImplTest {
         verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(99);
     }
 
+    @Test
+    void findAllByUserId_shouldQueryOrdersThroughUserCarts() {
+        when(orderRepository.findAllByCartUserIdAndIsActiveTrue(7)).thenReturn(List.of(testOrder));
+
+        List<OrderDto> result = orderService.findAllByUserId(7);
+
+        assertEquals(1, result.size());
+        assertEquals(15, result.get(0).getOrderId());
+        verify(orderRepository, times(1)).findAllByCartUserIdAndIsActiveTrue(7);
+        verify(orderRepository, never()).findAllByIsActiveTrue();
+    }
+
     @Test
     void updateStatus_shouldTransitionFromCreatedToOrdered() {
         when(orderRepository.findByOrderIdAndIsActiveTrue(15)).thenReturn(Optional.of(testOrder));
@@ -169,6 +215,7 @@ class OrderServiceImplTest {
 
         verify(orderRepository, times(1)).findByOrderIdAndIsActiveTrue(15);
         verify(orderRepository, times(1)).save(argThat(order -> !order.isActive()));
+        verify(orderViewNotifier, times(1)).orderChanged(15);
     }
 
     @Test
@@ -177,5 +224,6 @@ class OrderServiceImplTest {
 
         assertThrows(OrderNotFoundException.class, () -> orderService.deleteById(99));
         verify(orderRepository, never()).save(any());
+        verifyNoInteractions(orderViewNotifier);
     }
 }
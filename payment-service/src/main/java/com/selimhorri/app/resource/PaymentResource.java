@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.dto.PaymentDto;
@@ -61,6 +64,18 @@ public class PaymentResource {
 		return ResponseEntity.ok(this.paymentService.findById(Integer.parseInt(paymentId)));
 	}
 
+	/**
+	 * Obtiene los pagos de un conjunto de órdenes.
+	 *
+	 * @param orderIds IDs de las órdenes separados por comas
+	 * @return ResponseEntity con los pagos de esas órdenes
+	 */
+	@GetMapping(params = "orderIds")
+	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAllByOrderIds(@RequestParam("orderIds") final List<Integer> orderIds) {
+		log.info("Obteniendo pagos de las órdenes: {}", orderIds);
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAllByOrderIds(orderIds)));
+	}
+
 	// ========== CREACIÓN ==========
 
 	/**
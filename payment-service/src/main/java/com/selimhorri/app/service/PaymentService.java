@@ -8,6 +8,7 @@ public interface PaymentService {
 	
 	List<PaymentDto> findAll();
 	PaymentDto findById(final Integer paymentId);
+	List<PaymentDto> findAllByOrderIds(final List<Integer> orderIds);
 	PaymentDto save(final PaymentDto paymentDto);
 	PaymentDto updateStatus(int paymentId);
 	void deleteById(final Integer paymentId);
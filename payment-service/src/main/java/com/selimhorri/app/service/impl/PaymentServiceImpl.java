@@ -19,6 +19,7 @@ import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
 import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.notification.OrderViewNotifier;
 import com.selimhorri.app.repository.PaymentRepository;
 import com.selimhorri.app.service.PaymentService;
 
@@ -39,6 +40,7 @@ public class PaymentServiceImpl implements PaymentService {
 
 	private final PaymentRepository paymentRepository;
 	private final RestTemplate restTemplate;
+	private final OrderViewNotifier orderViewNotifier;
 
 	// ========== BÚSQUEDA ==========
 
@@ -107,6 +109,24 @@ public class PaymentServiceImpl implements PaymentService {
 		}
 	}
 
+	/**
+	 * Obtiene los pagos de un conjunto de órdenes con una única consulta por order_id.
+	 * No enriquece con datos de la orden: quien consulta ya tiene esas órdenes.
+	 *
+	 * @param orderIds IDs de las órdenes
+	 * @return Lista de pagos de esas órdenes
+	 */
+	@Override
+	public List<PaymentDto> findAllByOrderIds(final List<Integer> orderIds) {
+		log.info("Obteniendo pagos de las órdenes: {}", orderIds);
+		if (orderIds.isEmpty())
+			return List.of();
+		return this.paymentRepository.findAllByOrderIdIn(orderIds)
+				.stream()
+				.map(PaymentMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
 	// ========== CREACIÓN ==========
 
 	/**
@@ -147,6 +167,7 @@ public class PaymentServiceImpl implements PaymentService {
 			// 2. Guardar el pago
 			PaymentDto savedPayment = PaymentMappingHelper.map(
 					this.paymentRepository.save(PaymentMappingHelper.mapForPayment(paymentDto)));
+			this.orderViewNotifier.orderChanged(paymentDto.getOrderDto().getOrderId());
 
 			// 3. Actualizar estado de la orden a IN_PAYMENT
 			String patchUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
@@ -208,6 +229,7 @@ public class PaymentServiceImpl implements PaymentService {
 
 					payment.setPaymentStatus(newStatus);
 					log.info("Pago {} transicionó de {} a {}", paymentId, currentStatus, newStatus);
+					this.orderViewNotifier.orderChanged(payment.getOrderId());
 
 					return PaymentMappingHelper.map(this.paymentRepository.save(payment));
 				})
@@ -244,6 +266,7 @@ public class PaymentServiceImpl implements PaymentService {
 
 		payment.setPaymentStatus(PaymentStatus.CANCELED);
 		this.paymentRepository.save(payment);
+		this.orderViewNotifier.orderChanged(payment.getOrderId());
 		log.info("Pago {} cancelado exitosamente", paymentId);
 	}
 }
\ No newline at end of file
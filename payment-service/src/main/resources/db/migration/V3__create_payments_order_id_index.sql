@@ -0,0 +1,4 @@
+
+CREATE INDEX idx_payments_order_id ON payments (order_id);
+
+
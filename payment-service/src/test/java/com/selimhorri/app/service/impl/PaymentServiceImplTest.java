@@ -26,6 +26,7 @@ import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
+import com.selimhorri.app.notification.OrderViewNotifier;
 import com.selimhorri.app.repository.PaymentRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +38,9 @@ class PaymentServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OrderViewNotifier orderViewNotifier;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -134,6 +138,21 @@ class PaymentServiceImplTest {
         verify(paymentRepository).findAll();
     }
 
+    @Test
+    void findAllByOrderIds_ShouldUseOrderIdIndexWithoutEnrichment() {
+        // Given
+        when(paymentRepository.findAllByOrderIdIn(List.of(5, 6))).thenReturn(List.of(payment));
+
+        // When
+        List<PaymentDto> result = paymentService.findAllByOrderIds(List.of(5, 6));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(5, result.get(0).getOrderDto().getOrderId());
+        verify(paymentRepository, never()).findAll();
+        verifyNoInteractions(restTemplate);
+    }
+
     @Test
     void findById_ShouldReturnPaymentWithOrderData() {
         // Given
@@ -325,6 +344,7 @@ class PaymentServiceImplTest {
         // Then
         verify(paymentRepository).findById(10);
         verify(paymentRepository).save(argThat(p -> p.getPaymentStatus() == PaymentStatus.CANCELED));
+        verify(orderViewNotifier).orderChanged(payment.getOrderId());
     }
 
     @Test
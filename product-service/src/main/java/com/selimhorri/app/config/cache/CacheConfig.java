@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+
+/**
+ * In-process caches for the product-service read path. Caffeine bounds
+ * every cache by size; {@code recordStats} feeds the {@code cache.*} meters
+ * and {@code /actuator/caches} lists the caches.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+	
+	public static final String PRODUCTS = "products";
+	public static final String PRODUCTS_BY_SKU = "productsBySku";
+	public static final String CATEGORIES = "categories";
+	
+	@Bean
+	public CacheManager cacheManager(
+			@Value("${app.cache.caffeine-spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") final String spec) {
+		final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PRODUCTS, PRODUCTS_BY_SKU, CATEGORIES);
+		caffeineCacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+		caffeineCacheManager.setAllowNullValues(false);
+		// Evictions run after commit; evicting earlier lets a concurrent read re-cache the old row
+		return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+	}
+	
+}
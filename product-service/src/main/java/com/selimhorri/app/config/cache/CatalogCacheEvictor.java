@@ -0,0 +1,76 @@
+package com.selimhorri.app.config.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Write-path invalidation for {@link CacheConfig} caches. A product write
+ * evicts only its own entries; category writes clear the product caches as
+ * well, because every cached product embeds its category. Every write also
+ * moves the {@link CatalogResponseCache} to a new catalog version.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheEvictor {
+	
+	private final CacheManager cacheManager;
+	private final CatalogResponseCache catalogResponseCache;
+	
+	/**
+	 * For writes that change listings but no cached entry, such as a new product.
+	 */
+	public void evictListings() {
+		this.catalogResponseCache.invalidate();
+	}
+	
+	/**
+	 * @param skus old and new SKU of the product; nulls are ignored
+	 */
+	public void evictProduct(final Integer productId, final String... skus) {
+		this.cache(CacheConfig.PRODUCTS).evict(productId);
+		final Cache productsBySku = this.cache(CacheConfig.PRODUCTS_BY_SKU);
+		Arrays.stream(skus)
+				.filter(Objects::nonNull)
+				.distinct()
+				.forEach(productsBySku::evict);
+		this.evictListings();
+	}
+	
+	/**
+	 * Same as {@link #evictProduct} for each entry of {@code skusById}, with
+	 * a single listing invalidation.
+	 */
+	public void evictProducts(final Map<Integer, String> skusById) {
+		final Cache products = this.cache(CacheConfig.PRODUCTS);
+		final Cache productsBySku = this.cache(CacheConfig.PRODUCTS_BY_SKU);
+		skusById.forEach((productId, sku) -> {
+			products.evict(productId);
+			if (sku != null)
+				productsBySku.evict(sku);
+		});
+		this.evictListings();
+	}
+	
+	public void evictAllProducts() {
+		this.cache(CacheConfig.PRODUCTS).clear();
+		this.cache(CacheConfig.PRODUCTS_BY_SKU).clear();
+		this.evictListings();
+	}
+	
+	public void evictCategories() {
+		this.cache(CacheConfig.CATEGORIES).clear();
+		this.evictListings();
+	}
+	
+	private Cache cache(final String name) {
+		return Objects.requireNonNull(this.cacheManager.getCache(name), name);
+	}
+	
+}
@@ -0,0 +1,127 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serialized listing responses kept as bytes, keyed by the catalog version.
+ * A hit is written straight from the buffer with its strong ETag: no entity
+ * mapping and no JSON serialization on the hot read path.
+ *
+ * <p>The version is bumped after every committed catalog write. A reader
+ * captures it before loading, so a body built from pre-commit rows lands
+ * under the old version and is never served again. The version is local to
+ * this instance; {@code app.cache.response-ttl} bounds how long another
+ * instance's writes can go unseen.</p>
+ */
+@Slf4j
+@Component
+public class CatalogResponseCache {
+
+	private final AtomicLong version = new AtomicLong();
+	private final ObjectWriter writer;
+	private final Cache<String, CachedResponse> responses;
+
+	public CatalogResponseCache(final ObjectMapper objectMapper, final MeterRegistry meterRegistry,
+			@Value("${app.cache.response-ttl:30s}") final Duration ttl,
+			@Value("${app.cache.response-max-size:64MB}") final DataSize maxSize) {
+		// Compact output: the cached bytes are sent as they are
+		this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		this.responses = Caffeine.newBuilder()
+				.maximumWeight(maxSize.toBytes())
+				.<String, CachedResponse>weigher((key, response) -> response.getBody().length)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.responses, "catalogResponses");
+	}
+
+	/**
+	 * Answers a listing request from the cached bytes, loading and serializing
+	 * the body once per version on a miss. Replies 304 when the client already
+	 * holds the current representation; weak validators sent back by the
+	 * gateway match as well.
+	 */
+	public ResponseEntity<byte[]> respond(final String key, final WebRequest webRequest, final Supplier<?> body) {
+		final long current = this.version.get();
+		final CachedResponse response = this.responses.get(current + ":" + key, cacheKey -> this.serialize(body.get()));
+		if (webRequest.checkNotModified(response.getETag()))
+			return null;
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.eTag(response.getETag())
+				.body(response.getBody());
+	}
+
+	/**
+	 * Moves to a new catalog version once the current transaction commits,
+	 * or right away outside a transaction.
+	 */
+	public void invalidate() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					bump();
+				}
+			});
+		}
+		else {
+			this.bump();
+		}
+	}
+
+	public long getVersion() {
+		return this.version.get();
+	}
+
+	private void bump() {
+		log.debug("*** CatalogResponseCache; catalog version {} *", this.version.incrementAndGet());
+		this.responses.invalidateAll();
+	}
+
+	private CachedResponse serialize(final Object body) {
+		try {
+			final byte[] bytes = this.writer.writeValueAsBytes(body);
+			return new CachedResponse(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize catalog response", e);
+		}
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static final class CachedResponse {
+
+		private final byte[] body;
+		private final String eTag;
+
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.hibernate-cache")
+public class HibernateCacheProperties {
+
+	/**
+	 * Second-level cache regions by name: entity regions plus Hibernate's
+	 * {@code default-query-results-region}. The unbounded
+	 * {@code default-update-timestamps-region} is not listed here, see
+	 * {@link HibernateCacheConfig}.
+	 */
+	private Map<String, Region> regions = new LinkedHashMap<>();
+
+	@Data
+	public static class Region {
+
+		private long maximumSize = 1000;
+
+		/**
+		 * Unset, entries only leave the region when evicted or invalidated.
+		 */
+		private Duration expireAfterWrite;
+
+	}
+
+}
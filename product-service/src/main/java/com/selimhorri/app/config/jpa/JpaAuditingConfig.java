@@ -0,0 +1,15 @@
+package com.selimhorri.app.config.jpa;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Fills the {@code @CreatedDate} and {@code @LastModifiedDate} columns of
+ * every entity on save. The product change feed relies on
+ * {@code updated_at} moving forward on each write.
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+	
+}
@@ -0,0 +1,71 @@
+package com.selimhorri.app.config.reactive;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.reactive.ReactiveCatalogHandler;
+import com.selimhorri.app.reactive.ReactiveCatalogRepository;
+import com.selimhorri.app.reactive.ReactiveCatalogServer;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Opt-in reactive read path for the catalog: R2DBC for the database and a
+ * Reactor Netty server on {@code app.reactive.port}. Writes and every other
+ * endpoint stay on Tomcat and JPA. Only active with the {@code reactive}
+ * profile.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.reactive", name = "enabled", havingValue = "true")
+public class ReactiveCatalogConfig {
+
+	@Bean(destroyMethod = "dispose")
+	public ConnectionPool reactiveConnectionPool(
+			@Value("${app.reactive.r2dbc.url}") final String url,
+			@Value("${app.reactive.r2dbc.username:}") final String username,
+			@Value("${app.reactive.r2dbc.password:}") final String password,
+			@Value("${app.reactive.r2dbc.pool-max-size:10}") final int maxSize,
+			@Value("${app.reactive.r2dbc.pool-max-idle-time:30m}") final Duration maxIdleTime) {
+		final ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url)
+				.mutate()
+				.option(ConnectionFactoryOptions.USER, username)
+				.option(ConnectionFactoryOptions.PASSWORD, password)
+				.build();
+		return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+				.name("reactive-catalog")
+				.initialSize(Math.min(2, maxSize))
+				.maxSize(maxSize)
+				.maxIdleTime(maxIdleTime)
+				.build());
+	}
+
+	@Bean
+	public ReactiveCatalogServer reactiveCatalogServer(final ConnectionPool reactiveConnectionPool,
+			final CacheManager cacheManager, final ObjectMapper objectMapper,
+			@Value("${app.reactive.port:8510}") final int port,
+			@Value("${server.servlet.context-path:}") final String contextPath) {
+		final ReactiveCatalogHandler handler = new ReactiveCatalogHandler(
+				new ReactiveCatalogRepository(reactiveConnectionPool), cacheManager);
+		// The application's ObjectMapper, so both stacks write byte-identical JSON
+		final HandlerStrategies handlerStrategies = HandlerStrategies.builder()
+				.codecs(codecs -> {
+					codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+					codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+				})
+				.build();
+		return new ReactiveCatalogServer(handler.routes(contextPath), handlerStrategies, port);
+	}
+
+}
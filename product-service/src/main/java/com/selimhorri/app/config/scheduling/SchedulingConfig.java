@@ -0,0 +1,14 @@
+package com.selimhorri.app.config.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs of product-service: the stock reservation expiry sweep,
+ * the stock ledger flush and the catalog snapshot.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+	
+}
@@ -49,6 +49,10 @@ public final class Product extends AbstractMappedEntity implements Serializable
 	@Column(name = "quantity")
 	private Integer quantity;
 	
+	// Borrado lógico: el producto conserva su categoría
+	@Column(name = "deleted", nullable = false)
+	private boolean deleted;
+	
 	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "category_id")
 	private Category category;
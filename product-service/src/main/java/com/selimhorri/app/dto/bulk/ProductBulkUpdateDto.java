@@ -0,0 +1,31 @@
+package com.selimhorri.app.dto.bulk;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change applied to every product matching the filter. Filter fields left
+ * null do not narrow the selection, but at least one must be set; the id
+ * range is inclusive.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductBulkUpdateDto {
+	
+	private Integer categoryId;
+	private List<String> skus;
+	private Integer fromProductId;
+	private Integer toProductId;
+	
+	// 10 raises prices by 10%, -15 lowers them by 15%
+	private Double pricePercent;
+	private Double priceAmount;
+	private Integer quantityDelta;
+	
+}
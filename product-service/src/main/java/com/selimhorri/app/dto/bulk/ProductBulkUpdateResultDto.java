@@ -0,0 +1,18 @@
+package com.selimhorri.app.dto.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductBulkUpdateResultDto {
+	
+	private long updated;
+	private int chunks;
+	private long elapsedMillis;
+	
+}
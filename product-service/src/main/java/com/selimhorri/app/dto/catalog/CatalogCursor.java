@@ -0,0 +1,58 @@
+package com.selimhorri.app.dto.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+import com.selimhorri.app.domain.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position after the last product of a page: its sort value and id. Handed
+ * to clients as an opaque URL-safe token, so the next page is a range scan
+ * from that position instead of an OFFSET.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogCursor {
+	
+	private static final String SEPARATOR = "|";
+	
+	private final CatalogSort sort;
+	private final Sort.Direction direction;
+	private final Integer productId;
+	private final Comparable<?> value;
+	
+	public static CatalogCursor after(final CatalogSort sort, final Sort.Direction direction, final Product product) {
+		return new CatalogCursor(sort, direction, product.getProductId(), (Comparable<?>) sort.valueOf(product));
+	}
+	
+	/**
+	 * A product without a sort value leaves the value part out, which keeps it
+	 * apart from an empty title and from a title that reads "null".
+	 */
+	public String encode() {
+		final String position = String.join(SEPARATOR, this.sort.name(), this.direction.name(),
+				String.valueOf(this.productId));
+		final String raw = this.value == null ? position : position + SEPARATOR + this.value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static CatalogCursor decode(final String token) {
+		try {
+			final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			// the value goes last: titles may contain the separator
+			final String[] parts = raw.split("\\" + SEPARATOR, 4);
+			final CatalogSort sort = CatalogSort.valueOf(parts[0]);
+			return new CatalogCursor(sort, Sort.Direction.valueOf(parts[1]), Integer.valueOf(parts[2]),
+					parts.length == 3 ? null : sort.parseValue(parts[3]));
+		}
+		catch (RuntimeException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+	}
+	
+}
@@ -0,0 +1,57 @@
+package com.selimhorri.app.dto.catalog;
+
+import org.springframework.data.domain.Sort;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters, order and position of one catalog page request.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CatalogQuery {
+	
+	public static final int DEFAULT_LIMIT = 20;
+	public static final int MAX_LIMIT = 100;
+	
+	private Integer categoryId;
+	private Double minPrice;
+	private Double maxPrice;
+	private Boolean inStock;
+	private CatalogSort sort;
+	private Sort.Direction direction;
+	private int limit;
+	private CatalogCursor cursor;
+	
+	public static CatalogQuery of(final Integer categoryId, final Double minPrice, final Double maxPrice,
+			final Boolean inStock, final String sort, final String direction, final int limit, final String cursor) {
+		if (limit < 1 || limit > MAX_LIMIT)
+			throw new IllegalArgumentException(String.format("limit must be between 1 and %d", MAX_LIMIT));
+		if (minPrice != null && maxPrice != null && minPrice > maxPrice)
+			throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+		
+		final CatalogSort catalogSort = CatalogSort.parse(sort);
+		final Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+		final CatalogCursor catalogCursor = (cursor == null || cursor.isBlank()) ? null : CatalogCursor.decode(cursor);
+		if (catalogCursor != null
+				&& (catalogCursor.getSort() != catalogSort || catalogCursor.getDirection() != sortDirection))
+			throw new IllegalArgumentException("cursor was issued for a different sort order");
+		
+		return CatalogQuery.builder()
+				.categoryId(categoryId)
+				.minPrice(minPrice)
+				.maxPrice(maxPrice)
+				.inStock(inStock)
+				.sort(catalogSort)
+				.direction(sortDirection)
+				.limit(limit)
+				.cursor(catalogCursor)
+				.build();
+	}
+	
+}
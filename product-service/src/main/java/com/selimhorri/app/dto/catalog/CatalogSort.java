@@ -0,0 +1,55 @@
+package com.selimhorri.app.dto.catalog;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import com.selimhorri.app.domain.Product;
+
+/**
+ * Sort keys accepted by the catalog listing. Every key is paired with
+ * {@code productId} as tie-breaker, so the order is total and stable.
+ */
+public enum CatalogSort {
+	
+	ID("productId", Product::getProductId),
+	PRICE("priceUnit", Product::getPriceUnit),
+	TITLE("productTitle", Product::getProductTitle);
+	
+	private final String attribute;
+	private final Function<Product, Object> extractor;
+	
+	CatalogSort(final String attribute, final Function<Product, Object> extractor) {
+		this.attribute = attribute;
+		this.extractor = extractor;
+	}
+	
+	public String getAttribute() {
+		return this.attribute;
+	}
+	
+	public Object valueOf(final Product product) {
+		return this.extractor.apply(product);
+	}
+	
+	/**
+	 * Restores a cursor value written by {@link #valueOf(Product)}.
+	 */
+	public Comparable<?> parseValue(final String value) {
+		switch (this) {
+			case PRICE:
+				return Double.valueOf(value);
+			case TITLE:
+				return value;
+			default:
+				return Integer.valueOf(value);
+		}
+	}
+	
+	public static CatalogSort parse(final String sort) {
+		return Arrays.stream(values())
+				.filter(candidate -> candidate.name().equalsIgnoreCase(sort))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException(String.format("Unsupported sort: %s", sort)));
+	}
+	
+}
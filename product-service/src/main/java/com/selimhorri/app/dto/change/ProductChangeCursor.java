@@ -0,0 +1,49 @@
+package com.selimhorri.app.dto.change;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.selimhorri.app.domain.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position in the product change feed: the {@code updatedAt} and id of the
+ * last change handed out. Opaque to clients, who store it and send it back
+ * to get only what changed after it.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangeCursor {
+	
+	// Before every change: a sync from scratch starts here
+	public static final ProductChangeCursor START = new ProductChangeCursor(Instant.EPOCH, 0);
+	
+	private static final String SEPARATOR = "|";
+	
+	private final Instant updatedAt;
+	private final Integer productId;
+	
+	public static ProductChangeCursor after(final Product product) {
+		return new ProductChangeCursor(product.getUpdatedAt(), product.getProductId());
+	}
+	
+	public String encode() {
+		final String raw = this.updatedAt.toString() + SEPARATOR + this.productId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static ProductChangeCursor decode(final String token) {
+		try {
+			final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			final String[] parts = raw.split("\\" + SEPARATOR, 2);
+			return new ProductChangeCursor(Instant.parse(parts[0]), Integer.valueOf(parts[1]));
+		}
+		catch (RuntimeException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+	}
+	
+}
@@ -0,0 +1,22 @@
+package com.selimhorri.app.dto.facet;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One value of a facet, as sent back in the filter parameter, with the
+ * number of products it would match.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class FacetValueDto {
+	
+	private String value;
+	private String label;
+	private int count;
+	
+}
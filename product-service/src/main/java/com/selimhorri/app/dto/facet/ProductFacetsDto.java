@@ -0,0 +1,30 @@
+package com.selimhorri.app.dto.facet;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.selimhorri.app.dto.ProductDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductFacetsDto {
+	
+	private int total;
+	private List<FacetValueDto> categories;
+	private List<FacetValueDto> priceBands;
+	private List<FacetValueDto> stock;
+	private Collection<ProductDto> collection;
+	
+	@JsonInclude(Include.NON_NULL)
+	private Integer nextAfter;
+	
+}
@@ -0,0 +1,69 @@
+package com.selimhorri.app.dto.fields;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.FieldSelectionHelper;
+
+import lombok.Getter;
+
+/**
+ * The fields a product listing can be narrowed to with {@code fields=}: the
+ * JSON path each one is serialized under and the entity attribute it is
+ * selected from. Naming an object, e.g. {@code category}, selects all of its
+ * fields.
+ */
+public enum ProductField {
+
+	PRODUCT_ID("productId", "productId", (product, value) -> product.setProductId((Integer) value)),
+	PRODUCT_TITLE("productTitle", "productTitle", (product, value) -> product.setProductTitle((String) value)),
+	IMAGE_URL("imageUrl", "imageUrl", (product, value) -> product.setImageUrl((String) value)),
+	SKU("sku", "sku", (product, value) -> product.setSku((String) value)),
+	PRICE_UNIT("priceUnit", "priceUnit", (product, value) -> product.setPriceUnit((Double) value)),
+	QUANTITY("quantity", "quantity", (product, value) -> product.setQuantity((Integer) value)),
+	CATEGORY_ID("category.categoryId", "category.categoryId",
+			(product, value) -> category(product).setCategoryId((Integer) value)),
+	CATEGORY_TITLE("category.categoryTitle", "category.categoryTitle",
+			(product, value) -> category(product).setCategoryTitle((String) value)),
+	CATEGORY_IMAGE_URL("category.imageUrl", "category.imageUrl",
+			(product, value) -> category(product).setImageUrl((String) value));
+
+	@Getter
+	private final String path;
+	@Getter
+	private final String attribute;
+	private final BiConsumer<ProductDto, Object> setter;
+
+	ProductField(final String path, final String attribute, final BiConsumer<ProductDto, Object> setter) {
+		this.path = path;
+		this.attribute = attribute;
+		this.setter = setter;
+	}
+
+	/**
+	 * Sets the selected value on the DTO. Nulls are skipped, so a product
+	 * without a category is serialized without one.
+	 */
+	public void copy(final ProductDto productDto, final Object value) {
+		if (value != null)
+			this.setter.accept(productDto, value);
+	}
+
+	/**
+	 * Parses a comma-separated {@code fields} parameter. The result is in
+	 * declaration order whatever order the fields were named in, so equal
+	 * selections are equal lists.
+	 */
+	public static List<ProductField> parse(final String fields) {
+		return FieldSelectionHelper.parse(ProductField.class, ProductField::getPath, fields, "product");
+	}
+
+	private static CategoryDto category(final ProductDto productDto) {
+		if (productDto.getCategoryDto() == null)
+			productDto.setCategoryDto(new CategoryDto());
+		return productDto.getCategoryDto();
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.selimhorri.app.dto.importer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ProductImportErrorDto {
+	
+	// Line of the feed where the rejected record starts
+	private long line;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String sku;
+	
+	private String message;
+	
+}
@@ -0,0 +1,26 @@
+package com.selimhorri.app.dto.importer;
+
+import org.springframework.http.MediaType;
+
+public enum ProductImportFormat {
+	
+	CSV(new MediaType("text", "csv")),
+	NDJSON(new MediaType("application", "x-ndjson"));
+	
+	private final MediaType mediaType;
+	
+	ProductImportFormat(final MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+	
+	public static ProductImportFormat of(final String contentType) {
+		if (contentType != null) {
+			final MediaType requested = MediaType.parseMediaType(contentType);
+			for (final ProductImportFormat format : values())
+				if (format.mediaType.includes(requested))
+					return format;
+		}
+		throw new IllegalArgumentException("Import feeds must be text/csv or application/x-ndjson");
+	}
+	
+}
@@ -0,0 +1,34 @@
+package com.selimhorri.app.dto.importer;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductImportReportDto {
+	
+	private String importId;
+	private ProductImportFormat format;
+	private ProductImportStatus status;
+	private long processed;
+	private long inserted;
+	private long updated;
+	private long failed;
+	private long elapsedMillis;
+	
+	// Only the first errors are kept; failed has the full count
+	private List<ProductImportErrorDto> errors;
+	
+	@JsonInclude(Include.NON_NULL)
+	private String message;
+	
+}
@@ -0,0 +1,29 @@
+package com.selimhorri.app.dto.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product of an import feed, as read from a CSV record or an NDJSON
+ * line. The category is given either by id or by title.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductImportRow {
+	
+	private String sku;
+	private String productTitle;
+	private String imageUrl;
+	private Double priceUnit;
+	private Integer quantity;
+	private Integer categoryId;
+	private String categoryTitle;
+	
+}
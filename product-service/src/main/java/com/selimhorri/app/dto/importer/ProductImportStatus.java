@@ -0,0 +1,7 @@
+package com.selimhorri.app.dto.importer;
+
+public enum ProductImportStatus {
+	RUNNING,
+	COMPLETED,
+	FAILED;
+}
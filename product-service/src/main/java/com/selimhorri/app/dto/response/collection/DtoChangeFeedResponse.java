@@ -0,0 +1,24 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unlike a catalog page, the cursor is always present: at the end of the
+ * feed it is where the next poll resumes.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoChangeFeedResponse<T> {
+	
+	private Collection<T> collection;
+	private String cursor;
+	private boolean hasMore;
+	
+}
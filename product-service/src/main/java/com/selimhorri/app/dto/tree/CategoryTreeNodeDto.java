@@ -0,0 +1,36 @@
+package com.selimhorri.app.dto.tree;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CategoryTreeNodeDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer categoryId;
+	private String categoryTitle;
+	private String path;
+	private int depth;
+	
+	// Products filed directly under this category
+	private long productCount;
+	
+	// This category and every descendant
+	private long subtreeProductCount;
+	
+	@JsonInclude(Include.NON_EMPTY)
+	private List<CategoryTreeNodeDto> children;
+	
+}
@@ -15,7 +15,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductBulkUpdateException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationException;
+import com.selimhorri.app.exception.wrapper.StockReservationNotFoundException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -65,6 +68,7 @@ public class ApiExceptionHandler {
 	@ExceptionHandler(value = {
 			CategoryNotFoundException.class,
 			ProductNotFoundException.class,
+			StockReservationNotFoundException.class,
 			EntityNotFoundException.class
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
@@ -82,4 +86,40 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			StockReservationException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleConflictException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle conflicting request*\n");
+		final var conflict = HttpStatus.CONFLICT;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(conflict)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				conflict);
+	}
+
+	@ExceptionHandler(value = {
+			ProductBulkUpdateException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handlePartialUpdateException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle partially applied request*\n");
+		final var serverError = HttpStatus.INTERNAL_SERVER_ERROR;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(serverError)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				serverError);
+	}
+
 }
@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class ProductBulkUpdateException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public ProductBulkUpdateException() {
+		super();
+	}
+	
+	public ProductBulkUpdateException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public ProductBulkUpdateException(String message) {
+		super(message);
+	}
+	
+	public ProductBulkUpdateException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class StockReservationException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public StockReservationException() {
+		super();
+	}
+	
+	public StockReservationException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public StockReservationException(String message) {
+		super(message);
+	}
+	
+	public StockReservationException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
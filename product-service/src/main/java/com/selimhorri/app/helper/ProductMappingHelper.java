@@ -1,9 +1,14 @@
 package com.selimhorri.app.helper;
 
+import java.util.List;
+
+import javax.persistence.Tuple;
+
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.fields.ProductField;
 
 public interface ProductMappingHelper {
 	
@@ -41,6 +46,13 @@ public interface ProductMappingHelper {
 				.build();
 	}
 	
+	public static ProductDto map(final Tuple tuple, final List<ProductField> fields) {
+		final ProductDto productDto = new ProductDto();
+		for (int i = 0; i < fields.size(); i++)
+			fields.get(i).copy(productDto, tuple.get(i));
+		return productDto;
+	}
+	
 	
 	
 }
@@ -0,0 +1,163 @@
+package com.selimhorri.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.selimhorri.app.dto.importer.ProductImportRow;
+
+/**
+ * RFC 4180 CSV with a header record. Columns are matched by name, ignoring
+ * case, underscores and dashes ({@code price_unit}, {@code priceUnit} and
+ * {@code Price-Unit} are the same column); unknown columns are skipped.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvProductRowReader implements ProductRowReader {
+
+	private static final Map<String, String> ALIASES = Map.ofEntries(
+			Map.entry("sku", "sku"),
+			Map.entry("producttitle", "productTitle"),
+			Map.entry("title", "productTitle"),
+			Map.entry("imageurl", "imageUrl"),
+			Map.entry("priceunit", "priceUnit"),
+			Map.entry("price", "priceUnit"),
+			Map.entry("quantity", "quantity"),
+			Map.entry("categoryid", "categoryId"),
+			Map.entry("categorytitle", "categoryTitle"),
+			Map.entry("category", "categoryTitle"));
+
+	private final BufferedReader reader;
+	private final Map<String, Integer> columns = new HashMap<>();
+	private final int width;
+	private long line;
+	private long nextLine = 1;
+
+	public CsvProductRowReader(final BufferedReader reader) throws IOException {
+		this.reader = reader;
+		final List<String> header = this.readRecord();
+		if (header == null) {
+			this.width = 0;
+			return;
+		}
+		this.width = header.size();
+		for (int i = 0; i < header.size(); i++) {
+			final String name = ALIASES.get(header.get(i).replaceAll("[\\s_\\-\uFEFF]", "").toLowerCase(Locale.ROOT));
+			if (name != null)
+				this.columns.putIfAbsent(name, i);
+		}
+		if (!this.columns.containsKey("sku"))
+			throw new IllegalArgumentException("The CSV header must have a sku column");
+	}
+
+	@Override
+	public ProductImportRow next() throws IOException {
+		List<String> fields;
+		do {
+			fields = this.readRecord();
+			if (fields == null)
+				return null;
+		}
+		while (fields.size() == 1 && fields.get(0).isBlank());
+
+		if (fields.size() != this.width)
+			throw new IllegalArgumentException(
+					String.format("Expected %d fields, found %d", this.width, fields.size()));
+		return ProductImportRow.builder()
+				.sku(this.text(fields, "sku"))
+				.productTitle(this.text(fields, "productTitle"))
+				.imageUrl(this.text(fields, "imageUrl"))
+				.priceUnit(this.number(fields, "priceUnit", Double::valueOf))
+				.quantity(this.number(fields, "quantity", Integer::valueOf))
+				.categoryId(this.number(fields, "categoryId", Integer::valueOf))
+				.categoryTitle(this.text(fields, "categoryTitle"))
+				.build();
+	}
+
+	@Override
+	public long line() {
+		return this.line;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+	private String text(final List<String> fields, final String column) {
+		final Integer index = this.columns.get(column);
+		if (index == null)
+			return null;
+		final String value = fields.get(index).strip();
+		return value.isEmpty() ? null : value;
+	}
+
+	private <T> T number(final List<String> fields, final String column,
+			final Function<String, T> parser) {
+		final String value = this.text(fields, column);
+		if (value == null)
+			return null;
+		try {
+			return parser.apply(value);
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("Invalid %s '%s'", column, value));
+		}
+	}
+
+	/**
+	 * Reads one record, which spans several lines when a quoted field holds
+	 * line breaks.
+	 */
+	private List<String> readRecord() throws IOException {
+		String text = this.reader.readLine();
+		if (text == null)
+			return null;
+		this.line = this.nextLine++;
+
+		final List<String> fields = new ArrayList<>();
+		final StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (true) {
+			if (i == text.length()) {
+				if (!quoted)
+					break;
+				// Line break inside a quoted field
+				text = this.reader.readLine();
+				if (text == null)
+					throw new IllegalArgumentException("Unterminated quoted field");
+				this.nextLine++;
+				field.append('\n');
+				i = 0;
+				continue;
+			}
+			final char c = text.charAt(i++);
+			if (quoted) {
+				if (c != '"')
+					field.append(c);
+				else if (i < text.length() && text.charAt(i) == '"') {
+					field.append('"');
+					i++;
+				}
+				else
+					quoted = false;
+			}
+			else if (c == '"' && field.length() == 0)
+				quoted = true;
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else
+				field.append(c);
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.selimhorri.app.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.selimhorri.app.dto.importer.ProductImportRow;
+
+/**
+ * One JSON object per line. Each line is parsed on its own, so a malformed
+ * line only rejects that product.
+ */
+public class NdjsonProductRowReader implements ProductRowReader {
+	
+	private final BufferedReader reader;
+	private final ObjectReader rowReader;
+	private long line;
+	
+	public NdjsonProductRowReader(final BufferedReader reader, final ObjectMapper objectMapper) {
+		this.reader = reader;
+		this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+	}
+	
+	@Override
+	public ProductImportRow next() throws IOException {
+		String text;
+		do {
+			text = this.reader.readLine();
+			if (text == null)
+				return null;
+			this.line++;
+		}
+		while (text.isBlank());
+		
+		try {
+			return this.rowReader.readValue(text);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+		}
+	}
+	
+	@Override
+	public long line() {
+		return this.line;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+	
+}
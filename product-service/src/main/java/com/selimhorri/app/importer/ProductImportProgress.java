@@ -0,0 +1,107 @@
+package com.selimhorri.app.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.selimhorri.app.dto.importer.ProductImportErrorDto;
+import com.selimhorri.app.dto.importer.ProductImportFormat;
+import com.selimhorri.app.dto.importer.ProductImportReportDto;
+import com.selimhorri.app.dto.importer.ProductImportStatus;
+
+/**
+ * Counters of one running import. Written by the importing thread and read
+ * by whoever asks for the recent imports, so every field is safe to read
+ * while the import goes on.
+ */
+public class ProductImportProgress {
+	
+	// A feed with a wrong column can reject every row; the report keeps the first ones
+	private static final int MAX_ERRORS = 1000;
+	
+	private final String importId = UUID.randomUUID().toString();
+	private final ProductImportFormat format;
+	private final long startedAt = System.nanoTime();
+	private final AtomicLong processed = new AtomicLong();
+	private final AtomicLong inserted = new AtomicLong();
+	private final AtomicLong updated = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final List<ProductImportErrorDto> errors = new ArrayList<>();
+	private volatile ProductImportStatus status = ProductImportStatus.RUNNING;
+	private volatile long finishedAt;
+	private volatile String message;
+	
+	public ProductImportProgress(final ProductImportFormat format) {
+		this.format = format;
+	}
+	
+	public String getImportId() {
+		return this.importId;
+	}
+	
+	public long processed() {
+		return this.processed.incrementAndGet();
+	}
+	
+	public void written(final int inserted, final int updated) {
+		this.inserted.addAndGet(inserted);
+		this.updated.addAndGet(updated);
+	}
+	
+	public void rejected(final long line, final String sku, final String message) {
+		this.failed.incrementAndGet();
+		synchronized (this.errors) {
+			if (this.errors.size() < MAX_ERRORS)
+				this.errors.add(new ProductImportErrorDto(line, sku, message));
+		}
+	}
+	
+	public boolean hasWrites() {
+		return this.inserted.get() + this.updated.get() > 0;
+	}
+	
+	public void completed() {
+		this.finish(ProductImportStatus.COMPLETED, null);
+	}
+	
+	public void failed(final String message) {
+		this.finish(ProductImportStatus.FAILED, message);
+	}
+	
+	public ProductImportReportDto toReport() {
+		final ProductImportStatus status = this.status;
+		final long end = (status == ProductImportStatus.RUNNING) ? System.nanoTime() : this.finishedAt;
+		final List<ProductImportErrorDto> errors;
+		synchronized (this.errors) {
+			errors = List.copyOf(this.errors);
+		}
+		return ProductImportReportDto.builder()
+				.importId(this.importId)
+				.format(this.format)
+				.status(status)
+				.processed(this.processed.get())
+				.inserted(this.inserted.get())
+				.updated(this.updated.get())
+				.failed(this.failed.get())
+				.elapsedMillis((end - this.startedAt) / 1_000_000)
+				.errors(errors)
+				.message(this.message)
+				.build();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("import %s: %d processed, %d inserted, %d updated, %d failed",
+				this.importId, this.processed.get(), this.inserted.get(), this.updated.get(),
+				this.failed.get());
+	}
+	
+	private void finish(final ProductImportStatus status, final String message) {
+		this.finishedAt = System.nanoTime();
+		this.message = message;
+		// Last, so a reader that sees the final status also sees the end time
+		this.status = status;
+	}
+	
+}
@@ -0,0 +1,41 @@
+package com.selimhorri.app.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.dto.importer.ProductImportFormat;
+import com.selimhorri.app.dto.importer.ProductImportRow;
+
+/**
+ * Pulls one product at a time off an import feed; nothing beyond the
+ * current record is held in memory.
+ */
+public interface ProductRowReader extends Closeable {
+	
+	/**
+	 * @return the next product, or null at the end of the feed
+	 * @throws IllegalArgumentException if the record is malformed; the reader
+	 *         has already moved past it, so the caller can go on
+	 */
+	ProductImportRow next() throws IOException;
+	
+	/**
+	 * Line where the record last returned (or rejected) by {@link #next} starts.
+	 */
+	long line();
+	
+	public static ProductRowReader open(final ProductImportFormat format, final BufferedReader reader,
+			final ObjectMapper objectMapper) throws IOException {
+		switch (format) {
+			case CSV:
+				return new CsvProductRowReader(reader);
+			case NDJSON:
+				return new NdjsonProductRowReader(reader, objectMapper);
+			default:
+				throw new IllegalArgumentException("Unsupported import format " + format);
+		}
+	}
+	
+}
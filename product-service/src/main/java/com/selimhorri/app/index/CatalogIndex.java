@@ -0,0 +1,33 @@
+package com.selimhorri.app.index;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory view of the live catalog kept current by {@link CatalogIndexer}.
+ * Implementations guard their own state; every call may come from a
+ * different thread.
+ */
+public interface CatalogIndex {
+	
+	void index(final IndexedProduct product);
+	void remove(final int productId);
+	void putCategory(final int categoryId, final String categoryTitle);
+	void reassignCategory(final int fromCategoryId, final int toCategoryId);
+	
+	/**
+	 * Starts a full load into a fresh index; reads keep being answered from
+	 * the current one until {@link #endRebuild()} swaps the new one in.
+	 * Products indexed or removed while the load runs are newer than what it
+	 * read and must be kept.
+	 */
+	void beginRebuild(final Map<Integer, String> categoryTitles);
+	void load(final List<IndexedProduct> products);
+	void endRebuild();
+	
+	/**
+	 * Drops a partial load and keeps the current index.
+	 */
+	void abortRebuild();
+	
+}
@@ -0,0 +1,217 @@
+package com.selimhorri.app.index;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.catalog.CatalogSort;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-memory catalog indexes in step with the database. Product and
+ * category writes reach every {@link CatalogIndex} once their transaction
+ * commits; a full rebuild loads the whole catalog again in id order, in
+ * keyset batches, or from whatever batches the caller supplies.
+ */
+@Slf4j
+@Component
+public class CatalogIndexer {
+
+	private static final String DELETED_CATEGORY = "Deleted";
+	private static final String NO_CATEGORY = "No Category";
+
+	private final ProductRepository productRepository;
+	private final CategoryRepository categoryRepository;
+	private final List<CatalogIndex> catalogIndexes;
+	private final int batchSize;
+	private final boolean rebuildOnStartup;
+	private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+	private volatile boolean rebuildRequested;
+
+	public CatalogIndexer(final ProductRepository productRepository, final CategoryRepository categoryRepository,
+			final List<CatalogIndex> catalogIndexes,
+			@Value("${app.search.rebuild-batch-size:1000}") final int batchSize,
+			@Value("${app.search.rebuild-on-startup:true}") final boolean rebuildOnStartup) {
+		this.productRepository = productRepository;
+		this.categoryRepository = categoryRepository;
+		this.catalogIndexes = catalogIndexes;
+		this.batchSize = batchSize;
+		this.rebuildOnStartup = rebuildOnStartup;
+	}
+
+	public void productSaved(final Product product) {
+		final IndexedProduct indexedProduct = IndexedProduct.of(product);
+		final boolean deleted = product.isDeleted();
+		this.afterCommit(() -> {
+			if (deleted || indexedProduct.getCategoryId() == null)
+				this.catalogIndexes.forEach(catalogIndex -> catalogIndex.remove(indexedProduct.getProductId()));
+			else
+				this.catalogIndexes.forEach(catalogIndex -> catalogIndex.index(indexedProduct));
+		});
+	}
+
+	public void productRemoved(final Integer productId) {
+		this.afterCommit(() -> this.catalogIndexes.forEach(catalogIndex -> catalogIndex.remove(productId)));
+	}
+
+	public void categorySaved(final Category category) {
+		final Integer categoryId = category.getCategoryId();
+		final String categoryTitle = category.getCategoryTitle();
+		this.afterCommit(() -> this.catalogIndexes.forEach(
+				catalogIndex -> catalogIndex.putCategory(categoryId, categoryTitle)));
+	}
+
+	public void categoryRemoved(final Integer categoryId, final Integer replacementCategoryId) {
+		this.afterCommit(() -> this.catalogIndexes.forEach(
+				catalogIndex -> catalogIndex.reassignCategory(categoryId, replacementCategoryId)));
+	}
+
+	/**
+	 * Called by {@link com.selimhorri.app.snapshot.CatalogWarmUp} when there
+	 * is no catalog snapshot to start from.
+	 */
+	public void rebuildOnStartup() {
+		if (this.rebuildOnStartup)
+			this.rebuildInBackground();
+	}
+
+	/**
+	 * Reloads every index on a background thread; searches are answered from
+	 * the previous contents of each index until the reload completes. A request that arrives during a
+	 * rebuild schedules exactly one more, so writes made after the running
+	 * one passed them are not missed.
+	 */
+	public void rebuildInBackground() {
+		this.rebuildRequested = true;
+		if (!this.rebuildRunning.compareAndSet(false, true))
+			return;
+		final Thread thread = new Thread(() -> {
+			try {
+				while (this.rebuildRequested) {
+					this.rebuildRequested = false;
+					try {
+						this.rebuild();
+					}
+					catch (RuntimeException e) {
+						log.error("*** CatalogIndexer; catalog index rebuild failed *", e);
+					}
+				}
+			}
+			finally {
+				this.rebuildRunning.set(false);
+				// A request may have landed between the last check and the flag reset
+				if (this.rebuildRequested)
+					this.rebuildInBackground();
+			}
+		}, "catalog-index-rebuild");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void rebuild() {
+		this.rebuild(this.categoryRepository.findAll(), new CatalogPages());
+	}
+
+	/**
+	 * Reloads every index from {@code batches}, live products only; what is
+	 * indexed or removed meanwhile is kept as the {@link CatalogIndex}
+	 * contract says.
+	 */
+	public void rebuild(final Iterable<Category> categories, final Iterator<List<IndexedProduct>> batches) {
+		final long start = System.nanoTime();
+		final Map<Integer, String> categoryTitles = new HashMap<>();
+		for (final Category category : categories)
+			if (!DELETED_CATEGORY.equalsIgnoreCase(category.getCategoryTitle())
+					&& !NO_CATEGORY.equalsIgnoreCase(category.getCategoryTitle()))
+				categoryTitles.put(category.getCategoryId(), category.getCategoryTitle());
+
+		this.catalogIndexes.forEach(catalogIndex -> catalogIndex.beginRebuild(categoryTitles));
+		int loaded = 0;
+		try {
+			while (batches.hasNext()) {
+				final List<IndexedProduct> batch = batches.next();
+				this.catalogIndexes.forEach(catalogIndex -> catalogIndex.load(batch));
+				loaded += batch.size();
+			}
+		}
+		catch (RuntimeException e) {
+			// A half-loaded index must not replace a complete one
+			this.catalogIndexes.forEach(CatalogIndex::abortRebuild);
+			throw e;
+		}
+		this.catalogIndexes.forEach(CatalogIndex::endRebuild);
+		log.info("*** CatalogIndexer; loaded {} products into {} indexes in {} ms *", loaded,
+				this.catalogIndexes.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	/**
+	 * Runs the index update once the current transaction commits, or right
+	 * away outside a transaction; a rolled back write never reaches the index.
+	 */
+	private void afterCommit(final Runnable update) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					update.run();
+				}
+			});
+		}
+		else {
+			update.run();
+		}
+	}
+
+	/**
+	 * The live catalog in id order, one keyset page per batch.
+	 */
+	private final class CatalogPages implements Iterator<List<IndexedProduct>> {
+
+		private CatalogCursor cursor;
+		private boolean hasNext = true;
+
+		@Override
+		public boolean hasNext() {
+			return this.hasNext;
+		}
+
+		@Override
+		public List<IndexedProduct> next() {
+			if (!this.hasNext)
+				throw new NoSuchElementException();
+			final List<Product> products = CatalogIndexer.this.productRepository.findCatalogPage(CatalogQuery.builder()
+					.sort(CatalogSort.ID)
+					.direction(Sort.Direction.ASC)
+					.limit(CatalogIndexer.this.batchSize)
+					.cursor(this.cursor)
+					.build());
+			this.hasNext = products.size() > CatalogIndexer.this.batchSize;
+			final List<Product> batch = this.hasNext ? products.subList(0, CatalogIndexer.this.batchSize) : products;
+			if (this.hasNext)
+				this.cursor = CatalogCursor.after(CatalogSort.ID, Sort.Direction.ASC, batch.get(batch.size() - 1));
+			return batch.stream()
+					.map(IndexedProduct::of)
+					.collect(Collectors.toUnmodifiableList());
+		}
+
+	}
+
+}
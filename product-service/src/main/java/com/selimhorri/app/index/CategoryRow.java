@@ -0,0 +1,19 @@
+package com.selimhorri.app.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What {@link CategoryTree} needs of a category, read in one query without
+ * loading any parent entity.
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryRow {
+	
+	private final Integer categoryId;
+	private final Integer parentCategoryId;
+	private final String categoryTitle;
+	private final String categoryPath;
+	
+}
@@ -0,0 +1,237 @@
+package com.selimhorri.app.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the category hierarchy. Categories are numbered in
+ * depth-first order, so the descendants of a category are the contiguous
+ * run of positions right after it, up to {@link Node#getEnd()}: an
+ * in-memory nested set. Ancestor checks are a range comparison, and each
+ * node carries its ancestor ids and materialized path.
+ *
+ * <p>A category whose parent is missing becomes a root, and so does one
+ * caught in a parent cycle, so a bad row never hides part of the tree.</p>
+ */
+public final class CategoryTree {
+
+	private static final int[] NO_IDS = new int[0];
+
+	public static final CategoryTree EMPTY = of(List.of());
+
+	private final Map<Integer, Node> nodes;
+	// Category ids in depth-first order
+	private final int[] preorder;
+	private final List<Node> roots;
+
+	private CategoryTree(final Map<Integer, Node> nodes, final int[] preorder, final List<Node> roots) {
+		this.nodes = nodes;
+		this.preorder = preorder;
+		this.roots = roots;
+	}
+
+	/**
+	 * @param parentPath null for a root
+	 */
+	public static String childPath(final String parentPath, final int categoryId) {
+		return ((parentPath == null) ? "/" : parentPath) + categoryId + "/";
+	}
+
+	public static CategoryTree of(final Collection<CategoryRow> rows) {
+		final Map<Integer, CategoryRow> byId = new TreeMap<>();
+		rows.forEach(row -> byId.put(row.getCategoryId(), row));
+		final Map<Integer, List<Integer>> children = new HashMap<>();
+		for (final CategoryRow row : byId.values()) {
+			final Integer parentId = row.getParentCategoryId();
+			if (parentId != null && byId.containsKey(parentId) && !parentId.equals(row.getCategoryId()))
+				children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(row.getCategoryId());
+		}
+
+		final Builder builder = new Builder(byId, children);
+		for (final CategoryRow row : byId.values())
+			if (row.getParentCategoryId() == null || !byId.containsKey(row.getParentCategoryId()))
+				builder.visit(row.getCategoryId());
+		// Only categories hanging from a parent cycle are left
+		for (final Integer categoryId : byId.keySet())
+			if (!builder.nodes.containsKey(categoryId))
+				builder.visit(categoryId);
+		return new CategoryTree(Collections.unmodifiableMap(builder.nodes), builder.preorder,
+				Collections.unmodifiableList(builder.roots));
+	}
+
+	public Optional<Node> find(final Integer categoryId) {
+		return Optional.ofNullable(this.nodes.get(categoryId));
+	}
+
+	public List<Node> getRoots() {
+		return this.roots;
+	}
+
+	public int size() {
+		return this.preorder.length;
+	}
+
+	/**
+	 * Every category below {@code categoryId}, in depth-first order; empty
+	 * for a leaf or an unknown id.
+	 */
+	public int[] descendantIds(final Integer categoryId) {
+		final Node node = this.nodes.get(categoryId);
+		return (node == null) ? NO_IDS : Arrays.copyOfRange(this.preorder, node.position + 1, node.end);
+	}
+
+	public boolean isAncestor(final Integer ancestorId, final Integer categoryId) {
+		final Node ancestor = this.nodes.get(ancestorId);
+		final Node node = this.nodes.get(categoryId);
+		return ancestor != null && node != null && ancestor.position < node.position && node.position < ancestor.end;
+	}
+
+	/**
+	 * Rolls per-category counts up the tree in one pass over prefix sums.
+	 *
+	 * @return the total of each subtree, indexed by {@link Node#getPosition()}
+	 */
+	public long[] subtreeTotals(final Map<Integer, Long> counts) {
+		final long[] prefix = new long[this.preorder.length + 1];
+		for (int position = 0; position < this.preorder.length; position++)
+			prefix[position + 1] = prefix[position] + counts.getOrDefault(this.preorder[position], 0L);
+		final long[] totals = new long[this.preorder.length];
+		for (final Node node : this.nodes.values())
+			totals[node.position] = prefix[node.end] - prefix[node.position];
+		return totals;
+	}
+
+	public static final class Node {
+
+		private final int categoryId;
+		private final Integer parentCategoryId;
+		private final String categoryTitle;
+		private final String path;
+		private final int[] ancestorIds;
+		private final int position;
+		private final List<Node> children = new ArrayList<>();
+		private int end;
+
+		private Node(final CategoryRow row, final Node parent, final int position) {
+			this.categoryId = row.getCategoryId();
+			this.parentCategoryId = (parent == null) ? null : parent.categoryId;
+			this.categoryTitle = row.getCategoryTitle();
+			this.path = childPath((parent == null) ? null : parent.path, this.categoryId);
+			if (parent == null) {
+				this.ancestorIds = NO_IDS;
+			}
+			else {
+				this.ancestorIds = Arrays.copyOf(parent.ancestorIds, parent.ancestorIds.length + 1);
+				this.ancestorIds[parent.ancestorIds.length] = parent.categoryId;
+			}
+			this.position = position;
+		}
+
+		public int getCategoryId() {
+			return this.categoryId;
+		}
+
+		public Integer getParentCategoryId() {
+			return this.parentCategoryId;
+		}
+
+		public String getCategoryTitle() {
+			return this.categoryTitle;
+		}
+
+		public String getPath() {
+			return this.path;
+		}
+
+		public int getDepth() {
+			return this.ancestorIds.length;
+		}
+
+		/**
+		 * From the root down to the parent.
+		 */
+		public int[] getAncestorIds() {
+			return this.ancestorIds.clone();
+		}
+
+		public int getPosition() {
+			return this.position;
+		}
+
+		/**
+		 * Position right after the last descendant.
+		 */
+		public int getEnd() {
+			return this.end;
+		}
+
+		public List<Node> getChildren() {
+			return Collections.unmodifiableList(this.children);
+		}
+
+	}
+
+	private static final class Builder {
+
+		private final Map<Integer, CategoryRow> rows;
+		private final Map<Integer, List<Integer>> children;
+		private final Map<Integer, Node> nodes = new HashMap<>();
+		private final List<Node> roots = new ArrayList<>();
+		private final int[] preorder;
+		private int next;
+
+		Builder(final Map<Integer, CategoryRow> rows, final Map<Integer, List<Integer>> children) {
+			this.rows = rows;
+			this.children = children;
+			this.preorder = new int[rows.size()];
+		}
+
+		/**
+		 * Depth-first from {@code rootId} with an explicit stack, so a deep
+		 * hierarchy cannot overflow the thread stack.
+		 */
+		void visit(final int rootId) {
+			final Node root = this.add(rootId, null);
+			this.roots.add(root);
+			final Deque<Map.Entry<Node, Iterator<Integer>>> stack = new ArrayDeque<>();
+			stack.push(Map.entry(root, this.childrenOf(rootId)));
+			while (!stack.isEmpty()) {
+				final Map.Entry<Node, Iterator<Integer>> frame = stack.peek();
+				if (!frame.getValue().hasNext()) {
+					frame.getKey().end = this.next;
+					stack.pop();
+					continue;
+				}
+				final int childId = frame.getValue().next();
+				if (this.nodes.containsKey(childId))
+					continue;
+				final Node child = this.add(childId, frame.getKey());
+				frame.getKey().children.add(child);
+				stack.push(Map.entry(child, this.childrenOf(childId)));
+			}
+		}
+
+		private Node add(final int categoryId, final Node parent) {
+			final Node node = new Node(this.rows.get(categoryId), parent, this.next);
+			this.preorder[this.next++] = categoryId;
+			this.nodes.put(categoryId, node);
+			return node;
+		}
+
+		private Iterator<Integer> childrenOf(final int categoryId) {
+			return this.children.getOrDefault(categoryId, List.of()).iterator();
+		}
+
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.selimhorri.app.index;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.repository.CategoryRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the current {@link CategoryTree}. Readers get whichever snapshot
+ * is current and never see one half built; category writes replace it once
+ * they commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeHolder {
+
+	private final CategoryRepository categoryRepository;
+	private final TransactionOperations transactionOperations;
+	private volatile CategoryTree tree = CategoryTree.EMPTY;
+
+	public CategoryTree current() {
+		return this.tree;
+	}
+
+	/**
+	 * First snapshot. Also writes the materialized path of every category
+	 * that has none yet or a stale one, which is how rows that predate the
+	 * column get theirs.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		this.transactionOperations.executeWithoutResult(status -> {
+			final List<CategoryRow> rows = this.categoryRepository.findAllRows();
+			final CategoryTree loaded = CategoryTree.of(rows);
+			int repaired = 0;
+			for (final CategoryRow row : rows) {
+				final String path = loaded.find(row.getCategoryId()).orElseThrow().getPath();
+				if (!path.equals(row.getCategoryPath())) {
+					this.categoryRepository.updatePath(row.getCategoryId(), path);
+					repaired++;
+				}
+			}
+			this.tree = loaded;
+			log.info("*** CategoryTreeHolder; loaded {} categories, wrote {} paths *", loaded.size(), repaired);
+		});
+	}
+
+	/**
+	 * Rebuilds the snapshot once the current transaction commits, or right
+	 * away outside a transaction.
+	 */
+	public void categoriesChanged() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					CategoryTreeHolder.this.refresh();
+				}
+			});
+		}
+		else {
+			this.refresh();
+		}
+	}
+
+	// Serialized, so a rebuild that read the table early can never replace a newer one
+	private synchronized void refresh() {
+		this.tree = CategoryTree.of(this.categoryRepository.findAllRows());
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.selimhorri.app.index;
+
+import com.selimhorri.app.domain.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The fields of a product the in-memory catalog indexes work on, copied out
+ * of the entity so they can be applied after the transaction has ended.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class IndexedProduct {
+
+	private final int productId;
+	private final String productTitle;
+	private final String sku;
+	private final Integer categoryId;
+	private final Double priceUnit;
+	private final Integer quantity;
+
+	public static IndexedProduct of(final Product product) {
+		return new IndexedProduct(
+				product.getProductId(),
+				product.getProductTitle(),
+				product.getSku(),
+				(product.getCategory() == null) ? null : product.getCategory().getCategoryId(),
+				product.getPriceUnit(),
+				product.getQuantity());
+	}
+
+}
@@ -0,0 +1,383 @@
+package com.selimhorri.app.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Compressed (Roaring) bitmaps of product ids: one per category, one per
+ * price band and one for the products in stock. Filters are unions within
+ * a facet and intersections across facets; the count of each facet value is
+ * taken against the filters of the other facets only, so a client can show
+ * how many products every alternative would leave.
+ *
+ * <p>Where each product sits is kept in primitive arrays indexed by id, so
+ * an update clears exactly the bitmaps it was in. A rebuild loads into a
+ * separate set of bitmaps that replaces the live one once it is complete.</p>
+ */
+@Component
+public class ProductFacetIndex implements CatalogIndex {
+
+	private static final int NONE = -1;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final double[] priceBounds;
+	private final Set<Integer> touchedDuringRebuild = new HashSet<>();
+	private Content live;
+	// Filled by a rebuild and swapped in once complete; null otherwise
+	private Content pending;
+
+	/**
+	 * @param priceBounds ascending band limits; {@code 25,50} gives the bands
+	 *        below 25, from 25 to below 50 and from 50 up
+	 */
+	public ProductFacetIndex(@Value("${app.facets.price-bounds:25,50,100,250,500,1000}") final double[] priceBounds) {
+		for (int i = 1; i < priceBounds.length; i++)
+			if (priceBounds[i] <= priceBounds[i - 1])
+				throw new IllegalArgumentException("app.facets.price-bounds must be strictly ascending");
+		if (priceBounds.length > Byte.MAX_VALUE - 1)
+			throw new IllegalArgumentException("app.facets.price-bounds allows at most 125 bounds");
+		this.priceBounds = priceBounds.clone();
+		this.live = new Content();
+	}
+
+	public double[] getPriceBounds() {
+		return this.priceBounds.clone();
+	}
+
+	public int priceBand(final Double priceUnit) {
+		if (priceUnit == null)
+			return NONE;
+		final int found = Arrays.binarySearch(this.priceBounds, priceUnit);
+		// A price equal to a bound opens the next band
+		return found >= 0 ? found + 1 : -found - 1;
+	}
+
+	/**
+	 * Evaluates the filters, counts every facet value and returns the first
+	 * {@code limit} matching ids above {@code afterProductId}. Empty filter
+	 * sets and a null {@code inStock} leave that facet unfiltered.
+	 */
+	public Facets facets(final Collection<Integer> categoryIds, final Collection<Integer> priceBands,
+			final Boolean inStock, final int afterProductId, final int limit) {
+		this.lock.readLock().lock();
+		try {
+			final Content current = this.live;
+			final RoaringBitmap categoryFilter = categoryIds.isEmpty() ? null : FastAggregation.or(
+					categoryIds.stream()
+							.map(categoryId -> current.categories.getOrDefault(categoryId, new RoaringBitmap()))
+							.toArray(RoaringBitmap[]::new));
+			final RoaringBitmap priceFilter = priceBands.isEmpty() ? null : FastAggregation.or(
+					priceBands.stream()
+							.map(band -> (band >= 0 && band < current.priceBands.length)
+									? current.priceBands[band]
+									: new RoaringBitmap())
+							.toArray(RoaringBitmap[]::new));
+			final RoaringBitmap stockFilter = (inStock == null) ? null
+					: inStock ? current.inStock : RoaringBitmap.andNot(current.all, current.inStock);
+
+			// Each facet is counted with the other two filters applied
+			final RoaringBitmap forCategories = current.intersect(priceFilter, stockFilter);
+			final RoaringBitmap forPrices = current.intersect(categoryFilter, stockFilter);
+			final RoaringBitmap forStock = current.intersect(categoryFilter, priceFilter);
+			final RoaringBitmap matches = (categoryFilter == null) ? forCategories
+					: RoaringBitmap.and(forCategories, categoryFilter);
+
+			final Map<Integer, Integer> categoryCounts = new LinkedHashMap<>();
+			final Map<Integer, String> titles = new HashMap<>();
+			current.categories.entrySet().stream()
+					.map(entry -> Map.entry(entry.getKey(), RoaringBitmap.andCardinality(entry.getValue(), forCategories)))
+					.filter(entry -> entry.getValue() > 0)
+					.sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+							.thenComparing(Map.Entry.<Integer, Integer>comparingByKey()))
+					.forEach(entry -> {
+						categoryCounts.put(entry.getKey(), entry.getValue());
+						titles.put(entry.getKey(), current.categoryTitles.get(entry.getKey()));
+					});
+
+			final int[] priceBandCounts = new int[current.priceBands.length];
+			for (int band = 0; band < current.priceBands.length; band++)
+				priceBandCounts[band] = RoaringBitmap.andCardinality(current.priceBands[band], forPrices);
+
+			final int inStockCount = RoaringBitmap.andCardinality(current.inStock, forStock);
+
+			final int[] page = new int[Math.max(0, limit)];
+			int size = 0;
+			final PeekableIntIterator iterator = matches.getIntIterator();
+			if (afterProductId >= 0)
+				iterator.advanceIfNeeded(afterProductId + 1);
+			while (size < page.length && iterator.hasNext())
+				page[size++] = iterator.next();
+
+			return new Facets(matches.getCardinality(), categoryCounts, titles, priceBandCounts,
+					inStockCount, forStock.getCardinality() - inStockCount,
+					Arrays.copyOf(page, size), size == page.length && iterator.hasNext());
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	public long sizeInBytes() {
+		this.lock.readLock().lock();
+		try {
+			return this.live.sizeInBytes();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void index(final IndexedProduct product) {
+		this.lock.writeLock().lock();
+		try {
+			this.touch(product.getProductId());
+			this.apply(content -> content.put(product));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(final int productId) {
+		this.lock.writeLock().lock();
+		try {
+			this.touch(productId);
+			this.apply(content -> content.delete(productId));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void putCategory(final int categoryId, final String categoryTitle) {
+		this.lock.writeLock().lock();
+		try {
+			this.apply(content -> content.categoryTitles.put(categoryId, categoryTitle));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void reassignCategory(final int fromCategoryId, final int toCategoryId) {
+		this.lock.writeLock().lock();
+		try {
+			this.apply(content -> content.reassignCategory(fromCategoryId, toCategoryId));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void beginRebuild(final Map<Integer, String> categoryTitles) {
+		final Content rebuilt = new Content();
+		rebuilt.categoryTitles.putAll(categoryTitles);
+		this.lock.writeLock().lock();
+		try {
+			this.pending = rebuilt;
+			this.touchedDuringRebuild.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void load(final List<IndexedProduct> products) {
+		this.lock.writeLock().lock();
+		try {
+			if (this.pending == null)
+				throw new IllegalStateException("No facet index rebuild in progress");
+			for (final IndexedProduct product : products)
+				if (!this.touchedDuringRebuild.contains(product.getProductId()))
+					this.pending.put(product);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void endRebuild() {
+		this.lock.writeLock().lock();
+		try {
+			if (this.pending != null) {
+				// Long id runs compress far better as run containers
+				this.pending.runOptimize();
+				this.live = this.pending;
+			}
+			this.pending = null;
+			this.touchedDuringRebuild.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void abortRebuild() {
+		this.lock.writeLock().lock();
+		try {
+			this.pending = null;
+			this.touchedDuringRebuild.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private void touch(final int productId) {
+		if (this.pending != null)
+			this.touchedDuringRebuild.add(productId);
+	}
+
+	/**
+	 * A change made while a rebuild runs goes to both sets of bitmaps.
+	 */
+	private void apply(final Consumer<Content> change) {
+		change.accept(this.live);
+		if (this.pending != null)
+			change.accept(this.pending);
+	}
+
+	/**
+	 * Every bitmap plus the per-id positions used to clear them.
+	 */
+	private final class Content {
+
+		private final RoaringBitmap all = new RoaringBitmap();
+		private final RoaringBitmap inStock = new RoaringBitmap();
+		private final RoaringBitmap[] priceBands = new RoaringBitmap[ProductFacetIndex.this.priceBounds.length + 1];
+		private final Map<Integer, RoaringBitmap> categories = new HashMap<>();
+		private final Map<Integer, String> categoryTitles = new HashMap<>();
+		private int[] categoryOf = new int[1024];
+		private byte[] priceBandOf = new byte[1024];
+
+		Content() {
+			for (int band = 0; band < this.priceBands.length; band++)
+				this.priceBands[band] = new RoaringBitmap();
+			Arrays.fill(this.categoryOf, NONE);
+			Arrays.fill(this.priceBandOf, (byte) NONE);
+		}
+
+		void put(final IndexedProduct product) {
+			final int productId = product.getProductId();
+			this.delete(productId);
+			if (productId >= this.categoryOf.length) {
+				final int capacity = Math.max(productId + 1, this.categoryOf.length + (this.categoryOf.length >> 1));
+				final int previous = this.categoryOf.length;
+				this.categoryOf = Arrays.copyOf(this.categoryOf, capacity);
+				this.priceBandOf = Arrays.copyOf(this.priceBandOf, capacity);
+				Arrays.fill(this.categoryOf, previous, capacity, NONE);
+				Arrays.fill(this.priceBandOf, previous, capacity, (byte) NONE);
+			}
+
+			this.all.add(productId);
+			if (product.getQuantity() != null && product.getQuantity() > 0)
+				this.inStock.add(productId);
+			if (product.getCategoryId() != null) {
+				this.categories.computeIfAbsent(product.getCategoryId(), categoryId -> new RoaringBitmap()).add(productId);
+				this.categoryOf[productId] = product.getCategoryId();
+			}
+			final int band = priceBand(product.getPriceUnit());
+			if (band != NONE) {
+				this.priceBands[band].add(productId);
+				this.priceBandOf[productId] = (byte) band;
+			}
+		}
+
+		void delete(final int productId) {
+			if (productId >= this.categoryOf.length || !this.all.contains(productId))
+				return;
+			this.all.remove(productId);
+			this.inStock.remove(productId);
+			final int categoryId = this.categoryOf[productId];
+			if (categoryId != NONE) {
+				final RoaringBitmap category = this.categories.get(categoryId);
+				category.remove(productId);
+				if (category.isEmpty())
+					this.categories.remove(categoryId);
+				this.categoryOf[productId] = NONE;
+			}
+			if (this.priceBandOf[productId] != NONE) {
+				this.priceBands[this.priceBandOf[productId]].remove(productId);
+				this.priceBandOf[productId] = (byte) NONE;
+			}
+		}
+
+		void reassignCategory(final int fromCategoryId, final int toCategoryId) {
+			this.categoryTitles.remove(fromCategoryId);
+			final RoaringBitmap moved = this.categories.remove(fromCategoryId);
+			if (moved == null)
+				return;
+			this.categories.computeIfAbsent(toCategoryId, categoryId -> new RoaringBitmap()).or(moved);
+			final PeekableIntIterator iterator = moved.getIntIterator();
+			while (iterator.hasNext())
+				this.categoryOf[iterator.next()] = toCategoryId;
+		}
+
+		/**
+		 * The live products narrowed by whichever of the filters are set.
+		 */
+		RoaringBitmap intersect(final RoaringBitmap first, final RoaringBitmap second) {
+			if (first == null)
+				return (second == null) ? this.all : second;
+			return (second == null) ? first : RoaringBitmap.and(first, second);
+		}
+
+		void runOptimize() {
+			this.all.runOptimize();
+			this.inStock.runOptimize();
+			this.categories.values().forEach(RoaringBitmap::runOptimize);
+		}
+
+		long sizeInBytes() {
+			long bytes = this.all.getLongSizeInBytes() + this.inStock.getLongSizeInBytes();
+			for (final RoaringBitmap band : this.priceBands)
+				bytes += band.getLongSizeInBytes();
+			for (final RoaringBitmap category : this.categories.values())
+				bytes += category.getLongSizeInBytes();
+			return bytes + (long) this.categoryOf.length * Integer.BYTES + this.priceBandOf.length;
+		}
+
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static final class Facets {
+
+		private final int total;
+		// Non-empty categories, largest first
+		private final Map<Integer, Integer> categoryCounts;
+		private final Map<Integer, String> categoryTitles;
+		private final int[] priceBandCounts;
+		private final int inStockCount;
+		private final int outOfStockCount;
+		private final int[] productIds;
+		private final boolean hasMore;
+
+	}
+
+}
@@ -0,0 +1,709 @@
+package com.selimhorri.app.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Inverted index over product title, SKU and category title, held in memory
+ * for the whole catalog. Terms are lower-cased and stripped of accents; each
+ * term keeps a sorted array of product ids with the fields it appeared in.
+ *
+ * <p>All query terms must match. The last one also matches as a prefix while
+ * the user is still typing it. A hit scores the sum, over the query terms,
+ * of the weight of the fields the term was found in (SKU over title over
+ * category), doubled for whole-term matches; ties go to the lowest id.</p>
+ *
+ * <p>Readers share a read lock for the whole query; writes are single
+ * products or categories and take the write lock briefly. A rebuild loads
+ * into a separate content that replaces the live one only once it is
+ * complete, so searches are never answered from a half-loaded index.</p>
+ */
+@Component
+public class ProductSearchIndex implements CatalogIndex {
+
+	static final byte TITLE = 1;
+	static final byte SKU = 2;
+	static final byte CATEGORY = 4;
+
+	private static final float EXACT = 2f;
+	private static final float PREFIX = 1f;
+	private static final float[] FIELD_WEIGHTS = new float[8];
+
+	static {
+		for (int fields = 1; fields < FIELD_WEIGHTS.length; fields++)
+			FIELD_WEIGHTS[fields] = ((fields & SKU) != 0 ? 8f : 0f)
+					+ ((fields & TITLE) != 0 ? 4f : 0f)
+					+ ((fields & CATEGORY) != 0 ? 1f : 0f);
+	}
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final String[] NO_TERMS = new String[0];
+	private static final int MAX_TERM_LENGTH = 64;
+	private static final int MAX_QUERY_TERMS = 8;
+	// A prefix expands to at most this many terms
+	private static final int MAX_PREFIX_EXPANSIONS = 512;
+	// Checking one candidate's terms costs about as much as merging this many postings
+	private static final int PREFIX_CHECK_COST = 8;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Set<Integer> touchedDuringRebuild = new HashSet<>();
+	private Content live = new Content();
+	// Filled by a rebuild and swapped in once complete; null otherwise
+	private Content pending;
+
+	public static List<String> tokenize(final String text) {
+		if (text == null || text.isBlank())
+			return List.of();
+		final String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+				.replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		final List<String> tokens = new ArrayList<>();
+		for (final String token : SEPARATORS.split(folded))
+			if (!token.isEmpty())
+				tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+		return tokens;
+	}
+
+	/**
+	 * Ranked page of matching product ids and the total number of matches.
+	 */
+	public Hits search(final String query, final int offset, final int limit) {
+		final List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+		if (tokens.isEmpty())
+			return Hits.EMPTY;
+		final List<String> queryTerms = tokens.subList(0, Math.min(tokens.size(), MAX_QUERY_TERMS));
+		// "lapt" is still being typed, "lapt " is not
+		final boolean typing = Character.isLetterOrDigit(query.charAt(query.length() - 1))
+				&& queryTerms.size() == tokens.size();
+		final List<String> wholeTerms = typing ? queryTerms.subList(0, queryTerms.size() - 1) : queryTerms;
+
+		this.lock.readLock().lock();
+		try {
+			final Content current = this.live;
+			final List<Matches> termMatches = new ArrayList<>(wholeTerms.size());
+			for (final String term : wholeTerms) {
+				final Postings postings = current.terms.get(term);
+				if (postings == null)
+					return Hits.EMPTY;
+				termMatches.add(Matches.of(postings, EXACT));
+			}
+			// Rarest term first keeps every intersection as small as possible
+			termMatches.sort(Comparator.comparingInt(matches -> matches.size));
+			Matches matches = null;
+			for (final Matches next : termMatches)
+				matches = (matches == null) ? next : matches.intersect(next);
+
+			if (typing) {
+				final String prefix = queryTerms.get(queryTerms.size() - 1);
+				final List<Postings> expansions = current.expansions(prefix);
+				if (matches == null)
+					matches = union(expansions, prefix);
+				else if ((long) matches.size * PREFIX_CHECK_COST <= expansions.stream().mapToLong(postings -> postings.size).sum())
+					matches = current.filterByPrefix(matches, prefix);
+				else
+					matches = matches.intersect(union(expansions, prefix));
+			}
+			return top(matches, offset, limit);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Completions of the last term of {@code query}, most frequent first,
+	 * prefixed with the terms typed before it.
+	 */
+	public List<String> suggest(final String query, final int limit) {
+		final List<String> tokens = tokenize(query);
+		if (tokens.isEmpty())
+			return List.of();
+		final String prefix = tokens.get(tokens.size() - 1);
+		final String head = String.join(" ", tokens.subList(0, tokens.size() - 1));
+
+		this.lock.readLock().lock();
+		try {
+			return this.live.expansions(prefix).stream()
+					.sorted(Comparator.comparingInt((Postings postings) -> postings.size).reversed())
+					.limit(limit)
+					.map(postings -> head.isEmpty() ? postings.term : head + " " + postings.term)
+					.collect(Collectors.toUnmodifiableList());
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void index(final IndexedProduct product) {
+		this.lock.writeLock().lock();
+		try {
+			this.touch(product.getProductId());
+			this.apply(content -> content.put(product));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(final int productId) {
+		this.lock.writeLock().lock();
+		try {
+			this.touch(productId);
+			this.apply(content -> content.delete(productId));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Registers or renames a category and re-indexes the products in it.
+	 */
+	@Override
+	public void putCategory(final int categoryId, final String categoryTitle) {
+		final String[] current = distinctTerms(categoryTitle);
+		this.lock.writeLock().lock();
+		try {
+			this.apply(content -> content.putCategory(categoryId, current));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void reassignCategory(final int fromCategoryId, final int toCategoryId) {
+		this.lock.writeLock().lock();
+		try {
+			this.apply(content -> content.reassignCategory(fromCategoryId, toCategoryId));
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Starts filling a fresh content; searches keep reading the live one
+	 * until {@link #endRebuild()} swaps it in, at the cost of holding both
+	 * in memory meanwhile.
+	 */
+	@Override
+	public void beginRebuild(final Map<Integer, String> categoryTitles) {
+		final Content rebuilt = new Content();
+		categoryTitles.forEach((categoryId, title) -> rebuilt.categoryTerms.put(categoryId, distinctTerms(title)));
+		this.lock.writeLock().lock();
+		try {
+			this.pending = rebuilt;
+			this.touchedDuringRebuild.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void load(final List<IndexedProduct> products) {
+		this.lock.writeLock().lock();
+		try {
+			if (this.pending == null)
+				throw new IllegalStateException("No search index rebuild in progress");
+			for (final IndexedProduct product : products)
+				if (!this.touchedDuringRebuild.contains(product.getProductId()))
+					this.pending.put(product);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void endRebuild() {
+		this.lock.writeLock().lock();
+		try {
+			if (this.pending != null)
+				this.live = this.pending;
+			this.pending = null;
+			this.touchedDuringRebuild.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void abortRebuild() {
+		this.lock.writeLock().lock();
+		try {
+			this.pending = null;
+			this.touchedDuringRebuild.clear();
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.live.documents.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	public int termCount() {
+		this.lock.readLock().lock();
+		try {
+			return this.live.terms.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void touch(final int productId) {
+		if (this.pending != null)
+			this.touchedDuringRebuild.add(productId);
+	}
+
+	/**
+	 * A change made while a rebuild runs goes to both contents, so neither
+	 * the live one nor the one about to replace it misses it.
+	 */
+	private void apply(final Consumer<Content> change) {
+		change.accept(this.live);
+		if (this.pending != null)
+			change.accept(this.pending);
+	}
+
+	/**
+	 * Union of the postings of the terms a prefix expands to; a product found
+	 * through several terms keeps its best score.
+	 */
+	private static Matches union(final List<Postings> expansions, final String prefix) {
+		if (expansions.isEmpty())
+			return null;
+		if (expansions.size() == 1) {
+			final Postings postings = expansions.get(0);
+			return Matches.of(postings, postings.term.length() == prefix.length() ? EXACT : PREFIX);
+		}
+
+		int total = 0;
+		for (final Postings postings : expansions)
+			total += postings.size;
+
+		// (id, score) packed so one primitive sort groups each id with its scores ascending
+		final long[] packed = new long[total];
+		int n = 0;
+		for (final Postings postings : expansions) {
+			final float boost = postings.term.length() == prefix.length() ? EXACT : PREFIX;
+			for (int i = 0; i < postings.size; i++)
+				packed[n++] = ((long) postings.ids[i] << 32)
+						| (Float.floatToIntBits(FIELD_WEIGHTS[postings.fields[i]] * boost) & 0xFFFFFFFFL);
+		}
+		Arrays.sort(packed);
+
+		final int[] ids = new int[n];
+		final float[] scores = new float[n];
+		int size = 0;
+		for (final long entry : packed) {
+			final int productId = (int) (entry >>> 32);
+			final float score = Float.intBitsToFloat((int) entry);
+			if (size > 0 && ids[size - 1] == productId) {
+				scores[size - 1] = score;
+			}
+			else {
+				ids[size] = productId;
+				scores[size++] = score;
+			}
+		}
+		return new Matches(ids, scores, size);
+	}
+
+	private static Hits top(final Matches matches, final int offset, final int limit) {
+		if (matches == null || matches.size == 0)
+			return Hits.EMPTY;
+		if (offset >= matches.size || limit <= 0)
+			return new Hits(matches.size, new int[0]);
+
+		// Min-heap of the best offset + limit hits seen so far
+		final int wanted = offset + limit;
+		final PriorityQueue<Long> heap = new PriorityQueue<>(Math.min(wanted, matches.size) + 1);
+		for (int i = 0; i < matches.size; i++) {
+			final long rank = rank(matches.scores[i], matches.ids[i]);
+			if (heap.size() < wanted) {
+				heap.add(rank);
+			}
+			else if (rank > heap.peek()) {
+				heap.poll();
+				heap.add(rank);
+			}
+		}
+
+		final long[] ranked = heap.stream().mapToLong(Long::longValue).sorted().toArray();
+		final int count = Math.min(limit, ranked.length - offset);
+		final int[] productIds = new int[count];
+		for (int i = 0; i < count; i++)
+			productIds[i] = Integer.MAX_VALUE - (int) ranked[ranked.length - 1 - offset - i];
+		return new Hits(matches.size, productIds);
+	}
+
+	/**
+	 * Higher score first, then lower id; both fit a positive long.
+	 */
+	private static long rank(final float score, final int productId) {
+		return ((long) Float.floatToIntBits(score) << 32) | (Integer.MAX_VALUE - productId);
+	}
+
+	private static String[] distinctTerms(final String text) {
+		return new LinkedHashSet<>(tokenize(text)).toArray(String[]::new);
+	}
+
+	/**
+	 * The dictionary, the category terms and the documents. A rebuild fills a
+	 * fresh one while searches keep reading the live one.
+	 */
+	private static final class Content {
+
+		private final TreeMap<String, Postings> terms = new TreeMap<>();
+		private final Map<Integer, String[]> categoryTerms = new HashMap<>();
+		// Keyed by id rather than addressed by it: an array would be sized by the largest id
+		private final Map<Integer, Document> documents = new HashMap<>();
+
+		void putCategory(final int categoryId, final String[] current) {
+			final String[] previous = this.categoryTerms.put(categoryId, current);
+			if (Arrays.equals(previous, current))
+				return;
+			final int[] members = this.members(categoryId);
+			this.clearCategoryTerms(previous, members);
+			this.addCategoryTerms(current, members);
+		}
+
+		void reassignCategory(final int fromCategoryId, final int toCategoryId) {
+			final int[] members = this.members(fromCategoryId);
+			this.clearCategoryTerms(this.categoryTerms.remove(fromCategoryId), members);
+			for (final int productId : members)
+				this.documents.get(productId).categoryId = toCategoryId;
+			this.addCategoryTerms(this.categoryTerms.get(toCategoryId), members);
+		}
+
+		void put(final IndexedProduct product) {
+			final int productId = product.getProductId();
+			this.delete(productId);
+
+			final Map<String, Byte> fields = new LinkedHashMap<>();
+			tokenize(product.getProductTitle()).forEach(term -> fields.merge(term, TITLE, (a, b) -> (byte) (a | b)));
+			tokenize(product.getSku()).forEach(term -> fields.merge(term, SKU, (a, b) -> (byte) (a | b)));
+			final String[] documentTerms = new String[fields.size()];
+			final byte[] documentFields = new byte[fields.size()];
+			int i = 0;
+			for (final Map.Entry<String, Byte> entry : fields.entrySet()) {
+				documentTerms[i] = entry.getKey();
+				documentFields[i++] = entry.getValue();
+			}
+
+			final Document document = new Document(product.getCategoryId(), documentTerms, documentFields);
+			this.documents.put(productId, document);
+			this.link(productId, document);
+		}
+
+		void delete(final int productId) {
+			final Document document = this.documents.remove(productId);
+			if (document != null)
+				this.unlink(productId, document, this.categoryTerms.get(document.categoryId));
+		}
+
+		private void link(final int productId, final Document document) {
+			for (int i = 0; i < document.terms.length; i++) {
+				final Postings postings = this.terms.computeIfAbsent(document.terms[i], Postings::new);
+				// Share the dictionary's copy of the term
+				document.terms[i] = postings.term;
+				postings.add(productId, document.fields[i]);
+			}
+			for (final String term : this.categoryTerms.getOrDefault(document.categoryId, NO_TERMS))
+				this.terms.computeIfAbsent(term, Postings::new).add(productId, CATEGORY);
+		}
+
+		private void unlink(final int productId, final Document document, final String[] categoryTerms) {
+			for (final String term : document.terms)
+				this.detach(term, productId);
+			if (categoryTerms != null)
+				for (final String term : categoryTerms)
+					this.detach(term, productId);
+		}
+
+		private void detach(final String term, final int productId) {
+			final Postings postings = this.terms.get(term);
+			if (postings != null && postings.remove(productId) && postings.size == 0)
+				this.terms.remove(term);
+		}
+
+		/**
+		 * Ids of the products in a category, ascending.
+		 */
+		private int[] members(final int categoryId) {
+			final int[] members = this.documents.entrySet().stream()
+					.filter(entry -> entry.getValue().categoryId != null && entry.getValue().categoryId == categoryId)
+					.mapToInt(Map.Entry::getKey)
+					.toArray();
+			Arrays.sort(members);
+			return members;
+		}
+
+		/**
+		 * One merge pass per term rather than one insertion per product: a
+		 * category term can be shared by most of the catalog.
+		 */
+		private void clearCategoryTerms(final String[] categoryTerms, final int[] members) {
+			if (categoryTerms == null)
+				return;
+			for (final String term : categoryTerms) {
+				final Postings postings = this.terms.get(term);
+				if (postings == null)
+					continue;
+				postings.clear(members, CATEGORY);
+				if (postings.size == 0)
+					this.terms.remove(term);
+			}
+		}
+
+		private void addCategoryTerms(final String[] categoryTerms, final int[] members) {
+			if (categoryTerms == null || members.length == 0)
+				return;
+			for (final String term : categoryTerms)
+				this.terms.computeIfAbsent(term, Postings::new).merge(members, CATEGORY);
+		}
+
+		List<Postings> expansions(final String prefix) {
+			final List<Postings> expansions = new ArrayList<>();
+			for (final Postings postings : this.terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+				expansions.add(postings);
+				if (expansions.size() == MAX_PREFIX_EXPANSIONS)
+					break;
+			}
+			return expansions;
+		}
+
+		/**
+		 * Keeps the products having a term that starts with {@code prefix} by
+		 * looking at each candidate's own terms, for when the whole terms left
+		 * few candidates next to the postings the prefix expands to.
+		 */
+		Matches filterByPrefix(final Matches matches, final String prefix) {
+			final int[] ids = new int[matches.size];
+			final float[] scores = new float[matches.size];
+			int size = 0;
+			for (int i = 0; i < matches.size; i++) {
+				final Document document = this.documents.get(matches.ids[i]);
+				float best = 0f;
+				for (int t = 0; t < document.terms.length; t++)
+					if (document.terms[t].startsWith(prefix))
+						best = Math.max(best, FIELD_WEIGHTS[document.fields[t]]
+								* (document.terms[t].length() == prefix.length() ? EXACT : PREFIX));
+				for (final String term : this.categoryTerms.getOrDefault(document.categoryId, NO_TERMS))
+					if (term.startsWith(prefix))
+						best = Math.max(best, FIELD_WEIGHTS[CATEGORY] * (term.length() == prefix.length() ? EXACT : PREFIX));
+				if (best > 0f) {
+					ids[size] = matches.ids[i];
+					scores[size++] = matches.scores[i] + best;
+				}
+			}
+			return new Matches(ids, scores, size);
+		}
+
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static final class Hits {
+
+		private static final Hits EMPTY = new Hits(0, new int[0]);
+
+		private final int total;
+		private final int[] productIds;
+
+	}
+
+	@AllArgsConstructor
+	private static final class Document {
+
+		private Integer categoryId;
+		private final String[] terms;
+		private final byte[] fields;
+
+	}
+
+	private static final class Postings {
+
+		private final String term;
+		private int[] ids = new int[2];
+		private byte[] fields = new byte[2];
+		private int size;
+
+		Postings(final String term) {
+			this.term = term;
+		}
+
+		void add(final int productId, final byte field) {
+			// Loads run in id order, so the common case is an append
+			int at = (this.size == 0 || this.ids[this.size - 1] < productId)
+					? -this.size - 1
+					: Arrays.binarySearch(this.ids, 0, this.size, productId);
+			if (at >= 0) {
+				this.fields[at] |= field;
+				return;
+			}
+			at = -at - 1;
+			if (this.size == this.ids.length) {
+				final int capacity = this.size + (this.size >> 1) + 1;
+				this.ids = Arrays.copyOf(this.ids, capacity);
+				this.fields = Arrays.copyOf(this.fields, capacity);
+			}
+			System.arraycopy(this.ids, at, this.ids, at + 1, this.size - at);
+			System.arraycopy(this.fields, at, this.fields, at + 1, this.size - at);
+			this.ids[at] = productId;
+			this.fields[at] = field;
+			this.size++;
+		}
+
+		/**
+		 * Clears {@code field} for the given ids, ascending, and drops the
+		 * entries left without fields.
+		 */
+		void clear(final int[] productIds, final byte field) {
+			int kept = 0;
+			int m = 0;
+			for (int i = 0; i < this.size; i++) {
+				while (m < productIds.length && productIds[m] < this.ids[i])
+					m++;
+				byte fields = this.fields[i];
+				if (m < productIds.length && productIds[m] == this.ids[i])
+					fields &= ~field;
+				if (fields != 0) {
+					this.ids[kept] = this.ids[i];
+					this.fields[kept++] = fields;
+				}
+			}
+			this.size = kept;
+		}
+
+		/**
+		 * Sets {@code field} for the given ids, ascending, adding the ones
+		 * not present yet.
+		 */
+		void merge(final int[] productIds, final byte field) {
+			final int[] ids = new int[this.size + productIds.length];
+			final byte[] fields = new byte[ids.length];
+			int size = 0;
+			int i = 0;
+			int m = 0;
+			while (i < this.size || m < productIds.length) {
+				if (m == productIds.length || (i < this.size && this.ids[i] < productIds[m])) {
+					ids[size] = this.ids[i];
+					fields[size++] = this.fields[i++];
+				}
+				else if (i == this.size || productIds[m] < this.ids[i]) {
+					ids[size] = productIds[m++];
+					fields[size++] = field;
+				}
+				else {
+					ids[size] = this.ids[i];
+					fields[size++] = (byte) (this.fields[i++] | field);
+					m++;
+				}
+			}
+			this.ids = ids;
+			this.fields = fields;
+			this.size = size;
+		}
+
+		boolean remove(final int productId) {
+			final int at = Arrays.binarySearch(this.ids, 0, this.size, productId);
+			if (at < 0)
+				return false;
+			System.arraycopy(this.ids, at + 1, this.ids, at, this.size - at - 1);
+			System.arraycopy(this.fields, at + 1, this.fields, at, this.size - at - 1);
+			this.size--;
+			return true;
+		}
+
+	}
+
+	/**
+	 * Products matched so far, sorted by id, with their accumulated score.
+	 */
+	@AllArgsConstructor
+	private static final class Matches {
+
+		private final int[] ids;
+		private final float[] scores;
+		private final int size;
+
+		static Matches of(final Postings postings, final float boost) {
+			final float[] scores = new float[postings.size];
+			for (int i = 0; i < postings.size; i++)
+				scores[i] = FIELD_WEIGHTS[postings.fields[i]] * boost;
+			// The postings stay untouched while the read lock is held
+			return new Matches(postings.ids, scores, postings.size);
+		}
+
+		Matches intersect(final Matches other) {
+			if (other == null)
+				return null;
+			// Walk the shorter side, gallop through the longer one
+			if (this.size > other.size)
+				return other.intersect(this);
+			final int[] ids = new int[this.size];
+			final float[] scores = new float[this.size];
+			int size = 0;
+			int j = 0;
+			for (int i = 0; i < this.size && j < other.size; i++) {
+				j = seek(other.ids, j, other.size, this.ids[i]);
+				if (j < other.size && other.ids[j] == this.ids[i]) {
+					ids[size] = this.ids[i];
+					scores[size++] = this.scores[i] + other.scores[j];
+				}
+			}
+			return new Matches(ids, scores, size);
+		}
+
+		/**
+		 * Galloping search for the first position at or after {@code from}
+		 * holding a value not below {@code key}.
+		 */
+		private static int seek(final int[] ids, final int from, final int to, final int key) {
+			int bound = 1;
+			while (from + bound < to && ids[from + bound] < key)
+				bound <<= 1;
+			final int found = Arrays.binarySearch(ids, from + (bound >> 1), Math.min(from + bound + 1, to), key);
+			return found >= 0 ? found : -found - 1;
+		}
+
+	}
+
+}
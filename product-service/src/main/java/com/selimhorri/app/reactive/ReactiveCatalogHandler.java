@@ -0,0 +1,140 @@
+package com.selimhorri.app.reactive;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * The catalog read endpoints of {@code ProductResource} and
+ * {@code CategoryResource} on the reactive stack, with the same paths,
+ * bodies and error payloads. Product and category lookups go through the
+ * same caches as the servlet path, so a write evicted there is not served
+ * stale here: a category by id is picked from the cached non-reserved
+ * listing when there is one.
+ */
+@Slf4j
+public class ReactiveCatalogHandler {
+
+	private final ReactiveCatalogRepository reactiveCatalogRepository;
+	private final Cache products;
+	private final Cache categories;
+
+	public ReactiveCatalogHandler(final ReactiveCatalogRepository reactiveCatalogRepository,
+			final CacheManager cacheManager) {
+		this.reactiveCatalogRepository = reactiveCatalogRepository;
+		this.products = Objects.requireNonNull(cacheManager.getCache(CacheConfig.PRODUCTS), CacheConfig.PRODUCTS);
+		this.categories = Objects.requireNonNull(cacheManager.getCache(CacheConfig.CATEGORIES), CacheConfig.CATEGORIES);
+	}
+
+	/**
+	 * @param contextPath the servlet context path, so a client can switch
+	 * stacks by changing only the port
+	 */
+	public RouterFunction<ServerResponse> routes(final String contextPath) {
+		return RouterFunctions.route()
+				.path(contextPath + "/api", api -> api
+						.GET("/products", this::findAllProducts)
+						.GET("/products/{productId}", this::findProductById)
+						.GET("/categories", this::findAllCategories)
+						.GET("/categories/{categoryId}", this::findCategoryById))
+				.onError(ProductNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e))
+				.onError(CategoryNotFoundException.class, (e, request) -> error(HttpStatus.NOT_FOUND, e))
+				.onError(IllegalArgumentException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e))
+				.build();
+	}
+
+	private Mono<ServerResponse> findAllProducts(final ServerRequest request) {
+		log.info("*** ProductDto List, reactive handler; fetch all products *");
+		return this.reactiveCatalogRepository.findAllProducts()
+				.collectList()
+				.flatMap(productDtos -> ok(new DtoCollectionResponse<>(productDtos)));
+	}
+
+	private Mono<ServerResponse> findProductById(final ServerRequest request) {
+		log.info("*** ProductDto, reactive handler; fetch product by id *");
+		return pathId(request, "productId")
+				.flatMap(productId -> Mono.justOrEmpty(this.products.get(productId, ProductDto.class))
+						.switchIfEmpty(this.reactiveCatalogRepository.findProductById(productId)
+								.doOnNext(productDto -> this.products.put(productId, productDto)))
+						.switchIfEmpty(Mono.error(() -> new ProductNotFoundException(
+								String.format("Product with id: %d not found", productId)))))
+				.flatMap(ReactiveCatalogHandler::ok);
+	}
+
+	private Mono<ServerResponse> findAllCategories(final ServerRequest request) {
+		log.info("*** CategoryDto List, reactive handler; fetch all categories *");
+		return this.cachedCategories()
+				.switchIfEmpty(this.reactiveCatalogRepository.findAllCategories()
+						.collectList()
+						.map(List::copyOf)
+						.doOnNext(categoryDtos -> this.categories.put("nonReserved", categoryDtos)))
+				.flatMap(categoryDtos -> ok(new DtoCollectionResponse<>(categoryDtos)));
+	}
+
+	private Mono<ServerResponse> findCategoryById(final ServerRequest request) {
+		log.info("*** CategoryDto, reactive handler; fetch category by id *");
+		// The cached listing holds every non-reserved category: an id missing from it is a 404 as well
+		return pathId(request, "categoryId")
+				.flatMap(categoryId -> this.cachedCategories()
+						.map(categoryDtos -> Mono.justOrEmpty(categoryDtos.stream()
+								.filter(categoryDto -> categoryId.equals(categoryDto.getCategoryId()))
+								.findFirst()))
+						.defaultIfEmpty(this.reactiveCatalogRepository.findCategoryById(categoryId))
+						.flatMap(Function.identity())
+						.switchIfEmpty(Mono.error(() -> new CategoryNotFoundException(
+								String.format("Category with id: %d not found or is reserved", categoryId)))))
+				.flatMap(ReactiveCatalogHandler::ok);
+	}
+
+	// Same key and value type as CategoryServiceImpl#findAll, so either stack fills it for the other
+	@SuppressWarnings("unchecked")
+	private Mono<List<CategoryDto>> cachedCategories() {
+		return Mono.justOrEmpty((List<CategoryDto>) this.categories.get("nonReserved", List.class));
+	}
+
+	// A malformed id fails the Mono, so onError maps it to 400 like the servlet NumberFormatException
+	private static Mono<Integer> pathId(final ServerRequest request, final String name) {
+		return Mono.fromCallable(() -> Integer.parseInt(request.pathVariable(name)));
+	}
+
+	private static Mono<ServerResponse> ok(final Object body) {
+		return ServerResponse.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(body);
+	}
+
+	// The payload ApiExceptionHandler writes for the same exceptions
+	private static Mono<ServerResponse> error(final HttpStatus status, final Throwable e) {
+		log.info("**ReactiveCatalogHandler, handle API request*\n");
+		return ServerResponse.status(status)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(status)
+						.timestamp(ZonedDateTime.now(ZoneId.systemDefault()))
+						.build());
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.selimhorri.app.reactive;
+
+import java.math.BigDecimal;
+import java.util.function.BiFunction;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the catalog over R2DBC, mapped straight into the
+ * same DTOs the JPA read path returns. Each query borrows a pooled
+ * connection only while its rows are streamed; no thread waits on the
+ * database.
+ *
+ * <p>Plain SQL on the driver SPI rather than Spring Data R2DBC: a reactive
+ * transaction manager next to the JPA one would leave {@code @Transactional}
+ * with two candidates, and these reads need no transaction.</p>
+ */
+public class ReactiveCatalogRepository {
+
+	private static final String PRODUCT_COLUMNS = "SELECT p.product_id, p.product_title, p.image_url, p.sku,"
+			+ " p.price_unit, p.quantity, c.category_id, c.category_title, c.image_url AS category_image_url"
+			+ " FROM products p JOIN categories c ON c.category_id = p.category_id";
+
+	private static final String CATEGORY_COLUMNS = "SELECT c.category_id, c.category_title, c.image_url,"
+			+ " pc.category_id AS parent_category_id, pc.category_title AS parent_category_title,"
+			+ " pc.image_url AS parent_image_url"
+			+ " FROM categories c LEFT JOIN categories pc ON pc.category_id = c.parent_category_id";
+
+	// Same predicate as CategoryRepository#findAllNonReserved
+	private static final String NON_RESERVED = "LOWER(c.category_title) NOT IN ('deleted', 'no category')";
+
+	private final ConnectionFactory connectionFactory;
+
+	public ReactiveCatalogRepository(final ConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+
+	public Flux<ProductDto> findAllProducts() {
+		return this.query(PRODUCT_COLUMNS + " WHERE p.deleted = FALSE ORDER BY p.product_id",
+				ReactiveCatalogRepository::product);
+	}
+
+	public Mono<ProductDto> findProductById(final int productId) {
+		return this.query(PRODUCT_COLUMNS + " WHERE p.product_id = ? AND p.deleted = FALSE",
+				ReactiveCatalogRepository::product, productId)
+				.next();
+	}
+
+	public Flux<CategoryDto> findAllCategories() {
+		return this.query(CATEGORY_COLUMNS + " WHERE " + NON_RESERVED + " ORDER BY c.category_id",
+				ReactiveCatalogRepository::category);
+	}
+
+	public Mono<CategoryDto> findCategoryById(final int categoryId) {
+		return this.query(CATEGORY_COLUMNS + " WHERE c.category_id = ? AND " + NON_RESERVED,
+				ReactiveCatalogRepository::category, categoryId)
+				.next();
+	}
+
+	/**
+	 * Runs {@code sql} with positional {@code ?} parameters, which both the
+	 * H2 and the MySQL drivers accept, and closes the connection once the
+	 * rows are consumed, the subscriber cancels or the query fails.
+	 */
+	private <T> Flux<T> query(final String sql, final BiFunction<Row, RowMetadata, T> mapper,
+			final Object... parameters) {
+		return Flux.usingWhen(this.connectionFactory.create(),
+				connection -> {
+					final Statement statement = connection.createStatement(sql);
+					for (int i = 0; i < parameters.length; i++)
+						statement.bind(i, parameters[i]);
+					return Flux.from(statement.execute())
+							.concatMap(result -> result.map(mapper));
+				},
+				Connection::close);
+	}
+
+	// Field for field what ProductMappingHelper builds from the entity
+	private static ProductDto product(final Row row, final RowMetadata metadata) {
+		final BigDecimal priceUnit = row.get("price_unit", BigDecimal.class);
+		return ProductDto.builder()
+				.productId(row.get("product_id", Integer.class))
+				.productTitle(row.get("product_title", String.class))
+				.imageUrl(row.get("image_url", String.class))
+				.sku(row.get("sku", String.class))
+				.priceUnit((priceUnit == null) ? null : priceUnit.doubleValue())
+				.quantity(row.get("quantity", Integer.class))
+				.categoryDto(CategoryDto.builder()
+						.categoryId(row.get("category_id", Integer.class))
+						.categoryTitle(row.get("category_title", String.class))
+						.imageUrl(row.get("category_image_url", String.class))
+						.build())
+				.build();
+	}
+
+	// CategoryMappingHelper always sets a parent, empty for a root category
+	private static CategoryDto category(final Row row, final RowMetadata metadata) {
+		return CategoryDto.builder()
+				.categoryId(row.get("category_id", Integer.class))
+				.categoryTitle(row.get("category_title", String.class))
+				.imageUrl(row.get("image_url", String.class))
+				.parentCategoryDto(CategoryDto.builder()
+						.categoryId(row.get("parent_category_id", Integer.class))
+						.categoryTitle(row.get("parent_category_title", String.class))
+						.imageUrl(row.get("parent_image_url", String.class))
+						.build())
+				.build();
+	}
+
+}
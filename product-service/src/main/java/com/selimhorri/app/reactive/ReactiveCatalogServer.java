@@ -0,0 +1,66 @@
+package com.selimhorri.app.reactive;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * A Reactor Netty server for the reactive catalog routes, next to the
+ * embedded Tomcat that keeps serving everything else. Requests are
+ * handled on Netty's event loop threads, one per core.
+ */
+@Slf4j
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+	private final RouterFunction<ServerResponse> routes;
+	private final HandlerStrategies handlerStrategies;
+	private final int port;
+	private volatile DisposableServer server;
+
+	public ReactiveCatalogServer(final RouterFunction<ServerResponse> routes,
+			final HandlerStrategies handlerStrategies, final int port) {
+		this.routes = routes;
+		this.handlerStrategies = handlerStrategies;
+		this.port = port;
+	}
+
+	@Override
+	public void start() {
+		final HttpHandler httpHandler = RouterFunctions.toHttpHandler(this.routes, this.handlerStrategies);
+		this.server = HttpServer.create()
+				.port(this.port)
+				.handle(new ReactorHttpHandlerAdapter(httpHandler))
+				.bindNow();
+		log.info("*** ReactiveCatalogServer; catalog reads served on port {} *", this.server.port());
+	}
+
+	@Override
+	public void stop() {
+		if (this.server != null) {
+			this.server.disposeNow();
+			this.server = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.server != null;
+	}
+
+	/**
+	 * The bound port, which differs from the configured one when that is
+	 * {@code 0}.
+	 */
+	public int getPort() {
+		return (this.server == null) ? -1 : this.server.port();
+	}
+
+}
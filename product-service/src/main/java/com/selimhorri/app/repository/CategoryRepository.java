@@ -3,11 +3,16 @@ package com.selimhorri.app.repository;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.index.CategoryRow;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
@@ -19,10 +24,37 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
     Optional<Category> findByCategoryTitleIgnoreCase(String categoryTitle);
 
-    @Query("SELECT c FROM Category c WHERE LOWER(c.categoryTitle) NOT IN ('deleted', 'no category')")
+    // Caché de consultas de Hibernate: se invalida con cualquier escritura sobre categories.
+    // parentCategory es LAZY y CategoryMappingHelper lo lee: viene en el mismo join. Un acierto de la
+    // caché de consultas arma el padre desde la región categories, por eso el mapeo sigue dentro de la
+    // transacción de CategoryServiceImpl
+    @Query("SELECT c FROM Category c LEFT JOIN FETCH c.parentCategory"
+            + " WHERE LOWER(c.categoryTitle) NOT IN ('deleted', 'no category')")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Category> findAllNonReserved();
 
-    @Query("SELECT c FROM Category c WHERE c.categoryId = :id AND LOWER(c.categoryTitle) NOT IN ('deleted', 'no category')")
+    @Query("SELECT c FROM Category c LEFT JOIN FETCH c.parentCategory"
+            + " WHERE c.categoryId = :id AND LOWER(c.categoryTitle) NOT IN ('deleted', 'no category')")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Category> findNonReservedById(@Param("id") Integer id);
 
+    // Para quien lee el padre fuera de una transacción (snapshot del catálogo)
+    @Query("SELECT c FROM Category c LEFT JOIN FETCH c.parentCategory")
+    List<Category> findAllWithParent();
+
+    // Toda la jerarquía en una consulta, sin cargar la cadena de padres entidad por entidad
+    @Query("SELECT new com.selimhorri.app.index.CategoryRow(c.categoryId, parent.categoryId, c.categoryTitle, c.categoryPath)"
+            + " FROM Category c LEFT JOIN c.parentCategory parent")
+    List<CategoryRow> findAllRows();
+
+    @Modifying
+    @Query("UPDATE Category c SET c.categoryPath = :path WHERE c.categoryId = :categoryId")
+    int updatePath(@Param("categoryId") Integer categoryId, @Param("path") String path);
+
+    // Mueve un subárbol completo: reescribe el prefijo de la categoría y de todos sus descendientes
+    @Modifying
+    @Query("UPDATE Category c SET c.categoryPath = CONCAT(:newPath, SUBSTRING(c.categoryPath, LENGTH(:oldPath) + 1))"
+            + " WHERE c.categoryPath LIKE CONCAT(:oldPath, '%')")
+    int movePaths(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
 }
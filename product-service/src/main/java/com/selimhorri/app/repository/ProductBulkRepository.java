@@ -0,0 +1,193 @@
+package com.selimhorri.app.repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Set-based product writes in plain JDBC, for imports and bulk changes.
+ * Going through Hibernate, {@code GenerationType.IDENTITY} forces one INSERT
+ * per round trip because every new entity needs its generated id back; here
+ * the ids are left to the database and never read, so an import chunk is one
+ * batched INSERT and one batched UPDATE, matched on the unique SKU.
+ *
+ * <p>MySQL only sends a real multi-row batch with
+ * {@code rewriteBatchedStatements=true} on the JDBC URL.</p>
+ *
+ * <p>These writes bypass Hibernate, so they invalidate nothing in its
+ * second-level cache; products have no region there.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+	
+	private static final String INSERT = "INSERT INTO products"
+			+ " (category_id, product_title, image_url, sku, price_unit, quantity, created_at, updated_at)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+	// Re-importing the SKU of a deleted product brings it back, as moving it out of 'Deleted' used to
+	private static final String UPDATE = "UPDATE products"
+			+ " SET category_id = ?, product_title = ?, image_url = ?, price_unit = ?, quantity = ?, updated_at = ?,"
+			+ " deleted = FALSE"
+			+ " WHERE sku = ?";
+	
+	/**
+	 * Largest value of {@code price_unit}, a DECIMAL(7, 2).
+	 */
+	public static final BigDecimal MAX_PRICE_UNIT = new BigDecimal("99999.99");
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Next chunk of live products matching the filter, by ascending id.
+	 * 
+	 * @return skus by product id, in id order
+	 */
+	public Map<Integer, String> findChunk(final ProductBulkUpdateDto filter, final int afterProductId,
+			final int limit) {
+		final StringBuilder sql = new StringBuilder("SELECT p.product_id, p.sku FROM products p"
+				+ " WHERE p.deleted = FALSE AND p.product_id > :afterProductId");
+		final MapSqlParameterSource parameters = new MapSqlParameterSource("afterProductId", afterProductId)
+				.addValue("limit", limit);
+		if (filter.getCategoryId() != null) {
+			sql.append(" AND p.category_id = :categoryId");
+			parameters.addValue("categoryId", filter.getCategoryId());
+		}
+		if (filter.getSkus() != null && !filter.getSkus().isEmpty()) {
+			sql.append(" AND p.sku IN (:skus)");
+			parameters.addValue("skus", filter.getSkus());
+		}
+		if (filter.getFromProductId() != null) {
+			sql.append(" AND p.product_id >= :fromProductId");
+			parameters.addValue("fromProductId", filter.getFromProductId());
+		}
+		if (filter.getToProductId() != null) {
+			sql.append(" AND p.product_id <= :toProductId");
+			parameters.addValue("toProductId", filter.getToProductId());
+		}
+		sql.append(" ORDER BY p.product_id LIMIT :limit");
+		
+		final Map<Integer, String> skusById = new LinkedHashMap<>();
+		this.jdbcTemplate.query(sql.toString(), parameters, resultSet -> {
+			skusById.put(resultSet.getInt("product_id"), resultSet.getString("sku"));
+		});
+		return skusById;
+	}
+	
+	/**
+	 * One UPDATE for the whole chunk. Every change is relative to the value
+	 * in the row, so stock reserved or released meanwhile is never lost;
+	 * prices and quantities do not go below zero, nor above what their
+	 * columns hold, so no row can make the statement fail halfway.
+	 */
+	public int applyChange(final Collection<Integer> productIds, final ProductBulkUpdateDto change,
+			final Instant now) {
+		if (productIds.isEmpty())
+			return 0;
+		final StringBuilder sql = new StringBuilder("UPDATE products SET updated_at = :now");
+		final MapSqlParameterSource parameters = new MapSqlParameterSource("now", Timestamp.from(now))
+				.addValue("productIds", productIds);
+		if (change.getPricePercent() != null) {
+			sql.append(", price_unit = LEAST(GREATEST(ROUND(price_unit * :priceFactor, 2), 0), :maxPriceUnit)");
+			parameters.addValue("priceFactor",
+					BigDecimal.ONE.add(BigDecimal.valueOf(change.getPricePercent()).movePointLeft(2)));
+		}
+		if (change.getPriceAmount() != null) {
+			sql.append(", price_unit = LEAST(GREATEST(price_unit + :priceAmount, 0), :maxPriceUnit)");
+			parameters.addValue("priceAmount", BigDecimal.valueOf(change.getPriceAmount()));
+		}
+		if (change.getQuantityDelta() != null) {
+			// a BIGINT delta keeps the sum itself from overflowing INT before it is capped
+			sql.append(", quantity = LEAST(GREATEST(quantity + :quantityDelta, 0), :maxQuantity)");
+			parameters.addValue("quantityDelta", change.getQuantityDelta().longValue())
+					.addValue("maxQuantity", Integer.MAX_VALUE);
+		}
+		parameters.addValue("maxPriceUnit", MAX_PRICE_UNIT);
+		sql.append(" WHERE product_id IN (:productIds)");
+		return this.jdbcTemplate.update(sql.toString(), parameters);
+	}
+	
+	public Map<String, Integer> findIdsBySku(final Collection<String> skus) {
+		final Map<String, Integer> ids = new HashMap<>();
+		if (skus.isEmpty())
+			return ids;
+		this.jdbcTemplate.query("SELECT product_id, sku FROM products WHERE sku IN (:skus)",
+				new MapSqlParameterSource("skus", skus),
+				resultSet -> {
+					ids.put(resultSet.getString("sku"), resultSet.getInt("product_id"));
+				});
+		return ids;
+	}
+	
+	public void insertAll(final List<Product> products, final Instant now) {
+		if (products.isEmpty())
+			return;
+		final Timestamp timestamp = Timestamp.from(now);
+		this.jdbcTemplate.getJdbcOperations().batchUpdate(INSERT, products, products.size(),
+				(statement, product) -> {
+					bindCommon(statement, product, 1);
+					statement.setString(4, product.getSku());
+					setDouble(statement, 5, product.getPriceUnit());
+					setInt(statement, 6, product.getQuantity());
+					statement.setTimestamp(7, timestamp);
+					statement.setTimestamp(8, timestamp);
+				});
+	}
+	
+	public void updateAll(final List<Product> products, final Instant now) {
+		if (products.isEmpty())
+			return;
+		final Timestamp timestamp = Timestamp.from(now);
+		this.jdbcTemplate.getJdbcOperations().batchUpdate(UPDATE, products, products.size(),
+				(statement, product) -> {
+					bindCommon(statement, product, 1);
+					setDouble(statement, 4, product.getPriceUnit());
+					setInt(statement, 5, product.getQuantity());
+					statement.setTimestamp(6, timestamp);
+					statement.setString(7, product.getSku());
+				});
+	}
+	
+	/**
+	 * Category, title and image URL, from {@code index} on.
+	 */
+	private static void bindCommon(final PreparedStatement statement, final Product product, final int index)
+			throws SQLException {
+		setInt(statement, index, product.getCategory().getCategoryId());
+		statement.setString(index + 1, product.getProductTitle());
+		statement.setString(index + 2, product.getImageUrl());
+	}
+	
+	private static void setInt(final PreparedStatement statement, final int index, final Integer value)
+			throws SQLException {
+		if (value == null)
+			statement.setNull(index, Types.INTEGER);
+		else
+			statement.setInt(index, value);
+	}
+	
+	private static void setDouble(final PreparedStatement statement, final int index, final Double value)
+			throws SQLException {
+		if (value == null)
+			statement.setNull(index, Types.DECIMAL);
+		else
+			statement.setDouble(index, value);
+	}
+	
+}
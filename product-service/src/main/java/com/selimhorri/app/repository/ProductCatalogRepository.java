@@ -0,0 +1,26 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import javax.persistence.Tuple;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+
+public interface ProductCatalogRepository {
+	
+	/**
+	 * Returns up to {@code limit + 1} products after the query cursor; the
+	 * extra row only signals that another page exists. Deleted products are
+	 * never returned.
+	 */
+	List<Product> findCatalogPage(final CatalogQuery query);
+	
+	/**
+	 * One tuple per product, ordered by id, holding only {@code attributes}
+	 * in the order given. The category is joined only when one of them reads
+	 * it. Deleted products are never returned.
+	 */
+	List<Tuple> findAllProjected(final List<String> attributes);
+	
+}
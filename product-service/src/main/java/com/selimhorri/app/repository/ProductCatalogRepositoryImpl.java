@@ -0,0 +1,138 @@
+package com.selimhorri.app.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.domain.Sort;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.catalog.CatalogSort;
+import com.selimhorri.app.helper.FieldSelectionHelper;
+
+/**
+ * Keyset pagination over products: the cursor becomes a range predicate on
+ * {@code (sortKey, productId)} and the page size a LIMIT, so every page is an
+ * index range scan no matter how deep it is. Deleted products are excluded
+ * by the {@code deleted} flag, which leads the keyset indexes.
+ *
+ * <p>Products without a value for the sort key come last in both directions.
+ * JPA criteria cannot say {@code NULLS LAST}, so the order leads with an
+ * "is null" key and the cursor predicate mirrors it.</p>
+ */
+public class ProductCatalogRepositoryImpl implements ProductCatalogRepository {
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	public List<Product> findCatalogPage(final CatalogQuery query) {
+		final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		final CriteriaQuery<Product> cq = cb.createQuery(Product.class);
+		final Root<Product> product = cq.from(Product.class);
+		product.fetch("category", JoinType.LEFT);
+		
+		final boolean ascending = query.getDirection() == Sort.Direction.ASC;
+		final Path<Integer> productId = product.get("productId");
+		final Path<Integer> categoryId = product.get("category").get("categoryId");
+		final Path<Double> priceUnit = product.get("priceUnit");
+		final Path<Integer> quantity = product.get("quantity");
+		
+		final List<Predicate> predicates = new ArrayList<>();
+		predicates.add(cb.isFalse(product.get("deleted")));
+		predicates.add(cb.isNotNull(categoryId));
+		if (query.getCategoryId() != null)
+			predicates.add(cb.equal(categoryId, query.getCategoryId()));
+		if (query.getMinPrice() != null)
+			predicates.add(cb.greaterThanOrEqualTo(priceUnit, query.getMinPrice()));
+		if (query.getMaxPrice() != null)
+			predicates.add(cb.lessThanOrEqualTo(priceUnit, query.getMaxPrice()));
+		if (query.getInStock() != null)
+			predicates.add(query.getInStock()
+					? cb.greaterThan(quantity, 0)
+					: cb.or(cb.isNull(quantity), cb.lessThanOrEqualTo(quantity, 0)));
+		if (query.getCursor() != null)
+			predicates.add(this.after(cb, product, query.getSort(), query.getCursor(), ascending));
+		
+		final List<Order> orders = new ArrayList<>();
+		if (query.getSort() != CatalogSort.ID) {
+			final Path<?> key = product.get(query.getSort().getAttribute());
+			orders.add(cb.asc(isNull(cb, key)));
+			orders.add(ascending ? cb.asc(key) : cb.desc(key));
+		}
+		orders.add(ascending ? cb.asc(productId) : cb.desc(productId));
+		
+		cq.select(product)
+				.where(predicates.toArray(Predicate[]::new))
+				.orderBy(orders);
+		
+		return this.entityManager.createQuery(cq)
+				.setMaxResults(query.getLimit() + 1)
+				.getResultList();
+	}
+	
+	@Override
+	public List<Tuple> findAllProjected(final List<String> attributes) {
+		final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		final CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+		final Root<Product> product = cq.from(Product.class);
+		
+		cq.multiselect(FieldSelectionHelper.select(product, new HashMap<>(), attributes))
+				.where(cb.isFalse(product.get("deleted")))
+				.orderBy(cb.asc(product.get("productId")));
+		
+		return this.entityManager.createQuery(cq).getResultList();
+	}
+	
+	private Predicate after(final CriteriaBuilder cb, final Root<Product> product, final CatalogSort sort,
+			final CatalogCursor cursor, final boolean ascending) {
+		final Path<Integer> productId = product.get("productId");
+		final Predicate afterId = beyond(cb, productId, cursor.getProductId(), ascending);
+		switch (sort) {
+			case PRICE:
+				return this.afterValue(cb, product.get("priceUnit"), (Double) cursor.getValue(), afterId, ascending);
+			case TITLE:
+				return this.afterValue(cb, product.get("productTitle"), (String) cursor.getValue(), afterId, ascending);
+			default:
+				return afterId;
+		}
+	}
+	
+	/**
+	 * {@code key IS NULL OR key > value OR (key = value AND id > lastId)},
+	 * mirrored for descending order. Once the cursor is among the products
+	 * without a value only {@code key IS NULL AND id > lastId} is left.
+	 */
+	private <Y extends Comparable<? super Y>> Predicate afterValue(final CriteriaBuilder cb,
+			final Expression<Y> key, final Y value, final Predicate afterId, final boolean ascending) {
+		if (value == null)
+			return cb.and(cb.isNull(key), afterId);
+		return cb.or(cb.isNull(key), beyond(cb, key, value, ascending), cb.and(cb.equal(key, value), afterId));
+	}
+	
+	private static Expression<Integer> isNull(final CriteriaBuilder cb, final Expression<?> key) {
+		return cb.<Integer>selectCase()
+				.when(cb.isNull(key), 1)
+				.otherwise(0);
+	}
+	
+	private static <Y extends Comparable<? super Y>> Predicate beyond(final CriteriaBuilder cb,
+			final Expression<? extends Y> key, final Y value, final boolean ascending) {
+		return ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+	}
+	
+}
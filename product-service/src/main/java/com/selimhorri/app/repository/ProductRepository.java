@@ -1,8 +1,11 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,22 +14,67 @@ import org.springframework.data.repository.query.Param;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.domain.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductCatalogRepository {
 
-    @Query("SELECT p FROM Product p WHERE p.category.categoryTitle <> 'Deleted'")
+    // El borrado lógico es una columna de products: ninguna de estas lecturas hace join contra categories
+    @Query("SELECT p FROM Product p WHERE p.deleted = false")
     List<Product> findAllWithoutDeleted();
 
-    @Query("SELECT p FROM Product p WHERE p.id = :productId AND p.category.categoryTitle <> 'Deleted'")
+    @Query("SELECT p FROM Product p WHERE p.productId = :productId AND p.deleted = false")
     Optional<Product> findByIdWithoutDeleted(Integer productId);
 
+    // Consulta por lotes para quien enriquece listados (favoritos): una sola ida por página de ids
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category"
+            + " WHERE p.productId IN :productIds AND p.deleted = false")
+    List<Product> findAllByIdInWithoutDeleted(@Param("productIds") Collection<Integer> productIds);
+
+    @Query("SELECT p FROM Product p WHERE p.sku = :sku AND p.deleted = false")
+    Optional<Product> findBySkuWithoutDeleted(String sku);
+
+    // Los UPDATE masivos no pasan por la auditoría de JPA: fijan updatedAt a mano para el change feed
     @Modifying
-    @Query("UPDATE Product p SET p.category = :newCategory WHERE p.category.categoryId = :oldCategoryId")
+    @Query("UPDATE Product p SET p.category = :newCategory, p.updatedAt = :now"
+            + " WHERE p.category.categoryId = :oldCategoryId")
     void updateCategoryForProducts(@Param("oldCategoryId") Integer oldCategoryId,
-            @Param("newCategory") Category newCategory);
+            @Param("newCategory") Category newCategory, @Param("now") Instant now);
 
     // Otra opción (más eficiente para muchos productos):
     @Modifying
-    @Query("UPDATE Product p SET p.category.categoryId = :newCategoryId WHERE p.category.categoryId = :oldCategoryId")
+    @Query("UPDATE Product p SET p.category.categoryId = :newCategoryId, p.updatedAt = :now"
+            + " WHERE p.category.categoryId = :oldCategoryId")
     void updateCategoryIdForProducts(@Param("oldCategoryId") Integer oldCategoryId,
-            @Param("newCategoryId") Integer newCategoryId);
-}
\ No newline at end of file
+            @Param("newCategoryId") Integer newCategoryId, @Param("now") Instant now);
+
+    // Decremento condicional en una sola sentencia: nunca deja el stock en negativo
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.updatedAt = :now"
+            + " WHERE p.productId = :productId"
+            + " AND p.quantity >= :quantity AND p.deleted = false")
+    int decrementQuantity(@Param("productId") Integer productId, @Param("quantity") Integer quantity,
+            @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.updatedAt = :now"
+            + " WHERE p.productId = :productId")
+    int incrementQuantity(@Param("productId") Integer productId, @Param("quantity") Integer quantity,
+            @Param("now") Instant now);
+
+    // Change feed: rango sobre (updated_at, product_id), ver idx_products_updated_at_product_id
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category"
+            + " WHERE p.updatedAt >= :updatedAt AND p.updatedAt <= :until"
+            + " AND (p.updatedAt > :updatedAt OR p.productId > :productId)"
+            + " ORDER BY p.updatedAt, p.productId")
+    List<Product> findChangedAfter(@Param("updatedAt") Instant updatedAt, @Param("productId") Integer productId,
+            @Param("until") Instant until, Pageable pageable);
+
+    // Productos de un subárbol: prefijo sobre idx_categories_category_path y luego products por category_id
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c"
+            + " WHERE c.categoryPath LIKE CONCAT(:path, '%') AND p.deleted = false AND p.productId > :afterProductId"
+            + " ORDER BY p.productId")
+    List<Product> findInSubtree(@Param("path") String path, @Param("afterProductId") Integer afterProductId,
+            Pageable pageable);
+
+    @Query("SELECT p.category.categoryId, COUNT(p) FROM Product p WHERE p.deleted = false"
+            + " GROUP BY p.category.categoryId")
+    List<Object[]> countByCategory();
+}
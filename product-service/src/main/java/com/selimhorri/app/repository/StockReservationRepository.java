@@ -0,0 +1,39 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservationStatus;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Moves the reservation to {@code status} only if it is still in one of
+     * {@code from}; of two concurrent transitions exactly one updates the
+     * row, and only that one may return the stock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :status, r.updatedAt = :now"
+            + " WHERE r.reservationId = :reservationId AND r.status IN :from")
+    int transition(@Param("reservationId") String reservationId, @Param("from") Collection<StockReservationStatus> from,
+            @Param("status") StockReservationStatus status, @Param("now") Instant now);
+
+    // Un hold vencido ya no se puede confirmar aunque el barrido aún no lo haya liberado
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = com.selimhorri.app.domain.StockReservationStatus.CONFIRMED,"
+            + " r.updatedAt = :now WHERE r.reservationId = :reservationId"
+            + " AND r.status = com.selimhorri.app.domain.StockReservationStatus.HELD AND r.expiresAt > :now")
+    int confirmHeld(@Param("reservationId") String reservationId, @Param("now") Instant now);
+
+    @Query("SELECT r FROM StockReservation r WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<StockReservation> findExpired(@Param("status") StockReservationStatus status, @Param("now") Instant now,
+            Pageable pageable);
+}
@@ -12,10 +12,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.selimhorri.app.config.cache.CatalogResponseCache;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 import com.selimhorri.app.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,11 +34,31 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryResource {
 	
 	private final CategoryService categoryService;
+	private final CatalogResponseCache catalogResponseCache;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<CategoryDto>> findAll() {
+	public ResponseEntity<byte[]> findAll(final WebRequest webRequest) {
 		log.info("*** CategoryDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.categoryService.findAll()));
+		return this.catalogResponseCache.respond("categories", webRequest,
+				() -> new DtoCollectionResponse<>(this.categoryService.findAll()));
+	}
+	
+	@GetMapping("/tree")
+	public ResponseEntity<byte[]> findTree(final WebRequest webRequest) {
+		log.info("*** CategoryTreeNodeDto List, resource; fetch category tree *");
+		return this.catalogResponseCache.respond("categoryTree", webRequest,
+				() -> new DtoCollectionResponse<>(this.categoryService.findTree()));
+	}
+	
+	@GetMapping("/{categoryId}/products")
+	public ResponseEntity<DtoCursorPageResponse<ProductDto>> findSubtreeProducts(
+			@PathVariable("categoryId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String categoryId,
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "limit", defaultValue = "" + CatalogQuery.DEFAULT_LIMIT) final int limit) {
+		log.info("*** ProductDto Page, resource; fetch products of category subtree *");
+		return ResponseEntity.ok(this.categoryService.findSubtreeProducts(Integer.parseInt(categoryId), cursor, limit));
 	}
 	
 	@GetMapping("/{categoryId}")
@@ -0,0 +1,34 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateResultDto;
+import com.selimhorri.app.service.ProductBulkUpdateService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products")
+@Slf4j
+@RequiredArgsConstructor
+public class ProductBulkUpdateResource {
+	
+	private final ProductBulkUpdateService productBulkUpdateService;
+	
+	@PostMapping("/bulk-update")
+	public ResponseEntity<ProductBulkUpdateResultDto> update(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") final ProductBulkUpdateDto productBulkUpdateDto) {
+		log.info("*** ProductBulkUpdateResultDto, resource; bulk update products *");
+		return ResponseEntity.ok(this.productBulkUpdateService.update(productBulkUpdateDto));
+	}
+	
+}
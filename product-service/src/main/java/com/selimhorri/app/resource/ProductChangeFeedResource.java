@@ -0,0 +1,37 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.change.ProductChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.service.ProductChangeFeedService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products")
+@Slf4j
+@RequiredArgsConstructor
+public class ProductChangeFeedResource {
+	
+	private final ProductChangeFeedService productChangeFeedService;
+	
+	/**
+	 * Products created, changed or deleted after {@code cursor}, oldest
+	 * first. Without a cursor the feed starts from the beginning, which
+	 * doubles as the initial full load of a replica.
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<DtoChangeFeedResponse<ProductChangeDto>> findChanges(
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			@RequestParam(name = "limit", defaultValue = "100") final int limit) {
+		log.info("*** ProductChangeDto Feed, resource; fetch product changes *");
+		return ResponseEntity.ok(this.productChangeFeedService.findChanges(cursor, limit));
+	}
+	
+}
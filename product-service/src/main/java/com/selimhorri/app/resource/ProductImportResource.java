@@ -0,0 +1,53 @@
+package com.selimhorri.app.resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.importer.ProductImportFormat;
+import com.selimhorri.app.dto.importer.ProductImportReportDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ProductImportService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products")
+@Slf4j
+@RequiredArgsConstructor
+public class ProductImportResource {
+	
+	private final ProductImportService productImportService;
+	
+	/**
+	 * The body is read straight from the request stream, one record at a
+	 * time, so feeds of any size are imported without buffering them.
+	 */
+	@PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+	public ResponseEntity<ProductImportReportDto> importProducts(final HttpServletRequest request) throws IOException {
+		log.info("*** ProductImportReportDto, resource; import products *");
+		final ProductImportFormat format = ProductImportFormat.of(request.getContentType());
+		final Charset charset = (request.getCharacterEncoding() == null) ? StandardCharsets.UTF_8
+				: Charset.forName(request.getCharacterEncoding());
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+		return ResponseEntity.ok(this.productImportService.importProducts(format, reader));
+	}
+	
+	@GetMapping("/imports")
+	public ResponseEntity<DtoCollectionResponse<ProductImportReportDto>> findRecentImports() {
+		log.info("*** ProductImportReportDto List, resource; fetch recent imports *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productImportService.findRecentImports()));
+	}
+	
+}
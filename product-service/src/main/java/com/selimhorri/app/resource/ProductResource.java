@@ -1,5 +1,8 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,10 +15,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.cache.CatalogResponseCache;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.facet.ProductFacetsDto;
+import com.selimhorri.app.dto.fields.ProductField;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoSearchResponse;
+import com.selimhorri.app.helper.FieldSelectionHelper;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,11 +40,88 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductResource {
 	
 	private final ProductService productService;
+	private final CatalogResponseCache catalogResponseCache;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll() {
+	public ResponseEntity<byte[]> findAll(
+			@RequestParam(name = "fields", required = false) final String fields,
+			final WebRequest webRequest) {
 		log.info("*** ProductDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAll()));
+		if (fields == null)
+			return this.catalogResponseCache.respond("products", webRequest,
+					() -> new DtoCollectionResponse<>(this.productService.findAll()));
+		
+		// Only the named columns are selected, and only they are written
+		final List<ProductField> productFields = ProductField.parse(fields);
+		final List<String> paths = productFields.stream()
+				.map(ProductField::getPath)
+				.collect(Collectors.toUnmodifiableList());
+		return this.catalogResponseCache.respond("products:" + String.join(",", paths), webRequest,
+				() -> new DtoCollectionResponse<>(FieldSelectionHelper.retain(this.objectMapper,
+						this.productService.findAll(productFields), paths)));
+	}
+	
+	@GetMapping("/catalog")
+	public ResponseEntity<byte[]> findCatalogPage(
+			@RequestParam(name = "categoryId", required = false) final Integer categoryId,
+			@RequestParam(name = "minPrice", required = false) final Double minPrice,
+			@RequestParam(name = "maxPrice", required = false) final Double maxPrice,
+			@RequestParam(name = "inStock", required = false) final Boolean inStock,
+			@RequestParam(name = "sort", defaultValue = "id") final String sort,
+			@RequestParam(name = "direction", defaultValue = "asc") final String direction,
+			@RequestParam(name = "limit", defaultValue = "" + CatalogQuery.DEFAULT_LIMIT) final int limit,
+			@RequestParam(name = "cursor", required = false) final String cursor,
+			final WebRequest webRequest) {
+		log.info("*** ProductDto Page, resource; fetch catalog page *");
+		final CatalogQuery catalogQuery = CatalogQuery.of(categoryId, minPrice, maxPrice, inStock, sort, direction, limit, cursor);
+		final String key = String.join(":", "catalog", String.valueOf(categoryId), String.valueOf(minPrice),
+				String.valueOf(maxPrice), String.valueOf(inStock), catalogQuery.getSort().name(),
+				catalogQuery.getDirection().name(), String.valueOf(limit), String.valueOf(cursor));
+		return this.catalogResponseCache.respond(key, webRequest,
+				() -> this.productService.findCatalogPage(catalogQuery));
+	}
+	
+	@GetMapping("/search")
+	public ResponseEntity<DtoSearchResponse<ProductDto>> search(
+			@RequestParam(name = "q") final String query,
+			@RequestParam(name = "offset", defaultValue = "0") final int offset,
+			@RequestParam(name = "limit", defaultValue = "20") final int limit) {
+		log.info("*** ProductDto Search, resource; search products *");
+		return ResponseEntity.ok(this.productService.search(query, offset, limit));
+	}
+	
+	@GetMapping("/suggest")
+	public ResponseEntity<DtoCollectionResponse<String>> suggest(
+			@RequestParam(name = "q") final String query,
+			@RequestParam(name = "limit", defaultValue = "10") final int limit) {
+		log.info("*** String List, resource; suggest search terms *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.suggest(query, limit)));
+	}
+	
+	@GetMapping("/facets")
+	public ResponseEntity<ProductFacetsDto> findFacets(
+			@RequestParam(name = "categoryId", required = false) final List<Integer> categoryIds,
+			@RequestParam(name = "priceBand", required = false) final List<Integer> priceBands,
+			@RequestParam(name = "inStock", required = false) final Boolean inStock,
+			@RequestParam(name = "after", required = false) final Integer after,
+			@RequestParam(name = "limit", defaultValue = "" + CatalogQuery.DEFAULT_LIMIT) final int limit) {
+		log.info("*** ProductFacetsDto, resource; fetch catalog facets *");
+		return ResponseEntity.ok(this.productService.findFacets(
+				(categoryIds == null) ? List.of() : categoryIds,
+				(priceBands == null) ? List.of() : priceBands,
+				inStock, after, limit));
+	}
+	
+	/**
+	 * Batch lookup for callers that enrich their own listings; ids that do not
+	 * exist or are deleted are simply left out.
+	 */
+	@GetMapping(params = "productIds")
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAllByIds(
+			@RequestParam("productIds") final List<Integer> productIds) {
+		log.info("*** ProductDto List, resource; fetch products by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAllByIds(productIds)));
 	}
 	
 	@GetMapping("/{productId}")
@@ -44,6 +133,15 @@ public class ProductResource {
 		return ResponseEntity.ok(this.productService.findById(Integer.parseInt(productId)));
 	}
 	
+	@GetMapping("/sku/{sku}")
+	public ResponseEntity<ProductDto> findBySku(
+			@PathVariable("sku") 
+			@NotBlank(message = "Input must not be blank!") 
+			@Valid final String sku) {
+		log.info("*** ProductDto, resource; fetch product by sku *");
+		return ResponseEntity.ok(this.productService.findBySku(sku));
+	}
+	
 	@PostMapping
 	public ResponseEntity<ProductDto> save(
 			@RequestBody 
@@ -3,6 +3,9 @@ package com.selimhorri.app.service;
 import java.util.List;
 
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.tree.CategoryTreeNodeDto;
 
 public interface CategoryService {
 	
@@ -12,5 +15,7 @@ public interface CategoryService {
 	CategoryDto update(final CategoryDto categoryDto);
 	CategoryDto update(final Integer categoryId, final CategoryDto categoryDto);
 	void deleteById(final Integer categoryId);
+	List<CategoryTreeNodeDto> findTree();
+	DtoCursorPageResponse<ProductDto> findSubtreeProducts(final Integer categoryId, final String cursor, final int limit);
 	
 }
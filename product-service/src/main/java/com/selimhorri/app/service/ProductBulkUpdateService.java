@@ -0,0 +1,10 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateResultDto;
+
+public interface ProductBulkUpdateService {
+	
+	ProductBulkUpdateResultDto update(final ProductBulkUpdateDto productBulkUpdateDto);
+	
+}
@@ -0,0 +1,10 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.change.ProductChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+
+public interface ProductChangeFeedService {
+	
+	DtoChangeFeedResponse<ProductChangeDto> findChanges(final String cursor, final int limit);
+	
+}
@@ -0,0 +1,15 @@
+package com.selimhorri.app.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+
+import com.selimhorri.app.dto.importer.ProductImportFormat;
+import com.selimhorri.app.dto.importer.ProductImportReportDto;
+
+public interface ProductImportService {
+	
+	ProductImportReportDto importProducts(final ProductImportFormat format, final BufferedReader reader) throws IOException;
+	List<ProductImportReportDto> findRecentImports();
+	
+}
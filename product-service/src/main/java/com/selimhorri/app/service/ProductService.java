@@ -3,11 +3,24 @@ package com.selimhorri.app.service;
 import java.util.List;
 
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.facet.ProductFacetsDto;
+import com.selimhorri.app.dto.fields.ProductField;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoSearchResponse;
 
 public interface ProductService {
 	
 	List<ProductDto> findAll();
+	List<ProductDto> findAll(final List<ProductField> fields);
+	DtoCursorPageResponse<ProductDto> findCatalogPage(final CatalogQuery catalogQuery);
+	DtoSearchResponse<ProductDto> search(final String query, final int offset, final int limit);
+	List<String> suggest(final String query, final int limit);
+	ProductFacetsDto findFacets(final List<Integer> categoryIds, final List<Integer> priceBands,
+			final Boolean inStock, final Integer after, final int limit);
+	List<ProductDto> findAllByIds(final List<Integer> productIds);
 	ProductDto findById(final Integer productId);
+	ProductDto findBySku(final String sku);
 	ProductDto save(final ProductDto productDto);
 	ProductDto update(final ProductDto productDto);
 	ProductDto update(final Integer productId, final ProductDto productDto);
@@ -0,0 +1,13 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.dto.StockReservationDto;
+
+public interface StockReservationService {
+	
+	StockReservationDto reserve(final Integer productId, final Integer quantity);
+	StockReservationDto findById(final String reservationId);
+	StockReservationDto confirm(final String reservationId);
+	StockReservationDto release(final String reservationId);
+	int expireHolds();
+	
+}
@@ -1,16 +1,36 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
 import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.catalog.CatalogSort;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.tree.CategoryTreeNodeDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.helper.CategoryMappingHelper;
+import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.index.CategoryTree;
+import com.selimhorri.app.index.CategoryTreeHolder;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
 import com.selimhorri.app.service.CategoryService;
@@ -24,10 +44,16 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
+	private static final Set<String> RESERVED_TITLES = Set.of("deleted", "no category");
+
 	private final CategoryRepository categoryRepository;
 	private final ProductRepository productRepository;
+	private final CatalogCacheEvictor catalogCacheEvictor;
+	private final CatalogIndexer catalogIndexer;
+	private final CategoryTreeHolder categoryTreeHolder;
 
 	@Override
+	@Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'nonReserved'")
 	public List<CategoryDto> findAll() {
 		return this.categoryRepository.findAllNonReserved()
 				.stream()
@@ -64,9 +90,15 @@ public class CategoryServiceImpl implements CategoryService {
 		categoryDto.setSubCategoriesDtos(null);
 		categoryDto.setCategoryId(null);
 
+		this.catalogCacheEvictor.evictCategories();
+
 		// Convertir DTO a entidad, guardar en BD y retornar como DTO
-		return CategoryMappingHelper.map(
-				this.categoryRepository.save(CategoryMappingHelper.map(categoryDto)));
+		final Category savedCategory = this.categoryRepository.save(CategoryMappingHelper.map(categoryDto));
+		// Siempre se crea como raíz: su ruta materializada es solo su propio id
+		savedCategory.setCategoryPath(CategoryTree.childPath(null, savedCategory.getCategoryId()));
+		this.catalogIndexer.categorySaved(savedCategory);
+		this.categoryTreeHolder.categoriesChanged();
+		return CategoryMappingHelper.map(savedCategory);
 	}
 
 	@Override
@@ -103,7 +135,17 @@ public class CategoryServiceImpl implements CategoryService {
 		existingCategory.setParentCategory(null);
 		existingCategory.setSubCategories(null);
 
-		return CategoryMappingHelper.map(this.categoryRepository.save(existingCategory));
+		// Los productos en caché incluyen el título de su categoría
+		this.catalogCacheEvictor.evictCategories();
+		this.catalogCacheEvictor.evictAllProducts();
+
+		this.moveToRoot(existingCategory);
+
+		// El índice de búsqueda guarda el título de la categoría de cada producto
+		final Category savedCategory = this.categoryRepository.save(existingCategory);
+		this.catalogIndexer.categorySaved(savedCategory);
+		this.categoryTreeHolder.categoriesChanged();
+		return CategoryMappingHelper.map(savedCategory);
 	}
 
 	@Override
@@ -139,8 +181,16 @@ public class CategoryServiceImpl implements CategoryService {
 		existingCategory.setParentCategory(null);
 		existingCategory.setSubCategories(null);
 
+		this.catalogCacheEvictor.evictCategories();
+		this.catalogCacheEvictor.evictAllProducts();
+
+		this.moveToRoot(existingCategory);
+
 		// Trabajar con entidad existente evita conflictos de mapeo
-		return CategoryMappingHelper.map(this.categoryRepository.save(existingCategory));
+		final Category savedCategory = this.categoryRepository.save(existingCategory);
+		this.catalogIndexer.categorySaved(savedCategory);
+		this.categoryTreeHolder.categoriesChanged();
+		return CategoryMappingHelper.map(savedCategory);
 	}
 
 	@Override
@@ -166,10 +216,99 @@ public class CategoryServiceImpl implements CategoryService {
 						"The 'No Category' category is required but not found in database"));
 
 		// Mover todos los productos de esta categoría a "No Category" antes de eliminar
-		this.productRepository.updateCategoryForProducts(categoryId, noCategory);
+		this.productRepository.updateCategoryForProducts(categoryId, noCategory, Instant.now());
+
+		// El UPDATE masivo no pasa por las entidades: invalidar todos los productos en caché
+		this.catalogCacheEvictor.evictAllProducts();
+		this.catalogCacheEvictor.evictCategories();
+		this.catalogIndexer.categoryRemoved(categoryId, noCategory.getCategoryId());
 
 		// Finalmente, eliminar la categoría vacía
 		this.categoryRepository.delete(category);
+		this.categoryTreeHolder.categoriesChanged();
+	}
+
+	@Override
+	public List<CategoryTreeNodeDto> findTree() {
+		log.info("*** CategoryTreeNodeDto List, service; fetch category tree *");
+		final CategoryTree tree = this.categoryTreeHolder.current();
+
+		// Un solo GROUP BY para los conteos directos; los del subárbol salen del árbol en memoria
+		final Map<Integer, Long> counts = new HashMap<>();
+		for (final Object[] row : this.productRepository.countByCategory())
+			if (row[0] != null)
+				counts.put((Integer) row[0], (Long) row[1]);
+		final long[] totals = tree.subtreeTotals(counts);
+
+		return tree.getRoots().stream()
+				.filter(root -> !isReserved(root.getCategoryTitle()))
+				.map(root -> toTreeNode(root, counts, totals))
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public DtoCursorPageResponse<ProductDto> findSubtreeProducts(final Integer categoryId, final String cursor,
+			final int limit) {
+		log.info("*** ProductDto Page, service; fetch products of category subtree *");
+		if (limit < 1 || limit > CatalogQuery.MAX_LIMIT)
+			throw new IllegalArgumentException(String.format("limit must be between 1 and %d", CatalogQuery.MAX_LIMIT));
+		final CategoryTree.Node node = this.categoryTreeHolder.current().find(categoryId)
+				.filter(found -> !isReserved(found.getCategoryTitle()))
+				.orElseThrow(() -> new CategoryNotFoundException(
+						String.format("Category with id: %d not found or is reserved", categoryId)));
+
+		Integer afterProductId = 0;
+		if (cursor != null && !cursor.isBlank()) {
+			final CatalogCursor catalogCursor = CatalogCursor.decode(cursor);
+			if (catalogCursor.getSort() != CatalogSort.ID || catalogCursor.getDirection() != Sort.Direction.ASC)
+				throw new IllegalArgumentException("Malformed cursor");
+			afterProductId = catalogCursor.getProductId();
+		}
+
+		// Una sola consulta por prefijo de ruta cubre la categoría y todos sus descendientes
+		final List<Product> products = this.productRepository.findInSubtree(node.getPath(), afterProductId,
+				PageRequest.of(0, limit + 1));
+		final boolean hasNext = products.size() > limit;
+		final List<Product> page = hasNext ? products.subList(0, limit) : products;
+		final String nextCursor = hasNext
+				? CatalogCursor.after(CatalogSort.ID, Sort.Direction.ASC, page.get(page.size() - 1)).encode()
+				: null;
+
+		return new DtoCursorPageResponse<>(
+				page.stream()
+						.map(ProductMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()),
+				nextCursor);
+	}
+
+	/**
+	 * Las actualizaciones dejan la categoría como raíz: si tenía padre, su
+	 * ruta y la de todos sus descendientes cambian de prefijo en un solo UPDATE.
+	 */
+	private void moveToRoot(final Category category) {
+		final String path = CategoryTree.childPath(null, category.getCategoryId());
+		if (category.getCategoryPath() != null && !category.getCategoryPath().equals(path))
+			this.categoryRepository.movePaths(category.getCategoryPath(), path);
+		category.setCategoryPath(path);
+	}
+
+	private static CategoryTreeNodeDto toTreeNode(final CategoryTree.Node node, final Map<Integer, Long> counts,
+			final long[] totals) {
+		return CategoryTreeNodeDto.builder()
+				.categoryId(node.getCategoryId())
+				.categoryTitle(node.getCategoryTitle())
+				.path(node.getPath())
+				.depth(node.getDepth())
+				.productCount(counts.getOrDefault(node.getCategoryId(), 0L))
+				.subtreeProductCount(totals[node.getPosition()])
+				.children(node.getChildren().stream()
+						.map(child -> toTreeNode(child, counts, totals))
+						.collect(Collectors.toUnmodifiableList()))
+				.build();
+	}
+
+	private static boolean isReserved(final String categoryTitle) {
+		return categoryTitle != null && RESERVED_TITLES.contains(categoryTitle.trim().toLowerCase());
 	}
 
 }
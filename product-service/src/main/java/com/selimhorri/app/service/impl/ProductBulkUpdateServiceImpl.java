@@ -0,0 +1,152 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateResultDto;
+import com.selimhorri.app.exception.wrapper.ProductBulkUpdateException;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.repository.ProductBulkRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductBulkUpdateService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cambios de precio y stock sobre todos los productos de un filtro. Se
+ * recorren por id en bloques de {@code app.bulk-update.chunk-size}, cada uno
+ * en su propia transacción corta con un único UPDATE, así las filas quedan
+ * bloqueadas poco tiempo y las lecturas siguen sin esperar. Si un bloque
+ * falla, los anteriores quedan aplicados y la excepción informa cuántos.
+ */
+@Service
+@Slf4j
+public class ProductBulkUpdateServiceImpl implements ProductBulkUpdateService {
+	
+	// 0.01 multiplicado por 10^7 ya supera ProductBulkRepository.MAX_PRICE_UNIT
+	private static final double MAX_PRICE_PERCENT = 1_000_000_000;
+	
+	private final ProductBulkRepository productBulkRepository;
+	private final ProductRepository productRepository;
+	private final CatalogCacheEvictor catalogCacheEvictor;
+	private final CatalogIndexer catalogIndexer;
+	private final TransactionOperations transactionOperations;
+	private final int chunkSize;
+	
+	public ProductBulkUpdateServiceImpl(final ProductBulkRepository productBulkRepository,
+			final ProductRepository productRepository, final CatalogCacheEvictor catalogCacheEvictor,
+			final CatalogIndexer catalogIndexer, final TransactionOperations transactionOperations,
+			@Value("${app.bulk-update.chunk-size:500}") final int chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("app.bulk-update.chunk-size must be positive");
+		this.productBulkRepository = productBulkRepository;
+		this.productRepository = productRepository;
+		this.catalogCacheEvictor = catalogCacheEvictor;
+		this.catalogIndexer = catalogIndexer;
+		this.transactionOperations = transactionOperations;
+		this.chunkSize = chunkSize;
+	}
+	
+	@Override
+	public ProductBulkUpdateResultDto update(final ProductBulkUpdateDto productBulkUpdateDto) {
+		log.info("*** ProductBulkUpdateResultDto, service; bulk update products *");
+		validate(productBulkUpdateDto);
+		
+		final long start = System.nanoTime();
+		long updated = 0;
+		int chunks = 0;
+		int afterProductId = 0;
+		while (true) {
+			final int after = afterProductId;
+			final Chunk chunk;
+			try {
+				chunk = this.transactionOperations.execute(status -> this.updateChunk(productBulkUpdateDto, after));
+			}
+			catch (RuntimeException e) {
+				// Los bloques anteriores ya están confirmados: el error dice hasta dónde se llegó
+				log.error("*** ProductBulkUpdateService; failed after {} chunks, {} products updated *", chunks, updated, e);
+				throw new ProductBulkUpdateException(String.format(
+						"Bulk update failed after %d chunks and %d updated products; products with id above %d were not changed",
+						chunks, updated, afterProductId), e);
+			}
+			if (chunk.size == 0)
+				break;
+			updated += chunk.updated;
+			chunks++;
+			afterProductId = chunk.lastProductId;
+			if (chunk.size < this.chunkSize)
+				break;
+		}
+		
+		final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		log.info("*** ProductBulkUpdateService; updated {} products in {} chunks, {} ms *", updated, chunks, elapsedMillis);
+		return ProductBulkUpdateResultDto.builder()
+				.updated(updated)
+				.chunks(chunks)
+				.elapsedMillis(elapsedMillis)
+				.build();
+	}
+	
+	private Chunk updateChunk(final ProductBulkUpdateDto productBulkUpdateDto, final int afterProductId) {
+		final Map<Integer, String> skusById = this.productBulkRepository.findChunk(
+				productBulkUpdateDto, afterProductId, this.chunkSize);
+		if (skusById.isEmpty())
+			return new Chunk(0, 0, afterProductId);
+		
+		final int updated = this.productBulkRepository.applyChange(skusById.keySet(), productBulkUpdateDto, Instant.now());
+		// Las cachés y los índices se actualizan recién al confirmar el bloque
+		this.catalogCacheEvictor.evictProducts(skusById);
+		for (final Product product : this.productRepository.findAllById(skusById.keySet()))
+			this.catalogIndexer.productSaved(product);
+		
+		int lastProductId = afterProductId;
+		for (final Integer productId : skusById.keySet())
+			lastProductId = productId;
+		return new Chunk(skusById.size(), updated, lastProductId);
+	}
+	
+	private static void validate(final ProductBulkUpdateDto productBulkUpdateDto) {
+		if (productBulkUpdateDto.getCategoryId() == null
+				&& (productBulkUpdateDto.getSkus() == null || productBulkUpdateDto.getSkus().isEmpty())
+				&& productBulkUpdateDto.getFromProductId() == null
+				&& productBulkUpdateDto.getToProductId() == null)
+			throw new IllegalArgumentException("A bulk update needs a categoryId, skus or a product id range");
+		if (productBulkUpdateDto.getPricePercent() == null && productBulkUpdateDto.getPriceAmount() == null
+				&& productBulkUpdateDto.getQuantityDelta() == null)
+			throw new IllegalArgumentException("A bulk update needs pricePercent, priceAmount or quantityDelta");
+		if (productBulkUpdateDto.getPricePercent() != null && productBulkUpdateDto.getPriceAmount() != null)
+			throw new IllegalArgumentException("pricePercent and priceAmount cannot be combined");
+		if (productBulkUpdateDto.getPricePercent() != null && productBulkUpdateDto.getPricePercent() <= -100)
+			throw new IllegalArgumentException("pricePercent must be greater than -100");
+		// Por encima de estos valores todo precio distinto de cero acaba en el máximo de la columna
+		if (productBulkUpdateDto.getPricePercent() != null && !(productBulkUpdateDto.getPricePercent() <= MAX_PRICE_PERCENT))
+			throw new IllegalArgumentException("pricePercent must be at most " + MAX_PRICE_PERCENT);
+		if (productBulkUpdateDto.getPriceAmount() != null
+				&& !(Math.abs(productBulkUpdateDto.getPriceAmount()) <= ProductBulkRepository.MAX_PRICE_UNIT.doubleValue()))
+			throw new IllegalArgumentException("priceAmount must be between -" + ProductBulkRepository.MAX_PRICE_UNIT
+					+ " and " + ProductBulkRepository.MAX_PRICE_UNIT);
+	}
+	
+	private static final class Chunk {
+		
+		private final int size;
+		private final int updated;
+		private final int lastProductId;
+		
+		Chunk(final int size, final int updated, final int lastProductId) {
+			this.size = size;
+			this.updated = updated;
+			this.lastProductId = lastProductId;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,84 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.change.ProductChangeCursor;
+import com.selimhorri.app.dto.change.ProductChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductChangeFeedService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feed de cambios de productos, ordenado por (updatedAt, productId). Cada
+ * producto aparece una sola vez con su último estado, así que el costo de
+ * sincronizar depende de cuántos productos cambiaron y no del catálogo.
+ */
+@Service
+@Transactional
+@Slf4j
+public class ProductChangeFeedServiceImpl implements ProductChangeFeedService {
+	
+	private static final int MAX_LIMIT = 1000;
+	
+	private final ProductRepository productRepository;
+	private final Duration settleWindow;
+	
+	public ProductChangeFeedServiceImpl(final ProductRepository productRepository,
+			@Value("${app.changes.settle-window:5s}") final Duration settleWindow) {
+		this.productRepository = productRepository;
+		this.settleWindow = settleWindow;
+	}
+	
+	@Override
+	public DtoChangeFeedResponse<ProductChangeDto> findChanges(final String cursor, final int limit) {
+		log.info("*** ProductChangeDto Feed, service; fetch product changes *");
+		if (limit < 1 || limit > MAX_LIMIT)
+			throw new IllegalArgumentException(String.format("limit must be between 1 and %d", MAX_LIMIT));
+		final ProductChangeCursor after = (cursor == null || cursor.isBlank())
+				? ProductChangeCursor.START
+				: ProductChangeCursor.decode(cursor);
+		
+		// Una transacción puede confirmar después de otra más nueva un updatedAt anterior:
+		// el feed se queda atrás del presente lo suficiente para no saltear esos cambios
+		final Instant until = Instant.now().minus(this.settleWindow);
+		final List<Product> products = this.productRepository.findChangedAfter(
+				after.getUpdatedAt(), after.getProductId(), until, PageRequest.of(0, limit + 1));
+		
+		// El repositorio trae una fila de más solo para saber si quedan cambios
+		final boolean hasMore = products.size() > limit;
+		final List<Product> page = hasMore ? products.subList(0, limit) : products;
+		final ProductChangeCursor next = page.isEmpty() ? after : ProductChangeCursor.after(page.get(page.size() - 1));
+		
+		return new DtoChangeFeedResponse<>(
+				page.stream()
+						.map(ProductChangeFeedServiceImpl::toChange)
+						.collect(Collectors.toUnmodifiableList()),
+				next.encode(),
+				hasMore);
+	}
+	
+	private static ProductChangeDto toChange(final Product product) {
+		final boolean deleted = product.isDeleted();
+		return ProductChangeDto.builder()
+				.productId(product.getProductId())
+				.sku(product.getSku())
+				.deleted(deleted)
+				.updatedAt(product.getUpdatedAt())
+				.product(deleted ? null : ProductMappingHelper.map(product))
+				.build();
+	}
+	
+}
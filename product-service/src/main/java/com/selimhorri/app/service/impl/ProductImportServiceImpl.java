@@ -0,0 +1,269 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.importer.ProductImportFormat;
+import com.selimhorri.app.dto.importer.ProductImportReportDto;
+import com.selimhorri.app.dto.importer.ProductImportRow;
+import com.selimhorri.app.importer.ProductImportProgress;
+import com.selimhorri.app.importer.ProductRowReader;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductBulkRepository;
+import com.selimhorri.app.service.ProductImportService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importación masiva de productos. El feed se lee fila a fila y se escribe
+ * en lotes de {@code app.import.batch-size}, cada uno en su propia
+ * transacción: un INSERT y un UPDATE por lote, con el SKU como clave. Las
+ * filas inválidas se reportan con su línea sin detener la importación.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+	
+	private static final String DELETED_CATEGORY = "Deleted";
+	private static final int RECENT_IMPORTS = 20;
+	private static final int PROGRESS_LOG_INTERVAL = 50_000;
+	
+	private final CategoryRepository categoryRepository;
+	private final ProductBulkRepository productBulkRepository;
+	private final CatalogCacheEvictor catalogCacheEvictor;
+	private final CatalogIndexer catalogIndexer;
+	private final TransactionOperations transactionOperations;
+	private final ObjectMapper objectMapper;
+	private final int batchSize;
+	private final ConcurrentLinkedDeque<ProductImportProgress> recentImports = new ConcurrentLinkedDeque<>();
+	
+	public ProductImportServiceImpl(final CategoryRepository categoryRepository,
+			final ProductBulkRepository productBulkRepository, final CatalogCacheEvictor catalogCacheEvictor,
+			final CatalogIndexer catalogIndexer, final TransactionOperations transactionOperations,
+			final ObjectMapper objectMapper, @Value("${app.import.batch-size:1000}") final int batchSize) {
+		if (batchSize < 1)
+			throw new IllegalArgumentException("app.import.batch-size must be positive");
+		this.categoryRepository = categoryRepository;
+		this.productBulkRepository = productBulkRepository;
+		this.catalogCacheEvictor = catalogCacheEvictor;
+		this.catalogIndexer = catalogIndexer;
+		this.transactionOperations = transactionOperations;
+		this.objectMapper = objectMapper;
+		this.batchSize = batchSize;
+	}
+	
+	@Override
+	public ProductImportReportDto importProducts(final ProductImportFormat format, final BufferedReader reader)
+			throws IOException {
+		log.info("*** ProductImportReportDto, service; import products *");
+		// Un encabezado inválido rechaza el feed completo antes de empezar
+		final ProductRowReader rows = ProductRowReader.open(format, reader, this.objectMapper);
+		final ProductImportProgress progress = new ProductImportProgress(format);
+		this.recentImports.addFirst(progress);
+		while (this.recentImports.size() > RECENT_IMPORTS)
+			this.recentImports.pollLast();
+		
+		try (rows) {
+			final CategoryLookup categories = this.loadCategories();
+			final Map<String, PendingProduct> batch = new LinkedHashMap<>();
+			while (true) {
+				final ProductImportRow row;
+				try {
+					row = rows.next();
+				}
+				catch (IllegalArgumentException e) {
+					progress.processed();
+					progress.rejected(rows.line(), null, e.getMessage());
+					continue;
+				}
+				if (row == null)
+					break;
+				if (progress.processed() % PROGRESS_LOG_INTERVAL == 0)
+					log.info("*** ProductImportService; {} *", progress);
+				
+				final Product product;
+				try {
+					product = this.toProduct(row, categories);
+				}
+				catch (IllegalArgumentException e) {
+					progress.rejected(rows.line(), row.getSku(), e.getMessage());
+					continue;
+				}
+				// Un SKU repetido en el mismo lote: escribir primero el lote, así gana la última fila
+				if (batch.containsKey(product.getSku()))
+					this.flush(batch, progress);
+				batch.put(product.getSku(), new PendingProduct(rows.line(), product));
+				if (batch.size() >= this.batchSize)
+					this.flush(batch, progress);
+			}
+			this.flush(batch, progress);
+			progress.completed();
+		}
+		catch (IOException | RuntimeException e) {
+			log.error("*** ProductImportService; {} aborted *", progress, e);
+			progress.failed(e.getMessage());
+		}
+		finally {
+			// Las escrituras por JDBC no pasan por las cachés
+			if (progress.hasWrites())
+				this.catalogCacheEvictor.evictAllProducts();
+		}
+		log.info("*** ProductImportService; finished {} *", progress);
+		return progress.toReport();
+	}
+	
+	@Override
+	public List<ProductImportReportDto> findRecentImports() {
+		log.info("*** ProductImportReportDto List, service; fetch recent imports *");
+		return this.recentImports.stream()
+				.map(ProductImportProgress::toReport)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	/**
+	 * Escribe el lote en una transacción. Si falla, una sola fila basta para
+	 * revertirlo entero: se reintenta fila por fila para reportar cuál.
+	 */
+	private void flush(final Map<String, PendingProduct> batch, final ProductImportProgress progress) {
+		if (batch.isEmpty())
+			return;
+		final List<PendingProduct> pending = List.copyOf(batch.values());
+		batch.clear();
+		try {
+			this.write(pending, progress);
+		}
+		catch (DataAccessException e) {
+			log.warn("*** ProductImportService; batch of {} rows failed, retrying one by one: {} *",
+					pending.size(), e.getMostSpecificCause().getMessage());
+			for (final PendingProduct pendingProduct : pending) {
+				try {
+					this.write(List.of(pendingProduct), progress);
+				}
+				catch (DataAccessException rowError) {
+					progress.rejected(pendingProduct.line, pendingProduct.product.getSku(),
+							rowError.getMostSpecificCause().getMessage());
+				}
+			}
+		}
+	}
+	
+	private void write(final List<PendingProduct> pending, final ProductImportProgress progress) {
+		final Map<Boolean, List<Product>> byExisting = this.transactionOperations.execute(status -> {
+			final Map<String, Integer> existingIds = this.productBulkRepository.findIdsBySku(pending.stream()
+					.map(pendingProduct -> pendingProduct.product.getSku())
+					.collect(Collectors.toUnmodifiableList()));
+			final Map<Boolean, List<Product>> split = pending.stream()
+					.map(pendingProduct -> pendingProduct.product)
+					.collect(Collectors.partitioningBy(product -> existingIds.containsKey(product.getSku())));
+			final Instant now = Instant.now();
+			this.productBulkRepository.updateAll(split.get(true), now);
+			this.productBulkRepository.insertAll(split.get(false), now);
+			
+			// Los índices en memoria se actualizan tras el commit, producto a producto como
+			// las escrituras por JPA; los ids de las filas nuevas los asigna la base de datos
+			final Map<String, Integer> insertedIds = split.get(false).isEmpty() ? Map.of()
+					: this.productBulkRepository.findIdsBySku(split.get(false).stream()
+							.map(Product::getSku)
+							.collect(Collectors.toUnmodifiableList()));
+			split.get(true).forEach(product -> product.setProductId(existingIds.get(product.getSku())));
+			split.get(false).forEach(product -> product.setProductId(insertedIds.get(product.getSku())));
+			split.values().stream()
+					.flatMap(List::stream)
+					.filter(product -> product.getProductId() != null)
+					.forEach(this.catalogIndexer::productSaved);
+			return split;
+		});
+		// Contar solo lo que llegó a confirmarse
+		progress.written(byExisting.get(false).size(), byExisting.get(true).size());
+	}
+	
+	private Product toProduct(final ProductImportRow row, final CategoryLookup categories) {
+		// Mismas reglas que el alta individual de productos
+		if (row.getProductTitle() == null || row.getProductTitle().isEmpty())
+			throw new IllegalArgumentException("El título del producto es requerido");
+		if (row.getImageUrl() == null || row.getImageUrl().isEmpty())
+			throw new IllegalArgumentException("La URL de la imagen es requerida");
+		if (row.getSku() == null || row.getSku().isEmpty())
+			throw new IllegalArgumentException("El SKU es requerido");
+		if (row.getPriceUnit() == null)
+			throw new IllegalArgumentException("El precio unitario es requerido");
+		if (row.getPriceUnit() < 0)
+			throw new IllegalArgumentException("El precio unitario no puede ser negativo");
+		if (row.getQuantity() == null)
+			throw new IllegalArgumentException("La cantidad es requerida");
+		if (row.getQuantity() < 0)
+			throw new IllegalArgumentException("La cantidad no puede ser negativa");
+		if (row.getCategoryId() == null && row.getCategoryTitle() == null)
+			throw new IllegalArgumentException("La categoría es requerida");
+		
+		final Category category = (row.getCategoryId() != null)
+				? categories.byId.get(row.getCategoryId())
+				: categories.byTitle.get(row.getCategoryTitle().toLowerCase(Locale.ROOT));
+		if (category == null)
+			throw new IllegalArgumentException("Categoría no encontrada: "
+					+ ((row.getCategoryId() != null) ? row.getCategoryId() : row.getCategoryTitle()));
+		
+		return Product.builder()
+				.productTitle(row.getProductTitle())
+				.imageUrl(row.getImageUrl())
+				.sku(row.getSku())
+				.priceUnit(row.getPriceUnit())
+				.quantity(row.getQuantity())
+				.category(category)
+				.build();
+	}
+	
+	/**
+	 * Todas las categorías en memoria, una consulta por importación en lugar
+	 * de una por producto.
+	 */
+	private CategoryLookup loadCategories() {
+		final CategoryLookup categories = new CategoryLookup();
+		for (final Category category : this.categoryRepository.findAll()) {
+			if (DELETED_CATEGORY.equalsIgnoreCase(category.getCategoryTitle()))
+				continue;
+			categories.byId.put(category.getCategoryId(), category);
+			if (category.getCategoryTitle() != null)
+				categories.byTitle.putIfAbsent(category.getCategoryTitle().toLowerCase(Locale.ROOT), category);
+		}
+		return categories;
+	}
+	
+	private static final class CategoryLookup {
+		
+		private final Map<Integer, Category> byId = new HashMap<>();
+		private final Map<String, Category> byTitle = new HashMap<>();
+		
+	}
+	
+	private static final class PendingProduct {
+		
+		private final long line;
+		private final Product product;
+		
+		PendingProduct(final long line, final Product product) {
+			this.line = line;
+			this.product = product;
+		}
+		
+	}
+	
+}
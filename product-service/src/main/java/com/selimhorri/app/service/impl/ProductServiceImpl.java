@@ -1,18 +1,36 @@
 package com.selimhorri.app.service.impl;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.facet.FacetValueDto;
+import com.selimhorri.app.dto.facet.ProductFacetsDto;
+import com.selimhorri.app.dto.fields.ProductField;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoSearchResponse;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
 import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.index.ProductFacetIndex;
+import com.selimhorri.app.index.ProductSearchIndex;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
 import com.selimhorri.app.service.ProductService;
@@ -26,8 +44,15 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+	private static final int MAX_SEARCH_LIMIT = 100;
+	private static final int MAX_SEARCH_OFFSET = 1000;
+
 	private final ProductRepository productRepository;
 	private final CategoryRepository categoryRepository;
+	private final CatalogCacheEvictor catalogCacheEvictor;
+	private final CatalogIndexer catalogIndexer;
+	private final ProductSearchIndex productSearchIndex;
+	private final ProductFacetIndex productFacetIndex;
 
 	@Override
 	public List<ProductDto> findAll() {
@@ -40,6 +65,108 @@ public class ProductServiceImpl implements ProductService {
 	}
 
 	@Override
+	public List<ProductDto> findAll(final List<ProductField> fields) {
+		log.info("*** ProductDto List, service; fetch selected fields of all products *");
+		final List<String> attributes = fields.stream()
+				.map(ProductField::getAttribute)
+				.collect(Collectors.toUnmodifiableList());
+		return this.productRepository.findAllProjected(attributes)
+				.stream()
+				.map(tuple -> ProductMappingHelper.map(tuple, fields))
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public DtoCursorPageResponse<ProductDto> findCatalogPage(final CatalogQuery catalogQuery) {
+		log.info("*** ProductDto Page, service; fetch catalog page *");
+
+		final List<Product> products = this.productRepository.findCatalogPage(catalogQuery);
+
+		// El repositorio trae una fila de más solo para saber si hay otra página
+		final boolean hasNext = products.size() > catalogQuery.getLimit();
+		final List<Product> page = hasNext ? products.subList(0, catalogQuery.getLimit()) : products;
+		final String nextCursor = hasNext
+				? CatalogCursor.after(catalogQuery.getSort(), catalogQuery.getDirection(), page.get(page.size() - 1)).encode()
+				: null;
+
+		return new DtoCursorPageResponse<>(
+				page.stream()
+						.map(ProductMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()),
+				nextCursor);
+	}
+
+	@Override
+	public DtoSearchResponse<ProductDto> search(final String query, final int offset, final int limit) {
+		log.info("*** ProductDto Search, service; search products *");
+		if (limit < 1 || limit > MAX_SEARCH_LIMIT)
+			throw new IllegalArgumentException(String.format("limit must be between 1 and %d", MAX_SEARCH_LIMIT));
+		if (offset < 0 || offset > MAX_SEARCH_OFFSET)
+			throw new IllegalArgumentException(String.format("offset must be between 0 and %d", MAX_SEARCH_OFFSET));
+
+		final ProductSearchIndex.Hits hits = this.productSearchIndex.search(query, offset, limit);
+		return new DtoSearchResponse<>(this.findAllInOrder(hits.getProductIds()), hits.getTotal());
+	}
+
+	@Override
+	public List<String> suggest(final String query, final int limit) {
+		log.info("*** String List, service; suggest search terms *");
+		if (limit < 1 || limit > MAX_SEARCH_LIMIT)
+			throw new IllegalArgumentException(String.format("limit must be between 1 and %d", MAX_SEARCH_LIMIT));
+		return this.productSearchIndex.suggest(query, limit);
+	}
+
+	@Override
+	public ProductFacetsDto findFacets(final List<Integer> categoryIds, final List<Integer> priceBands,
+			final Boolean inStock, final Integer after, final int limit) {
+		log.info("*** ProductFacetsDto, service; fetch catalog facets *");
+		// limit 0 devuelve solo los conteos
+		if (limit < 0 || limit > MAX_SEARCH_LIMIT)
+			throw new IllegalArgumentException(String.format("limit must be between 0 and %d", MAX_SEARCH_LIMIT));
+
+		final ProductFacetIndex.Facets facets = this.productFacetIndex.facets(
+				categoryIds, priceBands, inStock, (after == null) ? -1 : after, limit);
+
+		// Las categorías reservadas no tienen título en el índice: solo puede ser "No Category"
+		final List<FacetValueDto> categories = facets.getCategoryCounts().entrySet()
+				.stream()
+				.map(entry -> new FacetValueDto(String.valueOf(entry.getKey()),
+						Objects.requireNonNullElse(facets.getCategoryTitles().get(entry.getKey()), "No Category"),
+						entry.getValue()))
+				.collect(Collectors.toUnmodifiableList());
+
+		final double[] priceBounds = this.productFacetIndex.getPriceBounds();
+		final List<FacetValueDto> bands = new ArrayList<>();
+		for (int band = 0; band < facets.getPriceBandCounts().length; band++)
+			bands.add(new FacetValueDto(String.valueOf(band), priceBandLabel(priceBounds, band),
+					facets.getPriceBandCounts()[band]));
+
+		final int[] productIds = facets.getProductIds();
+		return ProductFacetsDto.builder()
+				.total(facets.getTotal())
+				.categories(categories)
+				.priceBands(bands)
+				.stock(List.of(
+						new FacetValueDto("true", "In stock", facets.getInStockCount()),
+						new FacetValueDto("false", "Out of stock", facets.getOutOfStockCount())))
+				.collection(this.findAllInOrder(productIds))
+				.nextAfter(facets.isHasMore() ? productIds[productIds.length - 1] : null)
+				.build();
+	}
+
+	@Override
+	public List<ProductDto> findAllByIds(final List<Integer> productIds) {
+		log.info("*** ProductDto List, service; fetch products by ids *");
+		if (productIds.isEmpty())
+			return List.of();
+		return this.productRepository.findAllByIdInWithoutDeleted(productIds)
+				.stream()
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	@Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#productId")
 	public ProductDto findById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
 		return this.productRepository.findByIdWithoutDeleted(productId)
@@ -48,6 +175,16 @@ public class ProductServiceImpl implements ProductService {
 						() -> new ProductNotFoundException(String.format("Product with id: %d not found", productId)));
 	}
 
+	@Override
+	@Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SKU, key = "#sku")
+	public ProductDto findBySku(final String sku) {
+		log.info("*** ProductDto, service; fetch product by sku *");
+		return this.productRepository.findBySkuWithoutDeleted(sku)
+				.map(ProductMappingHelper::map)
+				.orElseThrow(
+						() -> new ProductNotFoundException(String.format("Product with sku: %s not found", sku)));
+	}
+
 	@Override
 	public ProductDto save(final ProductDto productDto) {
 		log.info("*** ProductDto, service; save product *");
@@ -73,19 +210,15 @@ public class ProductServiceImpl implements ProductService {
 			throw new IllegalArgumentException("La cantidad es requerida");
 		}
 
-		if (productDto.getCategoryDto() == null || productDto.getCategoryDto().getCategoryId() == null) {
-			throw new IllegalArgumentException("La categoría es requerida");
-		}
-
 		// Confirmar que la categoría asignada existe en BD antes de guardar
-		Integer categoryId = productDto.getCategoryDto().getCategoryId();
-		categoryRepository.findById(categoryId)
-				.orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada con ID: " + categoryId));
+		this.requireCategory(productDto);
 
 		// Limpiar ID para forzar inserción nueva
 		productDto.setProductId(null);
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		this.catalogCacheEvictor.evictListings();
+		final Product savedProduct = this.productRepository.save(ProductMappingHelper.map(productDto));
+		this.catalogIndexer.productSaved(savedProduct);
+		return ProductMappingHelper.map(savedProduct);
 	}
 
 	@Override
@@ -93,13 +226,21 @@ public class ProductServiceImpl implements ProductService {
 		log.info("*** ProductDto, service; update product *");
 
 		// Asegurar que el producto a actualizar existe en BD
-		if (productDto.getProductId() == null || !productRepository.existsById(productDto.getProductId())) {
+		final Product existingProduct = (productDto.getProductId() == null) ? null
+				: this.productRepository.findById(productDto.getProductId()).orElse(null);
+		if (existingProduct == null) {
 			throw new ProductNotFoundException("Producto no encontrado con ID: " + productDto.getProductId());
 		}
 		
 		// Confirmar que la categoría asignada existe en BD antes de actualizar
-		return ProductMappingHelper.map(this.productRepository
-				.save(ProductMappingHelper.map(productDto)));
+		this.requireCategory(productDto);
+		
+		// Invalidar por id y por ambos SKU: el anterior deja de resolver a este producto
+		this.catalogCacheEvictor.evictProduct(existingProduct.getProductId(), existingProduct.getSku(), productDto.getSku());
+		
+		final Product savedProduct = this.productRepository.save(ProductMappingHelper.map(productDto));
+		this.catalogIndexer.productSaved(savedProduct);
+		return ProductMappingHelper.map(savedProduct);
 	}
 
 	@Override
@@ -110,14 +251,18 @@ public class ProductServiceImpl implements ProductService {
 		// Obtener el producto existente; lanzar excepción si no existe
 		Product existingProduct = productRepository.findById(productId)
 				.orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + productId));
-
+		this.requireCategory(productDto);
 
 		// Convertir DTO a entidad y preservar el ID original para la actualización
 		Product updatedProduct = ProductMappingHelper.map(productDto);
 		updatedProduct.setProductId(existingProduct.getProductId());
 
+		this.catalogCacheEvictor.evictProduct(productId, existingProduct.getSku(), updatedProduct.getSku());
 
-		return ProductMappingHelper.map(this.productRepository.save(updatedProduct));
+
+		final Product savedProduct = this.productRepository.save(updatedProduct);
+		this.catalogIndexer.productSaved(savedProduct);
+		return ProductMappingHelper.map(savedProduct);
 	}
 
 	@Override
@@ -129,13 +274,55 @@ public class ProductServiceImpl implements ProductService {
 				.orElseThrow(() -> new ProductNotFoundException("Product with id: " + productId + " not found"));
 
 
-		// Obtener la categoría "Deleted" usada como marcador para soft delete
-		Category deletedCategory = this.categoryRepository.findByCategoryTitle("Deleted")
-				.orElseThrow(() -> new RuntimeException("Category 'Deleted' not found in database"));
+		// Marcar el producto como eliminado en lugar de eliminarlo físicamente; conserva su categoría
+		product.setDeleted(true);
+		this.productRepository.save(product);
+		this.catalogCacheEvictor.evictProduct(productId, product.getSku());
+		this.catalogIndexer.productRemoved(productId);
+	}
+
+	/**
+	 * La categoría es obligatoria y debe existir en BD; sin esta comprobación
+	 * el save fallaría con un error de clave foránea en lugar de un 404.
+	 */
+	private void requireCategory(final ProductDto productDto) {
+		if (productDto.getCategoryDto() == null || productDto.getCategoryDto().getCategoryId() == null) {
+			throw new IllegalArgumentException("La categoría es requerida");
+		}
+		final Integer categoryId = productDto.getCategoryDto().getCategoryId();
+		this.categoryRepository.findById(categoryId)
+				.orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada con ID: " + categoryId));
+	}
+
+	/**
+	 * Los índices en memoria solo devuelven ids: se carga la página por id
+	 * y se conserva el orden que dio el índice.
+	 */
+	private List<ProductDto> findAllInOrder(final int[] productIds) {
+		final List<Integer> ids = Arrays.stream(productIds)
+				.boxed()
+				.collect(Collectors.toUnmodifiableList());
+		final Map<Integer, Product> products = this.productRepository.findAllById(ids)
+				.stream()
+				.collect(Collectors.toMap(Product::getProductId, Function.identity()));
+		return ids.stream()
+				.map(products::get)
+				.filter(Objects::nonNull)
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
 
+	private static String priceBandLabel(final double[] priceBounds, final int band) {
+		if (priceBounds.length == 0)
+			return "Any price";
+		if (band == 0)
+			return "< " + plain(priceBounds[0]);
+		if (band == priceBounds.length)
+			return plain(priceBounds[band - 1]) + "+";
+		return plain(priceBounds[band - 1]) + " - " + plain(priceBounds[band]);
+	}
 
-		// Reasignar el producto a la categoría "Deleted" en lugar de eliminarlo físicamente
-		product.setCategory(deletedCategory);
-		this.productRepository.save(product);
+	private static String plain(final double value) {
+		return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
 	}
 }
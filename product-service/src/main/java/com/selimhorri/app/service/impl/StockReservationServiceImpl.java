@@ -0,0 +1,196 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationException;
+import com.selimhorri.app.exception.wrapper.StockReservationNotFoundException;
+import com.selimhorri.app.helper.StockReservationMappingHelper;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.service.StockReservationService;
+import com.selimhorri.app.stock.ProductStockStore;
+import com.selimhorri.app.stock.StripedStockLedger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reservas de stock con TTL. Reservar descuenta las unidades en el momento,
+ * con un UPDATE condicional sobre el producto (o desde el ledger en memoria
+ * para los productos de alta demanda); confirmar fija la reserva y liberarla
+ * o dejarla vencer devuelve las unidades.
+ */
+@Service
+@Transactional
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+
+	private static final int EXPIRY_BATCH_SIZE = 500;
+	private static final Set<StockReservationStatus> RELEASABLE =
+			EnumSet.of(StockReservationStatus.HELD, StockReservationStatus.CONFIRMED);
+
+	private final StockReservationRepository stockReservationRepository;
+	private final ProductRepository productRepository;
+	private final ProductStockStore productStockStore;
+	private final StripedStockLedger stripedStockLedger;
+	private final Duration reservationTtl;
+
+	public StockReservationServiceImpl(final StockReservationRepository stockReservationRepository,
+			final ProductRepository productRepository, final ProductStockStore productStockStore,
+			final StripedStockLedger stripedStockLedger,
+			@Value("${app.stock.reservation-ttl:15m}") final Duration reservationTtl) {
+		this.stockReservationRepository = stockReservationRepository;
+		this.productRepository = productRepository;
+		this.productStockStore = productStockStore;
+		this.stripedStockLedger = stripedStockLedger;
+		this.reservationTtl = reservationTtl;
+	}
+
+	@Override
+	public StockReservationDto reserve(final Integer productId, final Integer quantity) {
+		log.info("*** StockReservationDto, service; reserve stock *");
+		if (productId == null)
+			throw new IllegalArgumentException("productId is required");
+		if (quantity == null || quantity < 1)
+			throw new IllegalArgumentException("quantity must be at least 1");
+
+		if (this.stripedStockLedger.isHot(productId)) {
+			if (!this.stripedStockLedger.reserve(productId, quantity))
+				throw this.notEnoughStock(productId, quantity);
+			// El ledger no participa de la transacción: si la reserva no se guarda, devolver las unidades
+			this.afterRollback(() -> this.stripedStockLedger.release(productId, quantity));
+		}
+		else if (!this.productStockStore.take(productId, quantity)) {
+			throw this.notEnoughStock(productId, quantity);
+		}
+
+		final StockReservation stockReservation = StockReservation.builder()
+				.reservationId(UUID.randomUUID().toString())
+				.productId(productId)
+				.quantity(quantity)
+				.status(StockReservationStatus.HELD)
+				.expiresAt(Instant.now().plus(this.reservationTtl))
+				.build();
+		return StockReservationMappingHelper.map(this.stockReservationRepository.save(stockReservation));
+	}
+
+	@Override
+	public StockReservationDto findById(final String reservationId) {
+		log.info("*** StockReservationDto, service; fetch reservation by id *");
+		return StockReservationMappingHelper.map(this.find(reservationId));
+	}
+
+	@Override
+	public StockReservationDto confirm(final String reservationId) {
+		log.info("*** StockReservationDto, service; confirm reservation *");
+		if (this.stockReservationRepository.confirmHeld(reservationId, Instant.now()) == 0) {
+			final StockReservation stockReservation = this.find(reservationId);
+			// Confirmar dos veces no es un error: el cliente puede estar reintentando
+			if (stockReservation.getStatus() != StockReservationStatus.CONFIRMED)
+				throw new StockReservationException(String.format("Reservation %s can no longer be confirmed: %s",
+						reservationId, (stockReservation.getStatus() == StockReservationStatus.HELD)
+								? "expired"
+								: stockReservation.getStatus().name().toLowerCase()));
+		}
+		return StockReservationMappingHelper.map(this.find(reservationId));
+	}
+
+	@Override
+	public StockReservationDto release(final String reservationId) {
+		log.info("*** StockReservationDto, service; release reservation *");
+		// Liberar una reserva ya liberada o vencida no devuelve stock dos veces
+		this.finish(this.find(reservationId), RELEASABLE, StockReservationStatus.RELEASED);
+		return StockReservationMappingHelper.map(this.find(reservationId));
+	}
+
+	@Override
+	@Scheduled(fixedDelayString = "${app.stock.expiry-sweep-ms:30000}")
+	public int expireHolds() {
+		final List<StockReservation> expired = this.stockReservationRepository.findExpired(
+				StockReservationStatus.HELD, Instant.now(), PageRequest.of(0, EXPIRY_BATCH_SIZE));
+		int count = 0;
+		for (final StockReservation stockReservation : expired)
+			if (this.finish(stockReservation, EnumSet.of(StockReservationStatus.HELD), StockReservationStatus.EXPIRED))
+				count++;
+		if (count > 0)
+			log.info("*** StockReservationService; expired {} held reservations *", count);
+		return count;
+	}
+
+	/**
+	 * Cierra la reserva y devuelve sus unidades, solo si la transición de
+	 * estado la hizo esta llamada.
+	 */
+	private boolean finish(final StockReservation stockReservation, final Set<StockReservationStatus> from,
+			final StockReservationStatus status) {
+		final String reservationId = stockReservation.getReservationId();
+		if (this.stockReservationRepository.transition(reservationId, from, status, Instant.now()) == 0)
+			return false;
+
+		final int productId = stockReservation.getProductId();
+		final int quantity = stockReservation.getQuantity();
+		if (this.stripedStockLedger.isHot(productId))
+			this.afterCommit(() -> this.stripedStockLedger.release(productId, quantity));
+		else
+			this.productStockStore.give(productId, quantity);
+		return true;
+	}
+
+	private StockReservation find(final String reservationId) {
+		return this.stockReservationRepository.findById(reservationId)
+				.orElseThrow(() -> new StockReservationNotFoundException(
+						String.format("Reservation with id: %s not found", reservationId)));
+	}
+
+	private RuntimeException notEnoughStock(final Integer productId, final Integer quantity) {
+		// Solo en el camino de fallo: distinguir producto inexistente de stock insuficiente
+		if (this.productRepository.findByIdWithoutDeleted(productId).isEmpty())
+			return new ProductNotFoundException(String.format("Product with id: %d not found", productId));
+		return new StockReservationException(
+				String.format("Not enough stock to reserve %d units of product %d", quantity, productId));
+	}
+
+	private void afterCommit(final Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		}
+		else {
+			action.run();
+		}
+	}
+
+	private void afterRollback(final Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(final int status) {
+					if (status == STATUS_ROLLED_BACK)
+						action.run();
+				}
+			});
+		}
+	}
+
+}
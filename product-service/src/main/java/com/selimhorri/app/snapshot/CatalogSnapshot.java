@@ -0,0 +1,365 @@
+package com.selimhorri.app.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.change.ProductChangeCursor;
+
+/**
+ * A point-in-time copy of the live catalog in one binary file, read through
+ * a read-only memory mapping: opening it costs a checksum pass over the
+ * pages, and products are decoded only when iterated or looked up.
+ *
+ * <p>Layout, big-endian, offsets from the start of the file:</p>
+ * <pre>
+ * header      magic, version, createdAt, cursor, counts, section offsets, body length, CRC32 of the body
+ * categories  id, parent id, title, image url
+ * products    id, category id, price, quantity, title, sku, image url; ascending id
+ * index       product ids, then the offset of each product record
+ * hot         ids of the products most worth caching when the snapshot was taken
+ * </pre>
+ * Strings are a byte length (-1 for null) and UTF-8; a missing number is
+ * -1 for ids, {@code Integer.MIN_VALUE} for quantities and NaN for prices.
+ */
+public final class CatalogSnapshot {
+
+	static final int MAGIC = 0x43534E50;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 72;
+
+	private static final int NONE = -1;
+
+	private final ByteBuffer buffer;
+	private final Instant createdAt;
+	private final ProductChangeCursor cursor;
+	private final Map<Integer, Category> categories;
+	private final int productCount;
+	private final int productsOffset;
+	private final int indexOffset;
+	private final int hotCount;
+	private final int hotOffset;
+
+	private CatalogSnapshot(final ByteBuffer buffer) {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC)
+			throw new IllegalStateException("Not a catalog snapshot");
+		if (buffer.getInt(4) != VERSION)
+			throw new IllegalStateException("Unsupported catalog snapshot version " + buffer.getInt(4));
+		if (buffer.getLong(56) != buffer.capacity() - HEADER_BYTES)
+			throw new IllegalStateException("Truncated catalog snapshot");
+		final CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate().position(HEADER_BYTES));
+		if (crc.getValue() != buffer.getLong(64))
+			throw new IllegalStateException("Catalog snapshot checksum mismatch");
+
+		this.createdAt = Instant.ofEpochMilli(buffer.getLong(8));
+		this.cursor = new ProductChangeCursor(Instant.ofEpochSecond(buffer.getLong(16), buffer.getInt(24)),
+				buffer.getInt(28));
+		final int categoryCount = buffer.getInt(32);
+		this.productCount = buffer.getInt(36);
+		this.hotCount = buffer.getInt(40);
+		this.indexOffset = buffer.getInt(44);
+		this.hotOffset = buffer.getInt(48);
+
+		final ByteBuffer reader = buffer.duplicate().position(HEADER_BYTES);
+		final Map<Integer, Category> categories = new HashMap<>();
+		for (int i = 0; i < categoryCount; i++) {
+			final int categoryId = reader.getInt();
+			final int parentId = reader.getInt();
+			categories.put(categoryId, Category.builder()
+					.categoryId(categoryId)
+					.parentCategory((parentId == NONE) ? null : Category.builder().categoryId(parentId).build())
+					.categoryTitle(readString(reader))
+					.imageUrl(readString(reader))
+					.build());
+		}
+		this.categories = Collections.unmodifiableMap(categories);
+		this.productsOffset = reader.position();
+	}
+
+	/**
+	 * Maps {@code file} and checks it is a complete snapshot of this version.
+	 *
+	 * @throws IllegalStateException if it is not
+	 */
+	public static CatalogSnapshot open(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE)
+				throw new IllegalStateException("Not a catalog snapshot: " + channel.size() + " bytes");
+			// The mapping outlives the channel
+			final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new CatalogSnapshot(mapped);
+		}
+	}
+
+	/**
+	 * Starts a snapshot that replaces {@code file} atomically on
+	 * {@link Writer#commit}; until then readers keep seeing the previous one.
+	 */
+	public static Writer writer(final Path file, final Instant createdAt, final ProductChangeCursor cursor,
+			final Collection<Category> categories) throws IOException {
+		return new Writer(file, createdAt, cursor, categories);
+	}
+
+	public Instant getCreatedAt() {
+		return this.createdAt;
+	}
+
+	/**
+	 * Every product change at or after this cursor may be missing from the
+	 * snapshot.
+	 */
+	public ProductChangeCursor getCursor() {
+		return this.cursor;
+	}
+
+	public Map<Integer, Category> getCategories() {
+		return this.categories;
+	}
+
+	public int getProductCount() {
+		return this.productCount;
+	}
+
+	public int[] getHotProductIds() {
+		final int[] productIds = new int[this.hotCount];
+		for (int i = 0; i < this.hotCount; i++)
+			productIds[i] = this.buffer.getInt(this.hotOffset + i * Integer.BYTES);
+		return productIds;
+	}
+
+	/**
+	 * Binary search over the id index; only the matching record is decoded.
+	 */
+	public Optional<Product> find(final int productId) {
+		int low = 0;
+		int high = this.productCount - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final int id = this.buffer.getInt(this.indexOffset + middle * Integer.BYTES);
+			if (id < productId)
+				low = middle + 1;
+			else if (id > productId)
+				high = middle - 1;
+			else
+				return Optional.of(this.readProduct(this.buffer.duplicate().position(
+						this.buffer.getInt(this.indexOffset + (this.productCount + middle) * Integer.BYTES))));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Products in ascending id order, decoded one at a time.
+	 */
+	public Iterator<Product> products() {
+		final ByteBuffer reader = this.buffer.duplicate().position(this.productsOffset);
+		return new Iterator<>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return this.next < CatalogSnapshot.this.productCount;
+			}
+
+			@Override
+			public Product next() {
+				if (!this.hasNext())
+					throw new NoSuchElementException();
+				this.next++;
+				return CatalogSnapshot.this.readProduct(reader);
+			}
+
+		};
+	}
+
+	private Product readProduct(final ByteBuffer reader) {
+		final int productId = reader.getInt();
+		final int categoryId = reader.getInt();
+		final double priceUnit = reader.getDouble();
+		final int quantity = reader.getInt();
+		return Product.builder()
+				.productId(productId)
+				.category((categoryId == NONE) ? null
+						: this.categories.getOrDefault(categoryId, Category.builder().categoryId(categoryId).build()))
+				.priceUnit(Double.isNaN(priceUnit) ? null : priceUnit)
+				.quantity((quantity == Integer.MIN_VALUE) ? null : quantity)
+				.productTitle(readString(reader))
+				.sku(readString(reader))
+				.imageUrl(readString(reader))
+				.build();
+	}
+
+	private static String readString(final ByteBuffer reader) {
+		final int length = reader.getInt();
+		if (length == NONE)
+			return null;
+		final byte[] bytes = new byte[length];
+		reader.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes a snapshot to a temporary file next to the target. Products
+	 * must come in ascending id order; their ids and offsets are kept in
+	 * memory until {@link #commit} writes the index.
+	 */
+	public static final class Writer implements Closeable {
+
+		private final Path file;
+		private final Path temporary;
+		private final FileChannel channel;
+		private final CRC32 crc = new CRC32();
+		private final DataOutputStream out;
+		private final Instant createdAt;
+		private final ProductChangeCursor cursor;
+		private final int categoryCount;
+		private int[] productIds = new int[1024];
+		private int[] offsets = new int[1024];
+		private int productCount;
+		private boolean committed;
+
+		private Writer(final Path file, final Instant createdAt, final ProductChangeCursor cursor,
+				final Collection<Category> categories) throws IOException {
+			this.file = file;
+			this.temporary = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+			this.channel = FileChannel.open(this.temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			this.channel.position(HEADER_BYTES);
+			this.out = new DataOutputStream(new BufferedOutputStream(
+					new CheckedOutputStream(Channels.newOutputStream(this.channel), this.crc), 1 << 16));
+			this.createdAt = createdAt;
+			this.cursor = cursor;
+			this.categoryCount = categories.size();
+			try {
+				for (final Category category : categories) {
+					this.out.writeInt(category.getCategoryId());
+					this.out.writeInt((category.getParentCategory() == null) ? NONE
+							: category.getParentCategory().getCategoryId());
+					this.writeString(category.getCategoryTitle());
+					this.writeString(category.getImageUrl());
+				}
+			}
+			catch (IOException | RuntimeException e) {
+				this.close();
+				throw e;
+			}
+		}
+
+		public void add(final Product product) throws IOException {
+			final int productId = product.getProductId();
+			if (this.productCount > 0 && productId <= this.productIds[this.productCount - 1])
+				throw new IllegalArgumentException("Products must be added in ascending id order");
+			if (this.productCount == this.productIds.length) {
+				this.productIds = Arrays.copyOf(this.productIds, this.productCount * 2);
+				this.offsets = Arrays.copyOf(this.offsets, this.productCount * 2);
+			}
+			this.productIds[this.productCount] = productId;
+			this.offsets[this.productCount] = this.position();
+			this.productCount++;
+
+			this.out.writeInt(productId);
+			this.out.writeInt((product.getCategory() == null) ? NONE : product.getCategory().getCategoryId());
+			this.out.writeDouble((product.getPriceUnit() == null) ? Double.NaN : product.getPriceUnit());
+			this.out.writeInt((product.getQuantity() == null) ? Integer.MIN_VALUE : product.getQuantity());
+			this.writeString(product.getProductTitle());
+			this.writeString(product.getSku());
+			this.writeString(product.getImageUrl());
+		}
+
+		/**
+		 * Writes the index and the header, syncs the file and moves it over
+		 * the previous snapshot.
+		 */
+		public void commit(final int[] hotProductIds) throws IOException {
+			final int indexOffset = this.position();
+			for (int i = 0; i < this.productCount; i++)
+				this.out.writeInt(this.productIds[i]);
+			for (int i = 0; i < this.productCount; i++)
+				this.out.writeInt(this.offsets[i]);
+			final int hotOffset = this.position();
+			for (final int productId : hotProductIds)
+				this.out.writeInt(productId);
+			final int end = this.position();
+			this.out.flush();
+
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+					.putInt(MAGIC)
+					.putInt(VERSION)
+					.putLong(this.createdAt.toEpochMilli())
+					.putLong(this.cursor.getUpdatedAt().getEpochSecond())
+					.putInt(this.cursor.getUpdatedAt().getNano())
+					.putInt(this.cursor.getProductId())
+					.putInt(this.categoryCount)
+					.putInt(this.productCount)
+					.putInt(hotProductIds.length)
+					.putInt(indexOffset)
+					.putInt(hotOffset)
+					.putInt(0)
+					.putLong(end - HEADER_BYTES)
+					.putLong(this.crc.getValue())
+					.flip();
+			while (header.hasRemaining())
+				this.channel.write(header, header.position());
+			this.channel.force(true);
+			this.channel.close();
+			Files.move(this.temporary, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			this.committed = true;
+		}
+
+		/**
+		 * Discards the temporary file unless the snapshot was committed.
+		 */
+		@Override
+		public void close() throws IOException {
+			if (this.committed)
+				return;
+			this.channel.close();
+			Files.deleteIfExists(this.temporary);
+		}
+
+		private int position() {
+			final long position = HEADER_BYTES + (long) this.out.size();
+			// DataOutputStream.size() saturates at Integer.MAX_VALUE
+			if (this.out.size() == Integer.MAX_VALUE || position > Integer.MAX_VALUE)
+				throw new IllegalStateException("Catalog snapshot over 2 GB");
+			return (int) position;
+		}
+
+		private void writeString(final String value) throws IOException {
+			if (value == null) {
+				this.out.writeInt(NONE);
+				return;
+			}
+			final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			this.out.writeInt(bytes.length);
+			this.out.write(bytes);
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.selimhorri.app.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.catalog.CatalogSort;
+import com.selimhorri.app.dto.change.ProductChangeCursor;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a {@link CatalogSnapshot} of the live catalog to
+ * {@code app.snapshot.directory} every {@code app.snapshot.write-interval-ms}
+ * and opens the latest one for {@link CatalogWarmUp}. With no directory
+ * configured, nothing is written or read.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshotStore {
+
+	static final String FILE_NAME = "catalog.snapshot";
+
+	private final ProductRepository productRepository;
+	private final CategoryRepository categoryRepository;
+	private final CacheManager cacheManager;
+	private final Path file;
+	private final Duration maxAge;
+	private final Duration settleWindow;
+	private final int batchSize;
+	private final int hotProducts;
+
+	public CatalogSnapshotStore(final ProductRepository productRepository,
+			final CategoryRepository categoryRepository, final CacheManager cacheManager,
+			@Value("${app.snapshot.directory:}") final String directory,
+			@Value("${app.snapshot.max-age:6h}") final Duration maxAge,
+			@Value("${app.changes.settle-window:5s}") final Duration settleWindow,
+			@Value("${app.search.rebuild-batch-size:1000}") final int batchSize,
+			@Value("${app.snapshot.hot-products:10000}") final int hotProducts) {
+		this.productRepository = productRepository;
+		this.categoryRepository = categoryRepository;
+		this.cacheManager = cacheManager;
+		this.file = directory.isBlank() ? null : Paths.get(directory, FILE_NAME);
+		this.maxAge = maxAge;
+		this.settleWindow = settleWindow;
+		this.batchSize = batchSize;
+		this.hotProducts = hotProducts;
+	}
+
+	public boolean isEnabled() {
+		return this.file != null;
+	}
+
+	/**
+	 * The latest snapshot, unless there is none, it is older than
+	 * {@code app.snapshot.max-age} or it cannot be read.
+	 */
+	public Optional<CatalogSnapshot> open() {
+		if (!this.isEnabled() || !Files.exists(this.file))
+			return Optional.empty();
+		try {
+			final CatalogSnapshot snapshot = CatalogSnapshot.open(this.file);
+			if (snapshot.getCreatedAt().isBefore(Instant.now().minus(this.maxAge))) {
+				log.info("*** CatalogSnapshotStore; ignoring snapshot from {}, older than {} *",
+						snapshot.getCreatedAt(), this.maxAge);
+				return Optional.empty();
+			}
+			return Optional.of(snapshot);
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("*** CatalogSnapshotStore; could not read {} *", this.file, e);
+			return Optional.empty();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.snapshot.write-interval-ms:600000}",
+			initialDelayString = "${app.snapshot.write-interval-ms:600000}")
+	public void write() {
+		if (!this.isEnabled())
+			return;
+		final long start = System.nanoTime();
+		final Instant createdAt = Instant.now();
+		// Writes that land while the catalog is read may be missing: the warm-up catches up from here
+		final ProductChangeCursor cursor = new ProductChangeCursor(createdAt.minus(this.settleWindow), 0);
+		try {
+			Files.createDirectories(this.file.getParent());
+			// The snapshot records each parent id: fetch the lazy parent with the category
+			final List<Category> categories = this.categoryRepository.findAllWithParent();
+			int written = 0;
+			try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(this.file, createdAt, cursor, categories)) {
+				CatalogCursor after = null;
+				boolean hasNext = true;
+				while (hasNext) {
+					final List<Product> products = this.productRepository.findCatalogPage(CatalogQuery.builder()
+							.sort(CatalogSort.ID)
+							.direction(Sort.Direction.ASC)
+							.limit(this.batchSize)
+							.cursor(after)
+							.build());
+					hasNext = products.size() > this.batchSize;
+					final List<Product> batch = hasNext ? products.subList(0, this.batchSize) : products;
+					for (final Product product : batch)
+						writer.add(product);
+					written += batch.size();
+					if (hasNext)
+						after = CatalogCursor.after(CatalogSort.ID, Sort.Direction.ASC, batch.get(batch.size() - 1));
+				}
+				writer.commit(this.hotProductIds());
+			}
+			log.info("*** CatalogSnapshotStore; wrote {} products to {} in {} ms *", written, this.file,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("*** CatalogSnapshotStore; could not write {} *", this.file, e);
+		}
+	}
+
+	/**
+	 * The products this instance has cached, hottest first when the cache
+	 * tracks it, so the next instance starts with the same working set.
+	 */
+	@SuppressWarnings("unchecked")
+	private int[] hotProductIds() {
+		// Spring and Caffeine both name their type Cache: the Caffeine one stays qualified
+		final Cache cache = this.cacheManager.getCache(CacheConfig.PRODUCTS);
+		if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache))
+			return new int[0];
+		final com.github.benmanes.caffeine.cache.Cache<Object, Object> products =
+				(com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+		final Iterable<Object> keys = products.policy().eviction()
+				.<Iterable<Object>>map(eviction -> eviction.hottest(this.hotProducts).keySet())
+				.orElseGet(() -> products.asMap().keySet());
+		return StreamSupport.stream(keys.spliterator(), false)
+				.filter(Integer.class::isInstance)
+				.mapToInt(key -> (Integer) key)
+				.limit(this.hotProducts)
+				.toArray();
+	}
+
+}
@@ -0,0 +1,246 @@
+package com.selimhorri.app.snapshot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.change.ProductChangeCursor;
+import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.index.IndexedProduct;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warms the catalog indexes and the product caches on startup. With a
+ * recent {@link CatalogSnapshot} the indexes are loaded from the mapped
+ * file and the products the last instance had cached are put back in the
+ * caches; the database is only asked for what changed since the snapshot,
+ * through the same {@code (updatedAt, productId)} range as the change feed.
+ * Without one, the indexes are rebuilt from the database in the background
+ * as before.
+ *
+ * <p>The web server is already listening when this runs, so the instance
+ * holds its readiness back until the warm-up is done: the readiness state
+ * goes to {@link ReadinessState#REFUSING_TRAFFIC} and the Eureka status
+ * stays {@code STARTING} (see {@code eureka.instance.initial-status}) until
+ * both are flipped to accepting traffic and {@code UP} at the end. A
+ * background rebuild from the database does not hold readiness back.</p>
+ */
+@Slf4j
+@Component
+public class CatalogWarmUp {
+
+	private static final int CATCH_UP_PAGE = 1000;
+	// Catch-up reads everything already written; the bound only guards against clock skew between instances
+	private static final Duration CATCH_UP_HORIZON = Duration.ofDays(1);
+
+	private final CatalogSnapshotStore catalogSnapshotStore;
+	private final CatalogIndexer catalogIndexer;
+	private final ProductRepository productRepository;
+	private final CategoryRepository categoryRepository;
+	private final CacheManager cacheManager;
+	private final CatalogCacheEvictor catalogCacheEvictor;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+	private final int batchSize;
+
+	public CatalogWarmUp(final CatalogSnapshotStore catalogSnapshotStore, final CatalogIndexer catalogIndexer,
+			final ProductRepository productRepository, final CategoryRepository categoryRepository,
+			final CacheManager cacheManager, final CatalogCacheEvictor catalogCacheEvictor,
+			final ApplicationEventPublisher eventPublisher,
+			final ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+			@Value("${app.search.rebuild-batch-size:1000}") final int batchSize) {
+		this.catalogSnapshotStore = catalogSnapshotStore;
+		this.catalogIndexer = catalogIndexer;
+		this.productRepository = productRepository;
+		this.categoryRepository = categoryRepository;
+		this.cacheManager = cacheManager;
+		this.catalogCacheEvictor = catalogCacheEvictor;
+		this.eventPublisher = eventPublisher;
+		this.applicationInfoManager = applicationInfoManager;
+		this.batchSize = batchSize;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		AvailabilityChangeEvent.publish(this.eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+		try {
+			this.load();
+		}
+		finally {
+			// Without the Eureka client (tests, eureka.client.enabled=false) there is nothing to mark UP
+			this.applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceStatus.UP));
+			AvailabilityChangeEvent.publish(this.eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+			log.info("*** CatalogWarmUp; accepting traffic *");
+		}
+	}
+
+	private void load() {
+		final Optional<CatalogSnapshot> snapshot = this.catalogSnapshotStore.open();
+		if (snapshot.isPresent()) {
+			try {
+				this.warmUp(snapshot.get());
+				return;
+			}
+			catch (RuntimeException e) {
+				log.error("*** CatalogWarmUp; warm-up from snapshot failed, rebuilding from the database *", e);
+			}
+		}
+		this.catalogIndexer.rebuildOnStartup();
+	}
+
+	/**
+	 * Loads the indexes and caches from {@code snapshot} plus whatever
+	 * changed after it.
+	 */
+	public void warmUp(final CatalogSnapshot snapshot) {
+		final long start = System.nanoTime();
+		// Categories are few: re-reading them all is cheaper than tracking renames and deletions
+		final List<Category> categories = this.categoryRepository.findAll();
+		final Map<Integer, Category> categoriesById = categories.stream()
+				.collect(Collectors.toMap(Category::getCategoryId, Function.identity()));
+
+		final Map<Integer, Product> changed = new HashMap<>();
+		final ProductChangeCursor caughtUp = this.catchUp(snapshot.getCursor(), changed);
+
+		this.catalogIndexer.rebuild(categories, this.batches(snapshot, changed));
+
+		final Map<Integer, String> cachedSkus = new HashMap<>();
+		final Cache products = this.cache(CacheConfig.PRODUCTS);
+		final Cache productsBySku = this.cache(CacheConfig.PRODUCTS_BY_SKU);
+		for (final int productId : snapshot.getHotProductIds()) {
+			final Product product = changed.containsKey(productId) ? changed.get(productId)
+					: snapshot.find(productId).orElse(null);
+			if (product == null || product.isDeleted() || product.getCategory() == null)
+				continue;
+			final ProductDto productDto = ProductMappingHelper.map(withCategory(product, categoriesById));
+			products.put(productId, productDto);
+			if (productDto.getSku() != null)
+				productsBySku.put(productDto.getSku(), productDto);
+			cachedSkus.put(productId, productDto.getSku());
+		}
+
+		// Writes committed while the steps above ran may have been overwritten by older data
+		final Map<Integer, Product> late = new LinkedHashMap<>();
+		this.catchUp(caughtUp, late);
+		if (!late.isEmpty()) {
+			final Map<Integer, String> skusById = new HashMap<>();
+			late.values().forEach(product -> {
+				skusById.put(product.getProductId(), product.getSku());
+				this.catalogIndexer.productSaved(product);
+			});
+			this.catalogCacheEvictor.evictProducts(skusById);
+			late.keySet().stream()
+					.map(cachedSkus::get)
+					.filter(Objects::nonNull)
+					.forEach(productsBySku::evict);
+		}
+
+		log.info("*** CatalogWarmUp; warmed from the snapshot of {} ({} products, {} changed since, {} cached)"
+				+ " in {} ms *", snapshot.getCreatedAt(), snapshot.getProductCount(), changed.size() + late.size(),
+				cachedSkus.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	/**
+	 * Collects every product written after {@code from}, deleted ones
+	 * included, into {@code changed}.
+	 *
+	 * @return the position of the last change read
+	 */
+	private ProductChangeCursor catchUp(final ProductChangeCursor from, final Map<Integer, Product> changed) {
+		final Instant until = Instant.now().plus(CATCH_UP_HORIZON);
+		ProductChangeCursor cursor = from;
+		while (true) {
+			final List<Product> page = this.productRepository.findChangedAfter(cursor.getUpdatedAt(),
+					cursor.getProductId(), until, PageRequest.of(0, CATCH_UP_PAGE));
+			page.forEach(product -> changed.put(product.getProductId(), product));
+			if (!page.isEmpty())
+				cursor = ProductChangeCursor.after(page.get(page.size() - 1));
+			if (page.size() < CATCH_UP_PAGE)
+				return cursor;
+		}
+	}
+
+	/**
+	 * The snapshot with changed products swapped for their current version,
+	 * followed by the live products it does not have yet.
+	 */
+	private Iterator<List<IndexedProduct>> batches(final CatalogSnapshot snapshot,
+			final Map<Integer, Product> changed) {
+		final Iterator<Product> fromSnapshot = snapshot.products();
+		final Iterator<Product> added = changed.values().stream()
+				.filter(product -> snapshot.find(product.getProductId()).isEmpty())
+				.iterator();
+		return new Iterator<>() {
+
+			@Override
+			public boolean hasNext() {
+				return fromSnapshot.hasNext() || added.hasNext();
+			}
+
+			@Override
+			public List<IndexedProduct> next() {
+				if (!this.hasNext())
+					throw new NoSuchElementException();
+				final List<IndexedProduct> batch = new ArrayList<>(CatalogWarmUp.this.batchSize);
+				while (batch.size() < CatalogWarmUp.this.batchSize && this.hasNext()) {
+					Product product = fromSnapshot.hasNext() ? fromSnapshot.next() : added.next();
+					product = changed.getOrDefault(product.getProductId(), product);
+					if (!product.isDeleted() && product.getCategory() != null)
+						batch.add(IndexedProduct.of(product));
+				}
+				return batch;
+			}
+
+		};
+	}
+
+	/**
+	 * The product with its category as it is now, for a snapshot record
+	 * that carries the title it had when written.
+	 */
+	private static Product withCategory(final Product product, final Map<Integer, Category> categoriesById) {
+		final Category category = categoriesById.get(product.getCategory().getCategoryId());
+		if (category != null)
+			product.setCategory(category);
+		return product;
+	}
+
+	private Cache cache(final String name) {
+		return Objects.requireNonNull(this.cacheManager.getCache(name), name);
+	}
+
+}
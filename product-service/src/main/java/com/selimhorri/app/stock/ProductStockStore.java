@@ -0,0 +1,74 @@
+package com.selimhorri.app.stock;
+
+import java.time.Instant;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The only writer of {@code products.quantity} for reservations. Every
+ * change is one conditional UPDATE on the product row, so concurrent
+ * reservations serialize on the row lock instead of on a read-check-write
+ * round trip, and a decrement that would go below zero matches no row.
+ *
+ * <p>A successful change evicts the product from the caches and re-indexes
+ * it, since both carry the quantity.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductStockStore {
+	
+	private final ProductRepository productRepository;
+	private final CatalogCacheEvictor catalogCacheEvictor;
+	private final CatalogIndexer catalogIndexer;
+	
+	/**
+	 * Takes {@code quantity} units within the caller's transaction.
+	 *
+	 * @return false if the product has fewer units, is deleted or does not exist
+	 */
+	@Transactional
+	public boolean take(final int productId, final int quantity) {
+		if (this.productRepository.decrementQuantity(productId, quantity, Instant.now()) == 0)
+			return false;
+		this.stockChanged(productId);
+		return true;
+	}
+	
+	@Transactional
+	public void give(final int productId, final int quantity) {
+		if (this.productRepository.incrementQuantity(productId, quantity, Instant.now()) > 0)
+			this.stockChanged(productId);
+	}
+	
+	/**
+	 * Like {@link #take} but committed on its own: units moved into the
+	 * {@link StripedStockLedger} must not come back if the request that
+	 * triggered the refill rolls back.
+	 */
+	@Transactional(TxType.REQUIRES_NEW)
+	public boolean claim(final int productId, final int quantity) {
+		return this.take(productId, quantity);
+	}
+	
+	@Transactional(TxType.REQUIRES_NEW)
+	public void restore(final int productId, final int quantity) {
+		this.give(productId, quantity);
+	}
+	
+	private void stockChanged(final int productId) {
+		this.productRepository.findById(productId).ifPresent(product -> {
+			this.catalogCacheEvictor.evictProduct(productId, product.getSku());
+			this.catalogIndexer.productSaved(product);
+		});
+	}
+	
+}
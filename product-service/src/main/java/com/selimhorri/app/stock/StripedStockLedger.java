@@ -0,0 +1,200 @@
+package com.selimhorri.app.stock;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory stock for flash-sale products ({@code app.stock.hot-product-ids}).
+ * Reserving one of them through the database makes every request wait on
+ * the same row lock; here the units are claimed from the product row in
+ * blocks and handed out from counters spread over several stripes, so
+ * concurrent reservations mostly touch different cache lines and no lock.
+ *
+ * <p>Units are only ever moved, never counted twice: each one is either in
+ * the database, in a stripe or held by a reservation. A stripe can only
+ * hand out what a committed claim already took from the product row, so
+ * the ledger cannot oversell even with several instances running. What
+ * is left in the stripes goes back to the row on every flush and on
+ * shutdown; a crash leaves at most one block plus the units released
+ * since the last flush out of the row.</p>
+ */
+@Slf4j
+@Component
+public class StripedStockLedger {
+
+	// One stripe per 64-byte cache line
+	private static final int PADDING = 16;
+	// After the row refused a claim, claims at least as large skip the database for this long
+	private static final long SOLD_OUT_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final ProductStockStore productStockStore;
+	private final Set<Integer> hotProductIds;
+	private final int stripeCount;
+	private final int blockSize;
+	private final ConcurrentMap<Integer, Stripes> ledgers = new ConcurrentHashMap<>();
+
+	public StripedStockLedger(final ProductStockStore productStockStore,
+			@Value("${app.stock.hot-product-ids:}") final int[] hotProductIds,
+			@Value("${app.stock.ledger-stripes:0}") final int stripes,
+			@Value("${app.stock.ledger-block-size:50}") final int blockSize) {
+		if (blockSize < 1)
+			throw new IllegalArgumentException("app.stock.ledger-block-size must be positive");
+		this.productStockStore = productStockStore;
+		this.hotProductIds = Arrays.stream(hotProductIds).boxed().collect(Collectors.toUnmodifiableSet());
+		final int requested = (stripes > 0) ? stripes : Runtime.getRuntime().availableProcessors();
+		// Power of two, so a stripe index is a mask away
+		this.stripeCount = (requested <= 1) ? 1 : Integer.highestOneBit(requested - 1) << 1;
+		this.blockSize = blockSize;
+	}
+
+	public boolean isHot(final int productId) {
+		return this.hotProductIds.contains(productId);
+	}
+
+	/**
+	 * @return false if neither the stripes nor the product row have
+	 *         {@code quantity} units left
+	 */
+	public boolean reserve(final int productId, final int quantity) {
+		final Stripes stripes = this.stripes(productId);
+		final int home = this.home();
+		for (int i = 0; i < this.stripeCount; i++)
+			if (stripes.tryTake((home + i) & (this.stripeCount - 1), quantity))
+				return true;
+
+		// Slow path: gather what is spread over the stripes and top up from the row
+		synchronized (stripes) {
+			final int pooled = stripes.drain();
+			if (pooled >= quantity) {
+				stripes.add(home, pooled - quantity);
+				return true;
+			}
+			final int missing = quantity - pooled;
+			if (missing >= stripes.refusedClaim && System.nanoTime() - stripes.refusedAt < SOLD_OUT_RECHECK_NANOS) {
+				stripes.add(home, pooled);
+				return false;
+			}
+			try {
+				if (this.productStockStore.claim(productId, missing + this.blockSize)) {
+					stripes.add(home, this.blockSize);
+					return true;
+				}
+				// Fewer than a block left: take just what this reservation needs
+				if (this.productStockStore.claim(productId, missing))
+					return true;
+			}
+			catch (RuntimeException e) {
+				stripes.add(home, pooled);
+				throw e;
+			}
+			stripes.refusedClaim = missing;
+			stripes.refusedAt = System.nanoTime();
+			stripes.add(home, pooled);
+			return false;
+		}
+	}
+
+	public void release(final int productId, final int quantity) {
+		this.stripes(productId).add(this.home(), quantity);
+	}
+
+	/**
+	 * Units currently held in memory for the product, not yet reserved.
+	 */
+	public int pooled(final int productId) {
+		final Stripes stripes = this.ledgers.get(productId);
+		return (stripes == null) ? 0 : stripes.sum();
+	}
+
+	/**
+	 * Returns the unreserved units of every hot product to its row, one
+	 * UPDATE per product, so other instances and the catalog see them again.
+	 */
+	@PreDestroy
+	@Scheduled(fixedDelayString = "${app.stock.ledger-flush-ms:1000}")
+	public void flush() {
+		this.ledgers.forEach((productId, stripes) -> {
+			synchronized (stripes) {
+				final int pooled = stripes.drain();
+				if (pooled == 0)
+					return;
+				try {
+					this.productStockStore.restore(productId, pooled);
+				}
+				catch (RuntimeException e) {
+					stripes.add(0, pooled);
+					log.warn("*** StripedStockLedger; could not return {} units of product {} *", pooled, productId, e);
+				}
+			}
+		});
+	}
+
+	private Stripes stripes(final int productId) {
+		if (!this.isHot(productId))
+			throw new IllegalArgumentException(String.format("Product %d is not served by the stock ledger", productId));
+		return this.ledgers.computeIfAbsent(productId, id -> new Stripes(this.stripeCount));
+	}
+
+	private int home() {
+		return Long.hashCode(Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) & (this.stripeCount - 1);
+	}
+
+	private static final class Stripes {
+
+		private final AtomicIntegerArray cells;
+		private final int count;
+		// Guarded by the Stripes monitor
+		private int refusedClaim = Integer.MAX_VALUE;
+		private long refusedAt;
+
+		Stripes(final int count) {
+			this.cells = new AtomicIntegerArray(count * PADDING);
+			this.count = count;
+		}
+
+		boolean tryTake(final int stripe, final int quantity) {
+			final int cell = stripe * PADDING;
+			int available = this.cells.get(cell);
+			while (available >= quantity) {
+				if (this.cells.compareAndSet(cell, available, available - quantity))
+					return true;
+				available = this.cells.get(cell);
+			}
+			return false;
+		}
+
+		void add(final int stripe, final int quantity) {
+			if (quantity != 0)
+				this.cells.addAndGet(stripe * PADDING, quantity);
+		}
+
+		int drain() {
+			int total = 0;
+			for (int stripe = 0; stripe < this.count; stripe++)
+				total += this.cells.getAndSet(stripe * PADDING, 0);
+			return total;
+		}
+
+		int sum() {
+			int total = 0;
+			for (int stripe = 0; stripe < this.count; stripe++)
+				total += this.cells.get(stripe * PADDING);
+			return total;
+		}
+
+	}
+
+}
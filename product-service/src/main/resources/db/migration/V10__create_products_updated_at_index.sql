@@ -0,0 +1,7 @@
+
+-- change feed: rows written before updated_at was maintained count as changed when created
+UPDATE products SET updated_at = created_at WHERE updated_at IS NULL;
+
+-- change feed cursor: (updated_at, product_id)
+CREATE INDEX idx_products_updated_at_product_id ON products (updated_at, product_id);
+
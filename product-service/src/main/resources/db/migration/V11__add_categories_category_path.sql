@@ -0,0 +1,8 @@
+
+-- materialized path of each category, e.g. '/1/7/12/': the ids from its root down to itself.
+-- Existing rows are filled in by product-service on startup.
+ALTER TABLE categories ADD category_path VARCHAR(512);
+
+-- subtree lookups: category_path LIKE '/1/7/%'
+CREATE INDEX idx_categories_category_path ON categories (category_path);
+
@@ -0,0 +1,22 @@
+
+-- soft delete as a flag instead of a move to the 'Deleted' category, so live reads need no join
+ALTER TABLE products ADD deleted BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE products SET deleted = TRUE
+ WHERE category_id IN (SELECT category_id FROM categories WHERE category_title = 'Deleted');
+
+-- no partial indexes on H2 or MySQL: the flag leads instead, so deleted = FALSE is an equality prefix
+-- before the keyset columns of each catalog sort (see V7)
+CREATE INDEX idx_products_deleted_product_id ON products (deleted, product_id);
+CREATE INDEX idx_products_deleted_price_unit_product_id ON products (deleted, price_unit, product_id);
+CREATE INDEX idx_products_deleted_product_title_product_id ON products (deleted, product_title, product_id);
+CREATE INDEX idx_products_category_id_deleted_product_id ON products (category_id, deleted, product_id);
+CREATE INDEX idx_products_category_id_deleted_price_unit_product_id ON products (category_id, deleted, price_unit, product_id);
+
+-- MySQL needs the table; H2 accepts the same form. The category_id FK (V6) is covered by the new
+-- category_id-led indexes, which are created first
+DROP INDEX idx_products_price_unit_product_id ON products;
+DROP INDEX idx_products_product_title_product_id ON products;
+DROP INDEX idx_products_category_id_product_id ON products;
+DROP INDEX idx_products_category_id_price_unit_product_id ON products;
+
@@ -0,0 +1,17 @@
+
+CREATE TABLE stock_reservations (
+	reservation_id VARCHAR(36) NOT NULL PRIMARY KEY,
+	product_id INT(11) NOT NULL,
+	quantity INT(11) NOT NULL,
+	status VARCHAR(16) NOT NULL,
+	expires_at TIMESTAMP NOT NULL,
+	created_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL NULL_TO_DEFAULT,
+	updated_at TIMESTAMP
+);
+
+ALTER TABLE stock_reservations
+  ADD CONSTRAINT fk_stock_reservations_product_id FOREIGN KEY (product_id) REFERENCES products (product_id);
+
+-- the expiry sweep only reads held reservations past their TTL
+CREATE INDEX idx_stock_reservations_status_expires_at ON stock_reservations (status, expires_at);
+
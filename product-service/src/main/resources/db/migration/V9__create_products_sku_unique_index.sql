@@ -0,0 +1,4 @@
+
+-- bulk import upserts by SKU
+CREATE UNIQUE INDEX uk_products_sku ON products (sku);
+
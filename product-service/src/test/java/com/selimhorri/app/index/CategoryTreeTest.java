@@ -0,0 +1,77 @@
+package com.selimhorri.app.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CategoryTreeTest {
+
+    // 1 ─┬─ 2 ── 4
+    //    └─ 3
+    // 5
+    private final CategoryTree tree = CategoryTree.of(List.of(
+            new CategoryRow(4, 2, "Laptops", null),
+            new CategoryRow(1, null, "Computing", null),
+            new CategoryRow(3, 1, "Monitors", null),
+            new CategoryRow(2, 1, "Computers", null),
+            new CategoryRow(5, null, "Books", null)));
+
+    @Test
+    void nodesCarryPathDepthAndAncestors() {
+        final CategoryTree.Node laptops = tree.find(4).orElseThrow();
+
+        assertEquals("/1/2/4/", laptops.getPath());
+        assertEquals(2, laptops.getDepth());
+        assertArrayEquals(new int[] {1, 2}, laptops.getAncestorIds());
+        assertEquals(2, laptops.getParentCategoryId());
+        assertEquals("/5/", tree.find(5).orElseThrow().getPath());
+        assertEquals(5, tree.size());
+    }
+
+    @Test
+    void descendantsAreTheContiguousRunAfterTheNode() {
+        assertArrayEquals(new int[] {2, 4, 3}, tree.descendantIds(1));
+        assertArrayEquals(new int[] {4}, tree.descendantIds(2));
+        assertArrayEquals(new int[0], tree.descendantIds(4));
+        assertArrayEquals(new int[0], tree.descendantIds(99));
+    }
+
+    @Test
+    void isAncestorIsStrict() {
+        assertTrue(tree.isAncestor(1, 4));
+        assertTrue(tree.isAncestor(2, 4));
+        assertFalse(tree.isAncestor(4, 4));
+        assertFalse(tree.isAncestor(3, 4));
+        assertFalse(tree.isAncestor(5, 4));
+    }
+
+    @Test
+    void subtreeTotalsRollCountsUp() {
+        final long[] totals = tree.subtreeTotals(Map.of(1, 1L, 2, 2L, 3, 4L, 4, 8L, 5, 16L));
+
+        assertEquals(15, totals[tree.find(1).orElseThrow().getPosition()]);
+        assertEquals(10, totals[tree.find(2).orElseThrow().getPosition()]);
+        assertEquals(8, totals[tree.find(4).orElseThrow().getPosition()]);
+        assertEquals(16, totals[tree.find(5).orElseThrow().getPosition()]);
+    }
+
+    @Test
+    void orphansAndCyclesBecomeRoots() {
+        final CategoryTree broken = CategoryTree.of(List.of(
+                new CategoryRow(1, 42, "Orphan", null),
+                new CategoryRow(2, 3, "Cycle A", null),
+                new CategoryRow(3, 2, "Cycle B", null),
+                new CategoryRow(4, 4, "Own parent", null)));
+
+        assertEquals(4, broken.size());
+        assertEquals("/1/", broken.find(1).orElseThrow().getPath());
+        assertEquals("/2/", broken.find(2).orElseThrow().getPath());
+        assertEquals("/2/3/", broken.find(3).orElseThrow().getPath());
+        assertEquals("/4/", broken.find(4).orElseThrow().getPath());
+        assertEquals(3, broken.getRoots().size());
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.selimhorri.app.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Benchmark del índice de facetas con 1M productos, 200 categorías y precios
+ * repartidos en las bandas por defecto. No corre en el build normal:
+ * mvn test -Dbenchmark=true -Dtest=ProductFacetIndexBenchmarkTest
+ *
+ * Compara los conteos con un recorrido lineal del mismo catálogo, además de
+ * medir memoria y latencia.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductFacetIndexBenchmarkTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int CATEGORIES = 200;
+
+    private final ProductFacetIndex index = new ProductFacetIndex(new double[] {25, 50, 100, 250, 500, 1000});
+    private final int[] categoryOf = new int[PRODUCTS + 1];
+    private final double[] priceOf = new double[PRODUCTS + 1];
+    private final int[] quantityOf = new int[PRODUCTS + 1];
+
+    @BeforeAll
+    void loadCatalog() {
+        final Random random = new Random(7);
+        final Map<Integer, String> categories = new HashMap<>();
+        for (int categoryId = 1; categoryId <= CATEGORIES; categoryId++)
+            categories.put(categoryId, "Categoría " + categoryId);
+
+        final long start = System.nanoTime();
+        index.beginRebuild(categories);
+        List<IndexedProduct> batch = new ArrayList<>();
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            // Categorías de tamaño desigual, como en un catálogo real
+            categoryOf[productId] = 1 + (int) (CATEGORIES * Math.pow(random.nextDouble(), 2));
+            priceOf[productId] = Math.round(Math.exp(random.nextDouble() * 8) * 100) / 100.0;
+            quantityOf[productId] = random.nextInt(10) < 8 ? 1 + random.nextInt(100) : 0;
+            batch.add(new IndexedProduct(productId, "Producto " + productId, "SKU-" + productId,
+                    categoryOf[productId], priceOf[productId], quantityOf[productId]));
+            if (batch.size() == 1000) {
+                index.load(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        index.load(batch);
+        index.endRebuild();
+
+        System.out.printf("load: %d products, %d ms, %.1f MB in bitmaps and id arrays%n", PRODUCTS,
+                (System.nanoTime() - start) / 1_000_000, index.sizeInBytes() / 1048576.0);
+    }
+
+    @Test
+    void facetLatency() {
+        final Object[][] filters = {
+                {List.of(), List.of(), null},
+                {List.of(1), List.of(), null},
+                {List.of(1, 2, 3), List.of(2, 3), true},
+                {List.of(), List.of(0, 1), false},
+                {List.of(150), List.of(6), true},
+        };
+        for (final Object[] filter : filters) {
+            @SuppressWarnings("unchecked")
+            final List<Integer> categoryIds = (List<Integer>) filter[0];
+            @SuppressWarnings("unchecked")
+            final List<Integer> priceBands = (List<Integer>) filter[1];
+            final Boolean inStock = (Boolean) filter[2];
+            for (int i = 0; i < 50; i++)
+                index.facets(categoryIds, priceBands, inStock, -1, 20);
+            final long[] nanos = new long[200];
+            ProductFacetIndex.Facets facets = null;
+            for (int i = 0; i < nanos.length; i++) {
+                final long start = System.nanoTime();
+                facets = index.facets(categoryIds, priceBands, inStock, -1, 20);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("categories %-10s bands %-8s inStock %-5s %7d matches  p50 %6.2f ms  p99 %6.2f ms%n",
+                    categoryIds, priceBands, inStock, facets.getTotal(),
+                    nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6);
+        }
+    }
+
+    @Test
+    void countsMatchLinearScan() {
+        final List<Integer> categoryIds = List.of(1, 2, 3);
+        final List<Integer> priceBands = List.of(2, 3);
+        final ProductFacetIndex.Facets facets = index.facets(categoryIds, priceBands, true, -1, 20);
+
+        int total = 0;
+        final int[] bandCounts = new int[7];
+        int inStock = 0;
+        int outOfStock = 0;
+        final List<Integer> firstPage = new ArrayList<>();
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            final boolean inCategory = categoryIds.contains(categoryOf[productId]);
+            final int band = index.priceBand(priceOf[productId]);
+            final boolean inBand = priceBands.contains(band);
+            final boolean stocked = quantityOf[productId] > 0;
+            if (inCategory && stocked)
+                bandCounts[band]++;
+            if (inCategory && inBand) {
+                if (stocked)
+                    inStock++;
+                else
+                    outOfStock++;
+            }
+            if (inCategory && inBand && stocked) {
+                total++;
+                if (firstPage.size() < 20)
+                    firstPage.add(productId);
+            }
+        }
+
+        assertEquals(total, facets.getTotal());
+        assertArrayEquals(bandCounts, facets.getPriceBandCounts());
+        assertEquals(inStock, facets.getInStockCount());
+        assertEquals(outOfStock, facets.getOutOfStockCount());
+        assertArrayEquals(firstPage.stream().mapToInt(Integer::intValue).toArray(), facets.getProductIds());
+        assertTrue(facets.isHasMore());
+    }
+
+    @Test
+    void nextPageStartsAfterLastId() {
+        final ProductFacetIndex.Facets first = index.facets(List.of(5), List.of(), null, -1, 10);
+        final int last = first.getProductIds()[first.getProductIds().length - 1];
+        final ProductFacetIndex.Facets second = index.facets(List.of(5), List.of(), null, last, 10);
+
+        assertTrue(second.getProductIds()[0] > last);
+        assertEquals(first.getTotal(), second.getTotal());
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.selimhorri.app.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductFacetIndexTest {
+
+    // bands: below 25, 25 to below 50, 50 up
+    private final ProductFacetIndex index = new ProductFacetIndex(new double[] {25, 50});
+
+    @BeforeEach
+    void setUp() {
+        index.putCategory(1, "Computadoras");
+        index.putCategory(2, "Accesorios");
+        index.putCategory(3, "Libros");
+        index.index(product(1, 1, 10.0, 5));
+        index.index(product(2, 1, 30.0, 0));
+        index.index(product(3, 2, 60.0, 3));
+        index.index(product(4, 2, 25.0, 1));
+        index.index(product(5, 3, null, null));
+    }
+
+    private static IndexedProduct product(final int productId, final Integer categoryId, final Double priceUnit,
+            final Integer quantity) {
+        return new IndexedProduct(productId, "product " + productId, "SKU-" + productId, categoryId, priceUnit,
+                quantity);
+    }
+
+    private ProductFacetIndex.Facets unfiltered() {
+        return index.facets(List.of(), List.of(), null, -1, 10);
+    }
+
+    @Test
+    void priceBandsAreHalfOpen() {
+        assertEquals(0, index.priceBand(24.99));
+        assertEquals(1, index.priceBand(25.0));
+        assertEquals(2, index.priceBand(1000.0));
+        assertEquals(-1, index.priceBand(null));
+        assertThrows(IllegalArgumentException.class, () -> new ProductFacetIndex(new double[] {50, 25}));
+    }
+
+    @Test
+    void unfilteredFacetsCountTheWholeCatalogAndPageById() {
+        final ProductFacetIndex.Facets facets = index.facets(List.of(), List.of(), null, -1, 2);
+
+        assertEquals(5, facets.getTotal());
+        assertEquals(Map.of(1, 2, 2, 2, 3, 1), facets.getCategoryCounts());
+        assertEquals(List.of(1, 2, 3), List.copyOf(facets.getCategoryCounts().keySet()));
+        assertEquals("Computadoras", facets.getCategoryTitles().get(1));
+        assertArrayEquals(new int[] {1, 2, 1}, facets.getPriceBandCounts());
+        assertEquals(3, facets.getInStockCount());
+        assertEquals(2, facets.getOutOfStockCount());
+        assertArrayEquals(new int[] {1, 2}, facets.getProductIds());
+        assertTrue(facets.isHasMore());
+
+        final ProductFacetIndex.Facets next = index.facets(List.of(), List.of(), null, 2, 10);
+        assertArrayEquals(new int[] {3, 4, 5}, next.getProductIds());
+        assertFalse(next.isHasMore());
+    }
+
+    @Test
+    void eachFacetIsCountedAgainstTheOtherFilters() {
+        final ProductFacetIndex.Facets facets = index.facets(Set.of(1, 2), Set.of(1), true, -1, 10);
+
+        assertEquals(1, facets.getTotal());
+        assertArrayEquals(new int[] {4}, facets.getProductIds());
+        // price band 1 and in stock: only product 4, in category 2
+        assertEquals(Map.of(2, 1), facets.getCategoryCounts());
+        // categories 1 and 2 in stock: products 1, 3 and 4
+        assertArrayEquals(new int[] {1, 1, 1}, facets.getPriceBandCounts());
+        // categories 1 and 2 in price band 1: products 2 and 4
+        assertEquals(1, facets.getInStockCount());
+        assertEquals(1, facets.getOutOfStockCount());
+    }
+
+    @Test
+    void unknownFilterValuesMatchNothing() {
+        assertEquals(0, index.facets(Set.of(99), List.of(), null, -1, 10).getTotal());
+        assertEquals(0, index.facets(List.of(), Set.of(7), null, -1, 10).getTotal());
+    }
+
+    @Test
+    void stockChangesMoveAProductBetweenTheStockFacets() {
+        index.index(product(1, 1, 10.0, 0));
+
+        assertEquals(2, unfiltered().getInStockCount());
+        assertArrayEquals(new int[] {1, 2, 5}, index.facets(List.of(), List.of(), false, -1, 10).getProductIds());
+
+        index.index(product(1, 1, 10.0, 4));
+
+        assertArrayEquals(new int[] {1, 3, 4}, index.facets(List.of(), List.of(), true, -1, 10).getProductIds());
+    }
+
+    @Test
+    void priceChangesMoveAProductBetweenBands() {
+        index.index(product(1, 1, 75.0, 5));
+
+        assertArrayEquals(new int[] {0, 2, 2}, unfiltered().getPriceBandCounts());
+        assertArrayEquals(new int[] {1, 3}, index.facets(List.of(), Set.of(2), null, -1, 10).getProductIds());
+    }
+
+    @Test
+    void productsFollowTheirCategory() {
+        index.index(product(2, 2, 30.0, 0));
+
+        assertEquals(Map.of(2, 3, 1, 1, 3, 1), unfiltered().getCategoryCounts());
+        assertEquals(List.of(2, 1, 3), List.copyOf(unfiltered().getCategoryCounts().keySet()));
+
+        index.reassignCategory(2, 3);
+
+        assertEquals(Map.of(3, 4, 1, 1), unfiltered().getCategoryCounts());
+        assertNull(unfiltered().getCategoryTitles().get(2));
+        assertEquals(0, index.facets(Set.of(2), List.of(), null, -1, 10).getTotal());
+        assertArrayEquals(new int[] {2, 3, 4, 5}, index.facets(Set.of(3), List.of(), null, -1, 10).getProductIds());
+
+        // a moved product is removed from the category it was moved to
+        index.remove(3);
+        assertEquals(Map.of(3, 3, 1, 1), unfiltered().getCategoryCounts());
+    }
+
+    @Test
+    void removedProductsLeaveEveryFacet() {
+        index.remove(1);
+        index.remove(2);
+        index.remove(99);
+
+        final ProductFacetIndex.Facets facets = unfiltered();
+        assertEquals(3, facets.getTotal());
+        assertEquals(Map.of(2, 2, 3, 1), facets.getCategoryCounts());
+        assertArrayEquals(new int[] {0, 1, 1}, facets.getPriceBandCounts());
+        assertEquals(2, facets.getInStockCount());
+        assertEquals(1, facets.getOutOfStockCount());
+    }
+
+    @Test
+    void rebuildKeepsChangesMadeWhileLoading() {
+        index.beginRebuild(Map.of(1, "Computadoras"));
+        index.index(product(6, 1, 10.0, 1));
+        index.remove(7);
+        index.load(List.of(product(6, 2, 10.0, 0), product(7, 1, 10.0, 1), product(8, 1, 70.0, 0)));
+
+        // facets keep using the previous bitmaps, plus what changed meanwhile
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, unfiltered().getProductIds());
+
+        index.endRebuild();
+
+        final ProductFacetIndex.Facets facets = unfiltered();
+        assertArrayEquals(new int[] {6, 8}, facets.getProductIds());
+        assertEquals(Map.of(1, 2), facets.getCategoryCounts());
+        assertArrayEquals(new int[] {1, 0, 1}, facets.getPriceBandCounts());
+        assertEquals(1, facets.getInStockCount());
+    }
+
+    @Test
+    void anAbortedRebuildKeepsTheLiveBitmaps() {
+        index.beginRebuild(Map.of());
+        index.load(List.of(product(6, 1, 10.0, 1)));
+        index.remove(5);
+        index.abortRebuild();
+
+        assertArrayEquals(new int[] {1, 2, 3, 4}, unfiltered().getProductIds());
+        assertEquals(Map.of(1, 2, 2, 2), unfiltered().getCategoryCounts());
+    }
+
+}
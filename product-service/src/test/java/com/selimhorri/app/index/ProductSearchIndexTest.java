@@ -0,0 +1,163 @@
+package com.selimhorri.app.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.putCategory(1, "Computadoras");
+        index.putCategory(2, "Accesorios");
+        index.index(product(1, "Laptop HP", "LAP-001", 1));
+        index.index(product(2, "Mouse Logitech", "MOU-002", 2));
+        index.index(product(3, "Laptop Dell", "LAP-003", 1));
+        index.index(product(4, "Lap desk", "DSK-004", 2));
+    }
+
+    private static IndexedProduct product(final int productId, final String title, final String sku,
+            final Integer categoryId) {
+        return new IndexedProduct(productId, title, sku, categoryId, 10.0, 5);
+    }
+
+    private int[] search(final String query) {
+        return index.search(query, 0, 10).getProductIds();
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndAccentsAndSplitsOnSymbols() {
+        assertEquals(List.of("telefono", "movil", "5g"), ProductSearchIndex.tokenize("Teléfono  Móvil-5G!"));
+        assertEquals(List.of(), ProductSearchIndex.tokenize("  "));
+        assertEquals(List.of(), ProductSearchIndex.tokenize(null));
+        assertEquals(64, ProductSearchIndex.tokenize("x".repeat(100)).get(0).length());
+    }
+
+    @Test
+    void lastTermMatchesAsPrefixOnlyWhileTyping() {
+        assertArrayEquals(new int[] {1, 3}, search("lapt"));
+        assertArrayEquals(new int[0], search("lapt "));
+        assertArrayEquals(new int[] {3}, search("laptop d"));
+        assertArrayEquals(new int[] {3}, search("LAPTOP dell"));
+        assertArrayEquals(new int[0], search("laptop z"));
+    }
+
+    @Test
+    void skuOutranksTitleAndTiesGoToTheLowestId() {
+        final ProductSearchIndex.Hits hits = index.search("lap ", 0, 10);
+
+        assertEquals(3, hits.getTotal());
+        assertArrayEquals(new int[] {1, 3, 4}, hits.getProductIds());
+        assertArrayEquals(new int[] {3}, index.search("lap ", 1, 1).getProductIds());
+        assertEquals(3, index.search("lap ", 5, 1).getTotal());
+    }
+
+    @Test
+    void suggestCompletesTheLastTermMostFrequentFirst() {
+        assertEquals(List.of("lap", "laptop"), index.suggest("la", 5));
+        assertEquals(List.of("mouse logitech"), index.suggest("mouse lo", 5));
+        assertEquals(List.of(), index.suggest("zz", 5));
+    }
+
+    @Test
+    void renamingACategoryReindexesItsProducts() {
+        assertArrayEquals(new int[] {1, 3}, search("computadoras "));
+
+        index.putCategory(1, "Portátiles");
+
+        assertArrayEquals(new int[0], search("computadoras "));
+        assertArrayEquals(new int[] {1, 3}, search("portatiles "));
+        assertArrayEquals(new int[] {1}, search("portatiles hp "));
+    }
+
+    @Test
+    void reassigningACategoryMovesItsProducts() {
+        index.reassignCategory(1, 2);
+
+        assertArrayEquals(new int[0], search("computadoras "));
+        assertArrayEquals(new int[] {1, 2, 3, 4}, search("accesorios "));
+
+        // the moved products leave with their new category's terms
+        index.remove(3);
+        assertArrayEquals(new int[] {1, 2, 4}, search("accesorios "));
+    }
+
+    @Test
+    void removingAProductDropsItsTerms() {
+        final int terms = index.termCount();
+
+        index.remove(2);
+        index.remove(99);
+
+        assertArrayEquals(new int[0], search("mouse "));
+        assertArrayEquals(new int[] {4}, search("accesorios "));
+        assertEquals(3, index.size());
+        // "mouse", "logitech", "mou" and "002"
+        assertEquals(terms - 4, index.termCount());
+    }
+
+    @Test
+    void reindexingAProductReplacesItsTerms() {
+        index.index(product(1, "Notebook HP", "LAP-001", 2));
+
+        assertArrayEquals(new int[] {3}, search("laptop "));
+        assertArrayEquals(new int[] {1}, search("notebook "));
+        assertArrayEquals(new int[] {1, 2, 4}, search("accesorios "));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void idsNeedNotBeDense() {
+        index.index(product(2_000_000_000, "Monitor LG", "MON-1", 1));
+
+        assertArrayEquals(new int[] {2_000_000_000}, search("monitor "));
+        assertArrayEquals(new int[] {1, 3, 2_000_000_000}, search("computadoras "));
+    }
+
+    @Test
+    void rebuildKeepsChangesMadeWhileLoading() {
+        index.beginRebuild(Map.of(1, "Computadoras"));
+        index.index(product(5, "Monitor LG", "MON-005", 1));
+        index.remove(7);
+        index.load(List.of(
+                product(5, "Monitor Samsung", "MON-005", 1),
+                product(6, "Teclado", "TEC-006", 1),
+                product(7, "Parlante", "PAR-007", 1)));
+
+        // searches keep using the previous content, plus what changed meanwhile
+        assertArrayEquals(new int[] {1, 3}, search("laptop "));
+        assertArrayEquals(new int[] {5}, search("lg "));
+        assertArrayEquals(new int[0], search("teclado "));
+        assertEquals(5, index.size());
+
+        index.endRebuild();
+
+        assertArrayEquals(new int[0], search("laptop "));
+        assertArrayEquals(new int[] {5}, search("lg "));
+        assertArrayEquals(new int[0], search("samsung "));
+        assertArrayEquals(new int[0], search("parlante "));
+        assertArrayEquals(new int[] {5, 6}, search("computadoras "));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void anAbortedRebuildKeepsTheLiveContent() {
+        index.beginRebuild(Map.of());
+        index.load(List.of(product(6, "Teclado", "TEC-006", 1)));
+        index.remove(2);
+        index.abortRebuild();
+
+        assertArrayEquals(new int[] {1, 3}, search("laptop "));
+        assertArrayEquals(new int[0], search("teclado "));
+        assertArrayEquals(new int[0], search("mouse "));
+        assertEquals(3, index.size());
+        assertThrows(IllegalStateException.class, () -> index.load(List.of()));
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.catalog.CatalogSort;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductService;
+
+/**
+ * Paginación por cursor cuando la clave de orden es nula: los productos sin
+ * precio van al final en ambos sentidos y ninguno se repite ni se pierde.
+ */
+@Tag("integration")
+@SpringBootTest
+class CatalogNullSortIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Productos 2 y 4 sin precio; 1 y 3 a 0 según los datos iniciales
+        setPrice(2, null);
+        setPrice(4, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        setPrice(2, 0.0);
+        setPrice(4, 0.0);
+    }
+
+    @Test
+    void shouldPageAscendingPricesWithNullsLast() {
+        assertEquals(List.of(1, 3, 2, 4), pageThrough("asc"));
+    }
+
+    @Test
+    void shouldPageDescendingPricesWithNullsLast() {
+        assertEquals(List.of(3, 1, 4, 2), pageThrough("desc"));
+    }
+
+    @Test
+    void cursorShouldKeepANullValueApartFromTheWordNull() {
+        final Product withoutTitle = Product.builder().productId(2).build();
+        final Product titledNull = Product.builder().productId(2).productTitle("null").build();
+
+        assertNull(CatalogCursor.decode(
+                CatalogCursor.after(CatalogSort.TITLE, Sort.Direction.ASC, withoutTitle).encode()).getValue());
+        assertEquals("null", CatalogCursor.decode(
+                CatalogCursor.after(CatalogSort.TITLE, Sort.Direction.ASC, titledNull).encode()).getValue());
+    }
+
+    private List<Integer> pageThrough(final String direction) {
+        final List<Integer> productIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            final DtoCursorPageResponse<ProductDto> page = productService.findCatalogPage(
+                    CatalogQuery.of(null, null, null, null, "price", direction, 1, cursor));
+            page.getCollection().forEach(productDto -> productIds.add(productDto.getProductId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && productIds.size() < 10);
+        return productIds;
+    }
+
+    private void setPrice(final int productId, final Double priceUnit) {
+        final Product product = productRepository.findById(productId).orElseThrow();
+        product.setPriceUnit(priceUnit);
+        productRepository.save(product);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.index.ProductSearchIndex;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductService;
+import com.selimhorri.app.snapshot.CatalogSnapshotStore;
+import com.selimhorri.app.snapshot.CatalogWarmUp;
+
+/**
+ * Snapshot del catálogo contra la base de datos: se escribe, cambia un
+ * producto y el arranque carga el índice y la caché desde el archivo más
+ * lo escrito después.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.search.rebuild-on-startup=false")
+class CatalogSnapshotIntegrationTest {
+
+    @TempDir
+    static Path snapshotDirectory;
+
+    @DynamicPropertySource
+    static void snapshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.snapshot.directory", snapshotDirectory::toString);
+    }
+
+    @Autowired
+    private CatalogSnapshotStore catalogSnapshotStore;
+
+    @Autowired
+    private CatalogWarmUp catalogWarmUp;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        final Product product = productRepository.findById(4).orElseThrow();
+        product.setProductTitle("GTA");
+        productRepository.save(product);
+    }
+
+    @Test
+    void shouldWarmFromTheSnapshotAndCatchUpOnLaterWrites() throws Exception {
+        // El producto 2 queda en caché y el snapshot lo registra como caliente
+        productService.findById(2);
+        catalogSnapshotStore.write();
+        assertTrue(Files.exists(snapshotDirectory.resolve("catalog.snapshot")));
+
+        final Product product = productRepository.findById(4).orElseThrow();
+        product.setProductTitle("Zelda");
+        productRepository.save(product);
+
+        // Una instancia nueva: cachés vacías
+        cacheManager.getCache(CacheConfig.PRODUCTS).clear();
+        cacheManager.getCache(CacheConfig.PRODUCTS_BY_SKU).clear();
+        catalogWarmUp.warmUp(catalogSnapshotStore.open().orElseThrow());
+
+        final ProductDto cached = cacheManager.getCache(CacheConfig.PRODUCTS).get(2, ProductDto.class);
+        assertNotNull(cached);
+        assertEquals("hp", cached.getProductTitle());
+        assertEquals(cached, cacheManager.getCache(CacheConfig.PRODUCTS_BY_SKU).get("zsejfedbjh", ProductDto.class));
+        assertArrayEquals(new int[] {1}, productSearchIndex.search("asus", 0, 10).getProductIds());
+        assertArrayEquals(new int[] {4}, productSearchIndex.search("zelda", 0, 10).getProductIds());
+        assertEquals(0, productSearchIndex.search("gta", 0, 10).getTotal());
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.index.ProductSearchIndex;
+import com.selimhorri.app.service.ProductService;
+import com.selimhorri.app.snapshot.CatalogSnapshot;
+import com.selimhorri.app.snapshot.CatalogSnapshotStore;
+import com.selimhorri.app.snapshot.CatalogWarmUp;
+
+/**
+ * Tiempo hasta tener el catálogo caliente con 200k productos: arranque en
+ * frío desde la base de datos frente a arranque desde el snapshot mapeado
+ * en memoria. No corre en el build normal:
+ * mvn test -Dbenchmark=true -Dtest=CatalogWarmUpBenchmarkTest
+ *
+ * H2 en memoria es el mejor caso para el arranque en frío; contra MySQL por
+ * red la diferencia crece.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "app.search.rebuild-on-startup=false")
+class CatalogWarmUpBenchmarkTest {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int HOT_PRODUCTS = 5_000;
+
+    @TempDir
+    static Path snapshotDirectory;
+
+    @DynamicPropertySource
+    static void snapshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.snapshot.directory", snapshotDirectory::toString);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogIndexer catalogIndexer;
+
+    @Autowired
+    private CatalogSnapshotStore catalogSnapshotStore;
+
+    @Autowired
+    private CatalogWarmUp catalogWarmUp;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeAll
+    void seed() {
+        final List<Integer> categoryIds = jdbcTemplate.queryForList(
+                "SELECT category_id FROM categories WHERE category_title NOT IN ('Deleted', 'No Category')", Integer.class);
+        final Random random = new Random(7);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            batch.add(new Object[] {categoryIds.get(random.nextInt(categoryIds.size())), "Producto " + i + " modelo " + random.nextInt(1000),
+                    "BENCH-WU-" + i, Math.round(random.nextDouble() * 100_000) / 100.0, random.nextInt(100)});
+            if (batch.size() == 5_000) {
+                insert(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        insert(batch);
+
+        // Un conjunto caliente en caché, como el de una instancia que ya atendía tráfico
+        final List<Integer> productIds = jdbcTemplate.queryForList(
+                "SELECT product_id FROM products WHERE sku LIKE 'BENCH-WU-%' ORDER BY product_id", Integer.class);
+        for (int i = 0; i < HOT_PRODUCTS; i++)
+            productService.findById(productIds.get(random.nextInt(productIds.size())));
+        catalogSnapshotStore.write();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM products WHERE sku LIKE 'BENCH-WU-%'");
+    }
+
+    @Test
+    void timeToWarm() {
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            catalogIndexer.rebuild();
+            final long database = System.nanoTime() - start;
+            final int fromDatabase = productSearchIndex.size();
+
+            start = System.nanoTime();
+            final CatalogSnapshot snapshot = catalogSnapshotStore.open().orElseThrow();
+            catalogWarmUp.warmUp(snapshot);
+            final long fromSnapshot = System.nanoTime() - start;
+
+            assertEquals(fromDatabase, productSearchIndex.size());
+            System.out.printf("round %d: database %5d ms (indexes only, caches cold)  snapshot %5d ms (indexes and %d cached products)%n",
+                    round, database / 1_000_000, fromSnapshot / 1_000_000, snapshot.getHotProductIds().length);
+        }
+    }
+
+    private void insert(final List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (category_id, product_title, sku, price_unit, quantity)"
+                + " VALUES (?, ?, ?, ?, ?)", batch);
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.helper.CategoryMappingHelper;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+/**
+ * Caché de segundo nivel de Hibernate para Category: aciertos por región,
+ * caché de consultas e invalidación con los UPDATE masivos en JPQL.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.search.rebuild-on-startup=false")
+class CategorySecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private CacheRegionStatistics categories() {
+        return statistics.getDomainDataRegionStatistics("categories");
+    }
+
+    @Test
+    void shouldLoadACategoryFromTheDatabaseOnlyOnce() {
+        categoryRepository.findById(1).orElseThrow();
+        final long statements = statistics.getPrepareStatementCount();
+
+        assertEquals("Computer", categoryRepository.findById(1).orElseThrow().getCategoryTitle());
+
+        assertEquals(1, categories().getPutCount());
+        assertEquals(1, categories().getHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldCacheTheNonReservedListing() {
+        final int size = categoryRepository.findAllNonReserved().size();
+        assertEquals(size, categoryRepository.findAllNonReserved().size());
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldInvalidateCategoriesOnABulkCategoryUpdate() {
+        final String path = categoryRepository.findById(2).orElseThrow().getCategoryPath();
+        categoryRepository.findAllNonReserved();
+        try {
+            transactionTemplate.execute(status -> categoryRepository.updatePath(2, "/99/2/"));
+
+            assertEquals("/99/2/", categoryRepository.findById(2).orElseThrow().getCategoryPath());
+            categoryRepository.findAllNonReserved();
+            assertEquals(0, statistics.getQueryCacheHitCount());
+        }
+        finally {
+            transactionTemplate.execute(status -> categoryRepository.updatePath(2, path));
+        }
+    }
+
+    @Test
+    void shouldKeepCategoriesCachedAcrossABulkProductUpdate() {
+        categoryRepository.findById(3).orElseThrow();
+        categoryRepository.findAllNonReserved();
+
+        // Cambia products, no categories: ni la región ni las consultas de categorías se invalidan
+        transactionTemplate.execute(status -> {
+            productRepository.updateCategoryIdForProducts(3, 3, Instant.now());
+            return null;
+        });
+
+        assertTrue(entityManagerFactory.getCache().contains(Category.class, 3));
+        categoryRepository.findAllNonReserved();
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldFetchTheLazyParentWithTheLookup() {
+        final Category child = transactionTemplate.execute(status -> categoryRepository.save(Category.builder()
+                .categoryTitle("Laptops")
+                .parentCategory(categoryRepository.getById(1))
+                .build()));
+        try {
+            entityManagerFactory.getCache().evictAll();
+
+            // Sin transacción ni OSIV: el padre tiene que venir ya cargado en la consulta
+            final var categoryDto = CategoryMappingHelper.map(
+                    categoryRepository.findNonReservedById(child.getCategoryId()).orElseThrow());
+
+            assertEquals("Computer", categoryDto.getParentCategoryDto().getCategoryTitle());
+        }
+        finally {
+            transactionTemplate.execute(status -> {
+                categoryRepository.deleteById(child.getCategoryId());
+                return null;
+            });
+        }
+    }
+
+}
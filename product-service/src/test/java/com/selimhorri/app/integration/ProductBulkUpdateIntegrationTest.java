@@ -0,0 +1,146 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateResultDto;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductBulkUpdateService;
+import com.selimhorri.app.service.ProductService;
+
+/**
+ * Actualización masiva contra la base de datos: bloques de un producto para
+ * recorrer varios, invalidación de la caché y lecturas concurrentes.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.bulk-update.chunk-size=1")
+class ProductBulkUpdateIntegrationTest {
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        reset(1);
+        reset(2);
+    }
+
+    @Test
+    void shouldUpdateEveryProductOfTheCategoryAndEvictCachedEntries() {
+        // Deja el producto en caché con los valores anteriores
+        productService.findById(1);
+
+        ProductBulkUpdateResultDto result = productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                .categoryId(1)
+                .priceAmount(12.5)
+                .quantityDelta(-60)
+                .build());
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(2, result.getChunks());
+        assertEquals(12.5, productService.findById(1).getPriceUnit());
+        assertEquals(0, productService.findById(1).getQuantity());
+        assertEquals(12.5, productRepository.findById(2).orElseThrow().getPriceUnit());
+        assertEquals(0.0, productRepository.findById(3).orElseThrow().getPriceUnit());
+    }
+
+    @Test
+    void shouldApplyPercentagesToAnIdRange() {
+        productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                .fromProductId(1)
+                .toProductId(2)
+                .priceAmount(10.0)
+                .build());
+
+        ProductBulkUpdateResultDto result = productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                .fromProductId(2)
+                .toProductId(2)
+                .pricePercent(-15.0)
+                .build());
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(10.0, productRepository.findById(1).orElseThrow().getPriceUnit());
+        assertEquals(8.5, productRepository.findById(2).orElseThrow().getPriceUnit());
+    }
+
+    @Test
+    void shouldCapPricesAndQuantitiesAtWhatTheColumnsHold() {
+        productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                .fromProductId(1)
+                .toProductId(2)
+                .priceAmount(99_000.0)
+                .quantityDelta(Integer.MAX_VALUE)
+                .build());
+
+        // DECIMAL(7, 2): sin el tope el UPDATE fallaría y dejaría el bloque a medias
+        ProductBulkUpdateResultDto result = productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                .fromProductId(1)
+                .toProductId(2)
+                .pricePercent(500.0)
+                .build());
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(99_999.99, productRepository.findById(1).orElseThrow().getPriceUnit());
+        assertEquals(99_999.99, productRepository.findById(2).orElseThrow().getPriceUnit());
+        assertEquals(Integer.MAX_VALUE, productRepository.findById(1).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void readsShouldKeepWorkingDuringRepeatedUpdates() throws Exception {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Integer>> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            readers.add(executor.submit(() -> {
+                int reads = 0;
+                while (running.get()) {
+                    final double price = productService.findById(1 + reads % 2).getPriceUnit();
+                    assertTrue(price >= 0 && price <= 20, "price " + price);
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+
+        for (int i = 0; i < 20; i++)
+            productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                    .skus(List.of("dfqejklejrkn", "zsejfedbjh"))
+                    .priceAmount(1.0)
+                    .build());
+        running.set(false);
+        for (final Future<Integer> reader : readers)
+            assertTrue(reader.get() > 0);
+        executor.shutdown();
+
+        assertEquals(20.0, productRepository.findById(1).orElseThrow().getPriceUnit());
+        assertEquals(20.0, productRepository.findById(2).orElseThrow().getPriceUnit());
+    }
+
+    private void reset(final int productId) {
+        final Product product = productRepository.findById(productId).orElseThrow();
+        product.setPriceUnit(0.0);
+        product.setQuantity(50);
+        productRepository.save(product);
+    }
+
+}
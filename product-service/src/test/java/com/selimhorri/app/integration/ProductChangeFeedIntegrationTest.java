@@ -0,0 +1,84 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+import com.selimhorri.app.dto.change.ProductChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductBulkUpdateService;
+import com.selimhorri.app.service.ProductChangeFeedService;
+
+/**
+ * Change feed contra la base de datos: carga inicial completa y luego solo
+ * los productos escritos después del cursor, vengan de JPA o de un UPDATE
+ * masivo.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.changes.settle-window=0s")
+class ProductChangeFeedIntegrationTest {
+
+    @Autowired
+    private ProductChangeFeedService productChangeFeedService;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        final Product product = productRepository.findById(4).orElseThrow();
+        product.setQuantity(50);
+        productRepository.save(product);
+    }
+
+    @Test
+    void shouldReturnOnlyProductsWrittenAfterTheCursor() {
+        final List<Integer> initialLoad = new ArrayList<>();
+        final String cursor = drain(null, initialLoad);
+        assertTrue(initialLoad.containsAll(List.of(1, 2, 3, 4)));
+
+        assertTrue(productChangeFeedService.findChanges(cursor, 10).getCollection().isEmpty());
+
+        productBulkUpdateService.update(ProductBulkUpdateDto.builder()
+                .skus(List.of("qsdkjnvfrekjrf"))
+                .quantityDelta(0)
+                .build());
+        final Product product = productRepository.findById(4).orElseThrow();
+        product.setQuantity(51);
+        productRepository.save(product);
+
+        final DtoChangeFeedResponse<ProductChangeDto> changes = productChangeFeedService.findChanges(cursor, 10);
+        assertEquals(List.of(3, 4), changes.getCollection().stream()
+                .map(ProductChangeDto::getProductId)
+                .collect(Collectors.toList()));
+        assertFalse(changes.isHasMore());
+        assertTrue(productChangeFeedService.findChanges(changes.getCursor(), 10).getCollection().isEmpty());
+    }
+
+    private String drain(final String from, final List<Integer> productIds) {
+        String cursor = from;
+        DtoChangeFeedResponse<ProductChangeDto> page;
+        do {
+            page = productChangeFeedService.findChanges(cursor, 2);
+            page.getCollection().forEach(change -> productIds.add(change.getProductId()));
+            cursor = page.getCursor();
+        }
+        while (page.isHasMore());
+        return cursor;
+    }
+
+}
@@ -18,8 +18,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.cache.CatalogResponseCache;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.facet.FacetValueDto;
+import com.selimhorri.app.dto.facet.ProductFacetsDto;
+import com.selimhorri.app.dto.fields.ProductField;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoSearchResponse;
 import com.selimhorri.app.service.ProductService;
 
 /**
@@ -37,11 +43,16 @@ class ProductResourceIntegrationTest {
     @MockBean
     private ProductService productService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
+        // Cada test mockea su propio listado: se descartan las respuestas de tests anteriores
+        catalogResponseCache.invalidate();
     }
 
     @Test
@@ -245,6 +256,142 @@ class ProductResourceIntegrationTest {
         verify(productService, never()).update(any());
     }
 
+    @Test
+    void shouldFetchCatalogPageWithNextCursor() throws Exception {
+        ProductDto productDto = ProductDto.builder()
+                .productId(1)
+                .productTitle("Laptop HP")
+                .priceUnit(2500.00)
+                .build();
+        when(productService.findCatalogPage(any()))
+                .thenReturn(new DtoCursorPageResponse<>(List.of(productDto), "UFJJQ0V8QVNDfDF8MjUwMC4w"));
+
+        mockMvc.perform(get("/api/products/catalog")
+                .param("sort", "price")
+                .param("inStock", "true")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("UFJJQ0V8QVNDfDF8MjUwMC4w"));
+
+        verify(productService, times(1)).findCatalogPage(argThat(query ->
+                query.getLimit() == 1 && Boolean.TRUE.equals(query.getInStock())));
+    }
+
+    @Test
+    void shouldServeCachedListingAndNotModifiedForMatchingETag() throws Exception {
+        ProductDto productDto = ProductDto.builder()
+                .productId(1)
+                .productTitle("Laptop HP")
+                .build();
+        when(productService.findAll()).thenReturn(List.of(productDto));
+
+        String eTag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // El gateway reenvía el validador como débil
+        mockMvc.perform(get("/api/products").header("If-None-Match", "W/" + eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.collection[0].productTitle").value("Laptop HP"));
+
+        verify(productService, times(1)).findAll();
+    }
+
+    @Test
+    void shouldFetchOnlyTheRequestedFields() throws Exception {
+        ProductDto productDto = ProductDto.builder()
+                .productId(1)
+                .productTitle("Laptop HP")
+                .categoryDto(CategoryDto.builder().categoryTitle("Electrónicos").build())
+                .build();
+        List<ProductField> fields = List.of(ProductField.PRODUCT_ID, ProductField.PRODUCT_TITLE, ProductField.CATEGORY_TITLE);
+        when(productService.findAll(fields)).thenReturn(List.of(productDto));
+
+        mockMvc.perform(get("/api/products").param("fields", "productTitle,category.categoryTitle,productId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(1))
+                .andExpect(jsonPath("$.collection[0].productTitle").value("Laptop HP"))
+                .andExpect(jsonPath("$.collection[0].sku").doesNotExist())
+                .andExpect(jsonPath("$.collection[0].category.categoryTitle").value("Electrónicos"))
+                .andExpect(jsonPath("$.collection[0].category.categoryId").doesNotExist());
+
+        // El mismo conjunto en otro orden comparte la respuesta cacheada
+        mockMvc.perform(get("/api/products").param("fields", "productId,productTitle,category.categoryTitle"))
+                .andExpect(status().isOk());
+
+        verify(productService, times(1)).findAll(fields);
+        verify(productService, never()).findAll();
+    }
+
+    @Test
+    void shouldRejectAnUnknownField() throws Exception {
+        mockMvc.perform(get("/api/products").param("fields", "productId,password"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void shouldSearchProducts() throws Exception {
+        ProductDto productDto = ProductDto.builder()
+                .productId(1)
+                .productTitle("Laptop HP")
+                .sku("LAP-001")
+                .build();
+        when(productService.search("laptop h", 0, 20))
+                .thenReturn(new DtoSearchResponse<>(List.of(productDto), 1));
+
+        mockMvc.perform(get("/api/products/search").param("q", "laptop h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.collection[0].sku").value("LAP-001"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenSearchQueryIsMissing() throws Exception {
+        mockMvc.perform(get("/api/products/search"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldFetchFacetsWithRepeatedFilterParameters() throws Exception {
+        when(productService.findFacets(any(), any(), any(), any(), anyInt()))
+                .thenReturn(ProductFacetsDto.builder()
+                        .total(3)
+                        .categories(List.of(new FacetValueDto("1", "Electrónicos", 2), new FacetValueDto("2", "Hogar", 1)))
+                        .priceBands(List.of())
+                        .stock(List.of(new FacetValueDto("true", "In stock", 3)))
+                        .collection(List.of())
+                        .build());
+
+        mockMvc.perform(get("/api/products/facets")
+                .param("categoryId", "1", "2")
+                .param("inStock", "true")
+                .param("limit", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.categories[0].label").value("Electrónicos"))
+                .andExpect(jsonPath("$.nextAfter").doesNotExist());
+
+        verify(productService, times(1)).findFacets(eq(List.of(1, 2)), eq(List.of()), eq(true), isNull(), eq(0));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenCatalogLimitIsOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/products/catalog").param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).findCatalogPage(any());
+    }
+
     @Test
     void shouldReturnNotFoundWhenProductDoesNotExist() throws Exception {
         // Mock service to throw exception
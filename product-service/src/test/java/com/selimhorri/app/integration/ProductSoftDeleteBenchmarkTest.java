@@ -0,0 +1,145 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Benchmark del borrado lógico con 200k productos, 5% eliminados: las
+ * consultas de antes (join contra categories y comparación con 'Deleted')
+ * frente a las de ahora (columna deleted). No corre en el build normal:
+ * mvn test -Dbenchmark=true -Dtest=ProductSoftDeleteBenchmarkTest
+ *
+ * Imprime el plan de H2 y la latencia de cada par, y comprueba que ambas
+ * versiones devuelven las mismas filas.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "app.search.rebuild-on-startup=false")
+class ProductSoftDeleteBenchmarkTest {
+
+    private static final int PRODUCTS = 200_000;
+    private static final String SKU_PREFIX = "BENCH-SD-";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int firstId;
+    private int lastId;
+
+    @BeforeAll
+    void seed() {
+        final Integer deletedCategoryId = jdbcTemplate.queryForObject(
+                "SELECT category_id FROM categories WHERE category_title = 'Deleted'", Integer.class);
+        final List<Integer> liveCategoryIds = jdbcTemplate.queryForList(
+                "SELECT category_id FROM categories WHERE category_title <> 'Deleted'", Integer.class);
+        final Random random = new Random(7);
+
+        final long start = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            // Los eliminados cumplen los dos criterios, así el antes y el después son comparables
+            final boolean deleted = random.nextInt(100) < 5;
+            final int categoryId = deleted ? deletedCategoryId : liveCategoryIds.get(random.nextInt(liveCategoryIds.size()));
+            batch.add(new Object[] {categoryId, "Producto " + i, SKU_PREFIX + i,
+                    Math.round(random.nextDouble() * 100_000) / 100.0, random.nextInt(100), deleted});
+            if (batch.size() == 5_000) {
+                insert(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        insert(batch);
+        jdbcTemplate.execute("ANALYZE");
+        firstId = jdbcTemplate.queryForObject("SELECT MIN(product_id) FROM products WHERE sku LIKE 'BENCH-SD-%'", Integer.class);
+        lastId = jdbcTemplate.queryForObject("SELECT MAX(product_id) FROM products WHERE sku LIKE 'BENCH-SD-%'", Integer.class);
+        System.out.printf("seed: %d products, %d ms%n", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM products WHERE sku LIKE 'BENCH-SD-%'");
+    }
+
+    @Test
+    void findByIdWithoutDeleted() {
+        final Random random = new Random(11);
+        compare("by id",
+                "SELECT p.product_id FROM products p JOIN categories c ON c.category_id = p.category_id"
+                        + " WHERE p.product_id = ? AND c.category_title <> 'Deleted'",
+                "SELECT p.product_id FROM products p WHERE p.product_id = ? AND p.deleted = FALSE",
+                () -> new Object[] {firstId + random.nextInt(lastId - firstId + 1)});
+    }
+
+    @Test
+    void liveProductsByIdPage() {
+        final Random random = new Random(13);
+        compare("id page of 100",
+                "SELECT p.product_id FROM products p JOIN categories c ON c.category_id = p.category_id"
+                        + " WHERE c.category_title <> 'Deleted' AND p.product_id > ? ORDER BY p.product_id LIMIT 100",
+                "SELECT p.product_id FROM products p WHERE p.deleted = FALSE AND p.product_id > ?"
+                        + " ORDER BY p.product_id LIMIT 100",
+                () -> new Object[] {firstId + random.nextInt(lastId - firstId - 1_000)});
+    }
+
+    @Test
+    void liveProductCountsByCategory() {
+        compare("counts by category",
+                "SELECT p.category_id, COUNT(*) FROM products p JOIN categories c ON c.category_id = p.category_id"
+                        + " WHERE c.category_title <> 'Deleted' GROUP BY p.category_id ORDER BY p.category_id",
+                "SELECT p.category_id, COUNT(*) FROM products p WHERE p.deleted = FALSE"
+                        + " GROUP BY p.category_id ORDER BY p.category_id",
+                () -> new Object[0]);
+    }
+
+    private void compare(final String name, final String before, final String after,
+            final Supplier<Object[]> arguments) {
+        System.out.printf("%n== %s%nbefore: %s%nafter:  %s%n", name, plan(before), plan(after));
+        for (int i = 0; i < 20; i++) {
+            final Object[] args = arguments.get();
+            assertEquals(jdbcTemplate.queryForList(before, args), jdbcTemplate.queryForList(after, args));
+        }
+        System.out.printf("before: %s%nafter:  %s%n", latency(before, arguments), latency(after, arguments));
+    }
+
+    private String plan(final String sql) {
+        final Object[] placeholders = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(placeholders, 0);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, placeholders).replaceAll("\\s+", " ");
+    }
+
+    private String latency(final String sql, final Supplier<Object[]> arguments) {
+        for (int i = 0; i < 50; i++)
+            jdbcTemplate.queryForList(sql, arguments.get());
+        final long[] nanos = new long[200];
+        for (int i = 0; i < nanos.length; i++) {
+            final Object[] args = arguments.get();
+            final long start = System.nanoTime();
+            jdbcTemplate.queryForList(sql, args);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return String.format("p50 %7.3f ms  p99 %7.3f ms", nanos[nanos.length / 2] / 1e6,
+                nanos[nanos.length * 99 / 100] / 1e6);
+    }
+
+    private void insert(final List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO products (category_id, product_title, sku, price_unit, quantity, deleted)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", batch);
+    }
+
+}
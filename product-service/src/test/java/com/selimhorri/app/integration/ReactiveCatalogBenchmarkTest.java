@@ -0,0 +1,145 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import com.selimhorri.app.reactive.ReactiveCatalogServer;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * 10.000 lectores concurrentes contra GET /api/categories/{id} en cada
+ * stack: Tomcat + JPA frente a Netty + R2DBC. Esa lectura no pasa por
+ * caché en ninguno de los dos, así que cada petición llega a la base de
+ * datos. No corre en el build normal (necesita un ulimit -n de unos 25k):
+ * mvn test -Dbenchmark=true -Dtest=ReactiveCatalogBenchmarkTest
+ *
+ * Imprime hilos del servidor, conexiones a la base de datos en uso como
+ * máximo, tiempo total y códigos de respuesta. Ambos pools tienen 10
+ * conexiones; Tomcat corta en server.tomcat.max-connections (8192 por
+ * defecto) y el resto espera en el backlog. Los hilos reactor-http-* son
+ * los mismos event loops para el servidor Netty y para el cliente.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.reactive.enabled=true",
+        "app.reactive.port=0",
+        "app.search.rebuild-on-startup=false",
+        // El log de cada SQL y petición del perfil dev mediría la consola, no el stack
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+class ReactiveCatalogBenchmarkTest {
+
+    private static final int READERS = 10_000;
+    private static final int ROUNDS = 3;
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveCatalogServer reactiveCatalogServer;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionPool reactiveConnectionPool;
+
+    private HttpClient httpClient;
+
+    @BeforeAll
+    void setUp() {
+        httpClient = HttpClient.create(ConnectionProvider.builder("benchmark")
+                        .maxConnections(READERS)
+                        .pendingAcquireMaxCount(-1)
+                        .build())
+                .responseTimeout(Duration.ofSeconds(60));
+        // Calienta ambos stacks y crea los event loops del cliente antes de contar hilos
+        run(servletPort, 200);
+        run(reactiveCatalogServer.getPort(), 200);
+    }
+
+    @Test
+    void tenThousandConcurrentReaders() {
+        for (int round = 0; round < ROUNDS; round++) {
+            measure("servlet", servletPort, this::hikariActiveConnections, "http-nio-");
+            measure("reactive", reactiveCatalogServer.getPort(), this::r2dbcAcquiredConnections, "reactor-http-");
+        }
+    }
+
+    private void measure(String stack, int port, IntSupplier activeConnections, String serverThreadPrefix) {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        final AtomicInteger maxConnections = new AtomicInteger();
+        final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> maxConnections.accumulateAndGet(activeConnections.getAsInt(), Math::max),
+                0, 1, TimeUnit.MILLISECONDS);
+
+        final long start = System.nanoTime();
+        final Map<Integer, Long> statuses = run(port, READERS);
+        final long elapsed = System.nanoTime() - start;
+        sampler.shutdownNow();
+
+        final long serverThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith(serverThreadPrefix))
+                .count();
+        System.out.printf("%-8s %d readers  %6d ms  server threads %4d  jvm peak threads %4d  db connections %3d  statuses %s%n",
+                stack, READERS, elapsed / 1_000_000, serverThreads, threads.getPeakThreadCount(), maxConnections.get(), statuses);
+        assertTrue(statuses.getOrDefault(200, 0L) > 0, stack);
+    }
+
+    // Estado HTTP de cada lectura, -1 si la conexión falló o expiró
+    private Map<Integer, Long> run(int port, int readers) {
+        return Flux.range(0, readers)
+                .flatMap(i -> httpClient.get()
+                        .uri("http://localhost:" + port + "/product-service/api/categories/" + (1 + i % 3))
+                        .responseSingle((response, body) -> body.asString().thenReturn(response.status().code()))
+                        .onErrorReturn(-1), readers)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .block();
+    }
+
+    private int hikariActiveConnections() {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections();
+        }
+        catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private int r2dbcAcquiredConnections() {
+        return reactiveConnectionPool.getMetrics().map(PoolMetrics::acquiredSize).orElse(0);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.config.cache.CatalogResponseCache;
+import com.selimhorri.app.reactive.ReactiveCatalogServer;
+
+/**
+ * Las lecturas del catálogo por el puerto reactivo devuelven lo mismo que
+ * los endpoints servlet, sobre la misma base de datos y las mismas cachés.
+ */
+@Tag("integration")
+@SpringBootTest(properties = {
+        "app.reactive.enabled=true",
+        "app.reactive.port=0",
+        "app.search.rebuild-on-startup=false"
+})
+@AutoConfigureMockMvc
+class ReactiveCatalogIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReactiveCatalogServer reactiveCatalogServer;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveCatalogServer.getPort() + "/product-service")
+                .build();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        catalogResponseCache.invalidate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE products SET deleted = FALSE WHERE product_id = 3");
+        jdbcTemplate.update("UPDATE categories SET category_title = 'Mode' WHERE category_id = 2");
+    }
+
+    @Test
+    void shouldServeTheSameBodiesAsTheServletStack() throws Exception {
+        for (String path : new String[] {"/api/products", "/api/products/1", "/api/categories", "/api/categories/2"}) {
+            final MvcResult servlet = mockMvc.perform(get(path)).andReturn();
+            final EntityExchangeResult<byte[]> reactive = webTestClient.get().uri(path)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().returnResult();
+
+            assertEquals(200, servlet.getResponse().getStatus(), path);
+            JSONAssert.assertEquals(path, servlet.getResponse().getContentAsString(StandardCharsets.UTF_8),
+                    new String(reactive.getResponseBody(), StandardCharsets.UTF_8), JSONCompareMode.NON_EXTENSIBLE);
+        }
+    }
+
+    @Test
+    void shouldAnswerErrorsLikeTheServletStack() throws Exception {
+        for (String path : new String[] {"/api/products/999999", "/api/products/abc", "/api/categories/999999"}) {
+            final MvcResult servlet = mockMvc.perform(get(path)).andReturn();
+            final EntityExchangeResult<byte[]> reactive = webTestClient.get().uri(path)
+                    .exchange()
+                    .expectBody().returnResult();
+
+            assertEquals(servlet.getResponse().getStatus(), reactive.getStatus().value(), path);
+            final JsonNode servletBody = objectMapper.readTree(servlet.getResponse().getContentAsString(StandardCharsets.UTF_8));
+            final JsonNode reactiveBody = objectMapper.readTree(reactive.getResponseBody());
+            assertEquals(servletBody.get("msg"), reactiveBody.get("msg"), path);
+            assertEquals(servletBody.get("httpStatus"), reactiveBody.get("httpStatus"), path);
+        }
+    }
+
+    @Test
+    void shouldNotServeAProductDeletedThroughTheServletStack() throws Exception {
+        // La lectura reactiva deja el producto en la caché compartida
+        webTestClient.get().uri("/api/products/3").exchange().expectStatus().isOk();
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(3));
+
+        mockMvc.perform(delete("/api/products/3"));
+
+        webTestClient.get().uri("/api/products/3").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldPickACategoryFromTheCachedListing() {
+        webTestClient.get().uri("/api/categories").exchange().expectStatus().isOk();
+        // Escritura que no pasa por el servicio: solo la caché puede devolver el título anterior
+        jdbcTemplate.update("UPDATE categories SET category_title = 'Moda' WHERE category_id = 2");
+
+        webTestClient.get().uri("/api/categories/2").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.categoryTitle").isEqualTo("Mode");
+        webTestClient.get().uri("/api/categories/999999").exchange().expectStatus().isNotFound();
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.exception.wrapper.StockReservationException;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.StockReservationService;
+import com.selimhorri.app.stock.StripedStockLedger;
+
+/**
+ * Stress test de reservas contra la base de datos: muchos hilos compiten por
+ * el mismo producto y nunca se reservan más unidades que las que había.
+ * El producto 1 va por el UPDATE condicional y el 2 por el ledger en memoria.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.stock.hot-product-ids=2")
+class StockReservationConcurrencyIntegrationTest {
+
+    private static final int STOCK = 200;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StripedStockLedger stripedStockLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        stripedStockLedger.flush();
+        setQuantity(1, 50);
+        setQuantity(2, 50);
+    }
+
+    @Test
+    void conditionalUpdateShouldNeverOversell() throws Exception {
+        setQuantity(1, STOCK);
+
+        final List<StockReservationDto> reserved = reserveConcurrently(1);
+
+        assertEquals(STOCK, reserved.size());
+        assertEquals(0, quantity(1));
+    }
+
+    @Test
+    void ledgerShouldNeverOversell() throws Exception {
+        setQuantity(2, STOCK);
+
+        final List<StockReservationDto> reserved = reserveConcurrently(2);
+        stripedStockLedger.flush();
+
+        assertEquals(STOCK, reserved.size());
+        assertEquals(0, quantity(2));
+    }
+
+    @Test
+    void releaseShouldReturnUnitsOnce() throws Exception {
+        setQuantity(1, STOCK);
+        final StockReservationDto reservation = stockReservationService.reserve(1, 5);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<StockReservationDto>> releases = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            releases.add(executor.submit(() -> stockReservationService.release(reservation.getReservationId())));
+        for (final Future<StockReservationDto> release : releases)
+            release.get();
+        executor.shutdown();
+
+        assertEquals(STOCK, quantity(1));
+    }
+
+    private List<StockReservationDto> reserveConcurrently(final int productId) throws Exception {
+        final ConcurrentLinkedQueue<StockReservationDto> reserved = new ConcurrentLinkedQueue<>();
+        final AtomicInteger refused = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        reserved.add(stockReservationService.reserve(productId, 1));
+                    }
+                    catch (StockReservationException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> worker : workers)
+            worker.get();
+        executor.shutdown();
+
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK, refused.get());
+        return new ArrayList<>(reserved);
+    }
+
+    private void setQuantity(final int productId, final int quantity) {
+        final Product product = productRepository.findById(productId).orElseThrow();
+        product.setQuantity(quantity);
+        productRepository.save(product);
+    }
+
+    private int quantity(final int productId) {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+
+}
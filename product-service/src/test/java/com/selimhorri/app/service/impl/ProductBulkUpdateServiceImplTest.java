@@ -0,0 +1,146 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateDto;
+import com.selimhorri.app.dto.bulk.ProductBulkUpdateResultDto;
+import com.selimhorri.app.exception.wrapper.ProductBulkUpdateException;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.repository.ProductBulkRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkUpdateServiceImplTest {
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    @Mock
+    private CatalogIndexer catalogIndexer;
+
+    private ProductBulkUpdateServiceImpl productBulkUpdateService;
+
+    private ProductBulkUpdateDto repricing;
+
+    @BeforeEach
+    void setUp() {
+        productBulkUpdateService = new ProductBulkUpdateServiceImpl(productBulkRepository, productRepository,
+                catalogCacheEvictor, catalogIndexer, TransactionOperations.withoutTransaction(), 2);
+
+        repricing = ProductBulkUpdateDto.builder()
+                .categoryId(1)
+                .pricePercent(10.0)
+                .build();
+    }
+
+    private static Map<Integer, String> chunk(Object... idsAndSkus) {
+        Map<Integer, String> skusById = new LinkedHashMap<>();
+        for (int i = 0; i < idsAndSkus.length; i += 2)
+            skusById.put((Integer) idsAndSkus[i], (String) idsAndSkus[i + 1]);
+        return skusById;
+    }
+
+    @Test
+    void update_shouldWalkTheFilterInChunksByProductId() {
+        Map<Integer, String> first = chunk(3, "A", 8, "B");
+        Map<Integer, String> second = chunk(11, "C");
+        when(productBulkRepository.findChunk(repricing, 0, 2)).thenReturn(first);
+        when(productBulkRepository.findChunk(repricing, 8, 2)).thenReturn(second);
+        when(productBulkRepository.applyChange(eq(first.keySet()), eq(repricing), any())).thenReturn(2);
+        when(productBulkRepository.applyChange(eq(second.keySet()), eq(repricing), any())).thenReturn(1);
+        Product product = Product.builder().productId(3).build();
+        when(productRepository.findAllById(first.keySet())).thenReturn(List.of(product));
+
+        ProductBulkUpdateResultDto result = productBulkUpdateService.update(repricing);
+
+        assertEquals(3, result.getUpdated());
+        assertEquals(2, result.getChunks());
+        verify(catalogCacheEvictor).evictProducts(first);
+        verify(catalogCacheEvictor).evictProducts(second);
+        verify(catalogIndexer).productSaved(product);
+        // El segundo bloque vino incompleto: no hace falta otra consulta
+        verify(productBulkRepository, times(2)).findChunk(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void update_shouldStopWhenNothingMatches() {
+        when(productBulkRepository.findChunk(repricing, 0, 2)).thenReturn(Map.of());
+
+        ProductBulkUpdateResultDto result = productBulkUpdateService.update(repricing);
+
+        assertEquals(0, result.getUpdated());
+        assertEquals(0, result.getChunks());
+        verify(productBulkRepository, never()).applyChange(any(), any(), any());
+        verifyNoInteractions(catalogCacheEvictor, catalogIndexer);
+    }
+
+    @Test
+    void update_shouldRequireAFilter() {
+        ProductBulkUpdateDto unfiltered = ProductBulkUpdateDto.builder().quantityDelta(5).build();
+
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(unfiltered));
+        verifyNoInteractions(productBulkRepository);
+    }
+
+    @Test
+    void update_shouldRejectInvalidChanges() {
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).build()));
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).pricePercent(5.0).priceAmount(1.0).build()));
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).pricePercent(-100.0).build()));
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).pricePercent(Double.NaN).build()));
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).pricePercent(1e12).build()));
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).priceAmount(100_000.0).build()));
+        assertThrows(IllegalArgumentException.class, () -> productBulkUpdateService.update(
+                ProductBulkUpdateDto.builder().categoryId(1).priceAmount(Double.NEGATIVE_INFINITY).build()));
+        verifyNoInteractions(productBulkRepository);
+    }
+
+    @Test
+    void update_shouldReportTheChunksAlreadyAppliedWhenOneFails() {
+        Map<Integer, String> first = chunk(3, "A", 8, "B");
+        Map<Integer, String> second = chunk(11, "C", 12, "D");
+        when(productBulkRepository.findChunk(repricing, 0, 2)).thenReturn(first);
+        when(productBulkRepository.findChunk(repricing, 8, 2)).thenReturn(second);
+        when(productBulkRepository.applyChange(eq(first.keySet()), eq(repricing), any())).thenReturn(2);
+        when(productBulkRepository.applyChange(eq(second.keySet()), eq(repricing), any()))
+                .thenThrow(new DataIntegrityViolationException("Value too long for column price_unit"));
+
+        ProductBulkUpdateException e = assertThrows(ProductBulkUpdateException.class,
+                () -> productBulkUpdateService.update(repricing));
+
+        assertEquals("Bulk update failed after 1 chunks and 2 updated products; products with id above 8 were not changed",
+                e.getMessage());
+        assertTrue(e.getCause() instanceof DataIntegrityViolationException);
+        verify(catalogCacheEvictor).evictProducts(first);
+        verify(catalogCacheEvictor, never()).evictProducts(second);
+    }
+
+}
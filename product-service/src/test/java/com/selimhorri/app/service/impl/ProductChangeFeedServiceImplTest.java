@@ -0,0 +1,104 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.change.ProductChangeCursor;
+import com.selimhorri.app.dto.change.ProductChangeDto;
+import com.selimhorri.app.dto.response.collection.DtoChangeFeedResponse;
+import com.selimhorri.app.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedServiceImplTest {
+
+    private static final Instant T1 = Instant.parse("2026-03-01T10:00:00.123456Z");
+    private static final Instant T2 = Instant.parse("2026-03-01T10:00:05Z");
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductChangeFeedServiceImpl productChangeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        productChangeFeedService = new ProductChangeFeedServiceImpl(productRepository, Duration.ofSeconds(5));
+    }
+
+    private static Product product(int productId, Instant updatedAt, boolean deleted) {
+        Product product = Product.builder()
+                .productId(productId)
+                .sku("SKU-" + productId)
+                .productTitle("Product " + productId)
+                .deleted(deleted)
+                .category(Category.builder().categoryId(1).categoryTitle("Computer").build())
+                .build();
+        product.setUpdatedAt(updatedAt);
+        return product;
+    }
+
+    @Test
+    void findChanges_shouldStartFromTheBeginningAndStayBehindTheClock() {
+        when(productRepository.findChangedAfter(any(), any(), any(), any())).thenReturn(List.of());
+        Instant before = Instant.now();
+
+        DtoChangeFeedResponse<ProductChangeDto> result = productChangeFeedService.findChanges(null, 100);
+
+        ArgumentCaptor<Instant> until = ArgumentCaptor.forClass(Instant.class);
+        verify(productRepository).findChangedAfter(eq(Instant.EPOCH), eq(0), until.capture(), eq(PageRequest.of(0, 101)));
+        assertFalse(until.getValue().isAfter(Instant.now().minusSeconds(5)));
+        assertFalse(until.getValue().isBefore(before.minusSeconds(5)));
+        assertTrue(result.getCollection().isEmpty());
+        assertFalse(result.isHasMore());
+        // Sin cambios, el cursor no se mueve
+        assertEquals(Instant.EPOCH, ProductChangeCursor.decode(result.getCursor()).getUpdatedAt());
+    }
+
+    @Test
+    void findChanges_shouldResumeAfterTheCursorAndReportDeletions() {
+        String cursor = new ProductChangeCursor(T1, 4).encode();
+        when(productRepository.findChangedAfter(eq(T1), eq(4), any(), any(Pageable.class))).thenReturn(List.of(
+                product(7, T1, false),
+                product(2, T2, true),
+                product(9, T2, false)));
+
+        DtoChangeFeedResponse<ProductChangeDto> result = productChangeFeedService.findChanges(cursor, 2);
+
+        assertTrue(result.isHasMore());
+        assertEquals(2, result.getCollection().size());
+        ProductChangeDto[] changes = result.getCollection().toArray(ProductChangeDto[]::new);
+        assertFalse(changes[0].isDeleted());
+        assertEquals("Product 7", changes[0].getProduct().getProductTitle());
+        assertTrue(changes[1].isDeleted());
+        assertNull(changes[1].getProduct());
+        assertEquals("SKU-2", changes[1].getSku());
+
+        ProductChangeCursor next = ProductChangeCursor.decode(result.getCursor());
+        assertEquals(T2, next.getUpdatedAt());
+        assertEquals(2, next.getProductId());
+    }
+
+    @Test
+    void findChanges_shouldRejectMalformedCursorsAndLimits() {
+        assertThrows(IllegalArgumentException.class, () -> productChangeFeedService.findChanges("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> productChangeFeedService.findChanges(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> productChangeFeedService.findChanges(null, 1001));
+        verifyNoInteractions(productRepository);
+    }
+
+}
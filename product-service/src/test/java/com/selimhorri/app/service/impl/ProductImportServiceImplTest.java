@@ -0,0 +1,211 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.importer.ProductImportErrorDto;
+import com.selimhorri.app.dto.importer.ProductImportFormat;
+import com.selimhorri.app.dto.importer.ProductImportReportDto;
+import com.selimhorri.app.dto.importer.ProductImportStatus;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductBulkRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductBulkRepository productBulkRepository;
+
+    @Mock
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    @Mock
+    private CatalogIndexer catalogIndexer;
+
+    private ProductImportServiceImpl productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = service(1000);
+    }
+
+    private ProductImportServiceImpl service(int batchSize) {
+        return new ProductImportServiceImpl(categoryRepository, productBulkRepository, catalogCacheEvictor,
+                catalogIndexer, TransactionOperations.withoutTransaction(), new ObjectMapper(), batchSize);
+    }
+
+    private void givenCategories() {
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                Category.builder().categoryId(1).categoryTitle("Computer").build(),
+                Category.builder().categoryId(2).categoryTitle("Mode").build(),
+                Category.builder().categoryId(4).categoryTitle("Deleted").build()));
+    }
+
+    private static BufferedReader feed(String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines)));
+    }
+
+    @Test
+    void importProducts_shouldUpsertCsvRowsBySku() throws IOException {
+        givenCategories();
+        when(productBulkRepository.findIdsBySku(List.of("SKU-1", "SKU-2"))).thenReturn(Map.of("SKU-1", 7));
+        when(productBulkRepository.findIdsBySku(List.of("SKU-2"))).thenReturn(Map.of("SKU-2", 8));
+
+        ProductImportReportDto report = productImportService.importProducts(ProductImportFormat.CSV, feed(
+                "sku,product_title,image_url,price_unit,quantity,category",
+                "SKU-1,\"Laptop, 15\"\"\",http://img/1,999.5,3,Computer",
+                "SKU-2,\"Scarf",
+                "wool\",http://img/2,10,5,mode"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> updated = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(productBulkRepository).updateAll(updated.capture(), any());
+        verify(productBulkRepository).insertAll(inserted.capture(), any());
+
+        assertEquals("Laptop, 15\"", updated.getValue().get(0).getProductTitle());
+        assertEquals(999.5, updated.getValue().get(0).getPriceUnit());
+        assertEquals("Scarf\nwool", inserted.getValue().get(0).getProductTitle());
+        assertEquals(2, inserted.getValue().get(0).getCategory().getCategoryId());
+
+        assertEquals(ProductImportStatus.COMPLETED, report.getStatus());
+        assertEquals(2, report.getProcessed());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(0, report.getFailed());
+        verify(catalogCacheEvictor).evictAllProducts();
+        // Cada fila escrita se indexa sola; los índices no se vacían para recargarlos
+        verify(catalogIndexer).productSaved(argThat(product -> product.getProductId() == 7));
+        verify(catalogIndexer).productSaved(argThat(product -> product.getProductId() == 8));
+        verify(catalogIndexer, never()).rebuildInBackground();
+    }
+
+    @Test
+    void importProducts_shouldReportInvalidNdjsonRowsAndKeepGoing() throws IOException {
+        givenCategories();
+        when(productBulkRepository.findIdsBySku(anyCollection())).thenReturn(Map.of());
+
+        ProductImportReportDto report = productImportService.importProducts(ProductImportFormat.NDJSON, feed(
+                "{\"sku\":\"SKU-1\",\"productTitle\":\"Laptop\",\"imageUrl\":\"http://img/1\",\"priceUnit\":10,\"quantity\":1,\"categoryId\":1}",
+                "{\"sku\":",
+                "{\"sku\":\"SKU-3\",\"imageUrl\":\"http://img/3\",\"priceUnit\":10,\"quantity\":1,\"categoryId\":1}",
+                "",
+                "{\"sku\":\"SKU-4\",\"productTitle\":\"Old\",\"imageUrl\":\"http://img/4\",\"priceUnit\":10,\"quantity\":1,\"categoryId\":4}",
+                "{\"sku\":\"SKU-5\",\"productTitle\":\"Mouse\",\"imageUrl\":\"http://img/5\",\"priceUnit\":10,\"quantity\":-2,\"categoryId\":1}"));
+
+        assertEquals(ProductImportStatus.COMPLETED, report.getStatus());
+        assertEquals(5, report.getProcessed());
+        assertEquals(1, report.getInserted());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(2L, 3L, 5L, 6L),
+                report.getErrors().stream().map(ProductImportErrorDto::getLine).collect(Collectors.toList()));
+        assertEquals("El título del producto es requerido", report.getErrors().get(1).getMessage());
+        assertEquals("SKU-4", report.getErrors().get(2).getSku());
+    }
+
+    @Test
+    void importProducts_shouldWriteInBatchesAndLetTheLastDuplicateWin() throws IOException {
+        givenCategories();
+        when(productBulkRepository.findIdsBySku(anyCollection())).thenReturn(Map.of());
+
+        ProductImportReportDto report = service(2).importProducts(ProductImportFormat.CSV, feed(
+                "sku,title,imageUrl,price,quantity,categoryId",
+                "SKU-1,Laptop,http://img/1,10,1,1",
+                "SKU-1,Laptop Pro,http://img/1,12,1,1",
+                "SKU-2,Mouse,http://img/2,5,1,1"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(productBulkRepository, times(2)).insertAll(inserted.capture(), any());
+        assertEquals("Laptop", inserted.getAllValues().get(0).get(0).getProductTitle());
+        assertEquals("Laptop Pro", inserted.getAllValues().get(1).get(0).getProductTitle());
+        assertEquals(2, inserted.getAllValues().get(1).size());
+        assertEquals(3, report.getInserted());
+    }
+
+    @Test
+    void importProducts_shouldRetryAFailedBatchRowByRow() throws IOException {
+        givenCategories();
+        when(productBulkRepository.findIdsBySku(anyCollection())).thenReturn(Map.of());
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> product.getSku().equals("SKU-2")))
+                throw new DataIntegrityViolationException("Value too long for column price_unit");
+            return null;
+        }).when(productBulkRepository).insertAll(anyList(), any());
+
+        ProductImportReportDto report = productImportService.importProducts(ProductImportFormat.CSV, feed(
+                "sku,title,imageUrl,price,quantity,categoryId",
+                "SKU-1,Laptop,http://img/1,10,1,1",
+                "SKU-2,Server,http://img/2,1000000,1,1",
+                "SKU-3,Mouse,http://img/3,5,1,1"));
+
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getFailed());
+        assertEquals(3L, report.getErrors().get(0).getLine());
+        assertEquals("SKU-2", report.getErrors().get(0).getSku());
+    }
+
+    @Test
+    void importProducts_shouldRejectCsvWithoutSkuColumn() {
+        assertThrows(IllegalArgumentException.class, () -> productImportService.importProducts(
+                ProductImportFormat.CSV, feed("title,price", "Laptop,10")));
+
+        verifyNoInteractions(productBulkRepository, catalogCacheEvictor, catalogIndexer);
+    }
+
+    @Test
+    void importProducts_shouldLeaveCachesAloneWhenNothingWasWritten() throws IOException {
+        givenCategories();
+
+        ProductImportReportDto report = productImportService.importProducts(ProductImportFormat.CSV, feed(
+                "sku,title,imageUrl,price,quantity,category",
+                "SKU-1,Laptop,http://img/1,abc,1,Computer",
+                "SKU-2,Laptop,http://img/2,10,1,Unknown"));
+
+        assertEquals(2, report.getFailed());
+        assertEquals("Invalid priceUnit 'abc'", report.getErrors().get(0).getMessage());
+        assertEquals("Categoría no encontrada: Unknown", report.getErrors().get(1).getMessage());
+        verifyNoInteractions(productBulkRepository, catalogCacheEvictor, catalogIndexer);
+    }
+
+    @Test
+    void findRecentImports_shouldListNewestFirst() throws IOException {
+        givenCategories();
+        productImportService.importProducts(ProductImportFormat.CSV, feed("sku,title"));
+        ProductImportReportDto last = productImportService.importProducts(ProductImportFormat.NDJSON, feed(""));
+
+        List<ProductImportReportDto> recent = productImportService.findRecentImports();
+
+        assertEquals(2, recent.size());
+        assertEquals(last.getImportId(), recent.get(0).getImportId());
+        assertEquals(ProductImportFormat.CSV, recent.get(1).getFormat());
+    }
+
+}
@@ -6,7 +6,11 @@ import static org.mockito.Mockito.*;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.persistence.Tuple;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +18,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
+import com.selimhorri.app.config.cache.CatalogCacheEvictor;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.catalog.CatalogCursor;
+import com.selimhorri.app.dto.catalog.CatalogQuery;
+import com.selimhorri.app.dto.catalog.CatalogSort;
+import com.selimhorri.app.dto.facet.FacetValueDto;
+import com.selimhorri.app.dto.facet.ProductFacetsDto;
+import com.selimhorri.app.dto.fields.ProductField;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.dto.response.collection.DtoSearchResponse;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.index.CatalogIndexer;
+import com.selimhorri.app.index.ProductFacetIndex;
+import com.selimhorri.app.index.ProductSearchIndex;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
 
@@ -32,6 +50,18 @@ class ProductServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CatalogCacheEvictor catalogCacheEvictor;
+
+    @Mock
+    private CatalogIndexer catalogIndexer;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -75,6 +105,101 @@ class ProductServiceImplTest {
         verify(productRepository, times(1)).findAllWithoutDeleted();
     }
 
+    @Test
+    void findAllByIds_shouldFetchEveryProductInOneQuery() {
+        when(productRepository.findAllByIdInWithoutDeleted(List.of(3, 4))).thenReturn(List.of(testProduct));
+
+        List<ProductDto> result = productService.findAllByIds(List.of(3, 4));
+
+        assertEquals(1, result.size());
+        verify(productRepository, never()).findByIdWithoutDeleted(any());
+    }
+
+    @Test
+    void findAllByIds_shouldNotQueryWithoutIds() {
+        assertTrue(productService.findAllByIds(List.of()).isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void findAllWithFields_shouldSelectOnlyTheRequestedAttributes() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(0)).thenReturn(3);
+        when(tuple.get(1)).thenReturn("Mouse Inalámbrico Logitech");
+        when(tuple.get(2)).thenReturn("Electronics");
+        when(productRepository.findAllProjected(List.of("productId", "productTitle", "category.categoryTitle")))
+                .thenReturn(List.of(tuple));
+
+        List<ProductDto> result = productService.findAll(ProductField.parse("category.categoryTitle,productTitle,productId"));
+
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(0).getProductId());
+        assertEquals("Mouse Inalámbrico Logitech", result.get(0).getProductTitle());
+        assertNull(result.get(0).getSku());
+        assertEquals("Electronics", result.get(0).getCategoryDto().getCategoryTitle());
+        assertNull(result.get(0).getCategoryDto().getCategoryId());
+        verify(productRepository, never()).findAllWithoutDeleted();
+    }
+
+    @Test
+    void findAllWithFields_shouldLeaveOutAMissingCategory() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(0)).thenReturn(3);
+        when(productRepository.findAllProjected(List.of("productId", "category.categoryId", "category.categoryTitle",
+                "category.imageUrl"))).thenReturn(List.of(tuple));
+
+        List<ProductDto> result = productService.findAll(ProductField.parse("productId,category"));
+
+        assertEquals(3, result.get(0).getProductId());
+        assertNull(result.get(0).getCategoryDto());
+    }
+
+    @Test
+    void parseFields_shouldRejectAnUnknownField() {
+        // Solo se pueden pedir campos del DTO: deleted es una columna interna
+        assertThrows(IllegalArgumentException.class, () -> ProductField.parse("productId,deleted"));
+        assertThrows(IllegalArgumentException.class, () -> ProductField.parse(" , "));
+    }
+
+    @Test
+    void findCatalogPage_shouldTrimExtraRowAndReturnNextCursor() {
+        Product nextProduct = new Product();
+        nextProduct.setProductId(4);
+        nextProduct.setPriceUnit(59.99);
+        nextProduct.setCategory(testCategory);
+        CatalogQuery query = CatalogQuery.of(null, null, null, true, "price", "asc", 1, null);
+        when(productRepository.findCatalogPage(query)).thenReturn(List.of(testProduct, nextProduct));
+
+        DtoCursorPageResponse<ProductDto> result = productService.findCatalogPage(query);
+
+        assertEquals(1, result.getCollection().size());
+        CatalogCursor cursor = CatalogCursor.decode(result.getNextCursor());
+        assertEquals(CatalogSort.PRICE, cursor.getSort());
+        assertEquals(3, cursor.getProductId());
+        assertEquals(45.99, cursor.getValue());
+        verify(productRepository, never()).findAllWithoutDeleted();
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void findCatalogPage_shouldOmitCursorOnLastPage() {
+        CatalogQuery query = CatalogQuery.of(1, 10.0, 100.0, null, "id", "asc", 20, null);
+        when(productRepository.findCatalogPage(query)).thenReturn(List.of(testProduct));
+
+        DtoCursorPageResponse<ProductDto> result = productService.findCatalogPage(query);
+
+        assertEquals(1, result.getCollection().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void catalogQuery_shouldRejectCursorFromAnotherSortOrder() {
+        String cursor = CatalogCursor.after(CatalogSort.TITLE, Sort.Direction.ASC, testProduct).encode();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> CatalogQuery.of(null, null, null, null, "price", "asc", 20, cursor));
+    }
+
     @Test
     void findById_shouldReturnProductWhenFound() {
         when(productRepository.findByIdWithoutDeleted(3)).thenReturn(Optional.of(testProduct));
@@ -143,19 +268,17 @@ class ProductServiceImplTest {
 
     @Test
     void deleteById_shouldMarkProductAsDeleted() {
-        Category deletedCategory = new Category();
-        deletedCategory.setCategoryId(999);
-        deletedCategory.setCategoryTitle("Deleted");
-
         when(productRepository.findByIdWithoutDeleted(3)).thenReturn(Optional.of(testProduct));
-        when(categoryRepository.findByCategoryTitle("Deleted")).thenReturn(Optional.of(deletedCategory));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         productService.deleteById(3);
 
         verify(productRepository, times(1)).findByIdWithoutDeleted(3);
-        verify(categoryRepository, times(1)).findByCategoryTitle("Deleted");
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).save(argThat(product -> product.isDeleted()
+                && product.getCategory().getCategoryId() == 1));
+        verifyNoInteractions(categoryRepository);
+        verify(catalogCacheEvictor, times(1)).evictProduct(3, "MOUSE-LOGI-001");
+        verify(catalogIndexer, times(1)).productRemoved(3);
     }
 
     @Test
@@ -164,5 +287,108 @@ class ProductServiceImplTest {
 
         assertThrows(ProductNotFoundException.class, () -> productService.deleteById(99));
         verify(productRepository, never()).save(any());
+        verifyNoInteractions(catalogCacheEvictor, catalogIndexer);
+    }
+
+    @Test
+    void update_shouldEvictProductUnderOldAndNewSku() {
+        ProductDto changes = ProductDto.builder()
+                .productTitle("Mouse Inalámbrico Logitech M185")
+                .sku("MOUSE-LOGI-185")
+                .priceUnit(39.99)
+                .quantity(40)
+                .categoryDto(CategoryDto.builder().categoryId(1).build())
+                .build();
+        when(productRepository.findById(3)).thenReturn(Optional.of(testProduct));
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(testCategory));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+            Product saved = invocation.getArgument(0);
+            saved.setCategory(testCategory);
+            return saved;
+        });
+
+        ProductDto result = productService.update(3, changes);
+
+        assertEquals("MOUSE-LOGI-185", result.getSku());
+        verify(catalogCacheEvictor, times(1)).evictProduct(3, "MOUSE-LOGI-001", "MOUSE-LOGI-185");
+        verify(catalogIndexer, times(1)).productSaved(argThat(product -> "MOUSE-LOGI-185".equals(product.getSku())));
+    }
+
+    @Test
+    void update_shouldRejectAnUnknownCategoryBeforeTouchingTheCache() {
+        ProductDto changes = ProductDto.builder()
+                .productId(3)
+                .productTitle("Mouse Inalámbrico Logitech")
+                .sku("MOUSE-LOGI-001")
+                .categoryDto(CategoryDto.builder().categoryId(99).build())
+                .build();
+        when(productRepository.findById(3)).thenReturn(Optional.of(testProduct));
+        when(categoryRepository.findById(99)).thenReturn(Optional.empty());
+
+        assertThrows(CategoryNotFoundException.class, () -> productService.update(changes));
+        verify(productRepository, never()).save(any());
+        verifyNoInteractions(catalogCacheEvictor, catalogIndexer);
+    }
+
+    @Test
+    void update_shouldRequireACategory() {
+        ProductDto changes = ProductDto.builder()
+                .productId(3)
+                .productTitle("Mouse Inalámbrico Logitech")
+                .build();
+        when(productRepository.findById(3)).thenReturn(Optional.of(testProduct));
+
+        assertThrows(IllegalArgumentException.class, () -> productService.update(changes));
+        verify(productRepository, never()).save(any());
+        verifyNoInteractions(categoryRepository, catalogCacheEvictor);
+    }
+
+    @Test
+    void search_shouldReturnProductsInRankingOrder() {
+        Product otherProduct = new Product();
+        otherProduct.setProductId(5);
+        otherProduct.setProductTitle("Mouse Pad Logitech");
+        otherProduct.setSku("PAD-LOGI-005");
+        otherProduct.setCategory(testCategory);
+        when(productSearchIndex.search("logitech mou", 0, 10))
+                .thenReturn(new ProductSearchIndex.Hits(2, new int[] {5, 3}));
+        when(productRepository.findAllById(List.of(5, 3))).thenReturn(List.of(testProduct, otherProduct));
+
+        DtoSearchResponse<ProductDto> result = productService.search("logitech mou", 0, 10);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(5, 3), result.getCollection().stream().map(ProductDto::getProductId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findFacets_shouldLabelCountsAndReturnNextAfter() {
+        when(productFacetIndex.facets(List.of(1), List.of(), true, -1, 1))
+                .thenReturn(new ProductFacetIndex.Facets(2, Map.of(1, 2), Map.of(1, "Electronics"),
+                        new int[] {0, 2, 0}, 2, 0, new int[] {3}, true));
+        when(productFacetIndex.getPriceBounds()).thenReturn(new double[] {25, 50});
+        when(productRepository.findAllById(List.of(3))).thenReturn(List.of(testProduct));
+
+        ProductFacetsDto result = productService.findFacets(List.of(1), List.of(), true, null, 1);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(new FacetValueDto("1", "Electronics", 2), result.getCategories().get(0));
+        assertEquals(List.of("< 25", "25 - 50", "50+"),
+                result.getPriceBands().stream().map(FacetValueDto::getLabel).collect(Collectors.toList()));
+        assertEquals(2, result.getPriceBands().get(1).getCount());
+        assertEquals(1, result.getCollection().size());
+        assertEquals(3, result.getNextAfter());
+    }
+
+    @Test
+    void search_shouldRejectLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> productService.search("mouse", 0, 1000));
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void findBySku_shouldThrowExceptionWhenNotFound() {
+        when(productRepository.findBySkuWithoutDeleted("UNKNOWN")).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> productService.findBySku("UNKNOWN"));
     }
 }
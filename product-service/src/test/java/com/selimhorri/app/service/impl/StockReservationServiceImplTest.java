@@ -0,0 +1,152 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.StockReservation;
+import com.selimhorri.app.domain.StockReservationStatus;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.StockReservationException;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.StockReservationRepository;
+import com.selimhorri.app.stock.ProductStockStore;
+import com.selimhorri.app.stock.StripedStockLedger;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductStockStore productStockStore;
+
+    @Mock
+    private StripedStockLedger stripedStockLedger;
+
+    private StockReservationServiceImpl stockReservationService;
+
+    private StockReservation heldReservation;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationServiceImpl(stockReservationRepository, productRepository,
+                productStockStore, stripedStockLedger, Duration.ofMinutes(15));
+
+        heldReservation = StockReservation.builder()
+                .reservationId("res-1")
+                .productId(3)
+                .quantity(2)
+                .status(StockReservationStatus.HELD)
+                .expiresAt(Instant.now().plusSeconds(600))
+                .build();
+    }
+
+    @Test
+    void reserve_shouldTakeStockAndHoldItWithTtl() {
+        when(stripedStockLedger.isHot(3)).thenReturn(false);
+        when(productStockStore.take(3, 2)).thenReturn(true);
+        when(stockReservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Instant before = Instant.now();
+        StockReservationDto result = stockReservationService.reserve(3, 2);
+
+        assertNotNull(result.getReservationId());
+        assertEquals(StockReservationStatus.HELD, result.getStatus());
+        assertEquals(2, result.getQuantity());
+        assertFalse(result.getExpiresAt().isBefore(before.plus(Duration.ofMinutes(15))));
+        verify(productStockStore).take(3, 2);
+    }
+
+    @Test
+    void reserve_shouldRejectWhenStockIsInsufficient() {
+        when(stripedStockLedger.isHot(3)).thenReturn(false);
+        when(productStockStore.take(3, 2)).thenReturn(false);
+        when(productRepository.findByIdWithoutDeleted(3)).thenReturn(Optional.of(new Product()));
+
+        assertThrows(StockReservationException.class, () -> stockReservationService.reserve(3, 2));
+        verify(stockReservationRepository, never()).save(any());
+    }
+
+    @Test
+    void reserve_shouldReportMissingProduct() {
+        when(stripedStockLedger.isHot(99)).thenReturn(false);
+        when(productStockStore.take(99, 1)).thenReturn(false);
+        when(productRepository.findByIdWithoutDeleted(99)).thenReturn(Optional.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> stockReservationService.reserve(99, 1));
+    }
+
+    @Test
+    void reserve_shouldServeHotProductsFromLedger() {
+        when(stripedStockLedger.isHot(3)).thenReturn(true);
+        when(stripedStockLedger.reserve(3, 2)).thenReturn(true);
+        when(stockReservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        stockReservationService.reserve(3, 2);
+
+        verify(productStockStore, never()).take(anyInt(), anyInt());
+    }
+
+    @Test
+    void reserve_shouldRejectNonPositiveQuantity() {
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.reserve(3, 0));
+        verifyNoInteractions(productStockStore, stripedStockLedger);
+    }
+
+    @Test
+    void release_shouldReturnStockOnlyOnce() {
+        when(stockReservationRepository.findById("res-1")).thenReturn(Optional.of(heldReservation));
+        when(stripedStockLedger.isHot(3)).thenReturn(false);
+        when(stockReservationRepository.transition(eq("res-1"), anyCollection(), eq(StockReservationStatus.RELEASED), any()))
+                .thenReturn(1)
+                .thenReturn(0);
+
+        stockReservationService.release("res-1");
+        stockReservationService.release("res-1");
+
+        verify(productStockStore, times(1)).give(3, 2);
+    }
+
+    @Test
+    void confirm_shouldRejectExpiredHold() {
+        heldReservation.setExpiresAt(Instant.now().minusSeconds(1));
+        when(stockReservationRepository.confirmHeld(eq("res-1"), any())).thenReturn(0);
+        when(stockReservationRepository.findById("res-1")).thenReturn(Optional.of(heldReservation));
+
+        StockReservationException exception = assertThrows(StockReservationException.class,
+                () -> stockReservationService.confirm("res-1"));
+
+        assertTrue(exception.getMessage().contains("expired"));
+    }
+
+    @Test
+    void expireHolds_shouldReturnUnitsOfExpiredHolds() {
+        when(stockReservationRepository.findExpired(eq(StockReservationStatus.HELD), any(), any()))
+                .thenReturn(List.of(heldReservation));
+        when(stockReservationRepository.transition(eq("res-1"), anyCollection(), eq(StockReservationStatus.EXPIRED), any()))
+                .thenReturn(1);
+        when(stripedStockLedger.isHot(3)).thenReturn(false);
+
+        assertEquals(1, stockReservationService.expireHolds());
+        verify(productStockStore).give(3, 2);
+    }
+
+}
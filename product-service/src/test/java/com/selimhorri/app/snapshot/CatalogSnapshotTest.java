@@ -0,0 +1,127 @@
+package com.selimhorri.app.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.change.ProductChangeCursor;
+
+class CatalogSnapshotTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-03-01T10:15:30.123Z");
+    private static final ProductChangeCursor CURSOR = new ProductChangeCursor(Instant.parse("2024-03-01T10:15:25.000000042Z"), 0);
+
+    @TempDir
+    Path directory;
+
+    private final Category computing = Category.builder().categoryId(1).categoryTitle("Computación").build();
+    private final Category laptops = Category.builder().categoryId(2).categoryTitle("Laptops").imageUrl("laptops.png")
+            .parentCategory(computing).build();
+
+    private static Product product(int productId, Category category) {
+        return Product.builder()
+                .productId(productId)
+                .productTitle("Producto " + productId)
+                .sku("SKU-" + productId)
+                .imageUrl("http://example.com/" + productId + ".jpg")
+                .priceUnit(productId * 1.25)
+                .quantity(productId % 10)
+                .category(category)
+                .build();
+    }
+
+    private Path write(List<Product> products, int... hotProductIds) throws IOException {
+        final Path file = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(file, CREATED_AT, CURSOR, List.of(computing, laptops))) {
+            for (Product product : products)
+                writer.add(product);
+            writer.commit(hotProductIds);
+        }
+        return file;
+    }
+
+    @Test
+    void shouldReadBackWhatWasWritten() throws IOException {
+        final List<Product> products = new ArrayList<>();
+        for (int productId = 1; productId <= 5_000; productId += 2)
+            products.add(product(productId, (productId % 3 == 0) ? computing : laptops));
+
+        final CatalogSnapshot snapshot = CatalogSnapshot.open(write(products, 7, 3));
+
+        assertEquals(CREATED_AT, snapshot.getCreatedAt());
+        assertEquals(CURSOR.getUpdatedAt(), snapshot.getCursor().getUpdatedAt());
+        assertEquals(0, snapshot.getCursor().getProductId());
+        assertEquals(products.size(), snapshot.getProductCount());
+        assertArrayEquals(new int[] {7, 3}, snapshot.getHotProductIds());
+        assertEquals("Computación", snapshot.getCategories().get(1).getCategoryTitle());
+        assertEquals(1, snapshot.getCategories().get(2).getParentCategory().getCategoryId());
+
+        final Iterator<Product> iterator = snapshot.products();
+        for (Product expected : products) {
+            final Product actual = iterator.next();
+            assertEquals(expected.getProductId(), actual.getProductId());
+            assertEquals(expected.getProductTitle(), actual.getProductTitle());
+            assertEquals(expected.getSku(), actual.getSku());
+            assertEquals(expected.getImageUrl(), actual.getImageUrl());
+            assertEquals(expected.getPriceUnit(), actual.getPriceUnit());
+            assertEquals(expected.getQuantity(), actual.getQuantity());
+            assertEquals(expected.getCategory().getCategoryId(), actual.getCategory().getCategoryId());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void shouldFindProductsByIdWithoutScanning() throws IOException {
+        final CatalogSnapshot snapshot = CatalogSnapshot.open(write(List.of(
+                product(3, laptops),
+                product(8, computing),
+                Product.builder().productId(21).build())));
+
+        assertEquals("Producto 8", snapshot.find(8).orElseThrow().getProductTitle());
+        assertEquals("Laptops", snapshot.find(3).orElseThrow().getCategory().getCategoryTitle());
+        final Product empty = snapshot.find(21).orElseThrow();
+        assertNull(empty.getProductTitle());
+        assertNull(empty.getPriceUnit());
+        assertNull(empty.getQuantity());
+        assertNull(empty.getCategory());
+        assertTrue(snapshot.find(4).isEmpty());
+        assertTrue(snapshot.find(22).isEmpty());
+    }
+
+    @Test
+    void shouldRejectACorruptedFile() throws IOException {
+        final Path file = write(List.of(product(1, laptops), product(2, laptops)));
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 12] ^= 1;
+        Files.write(file, bytes);
+
+        assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(file));
+    }
+
+    @Test
+    void shouldKeepThePreviousSnapshotWhenAWriteFails() throws IOException {
+        final Path file = write(List.of(product(1, laptops)));
+
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(file, Instant.now(), CURSOR, List.of())) {
+            writer.add(product(5, laptops));
+            assertThrows(IllegalArgumentException.class, () -> writer.add(product(4, laptops)));
+        }
+
+        assertEquals(1, CatalogSnapshot.open(file).getProductCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+}
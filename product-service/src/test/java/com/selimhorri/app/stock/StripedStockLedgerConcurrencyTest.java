@@ -0,0 +1,124 @@
+package com.selimhorri.app.stock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stress test del ledger: muchos hilos reservando y cancelando sobre el mismo
+ * producto. La fila del producto se simula con el mismo contrato que el
+ * UPDATE condicional (nunca por debajo de cero).
+ */
+class StripedStockLedgerConcurrencyTest {
+
+    private static final int PRODUCT_ID = 7;
+    private static final int STOCK = 10_000;
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 2_000;
+
+    private final AtomicInteger productRow = new AtomicInteger();
+    private ProductStockStore productStockStore;
+    private StripedStockLedger stripedStockLedger;
+
+    @BeforeEach
+    void setUp() {
+        productRow.set(STOCK);
+        productStockStore = mock(ProductStockStore.class);
+        when(productStockStore.claim(eq(PRODUCT_ID), anyInt())).thenAnswer(invocation -> {
+            final int quantity = invocation.getArgument(1);
+            int available = productRow.get();
+            while (available >= quantity) {
+                if (productRow.compareAndSet(available, available - quantity))
+                    return true;
+                available = productRow.get();
+            }
+            return false;
+        });
+        doAnswer(invocation -> productRow.addAndGet(invocation.getArgument(1)))
+                .when(productStockStore).restore(eq(PRODUCT_ID), anyInt());
+        stripedStockLedger = new StripedStockLedger(productStockStore, new int[] {PRODUCT_ID}, 8, 50);
+    }
+
+    @Test
+    void shouldNeverOversellUnderHighContention() throws Exception {
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger maxOutstanding = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    final int quantity = 1 + random.nextInt(3);
+                    if (!stripedStockLedger.reserve(PRODUCT_ID, quantity))
+                        continue;
+                    maxOutstanding.accumulateAndGet(outstanding.addAndGet(quantity), Math::max);
+                    // Una de cada diez reservas se cancela y devuelve sus unidades
+                    if (random.nextInt(10) == 0) {
+                        outstanding.addAndGet(-quantity);
+                        stripedStockLedger.release(PRODUCT_ID, quantity);
+                    }
+                    if (i % 500 == 0)
+                        stripedStockLedger.flush();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> worker : workers)
+            worker.get();
+        executor.shutdown();
+        stripedStockLedger.flush();
+
+        assertTrue(maxOutstanding.get() <= STOCK, "reserved " + maxOutstanding.get() + " of " + STOCK);
+        assertEquals(0, stripedStockLedger.pooled(PRODUCT_ID));
+        // Ninguna unidad se pierde ni se duplica: lo reservado más lo que queda en la fila es el stock inicial
+        assertEquals(STOCK, outstanding.get() + productRow.get());
+        assertTrue(outstanding.get() > STOCK / 2, "only " + outstanding.get() + " units reserved");
+    }
+
+    @Test
+    void shouldClaimBlocksAndReturnTheRestOnFlush() {
+        assertTrue(stripedStockLedger.reserve(PRODUCT_ID, 1));
+        assertEquals(STOCK - 51, productRow.get());
+        assertEquals(50, stripedStockLedger.pooled(PRODUCT_ID));
+
+        stripedStockLedger.flush();
+
+        assertEquals(STOCK - 1, productRow.get());
+        assertEquals(0, stripedStockLedger.pooled(PRODUCT_ID));
+    }
+
+    @Test
+    void shouldTakeOnlyWhatIsLeftWhenLessThanABlockRemains() {
+        productRow.set(3);
+
+        assertTrue(stripedStockLedger.reserve(PRODUCT_ID, 2));
+        assertFalse(stripedStockLedger.reserve(PRODUCT_ID, 2));
+        assertTrue(stripedStockLedger.reserve(PRODUCT_ID, 1));
+        assertEquals(0, productRow.get());
+        assertFalse(stripedStockLedger.reserve(PRODUCT_ID, 1));
+    }
+
+    @Test
+    void shouldRejectProductsThatAreNotHot() {
+        assertFalse(stripedStockLedger.isHot(8));
+        assertThrows(IllegalArgumentException.class, () -> stripedStockLedger.reserve(8, 1));
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.selimhorri.app.business.account.controller;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.account.model.AccountDto;
+import com.selimhorri.app.business.account.model.AccountSection;
+import com.selimhorri.app.business.account.service.AccountService;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Home page document of the authenticated user. The account is always the
+ * caller's own, so no per-resource ownership lookups are needed.
+ */
+@RestController
+@RequestMapping("/api/account")
+@RequiredArgsConstructor
+public class AccountController {
+	
+	private final AccountService accountService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<AccountDto>> findMyAccount(
+			@RequestParam(name = "fields", required = false) final String fields,
+			final HttpServletRequest request) {
+		final String userId = (String) request.getAttribute("userId");
+		if (userId == null)
+			throw new UnauthorizedException("Authenticated user id is missing");
+		return this.accountService.findByUserId(Integer.parseInt(userId), AccountSection.parse(fields))
+				.map(ResponseEntity::ok);
+	}
+	
+	
+	
+}
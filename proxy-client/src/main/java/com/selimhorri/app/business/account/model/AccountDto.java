@@ -0,0 +1,46 @@
+package com.selimhorri.app.business.account.model;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.user.model.UserDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregated "my account" document. Sections that were not requested are
+ * omitted; sections whose service failed are omitted and reported in {@code errors}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class AccountDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer userId;
+	
+	@JsonProperty("user")
+	private UserDto userDto;
+	
+	private Collection<CartDto> carts;
+	private Collection<OrderDto> orders;
+	private Collection<FavouriteDto> favourites;
+	private Collection<PaymentDto> payments;
+	
+	private Map<String, String> errors;
+	
+}
@@ -0,0 +1,46 @@
+package com.selimhorri.app.business.account.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Parts of the account document that can be requested through {@code fields}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AccountSection {
+	
+	USER("user"),
+	CARTS("carts"),
+	ORDERS("orders"),
+	FAVOURITES("favourites"),
+	PAYMENTS("payments");
+	
+	private final String field;
+	
+	/**
+	 * Parses a comma separated field list; a missing or blank list selects every section.
+	 */
+	public static Set<AccountSection> parse(final String fields) {
+		if (fields == null || fields.isBlank())
+			return EnumSet.allOf(AccountSection.class);
+		final Set<AccountSection> sections = EnumSet.noneOf(AccountSection.class);
+		Arrays.stream(fields.split(","))
+				.map(String::trim)
+				.filter(field -> !field.isEmpty())
+				.forEach(field -> sections.add(fromField(field)));
+		return sections;
+	}
+	
+	private static AccountSection fromField(final String field) {
+		return Arrays.stream(values())
+				.filter(section -> section.field.equalsIgnoreCase(field))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException(String.format("Unknown account field: %s", field)));
+	}
+	
+}
@@ -0,0 +1,14 @@
+package com.selimhorri.app.business.account.service;
+
+import java.util.Set;
+
+import com.selimhorri.app.business.account.model.AccountDto;
+import com.selimhorri.app.business.account.model.AccountSection;
+
+import reactor.core.publisher.Mono;
+
+public interface AccountService {
+	
+	Mono<AccountDto> findByUserId(final Integer userId, final Set<AccountSection> sections);
+	
+}
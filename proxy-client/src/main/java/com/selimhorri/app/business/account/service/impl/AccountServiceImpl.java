@@ -0,0 +1,150 @@
+package com.selimhorri.app.business.account.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.business.account.model.AccountDto;
+import com.selimhorri.app.business.account.model.AccountSection;
+import com.selimhorri.app.business.account.service.AccountService;
+import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.user.model.UserDto;
+import com.selimhorri.app.constant.AppConstant;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fans out to user-, order-, favourite- and payment-service concurrently using
+ * their per-user queries. Every section is fetched independently: a failing or
+ * slow service only drops its own section and is reported in the document.
+ * Payments are the one dependent hop, resolved from the user's order ids.
+ */
+@Service
+@Slf4j
+public class AccountServiceImpl implements AccountService {
+
+	private final WebClient webClient;
+	private final Duration callTimeout;
+
+	public AccountServiceImpl(final WebClient.Builder loadBalancedWebClientBuilder,
+			@Value("${app.account.call-timeout:2s}") final Duration callTimeout) {
+		this.webClient = loadBalancedWebClientBuilder.build();
+		this.callTimeout = callTimeout;
+	}
+
+	@Override
+	public Mono<AccountDto> findByUserId(final Integer userId, final Set<AccountSection> sections) {
+		log.info("*** AccountDto, service; fetch account of userId: {}, sections: {} *", userId, sections);
+
+		// Shared by the orders and payments sections, so order-service is queried once
+		final Mono<Collection<OrderDto>> orders = this.get(
+				AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "?userId=" + userId,
+				OrderOrderServiceDtoCollectionResponse.class)
+				.map(OrderOrderServiceDtoCollectionResponse::getCollection)
+				.cache();
+
+		final List<Mono<Consumer<AccountDto>>> parts = new ArrayList<>();
+		if (sections.contains(AccountSection.USER))
+			parts.add(section(AccountSection.USER, this.get(
+					AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "/" + userId, UserDto.class)
+					.map(AccountServiceImpl::withoutPassword),
+					AccountDto::setUserDto));
+		if (sections.contains(AccountSection.CARTS))
+			parts.add(section(AccountSection.CARTS, this.get(
+					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts?userId=" + userId,
+					CartOrderServiceDtoCollectionResponse.class)
+					.map(CartOrderServiceDtoCollectionResponse::getCollection),
+					AccountDto::setCarts));
+		if (sections.contains(AccountSection.ORDERS))
+			parts.add(section(AccountSection.ORDERS, orders, AccountDto::setOrders));
+		if (sections.contains(AccountSection.FAVOURITES))
+			parts.add(section(AccountSection.FAVOURITES, this.get(
+					AppConstant.DiscoveredDomainsApi.FAVOURITE_SERVICE_API_URL + "?userId=" + userId,
+					FavouriteFavouriteServiceCollectionDtoResponse.class)
+					.map(FavouriteFavouriteServiceCollectionDtoResponse::getCollection),
+					AccountDto::setFavourites));
+		if (sections.contains(AccountSection.PAYMENTS))
+			parts.add(section(AccountSection.PAYMENTS, orders.flatMap(this::fetchPayments),
+					AccountDto::setPayments));
+
+		// Setters are applied once every section has settled, on a single thread
+		return Flux.merge(parts)
+				.collectList()
+				.map(setters -> {
+					final AccountDto accountDto = AccountDto.builder()
+							.userId(userId)
+							.errors(new LinkedHashMap<>())
+							.build();
+					setters.forEach(setter -> setter.accept(accountDto));
+					if (accountDto.getErrors().isEmpty())
+						accountDto.setErrors(null);
+					return accountDto;
+				});
+	}
+
+	private Mono<Collection<PaymentDto>> fetchPayments(final Collection<OrderDto> orders) {
+		if (orders.isEmpty())
+			return Mono.just(List.of());
+		final String orderIds = orders.stream()
+				.map(orderDto -> String.valueOf(orderDto.getOrderId()))
+				.collect(Collectors.joining(","));
+		return this.get(AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL + "?orderIds=" + orderIds,
+				PaymentPaymentServiceDtoCollectionResponse.class)
+				.map(PaymentPaymentServiceDtoCollectionResponse::getCollection);
+	}
+
+	private <T> Mono<T> get(final String apiUrl, final Class<T> type) {
+		return this.webClient.get()
+				.uri(apiUrl)
+				.retrieve()
+				.bodyToMono(type)
+				.timeout(this.callTimeout);
+	}
+
+	private static <T> Mono<Consumer<AccountDto>> section(final AccountSection section, final Mono<T> value,
+			final BiConsumer<AccountDto, T> setter) {
+		return value
+				.<Consumer<AccountDto>>map(v -> accountDto -> setter.accept(accountDto, v))
+				.onErrorResume(e -> {
+					log.warn("*** AccountDto, service; section {} unavailable: {} *", section.getField(), e.toString());
+					return Mono.just(accountDto -> accountDto.getErrors().put(section.getField(), "unavailable"));
+				});
+	}
+
+	private static UserDto withoutPassword(final UserDto userDto) {
+		if (userDto.getCredentialDto() != null)
+			userDto.getCredentialDto().setPassword(null);
+		return userDto;
+	}
+
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -27,15 +27,20 @@ public class AuthUtil {
     }
 
     public void canActivate(HttpServletRequest request, String userId, UserDetails userDetails) {
-        if (userId != null) {
-            String authUserId = (String) request.getAttribute("userId");
-            boolean isAdmin = getIsAdmin(userDetails);
-            if (!isAdmin && !authUserId.equals(userId)) {
-                throw new UnauthorizedException("You can access to resources of your own");
-            }
+        if (userId != null && !isOwnerOrAdmin(request, userId, userDetails)) {
+            throw new UnauthorizedException("You can access to resources of your own");
         }
     }
 
+    /**
+     * Same rule as {@link #canActivate}, for callers that must not answer with
+     * a different status than for a missing resource.
+     */
+    public boolean isOwnerOrAdmin(HttpServletRequest request, String userId, UserDetails userDetails) {
+        String authUserId = (String) request.getAttribute("userId");
+        return getIsAdmin(userDetails) || (authUserId != null && authUserId.equals(userId));
+    }
+
     public String getOwner(String id, ResourceType resourceType) {
         String apiUrl = "";
         try {
@@ -0,0 +1,102 @@
+package com.selimhorri.app.business.auth.util;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.user.model.AddressDto;
+import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link AuthUtil}. The owner lookups are chained
+ * with {@code flatMap}, so the payment -> order -> cart resolution does not
+ * hold a thread between hops.
+ */
+@Component
+public class ReactiveAuthUtil {
+
+    private final WebClient webClient;
+
+    public ReactiveAuthUtil(WebClient.Builder loadBalancedWebClientBuilder) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+    }
+
+    /**
+     * Completes empty when the caller may access the resource and with an
+     * {@link UnauthorizedException} otherwise. The request attribute is read
+     * eagerly, before the servlet request goes async.
+     */
+    public Mono<Void> canActivate(HttpServletRequest request, String id, ResourceType resourceType,
+            UserDetails userDetails) {
+        final String authUserId = (String) request.getAttribute("userId");
+        final boolean isAdmin = getIsAdmin(userDetails);
+        return getOwner(id, resourceType)
+                .filter(userId -> !isAdmin && !userId.equals(authUserId))
+                .flatMap(userId -> Mono.<Void>error(new UnauthorizedException("You can access to resources of your own")));
+    }
+
+    /**
+     * Same resolution as {@link AuthUtil#getOwner(String, ResourceType)}: an
+     * unresolvable owner completes empty instead of failing.
+     */
+    public Mono<String> getOwner(String id, ResourceType resourceType) {
+        final Mono<String> owner;
+        switch (resourceType) {
+            case CREDENTIALS:
+                owner = get(AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/credentials/" + id, CredentialDto.class)
+                        .map(credentialDto -> credentialDto.getUserDto().getUserId().toString());
+                break;
+            case ADDRESSES:
+                owner = get(AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/address/" + id, AddressDto.class)
+                        .map(addressDto -> addressDto.getUserDto().getUserId().toString());
+                break;
+            case CARTS:
+                owner = getCartOwner(id);
+                break;
+            case ORDERS:
+                owner = getOrderOwner(id);
+                break;
+            case PAYMENTS:
+                owner = get(AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_HOST + "/api/payments/" + id, PaymentDto.class)
+                        .flatMap(paymentDto -> getOrderOwner(paymentDto.getOrderDto().getOrderId().toString()));
+                break;
+            default:
+                owner = Mono.empty();
+        }
+        return owner.onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<String> getOrderOwner(String orderId) {
+        return get(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/orders/" + orderId, OrderDto.class)
+                .flatMap(orderDto -> getCartOwner(orderDto.getCartDto().getCartId().toString()));
+    }
+
+    private Mono<String> getCartOwner(String cartId) {
+        return get(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/" + cartId, CartDto.class)
+                .map(cartDto -> cartDto.getUserDto().getUserId().toString());
+    }
+
+    private <T> Mono<T> get(String apiUrl, Class<T> type) {
+        return webClient.get()
+                .uri(apiUrl)
+                .retrieve()
+                .bodyToMono(type);
+    }
+
+    private boolean getIsAdmin(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(role -> role.equals("ROLE_ADMIN"));
+    }
+}
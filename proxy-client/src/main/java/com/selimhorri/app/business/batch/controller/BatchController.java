@@ -0,0 +1,59 @@
+package com.selimhorri.app.business.batch.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.batch.model.BatchRequest;
+import com.selimhorri.app.business.batch.model.BatchResponse;
+import com.selimhorri.app.business.batch.service.BatchService;
+import com.selimhorri.app.config.batch.BatchPayloadLimitFilter;
+import com.selimhorri.app.security.GatewayIdentityVerifier;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchController {
+	
+	private final BatchService batchService;
+	private final GatewayIdentityVerifier gatewayIdentityVerifier;
+	
+	/**
+	 * The payload size is enforced by {@link BatchPayloadLimitFilter} before the
+	 * body is read; the request count is checked by the service.
+	 */
+	@PostMapping
+	public Mono<ResponseEntity<BatchResponse>> execute(
+			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final BatchRequest batchRequest,
+			final HttpServletRequest request, @AuthenticationPrincipal final UserDetails userDetails) {
+		
+		// The caller was authenticated for this request; sub-requests reuse that
+		// identity as signed headers, falling back to the original token
+		final HttpHeaders credentials = this.gatewayIdentityVerifier
+				.identityHeaders((String) request.getAttribute("userId"), userDetails)
+				.orElseGet(() -> {
+					final var headers = new HttpHeaders();
+					headers.set(HttpHeaders.AUTHORIZATION, request.getHeader(HttpHeaders.AUTHORIZATION));
+					return headers;
+				});
+		final String baseUrl = "http://127.0.0.1:" + request.getLocalPort() + request.getContextPath();
+		
+		return this.batchService.execute(batchRequest, baseUrl, credentials)
+				.map(ResponseEntity::ok);
+	}
+	
+	
+	
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.business.batch.model;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotBlank;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BatchItemRequest implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotBlank(message = "Sub-request method must not be blank!")
+	private String method;
+	
+	/**
+	 * Path relative to the proxy context, e.g. {@code /api/products/1}.
+	 */
+	@NotBlank(message = "Sub-request path must not be blank!")
+	private String path;
+	
+	private JsonNode body;
+	
+}
@@ -0,0 +1,27 @@
+package com.selimhorri.app.business.batch.model;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class BatchItemResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private int index;
+	private int status;
+	private JsonNode body;
+	
+}
@@ -0,0 +1,25 @@
+package com.selimhorri.app.business.batch.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BatchRequest implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotEmpty(message = "Batch must contain at least one request!")
+	private List<@Valid BatchItemRequest> requests;
+	
+}
@@ -0,0 +1,21 @@
+package com.selimhorri.app.business.batch.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BatchResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private List<BatchItemResponse> responses;
+	
+}
@@ -0,0 +1,18 @@
+package com.selimhorri.app.business.batch.service;
+
+import org.springframework.http.HttpHeaders;
+
+import com.selimhorri.app.business.batch.model.BatchRequest;
+import com.selimhorri.app.business.batch.model.BatchResponse;
+
+import reactor.core.publisher.Mono;
+
+public interface BatchService {
+	
+	/**
+	 * @param baseUrl proxy-client's own address including the context path
+	 * @param credentials headers that authenticate every sub-request as the caller
+	 */
+	Mono<BatchResponse> execute(final BatchRequest batchRequest, final String baseUrl, final HttpHeaders credentials);
+	
+}
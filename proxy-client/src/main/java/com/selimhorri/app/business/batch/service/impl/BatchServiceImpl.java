@@ -0,0 +1,163 @@
+package com.selimhorri.app.business.batch.service.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.selimhorri.app.business.batch.model.BatchItemRequest;
+import com.selimhorri.app.business.batch.model.BatchItemResponse;
+import com.selimhorri.app.business.batch.model.BatchRequest;
+import com.selimhorri.app.business.batch.model.BatchResponse;
+import com.selimhorri.app.business.batch.service.BatchService;
+import com.selimhorri.app.config.batch.BatchProperties;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replays each sub-request against proxy-client itself, so every item goes
+ * through the regular security rules, controllers and error handling. The
+ * caller is authenticated once; sub-requests carry its signed identity.
+ * {@code flatMapSequential} bounds the items in flight and keeps results in
+ * request order.
+ */
+@Service
+@Slf4j
+public class BatchServiceImpl implements BatchService {
+
+	private static final Set<HttpMethod> ALLOWED_METHODS = Set.of(
+			HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+	private final BatchProperties batchProperties;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	private final WebClient webClient;
+	private final DistributionSummary batchSize;
+	private final Timer batchDuration;
+
+	@Autowired
+	public BatchServiceImpl(final BatchProperties batchProperties, final ObjectMapper objectMapper,
+			final MeterRegistry meterRegistry) {
+		// Plain client: sub-requests go to this instance, not through the load balancer
+		this(batchProperties, objectMapper, meterRegistry, WebClient.builder());
+	}
+
+	BatchServiceImpl(final BatchProperties batchProperties, final ObjectMapper objectMapper,
+			final MeterRegistry meterRegistry, final WebClient.Builder webClientBuilder) {
+		this.batchProperties = batchProperties;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.webClient = webClientBuilder
+				.exchangeStrategies(ExchangeStrategies.builder()
+						.codecs(codecs -> codecs.defaultCodecs()
+								.maxInMemorySize((int) batchProperties.getMaxItemResponseSize().toBytes()))
+						.build())
+				.build();
+		this.batchSize = DistributionSummary.builder("proxy.batch.size")
+				.description("Sub-requests per batch")
+				.register(meterRegistry);
+		this.batchDuration = Timer.builder("proxy.batch.duration")
+				.description("Time to complete a whole batch")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public Mono<BatchResponse> execute(final BatchRequest batchRequest, final String baseUrl, final HttpHeaders credentials) {
+		log.info("*** BatchResponse, service; execute batch of {} requests *", batchRequest.getRequests().size());
+		final List<BatchItemRequest> items = batchRequest.getRequests();
+		this.validate(items);
+		this.batchSize.record(items.size());
+
+		final long start = System.nanoTime();
+		return Flux.fromStream(IntStream.range(0, items.size()).boxed())
+				.flatMapSequential(index -> this.executeItem(index, items.get(index), baseUrl, credentials),
+						this.batchProperties.getMaxConcurrency())
+				.collectList()
+				.map(BatchResponse::new)
+				.doFinally(signal -> this.batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+	}
+
+	private void validate(final List<BatchItemRequest> items) {
+		if (items.size() > this.batchProperties.getMaxRequests())
+			throw new IllegalArgumentException(String.format("Batch exceeds the limit of %d requests",
+					this.batchProperties.getMaxRequests()));
+		items.forEach(item -> {
+			final HttpMethod method = HttpMethod.resolve(item.getMethod().toUpperCase());
+			if (method == null || !ALLOWED_METHODS.contains(method))
+				throw new IllegalArgumentException(String.format("Unsupported sub-request method: %s", item.getMethod()));
+			final String path = item.getPath();
+			if (!path.startsWith("/api/") || path.startsWith("/api/batch") || path.contains(".."))
+				throw new IllegalArgumentException(String.format("Unsupported sub-request path: %s", path));
+			// rejects malformed paths up front; throws IllegalArgumentException as well
+			URI.create(path);
+		});
+	}
+
+	private Mono<BatchItemResponse> executeItem(final int index, final BatchItemRequest item, final String baseUrl,
+			final HttpHeaders credentials) {
+		final WebClient.RequestBodySpec request = this.webClient
+				.method(HttpMethod.resolve(item.getMethod().toUpperCase()))
+				.uri(URI.create(baseUrl + item.getPath()))
+				.headers(headers -> headers.addAll(credentials))
+				.accept(MediaType.APPLICATION_JSON);
+		final WebClient.RequestHeadersSpec<?> spec = (item.getBody() == null || item.getBody().isNull())
+				? request
+				: request.contentType(MediaType.APPLICATION_JSON).bodyValue(item.getBody());
+
+		return spec.exchangeToMono(response -> response.bodyToMono(String.class)
+						.defaultIfEmpty("")
+						.map(body -> new BatchItemResponse(index, response.rawStatusCode(), this.readBody(body))))
+				.timeout(this.batchProperties.getItemTimeout())
+				.onErrorResume(e -> {
+					log.warn("*** BatchResponse, service; sub-request {} failed: {} *", index, e.toString());
+					return Mono.just(new BatchItemResponse(index, HttpStatus.BAD_GATEWAY.value(),
+							TextNode.valueOf("Sub-request failed")));
+				})
+				.doOnNext(response -> this.meterRegistry.counter("proxy.batch.items",
+						"method", item.getMethod().toUpperCase(),
+						"status", (response.getStatus() / 100) + "xx").increment());
+	}
+
+	private JsonNode readBody(final String body) {
+		if (body.isEmpty())
+			return null;
+		try {
+			return this.objectMapper.readTree(body);
+		}
+		catch (IOException e) {
+			return TextNode.valueOf(body);
+		}
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
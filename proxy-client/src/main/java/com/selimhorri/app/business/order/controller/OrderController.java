@@ -1,11 +1,15 @@
 package com.selimhorri.app.business.order.controller;
 
+import java.io.IOException;
+
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,23 +28,37 @@ import com.selimhorri.app.business.auth.util.AuthUtil;
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
 import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.config.passthrough.PassThroughProxy;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.proxy", name = "mode", havingValue = "blocking", matchIfMissing = true)
 public class OrderController {
 
 	@Autowired
 	private AuthUtil authUtil;
 	private final OrderClientService orderClientService;
+	private final PassThroughProxy passThroughProxy;
 
 	@GetMapping
 	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll() {
 		return ResponseEntity.ok(this.orderClientService.findAll().getBody());
 	}
 
+	/**
+	 * A {@code fields} projection does not fit {@link OrderDto}, so that
+	 * listing is streamed with the client's query string instead.
+	 */
+	@GetMapping(params = "fields")
+	public void findAllFields(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.passThroughProxy.get(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "?" + request.getQueryString(),
+				request, response);
+	}
+
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") @NotBlank(message = "Input must not be blank!") @Valid final String orderId,
@@ -0,0 +1,104 @@
+package com.selimhorri.app.business.order.controller;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.auth.enums.ResourceType;
+import com.selimhorri.app.business.auth.util.ReactiveAuthUtil;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.service.OrderReactiveClientService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replaces {@link OrderController} when {@code app.proxy.mode=reactive}. The
+ * servlet thread is released as soon as the handler returns; the ownership
+ * check and the order-service call run on the WebClient event loop.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.proxy", name = "mode", havingValue = "reactive")
+public class ReactiveOrderController {
+
+	private final ReactiveAuthUtil reactiveAuthUtil;
+	private final OrderReactiveClientService orderReactiveClientService;
+
+	@GetMapping
+	public Mono<ResponseEntity<OrderOrderServiceDtoCollectionResponse>> findAll() {
+		return this.orderReactiveClientService.findAll()
+				.map(ResponseEntity::ok);
+	}
+
+	/**
+	 * A {@code fields} projection does not fit {@link OrderDto}, so that
+	 * listing is forwarded with the client's query string.
+	 */
+	@GetMapping(params = "fields")
+	public Mono<ResponseEntity<byte[]>> findAllFields(final HttpServletRequest request) {
+		return this.orderReactiveClientService.findAll(request.getQueryString(),
+				new ServletServerHttpRequest(request).getHeaders());
+	}
+
+	@GetMapping("/{orderId}")
+	public Mono<ResponseEntity<OrderDto>> findById(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank!") @Valid final String orderId,
+			HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		return this.reactiveAuthUtil.canActivate(request, orderId, ResourceType.ORDERS, userDetails)
+				.then(Mono.defer(() -> this.orderReactiveClientService.findById(orderId)))
+				.map(ResponseEntity::ok);
+	}
+
+	@PostMapping
+	public Mono<ResponseEntity<OrderDto>> save(
+			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final OrderDto orderDto,
+			HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		return this.reactiveAuthUtil.canActivate(request, orderDto.getCartDto().getCartId().toString(), ResourceType.CARTS, userDetails)
+				.then(Mono.defer(() -> this.orderReactiveClientService.save(orderDto)))
+				.map(ResponseEntity::ok);
+	}
+
+	@PatchMapping("/{orderId}/status")
+	public Mono<ResponseEntity<OrderDto>> update(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank") @Valid final int orderId) {
+		return this.orderReactiveClientService.updateStatus(orderId)
+				.map(ResponseEntity::ok);
+	}
+
+	@PutMapping("/{orderId}")
+	public Mono<ResponseEntity<OrderDto>> update(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank!") @Valid final String orderId,
+			@RequestBody @NotNull(message = "Input must not be NULL!") @Valid final OrderDto orderDto,
+			HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		return this.reactiveAuthUtil.canActivate(request, orderId, ResourceType.ORDERS, userDetails)
+				.then(Mono.defer(() -> this.orderReactiveClientService.update(orderId, orderDto)))
+				.map(ResponseEntity::ok);
+	}
+
+	@DeleteMapping("/{orderId}")
+	public Mono<ResponseEntity<Boolean>> deleteById(@PathVariable("orderId") final String orderId, HttpServletRequest request, @AuthenticationPrincipal UserDetails userDetails) {
+		return this.reactiveAuthUtil.canActivate(request, orderId, ResourceType.ORDERS, userDetails)
+				.then(Mono.defer(() -> this.orderReactiveClientService.deleteById(orderId)))
+				.thenReturn(ResponseEntity.ok(true));
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.selimhorri.app.business.order.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.config.passthrough.PassThroughProxy;
+import com.selimhorri.app.constant.AppConstant;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking mirror of {@link OrderClientService} used by the reactive proxy mode.
+ */
+@Service
+public class OrderReactiveClientService {
+	
+	private final WebClient webClient;
+	
+	public OrderReactiveClientService(final WebClient.Builder loadBalancedWebClientBuilder) {
+		this.webClient = loadBalancedWebClientBuilder.clone()
+				.baseUrl(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL)
+				.build();
+	}
+	
+	public Mono<OrderOrderServiceDtoCollectionResponse> findAll() {
+		return this.webClient.get()
+				.retrieve()
+				.bodyToMono(OrderOrderServiceDtoCollectionResponse.class);
+	}
+	
+	/**
+	 * The listing with the client's query string, {@code fields} included,
+	 * streamed through {@link PassThroughProxy#get(WebClient, String, HttpHeaders)}.
+	 */
+	public Mono<ResponseEntity<byte[]>> findAll(final String query, final HttpHeaders requestHeaders) {
+		return PassThroughProxy.get(this.webClient, AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL
+				+ (query == null ? "" : "?" + query), requestHeaders);
+	}
+	
+	public Mono<OrderDto> findById(final String orderId) {
+		return this.webClient.get()
+				.uri("/{orderId}", orderId)
+				.retrieve()
+				.bodyToMono(OrderDto.class);
+	}
+	
+	public Mono<OrderDto> save(final OrderDto orderDto) {
+		return this.webClient.post()
+				.bodyValue(orderDto)
+				.retrieve()
+				.bodyToMono(OrderDto.class);
+	}
+	
+	public Mono<OrderDto> updateStatus(final int orderId) {
+		return this.webClient.patch()
+				.uri("/{orderId}/status", orderId)
+				.retrieve()
+				.bodyToMono(OrderDto.class);
+	}
+	
+	public Mono<OrderDto> update(final String orderId, final OrderDto orderDto) {
+		return this.webClient.put()
+				.uri("/{orderId}", orderId)
+				.bodyValue(orderDto)
+				.retrieve()
+				.bodyToMono(OrderDto.class);
+	}
+	
+	public Mono<Boolean> deleteById(final String orderId) {
+		return this.webClient.delete()
+				.uri("/{orderId}", orderId)
+				.retrieve()
+				.bodyToMono(Boolean.class);
+	}
+	
+	
+	
+}
@@ -0,0 +1,107 @@
+package com.selimhorri.app.business.orderView.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.auth.util.AuthUtil;
+import com.selimhorri.app.business.orderView.model.OrderChangeNotification;
+import com.selimhorri.app.business.orderView.model.OrderViewDto;
+import com.selimhorri.app.business.orderView.model.OrderViewRebuildDto;
+import com.selimhorri.app.business.orderView.model.response.OrderViewDtoCollectionResponse;
+import com.selimhorri.app.business.orderView.service.OrderViewService;
+import com.selimhorri.app.exception.wrapper.OrderViewNotFoundException;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+import com.selimhorri.app.security.InternalSecrets;
+
+/**
+ * Order detail and order list served from the local order view projection.
+ * The notifications endpoint is called by order-, shipping- and
+ * payment-service directly, authenticated by a shared token that must be set
+ * (see {@link InternalSecrets}): the endpoint is not behind the JWT filter.
+ */
+@RestController
+@RequestMapping("/api/order-views")
+public class OrderViewController {
+
+	private static final String NOTIFICATION_TOKEN_HEADER = "X-Order-View-Token";
+
+	private final OrderViewService orderViewService;
+	private final AuthUtil authUtil;
+	private final byte[] notificationToken;
+
+	public OrderViewController(final OrderViewService orderViewService, final AuthUtil authUtil,
+			@Value("${app.order-view.notification-token:}") final String notificationToken,
+			final Environment environment) {
+		this.orderViewService = orderViewService;
+		this.authUtil = authUtil;
+		this.notificationToken = InternalSecrets.require("app.order-view.notification-token", notificationToken,
+				InternalSecrets.DEV_ORDER_VIEW_TOKEN, environment).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@GetMapping
+	public ResponseEntity<OrderViewDtoCollectionResponse> findAll(
+			@RequestParam(name = "userId", required = false) final String userId,
+			final HttpServletRequest request, @AuthenticationPrincipal final UserDetails userDetails) {
+		final String ownerId = (userId != null) ? userId : (String) request.getAttribute("userId");
+		if (ownerId == null)
+			throw new UnauthorizedException("Authenticated user id is missing");
+		final Integer ownerUserId = parseId("userId", ownerId);
+		this.authUtil.canActivate(request, ownerId, userDetails);
+		return ResponseEntity.ok(new OrderViewDtoCollectionResponse(
+				this.orderViewService.findAllByUserId(ownerUserId)));
+	}
+
+	@GetMapping("/{orderId}")
+	public ResponseEntity<OrderViewDto> findById(
+			@PathVariable("orderId") @NotBlank(message = "Input must not be blank!") @Valid final String orderId,
+			final HttpServletRequest request, @AuthenticationPrincipal final UserDetails userDetails) {
+		final Integer id = parseId("orderId", orderId);
+		final OrderViewDto orderViewDto = this.orderViewService.findById(id);
+		// someone else's order answers exactly like a missing one, so order ids cannot be probed
+		if (!this.authUtil.isOwnerOrAdmin(request, String.valueOf(orderViewDto.getUserId()), userDetails))
+			throw new OrderViewNotFoundException(String.format("Order with id: %d not found", id));
+		return ResponseEntity.ok(orderViewDto);
+	}
+
+	@PostMapping("/notifications")
+	public ResponseEntity<Void> notifyChange(
+			@RequestHeader(name = NOTIFICATION_TOKEN_HEADER, required = false) final String token,
+			@RequestBody @Valid final OrderChangeNotification notification) {
+		if (token == null || !MessageDigest.isEqual(this.notificationToken, token.getBytes(StandardCharsets.UTF_8)))
+			throw new UnauthorizedException("Invalid order view notification token");
+		this.orderViewService.onChange(notification);
+		return ResponseEntity.accepted().build();
+	}
+
+	@PostMapping("/rebuild")
+	public ResponseEntity<OrderViewRebuildDto> rebuild() {
+		return ResponseEntity.ok(this.orderViewService.rebuild());
+	}
+
+	private static Integer parseId(final String name, final String value) {
+		if (value == null || !value.matches("\\d{1,9}"))
+			throw new IllegalArgumentException(name + " must be a positive integer");
+		return Integer.valueOf(value);
+	}
+
+
+
+}
@@ -0,0 +1,29 @@
+package com.selimhorri.app.business.orderView.model;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sent by order-, shipping- and payment-service after a committed change.
+ * Carries no state: the receiver re-reads the order from its sources.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderChangeNotification implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private String source;
+	
+	@NotNull
+	private Integer orderId;
+	
+}
@@ -0,0 +1,22 @@
+package com.selimhorri.app.business.orderView.model;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderViewRebuildDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Integer orders;
+	private Integer users;
+	private Long durationMillis;
+	
+}
@@ -0,0 +1,16 @@
+package com.selimhorri.app.business.orderView.service;
+
+import java.util.List;
+
+import com.selimhorri.app.business.orderView.model.OrderChangeNotification;
+import com.selimhorri.app.business.orderView.model.OrderViewDto;
+import com.selimhorri.app.business.orderView.model.OrderViewRebuildDto;
+
+public interface OrderViewService {
+	
+	OrderViewDto findById(final Integer orderId);
+	List<OrderViewDto> findAllByUserId(final Integer userId);
+	void onChange(final OrderChangeNotification notification);
+	OrderViewRebuildDto rebuild();
+	
+}
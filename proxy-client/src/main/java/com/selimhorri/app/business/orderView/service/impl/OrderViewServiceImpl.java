@@ -0,0 +1,380 @@
+package com.selimhorri.app.business.orderView.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.model.response.OrderItemOrderItemServiceDtoCollectionResponse;
+import com.selimhorri.app.business.orderView.model.OrderChangeNotification;
+import com.selimhorri.app.business.orderView.model.OrderViewDto;
+import com.selimhorri.app.business.orderView.model.OrderViewRebuildDto;
+import com.selimhorri.app.business.orderView.service.OrderViewService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.exception.wrapper.OrderViewNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local projection joining orders with their shipping items and payments.
+ * Views are indexed by order id and by owner, so detail and list reads are
+ * a map lookup instead of a fan-out to three services.
+ *
+ * <p>Change notifications only name the order; the view is re-read from the
+ * sources on a single background thread, with duplicate pending refreshes
+ * coalesced. Notifications are best-effort, so staleness is also bounded on
+ * read: a view or a user's order list older than {@code max-staleness} is
+ * reloaded before it is served. {@link #rebuild()} reloads everything into a
+ * fresh projection and swaps it in once complete.</p>
+ */
+@Service
+@Slf4j
+public class OrderViewServiceImpl implements OrderViewService {
+
+	private static final int LOOKUP_CHUNK = 100;
+	// shipping-service only shows the items of an order while it is in this status
+	private static final String SHIPPED_STATUS = "ORDERED";
+
+	private final RestTemplate restTemplate;
+	private final Duration maxStaleness;
+	private final boolean rebuildOnStartup;
+	private final ExecutorService refresher;
+	private final Set<Integer> pendingRefreshes = ConcurrentHashMap.newKeySet();
+	private final Set<Integer> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private volatile Projection projection = new Projection();
+
+	public OrderViewServiceImpl(final RestTemplate restTemplate,
+			@Value("${app.order-view.max-staleness:60s}") final Duration maxStaleness,
+			@Value("${app.order-view.rebuild-on-startup:false}") final boolean rebuildOnStartup) {
+		this.restTemplate = restTemplate;
+		this.maxStaleness = maxStaleness;
+		this.rebuildOnStartup = rebuildOnStartup;
+		this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "order-view-refresher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (!this.rebuildOnStartup)
+			return;
+		this.refresher.execute(() -> {
+			try {
+				this.rebuild();
+			}
+			catch (RuntimeException e) {
+				log.warn("*** OrderViewRebuildDto, service; startup rebuild failed: {} *", e.toString());
+			}
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		this.refresher.shutdownNow();
+	}
+
+	@Override
+	public OrderViewDto findById(final Integer orderId) {
+		log.info("*** OrderViewDto, service; fetch order view by orderId: {} *", orderId);
+		final OrderViewDto view = this.projection.views.get(orderId);
+		if (view != null && !this.isStale(view.getRefreshedAt()))
+			return view;
+		return this.refresh(orderId)
+				.orElseThrow(() -> new OrderViewNotFoundException(
+						String.format("Order with id: %d not found", orderId)));
+	}
+
+	@Override
+	public List<OrderViewDto> findAllByUserId(final Integer userId) {
+		log.info("*** OrderViewDto List, service; fetch order views of userId: {} *", userId);
+		final Instant loadedAt = this.projection.usersLoadedAt.get(userId);
+		if (loadedAt == null || this.isStale(loadedAt))
+			this.loadUser(userId);
+
+		final Projection current = this.projection;
+		return current.orderIdsByUser.getOrDefault(userId, Set.of()).stream()
+				.map(current.views::get)
+				.filter(Objects::nonNull)
+				.sorted(Comparator.comparing(OrderViewDto::getOrderId).reversed())
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Override
+	public void onChange(final OrderChangeNotification notification) {
+		log.info("*** Void, service; order {} changed in {} *", notification.getOrderId(), notification.getSource());
+		if (this.rebuilding.get())
+			this.changedDuringRebuild.add(notification.getOrderId());
+		this.scheduleRefresh(notification.getOrderId());
+	}
+
+	@Override
+	public OrderViewRebuildDto rebuild() {
+		if (!this.rebuilding.compareAndSet(false, true))
+			throw new IllegalStateException("An order view rebuild is already running");
+		try {
+			log.info("*** OrderViewRebuildDto, service; rebuild order view projection *");
+			final long start = System.nanoTime();
+			final Instant readAt = Instant.now();
+			this.changedDuringRebuild.clear();
+
+			final Collection<OrderDto> orders = this.restTemplate.getForObject(
+					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL,
+					OrderOrderServiceDtoCollectionResponse.class).getCollection();
+			final Map<Integer, List<OrderItemDto>> orderItems = this.restTemplate.getForObject(
+					AppConstant.DiscoveredDomainsApi.SHIPPING_SERVICE_API_URL,
+					OrderItemOrderItemServiceDtoCollectionResponse.class).getCollection().stream()
+					.collect(Collectors.groupingBy(OrderItemDto::getOrderId));
+			final Map<Integer, List<PaymentDto>> payments = this.fetchPayments(orders.stream()
+					.map(OrderDto::getOrderId)
+					.collect(Collectors.toList()));
+
+			final Projection rebuilt = new Projection();
+			orders.forEach(orderDto -> rebuilt.put(this.toView(orderDto, this.resolveUserId(orderDto),
+					orderItems.getOrDefault(orderDto.getOrderId(), List.of()),
+					payments.getOrDefault(orderDto.getOrderId(), List.of()),
+					readAt)));
+			rebuilt.orderIdsByUser.keySet().forEach(userId -> rebuilt.usersLoadedAt.put(userId, readAt));
+			this.projection = rebuilt;
+
+			// Changes notified while the sources were being read may predate the snapshot
+			this.changedDuringRebuild.forEach(this::scheduleRefresh);
+
+			return OrderViewRebuildDto.builder()
+					.orders(rebuilt.views.size())
+					.users(rebuilt.orderIdsByUser.size())
+					.durationMillis(Duration.ofNanos(System.nanoTime() - start).toMillis())
+					.build();
+		}
+		finally {
+			this.rebuilding.set(false);
+		}
+	}
+
+	private void scheduleRefresh(final Integer orderId) {
+		if (!this.pendingRefreshes.add(orderId))
+			return;
+		try {
+			this.refresher.execute(() -> {
+				this.pendingRefreshes.remove(orderId);
+				try {
+					this.refresh(orderId);
+				}
+				catch (RestClientException e) {
+					log.warn("*** OrderViewDto, service; refresh of order {} failed: {} *", orderId, e.toString());
+					// Forces the next read of this order, or of its owner's list, back to the sources
+					this.projection.invalidate(orderId);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.pendingRefreshes.remove(orderId);
+		}
+	}
+
+	private Optional<OrderViewDto> refresh(final Integer orderId) {
+		final Instant readAt = Instant.now();
+		final OrderDto orderDto;
+		try {
+			orderDto = this.restTemplate.getForObject(
+					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId, OrderDto.class);
+		}
+		catch (HttpClientErrorException e) {
+			// Missing or deactivated in order-service
+			this.projection.remove(orderId);
+			return Optional.empty();
+		}
+
+		final OrderViewDto view = this.toView(orderDto, this.resolveUserId(orderDto),
+				this.fetchOrderItems(List.of(orderDto)).getOrDefault(orderId, List.of()),
+				this.fetchPayments(List.of(orderId)).getOrDefault(orderId, List.of()),
+				readAt);
+		return Optional.of(this.projection.put(view));
+	}
+
+	private void loadUser(final Integer userId) {
+		final Instant readAt = Instant.now();
+		final Collection<OrderDto> orders = this.restTemplate.getForObject(
+				AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "?userId=" + userId,
+				OrderOrderServiceDtoCollectionResponse.class).getCollection();
+		final Map<Integer, List<OrderItemDto>> orderItems = this.fetchOrderItems(orders);
+		final Map<Integer, List<PaymentDto>> payments = this.fetchPayments(orders.stream()
+				.map(OrderDto::getOrderId)
+				.collect(Collectors.toList()));
+
+		final Projection current = this.projection;
+		final Set<Integer> loadedOrderIds = orders.stream()
+				.map(orderDto -> current.put(this.toView(orderDto, userId,
+						orderItems.getOrDefault(orderDto.getOrderId(), List.of()),
+						payments.getOrDefault(orderDto.getOrderId(), List.of()),
+						readAt)).getOrderId())
+				.collect(Collectors.toSet());
+
+		// Orders no longer returned for this user drop out of the projection
+		new ArrayList<>(current.orderIdsByUser.getOrDefault(userId, Set.of())).stream()
+				.filter(orderId -> !loadedOrderIds.contains(orderId))
+				.forEach(current::remove);
+		current.usersLoadedAt.put(userId, readAt);
+	}
+
+	/**
+	 * Shipping items of the given orders, read in chunks of {@value #LOOKUP_CHUNK}
+	 * order ids. Only orders in {@value #SHIPPED_STATUS} are asked for, which is
+	 * the same rule shipping-service applies when an item is read by id.
+	 */
+	private Map<Integer, List<OrderItemDto>> fetchOrderItems(final Collection<OrderDto> orders) {
+		final List<Integer> orderIds = orders.stream()
+				.filter(orderDto -> SHIPPED_STATUS.equals(orderDto.getOrderStatus()))
+				.map(OrderDto::getOrderId)
+				.collect(Collectors.toList());
+		final Map<Integer, List<OrderItemDto>> orderItems = new HashMap<>();
+		chunked(orderIds).forEach(ids -> this.restTemplate.getForObject(
+				AppConstant.DiscoveredDomainsApi.SHIPPING_SERVICE_API_URL + "?orderIds=" + ids,
+				OrderItemOrderItemServiceDtoCollectionResponse.class).getCollection()
+				.forEach(orderItemDto -> orderItems
+						.computeIfAbsent(orderItemDto.getOrderId(), orderId -> new ArrayList<>())
+						.add(orderItemDto)));
+		return orderItems;
+	}
+
+	private Map<Integer, List<PaymentDto>> fetchPayments(final List<Integer> orderIds) {
+		final Map<Integer, List<PaymentDto>> payments = new HashMap<>();
+		for (final String ids : chunked(orderIds)) {
+			this.restTemplate.getForObject(
+					AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL + "?orderIds=" + ids,
+					PaymentPaymentServiceDtoCollectionResponse.class).getCollection()
+					.forEach(paymentDto -> payments
+							.computeIfAbsent(paymentDto.getOrderDto().getOrderId(), orderId -> new ArrayList<>())
+							.add(paymentDto));
+		}
+		return payments;
+	}
+
+	private static List<String> chunked(final List<Integer> orderIds) {
+		final List<String> chunks = new ArrayList<>();
+		for (int from = 0; from < orderIds.size(); from += LOOKUP_CHUNK)
+			chunks.add(orderIds.subList(from, Math.min(from + LOOKUP_CHUNK, orderIds.size())).stream()
+					.map(String::valueOf)
+					.collect(Collectors.joining(",")));
+		return chunks;
+	}
+
+	private Integer resolveUserId(final OrderDto orderDto) {
+		final CartDto cartDto = orderDto.getCartDto();
+		if (cartDto == null || cartDto.getCartId() == null)
+			return null;
+		if (cartDto.getUserId() != null)
+			return cartDto.getUserId();
+		return this.restTemplate.getForObject(
+				AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_HOST + "/api/carts/" + cartDto.getCartId(),
+				CartDto.class).getUserId();
+	}
+
+	private OrderViewDto toView(final OrderDto orderDto, final Integer userId, final List<OrderItemDto> orderItems,
+			final List<PaymentDto> payments, final Instant readAt) {
+		// The order is the view itself; nested copies would only repeat it
+		orderItems.forEach(orderItemDto -> orderItemDto.setOrderDto(null));
+		payments.forEach(paymentDto -> paymentDto.setOrderDto(null));
+		return OrderViewDto.builder()
+				.orderId(orderDto.getOrderId())
+				.userId(userId)
+				.cartId(orderDto.getCartDto() == null ? null : orderDto.getCartDto().getCartId())
+				.orderDate(orderDto.getOrderDate())
+				.orderDesc(orderDto.getOrderDesc())
+				.orderStatus(orderDto.getOrderStatus())
+				.orderFee(orderDto.getOrderFee())
+				.orderItemDtos(List.copyOf(orderItems))
+				.paymentDtos(List.copyOf(payments))
+				.refreshedAt(readAt)
+				.build();
+	}
+
+	private boolean isStale(final Instant refreshedAt) {
+		return refreshedAt.plus(this.maxStaleness).isBefore(Instant.now());
+	}
+
+	/**
+	 * Views by order id plus the owner index. Replaced wholesale on rebuild,
+	 * so readers never observe a half-loaded projection.
+	 */
+	private static final class Projection {
+
+		private final Map<Integer, OrderViewDto> views = new ConcurrentHashMap<>();
+		private final Map<Integer, Set<Integer>> orderIdsByUser = new ConcurrentHashMap<>();
+		private final Map<Integer, Instant> usersLoadedAt = new ConcurrentHashMap<>();
+
+		/**
+		 * Stores the view unless a newer read of the same order already landed,
+		 * and returns whichever one is kept.
+		 */
+		private OrderViewDto put(final OrderViewDto view) {
+			return this.views.compute(view.getOrderId(), (orderId, previous) -> {
+				if (previous != null && previous.getRefreshedAt().isAfter(view.getRefreshedAt()))
+					return previous;
+				if (previous != null && !Objects.equals(previous.getUserId(), view.getUserId()))
+					this.unindex(previous);
+				if (view.getUserId() != null)
+					this.orderIdsByUser.computeIfAbsent(view.getUserId(), userId -> ConcurrentHashMap.newKeySet())
+							.add(orderId);
+				return view;
+			});
+		}
+
+		private void remove(final Integer orderId) {
+			final OrderViewDto previous = this.views.remove(orderId);
+			if (previous != null)
+				this.unindex(previous);
+		}
+
+		private void invalidate(final Integer orderId) {
+			final OrderViewDto previous = this.views.get(orderId);
+			if (previous != null && previous.getUserId() != null)
+				this.usersLoadedAt.remove(previous.getUserId());
+			this.remove(orderId);
+		}
+
+		private void unindex(final OrderViewDto view) {
+			if (view.getUserId() == null)
+				return;
+			this.orderIdsByUser.computeIfPresent(view.getUserId(), (userId, orderIds) -> {
+				orderIds.remove(view.getOrderId());
+				return orderIds.isEmpty() ? null : orderIds;
+			});
+		}
+
+	}
+
+
+
+}
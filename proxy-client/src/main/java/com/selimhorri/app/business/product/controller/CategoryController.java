@@ -1,5 +1,10 @@
 package com.selimhorri.app.business.product.controller;
 
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,8 +16,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.product.model.CategoryDto;
-import com.selimhorri.app.business.product.model.response.CategoryProductServiceCollectionDtoResponse;
 import com.selimhorri.app.business.product.service.CategoryClientService;
+import com.selimhorri.app.config.passthrough.PassThroughProxy;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,10 +28,14 @@ import lombok.RequiredArgsConstructor;
 public class CategoryController {
 	
 	private final CategoryClientService categoryClientService;
+	private final PassThroughProxy passThroughProxy;
 	
+	/**
+	 * Streamed from product-service like the product listing.
+	 */
 	@GetMapping
-	public ResponseEntity<CategoryProductServiceCollectionDtoResponse> findAll() {
-		return ResponseEntity.ok(this.categoryClientService.findAll().getBody());
+	public void findAll(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.passThroughProxy.get(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_HOST + "/api/categories", request, response);
 	}
 	
 	@GetMapping("/{categoryId}")
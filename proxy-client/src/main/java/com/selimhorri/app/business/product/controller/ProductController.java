@@ -1,5 +1,11 @@
 package com.selimhorri.app.business.product.controller;
 
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,21 +17,57 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.product.model.ProductDto;
-import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
 import com.selimhorri.app.business.product.service.ProductClientService;
+import com.selimhorri.app.config.passthrough.PassThroughProxy;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.proxy", name = "mode", havingValue = "blocking", matchIfMissing = true)
 public class ProductController {
 	
 	private final ProductClientService productClientService;
+	private final PassThroughProxy passThroughProxy;
 	
+	/**
+	 * The listing is forwarded untouched, so it is streamed from product-service
+	 * like the catalog instead of being mapped to DTOs and re-serialized. The
+	 * query string goes along, so a {@code fields} projection reaches it.
+	 */
 	@GetMapping
-	public ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll() {
-		return ResponseEntity.ok(this.productClientService.findAll().getBody());
+	public void findAll(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.forwardWithQuery("", request, response);
+	}
+	
+	/**
+	 * Keyset-paginated catalog; there is no DTO mapping for it here, so it is
+	 * always streamed with the client's query string.
+	 */
+	@GetMapping("/catalog")
+	public void findCatalogPage(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.forwardWithQuery("/catalog", request, response);
+	}
+	
+	/**
+	 * Ranked search over product-service's in-memory index; streamed like
+	 * the catalog.
+	 */
+	@GetMapping("/search")
+	public void search(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.forwardWithQuery("/search", request, response);
+	}
+	
+	@GetMapping("/suggest")
+	public void suggest(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.forwardWithQuery("/suggest", request, response);
+	}
+	
+	@GetMapping("/facets")
+	public void findFacets(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.forwardWithQuery("/facets", request, response);
 	}
 	
 	@GetMapping("/{productId}")
@@ -49,6 +91,13 @@ public class ProductController {
 		return ResponseEntity.ok(this.productClientService.deleteById(productId).getBody());
 	}
 	
+	private void forwardWithQuery(final String path, final HttpServletRequest request,
+			final HttpServletResponse response) throws IOException {
+		final String query = request.getQueryString();
+		this.passThroughProxy.get(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + path
+				+ (query == null ? "" : "?" + query), request, response);
+	}
+	
 	
 	
 }
\ No newline at end of file
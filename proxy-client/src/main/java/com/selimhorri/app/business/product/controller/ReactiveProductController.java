@@ -0,0 +1,109 @@
+package com.selimhorri.app.business.product.controller;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.business.product.service.ProductReactiveClientService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replaces {@link ProductController} when {@code app.proxy.mode=reactive}.
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.proxy", name = "mode", havingValue = "reactive")
+public class ReactiveProductController {
+	
+	private final ProductReactiveClientService productReactiveClientService;
+	
+	@GetMapping
+	public Mono<ResponseEntity<ProductProductServiceCollectionDtoResponse>> findAll() {
+		return this.productReactiveClientService.findAll()
+				.map(ResponseEntity::ok);
+	}
+	
+	/**
+	 * A {@code fields} projection does not fit the DTOs, so that listing is
+	 * forwarded with the client's query string.
+	 */
+	@GetMapping(params = "fields")
+	public Mono<ResponseEntity<byte[]>> findAllFields(final HttpServletRequest request) {
+		return this.forwardWithQuery("", request);
+	}
+	
+	/**
+	 * Catalog, search, suggest and facets have no DTO mapping here; like the
+	 * blocking controller they are forwarded with the client's query string.
+	 */
+	@GetMapping("/catalog")
+	public Mono<ResponseEntity<byte[]>> findCatalogPage(final HttpServletRequest request) {
+		return this.forwardWithQuery("/catalog", request);
+	}
+	
+	@GetMapping("/search")
+	public Mono<ResponseEntity<byte[]>> search(final HttpServletRequest request) {
+		return this.forwardWithQuery("/search", request);
+	}
+	
+	@GetMapping("/suggest")
+	public Mono<ResponseEntity<byte[]>> suggest(final HttpServletRequest request) {
+		return this.forwardWithQuery("/suggest", request);
+	}
+	
+	@GetMapping("/facets")
+	public Mono<ResponseEntity<byte[]>> findFacets(final HttpServletRequest request) {
+		return this.forwardWithQuery("/facets", request);
+	}
+	
+	@GetMapping("/{productId}")
+	public Mono<ResponseEntity<ProductDto>> findById(@PathVariable("productId") final String productId) {
+		return this.productReactiveClientService.findById(productId)
+				.map(ResponseEntity::ok);
+	}
+	
+	@PostMapping
+	public Mono<ResponseEntity<ProductDto>> save(@RequestBody final ProductDto productDto) {
+		return this.productReactiveClientService.save(productDto)
+				.map(ResponseEntity::ok);
+	}
+	
+	@PutMapping("/{productId}")
+	public Mono<ResponseEntity<ProductDto>> update(@PathVariable("productId") final String productId, 
+			@RequestBody final ProductDto productDto) {
+		return this.productReactiveClientService.update(productId, productDto)
+				.map(ResponseEntity::ok);
+	}
+	
+	@DeleteMapping("/{productId}")
+	public Mono<ResponseEntity<Boolean>> deleteById(@PathVariable("productId") final String productId) {
+		return this.productReactiveClientService.deleteById(productId)
+				.map(ResponseEntity::ok);
+	}
+	
+	/**
+	 * Query string and headers are read before the servlet request goes async.
+	 */
+	private Mono<ResponseEntity<byte[]>> forwardWithQuery(final String path, final HttpServletRequest request) {
+		return this.productReactiveClientService.forward(path, request.getQueryString(),
+				new ServletServerHttpRequest(request).getHeaders());
+	}
+	
+	
+	
+}
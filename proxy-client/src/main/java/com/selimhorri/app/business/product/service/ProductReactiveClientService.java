@@ -0,0 +1,75 @@
+package com.selimhorri.app.business.product.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
+import com.selimhorri.app.config.passthrough.PassThroughProxy;
+import com.selimhorri.app.constant.AppConstant;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking mirror of {@link ProductClientService} used by the reactive proxy mode.
+ */
+@Service
+public class ProductReactiveClientService {
+	
+	private final WebClient webClient;
+	
+	public ProductReactiveClientService(final WebClient.Builder loadBalancedWebClientBuilder) {
+		this.webClient = loadBalancedWebClientBuilder.clone()
+				.baseUrl(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL)
+				.build();
+	}
+	
+	public Mono<ProductProductServiceCollectionDtoResponse> findAll() {
+		return this.webClient.get()
+				.retrieve()
+				.bodyToMono(ProductProductServiceCollectionDtoResponse.class);
+	}
+	
+	/**
+	 * A GET on a read path with the client's query string, streamed through
+	 * {@link PassThroughProxy#get(WebClient, String, HttpHeaders)}.
+	 */
+	public Mono<ResponseEntity<byte[]>> forward(final String path, final String query, final HttpHeaders requestHeaders) {
+		return PassThroughProxy.get(this.webClient, AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + path
+				+ (query == null ? "" : "?" + query), requestHeaders);
+	}
+	
+	public Mono<ProductDto> findById(final String productId) {
+		return this.webClient.get()
+				.uri("/{productId}", productId)
+				.retrieve()
+				.bodyToMono(ProductDto.class);
+	}
+	
+	public Mono<ProductDto> save(final ProductDto productDto) {
+		return this.webClient.post()
+				.bodyValue(productDto)
+				.retrieve()
+				.bodyToMono(ProductDto.class);
+	}
+	
+	public Mono<ProductDto> update(final String productId, final ProductDto productDto) {
+		return this.webClient.put()
+				.uri("/{productId}", productId)
+				.bodyValue(productDto)
+				.retrieve()
+				.bodyToMono(ProductDto.class);
+	}
+	
+	public Mono<Boolean> deleteById(final String productId) {
+		return this.webClient.delete()
+				.uri("/{productId}", productId)
+				.retrieve()
+				.bodyToMono(Boolean.class);
+	}
+	
+	
+	
+}
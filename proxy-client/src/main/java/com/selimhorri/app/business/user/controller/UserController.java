@@ -1,6 +1,9 @@
 package com.selimhorri.app.business.user.controller;
 
+import java.io.IOException;
+
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +22,8 @@ import com.selimhorri.app.business.auth.util.AuthUtil;
 import com.selimhorri.app.business.user.model.UserDto;
 import com.selimhorri.app.business.user.model.response.UserUserServiceCollectionDtoResponse;
 import com.selimhorri.app.business.user.service.UserClientService;
+import com.selimhorri.app.config.passthrough.PassThroughProxy;
+import com.selimhorri.app.constant.AppConstant;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,12 +35,23 @@ public class UserController {
 	@Autowired
 	private AuthUtil authUtil;
 	private final UserClientService userClientService;
+	private final PassThroughProxy passThroughProxy;
 
 	@GetMapping
 	public ResponseEntity<UserUserServiceCollectionDtoResponse> findAll() {
 		return ResponseEntity.ok(this.userClientService.findAll().getBody());
 	}
 
+	/**
+	 * A {@code fields} projection does not fit {@link UserDto}, so that
+	 * listing is streamed with the client's query string instead.
+	 */
+	@GetMapping(params = "fields")
+	public void findAllFields(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		this.passThroughProxy.get(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL + "?" + request.getQueryString(),
+				request, response);
+	}
+
 	@GetMapping("/{userId}")
 	public ResponseEntity<UserDto> findById(@PathVariable("userId") final String userId, HttpServletRequest request,
 			@AuthenticationPrincipal UserDetails userDetails) {
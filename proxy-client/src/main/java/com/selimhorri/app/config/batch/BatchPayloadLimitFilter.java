@@ -0,0 +1,138 @@
+package com.selimhorri.app.config.batch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enforces {@code app.batch.max-batch-size} before the batch body is parsed.
+ * A declared Content-Length over the limit is rejected without reading; any
+ * other body, chunked ones included, is read up to one byte past the limit
+ * and handed on from memory only if it fits. Runs ahead of security, so an
+ * oversize batch costs neither a token check nor a Jackson parse.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+@RequiredArgsConstructor
+public class BatchPayloadLimitFilter extends OncePerRequestFilter {
+	
+	static final String BATCH_PATH = "/api/batch";
+	
+	private final BatchProperties batchProperties;
+	
+	@Override
+	protected boolean shouldNotFilter(final HttpServletRequest request) {
+		return !"POST".equals(request.getMethod())
+				|| !(request.getContextPath() + BATCH_PATH).equals(request.getRequestURI());
+	}
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		
+		final long limit = this.batchProperties.getMaxBatchSize().toBytes();
+		if (request.getContentLengthLong() > limit) {
+			this.reject(response, request.getContentLengthLong());
+			return;
+		}
+		
+		final byte[] body = request.getInputStream().readNBytes((int) Math.min(limit + 1, Integer.MAX_VALUE));
+		if (body.length > limit) {
+			this.reject(response, body.length);
+			return;
+		}
+		filterChain.doFilter(new BufferedBodyRequest(request, body), response);
+	}
+	
+	private void reject(final HttpServletResponse response, final long size) throws IOException {
+		log.info("*** BatchPayloadLimitFilter; rejecting batch of at least {} bytes *", size);
+		response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Batch payload is too large");
+	}
+	
+	/**
+	 * Replays a body that has already been read within the limit.
+	 */
+	private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+		
+		private final byte[] body;
+		
+		BufferedBodyRequest(final HttpServletRequest request, final byte[] body) {
+			super(request);
+			this.body = body;
+		}
+		
+		@Override
+		public int getContentLength() {
+			return this.body.length;
+		}
+		
+		@Override
+		public long getContentLengthLong() {
+			return this.body.length;
+		}
+		
+		@Override
+		public ServletInputStream getInputStream() {
+			final var in = new ByteArrayInputStream(this.body);
+			return new ServletInputStream() {
+				
+				@Override
+				public int read() {
+					return in.read();
+				}
+				
+				@Override
+				public int read(final byte[] b, final int off, final int len) {
+					return in.read(b, off, len);
+				}
+				
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+				
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+				
+				@Override
+				public void setReadListener(final ReadListener readListener) {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+		
+		@Override
+		public BufferedReader getReader() {
+			final String encoding = this.getCharacterEncoding();
+			final Charset charset = (encoding == null) ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+			return new BufferedReader(new InputStreamReader(this.getInputStream(), charset));
+		}
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,30 @@
+package com.selimhorri.app.config.batch;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Limits of the {@code /api/batch} endpoint.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.batch")
+public class BatchProperties {
+	
+	private int maxRequests = 20;
+	
+	/**
+	 * Sub-requests of one batch that may be in flight at the same time.
+	 */
+	private int maxConcurrency = 4;
+	
+	private DataSize maxBatchSize = DataSize.ofKilobytes(256);
+	private DataSize maxItemResponseSize = DataSize.ofMegabytes(1);
+	private Duration itemTimeout = Duration.ofSeconds(10);
+	
+}
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.selimhorri.app.jwt.service.JwtService;
+import com.selimhorri.app.security.GatewayIdentityVerifier;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 	private final UserDetailsService userDetailsService;
 	private final JwtService jwtService;
+	private final GatewayIdentityVerifier gatewayIdentityVerifier;
 
 	@Override
 	protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
@@ -43,6 +45,21 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 		log.info("**JwtRequestFilter, once per request, validating and extracting token*\n");
 
+		// Identidad ya verificada por el api-gateway: sin parseo de token ni consulta a user-service
+		if (SecurityContextHolder.getContext().getAuthentication() == null) {
+			final var gatewayIdentity = this.gatewayIdentityVerifier.verify(request);
+			if (gatewayIdentity.isPresent()) {
+				final UserDetails userDetails = gatewayIdentity.get().getUserDetails();
+				final UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+						userDetails, null, userDetails.getAuthorities());
+				authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+				request.setAttribute("userId", gatewayIdentity.get().getUserId());
+				SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+				filterChain.doFilter(request, response);
+				return;
+			}
+		}
+
 		final var authorizationHeader = request.getHeader("Authorization");
 
 		String username = null;
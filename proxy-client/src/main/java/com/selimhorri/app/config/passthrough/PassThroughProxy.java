@@ -0,0 +1,131 @@
+package com.selimhorri.app.config.passthrough;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams an upstream response body straight to the servlet output stream.
+ * Used by read endpoints that forward the downstream document unchanged, so the
+ * listing is never materialized as DTOs and re-serialized by Jackson.
+ */
+@Slf4j
+@Component
+public class PassThroughProxy {
+
+	public static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+			HttpHeaders.ACCEPT,
+			HttpHeaders.ACCEPT_ENCODING,
+			HttpHeaders.IF_NONE_MATCH,
+			HttpHeaders.IF_MODIFIED_SINCE);
+
+	public static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(
+			HttpHeaders.CONTENT_TYPE,
+			HttpHeaders.CONTENT_LENGTH,
+			HttpHeaders.CONTENT_ENCODING,
+			HttpHeaders.ETAG,
+			HttpHeaders.LAST_MODIFIED,
+			HttpHeaders.CACHE_CONTROL,
+			HttpHeaders.VARY);
+
+	private final RestTemplate restTemplate;
+
+	public PassThroughProxy(final RestTemplate restTemplate) {
+		this.restTemplate = restTemplate;
+	}
+
+	/**
+	 * Issues a GET to the given load-balanced URL and copies status, the
+	 * representation headers and the raw body to the client response.
+	 * Upstream errors are relayed verbatim as well. The URL is used as is, so
+	 * an already encoded query string is not encoded twice.
+	 */
+	public void get(final String apiUrl, final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+		log.info("*** PassThroughProxy; streaming GET {} *", apiUrl);
+		try {
+			this.restTemplate.execute(URI.create(apiUrl), HttpMethod.GET,
+					upstreamRequest -> FORWARDED_REQUEST_HEADERS.forEach(name -> {
+						final String value = request.getHeader(name);
+						if (value != null)
+							upstreamRequest.getHeaders().set(name, value);
+					}),
+					upstreamResponse -> {
+						response.setStatus(upstreamResponse.getRawStatusCode());
+						copyHeaders(upstreamResponse.getHeaders(), response);
+						StreamUtils.copy(upstreamResponse.getBody(), response.getOutputStream());
+						return null;
+					});
+		}
+		catch (HttpStatusCodeException e) {
+			response.setStatus(e.getRawStatusCode());
+			if (e.getResponseHeaders() != null)
+				copyHeaders(e.getResponseHeaders(), response);
+			StreamUtils.copy(e.getResponseBodyAsByteArray(), response.getOutputStream());
+		}
+		response.flushBuffer();
+	}
+
+	/**
+	 * Reactive counterpart of {@link #get}: a GET through the given WebClient
+	 * relaying status, the representation headers and the raw body unchanged,
+	 * downstream errors included. The URL is used as is, like in {@link #get}.
+	 */
+	public static Mono<ResponseEntity<byte[]>> get(final WebClient webClient, final String apiUrl,
+			final HttpHeaders requestHeaders) {
+		return webClient.get()
+				.uri(URI.create(apiUrl))
+				.headers(headers -> FORWARDED_REQUEST_HEADERS.forEach(name -> {
+					final String value = requestHeaders.getFirst(name);
+					if (value != null)
+						headers.set(name, value);
+				}))
+				.exchangeToMono(response -> response.toEntity(byte[].class))
+				.map(entity -> {
+					final var headers = new HttpHeaders();
+					FORWARDED_RESPONSE_HEADERS.forEach(name -> {
+						final String value = entity.getHeaders().getFirst(name);
+						if (value != null)
+							headers.set(name, value);
+					});
+					return ResponseEntity.status(entity.getStatusCodeValue())
+							.headers(headers)
+							.body(entity.getBody());
+				});
+	}
+
+	private static void copyHeaders(final HttpHeaders upstreamHeaders, final HttpServletResponse response) {
+		FORWARDED_RESPONSE_HEADERS.forEach(name -> {
+			final String value = upstreamHeaders.getFirst(name);
+			if (value != null)
+				response.setHeader(name, value);
+		});
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
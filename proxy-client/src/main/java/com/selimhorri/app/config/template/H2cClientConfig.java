@@ -0,0 +1,52 @@
+package com.selimhorri.app.config.template;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * HTTP/2 cleartext client for service-to-service calls. With prior knowledge
+ * every concurrent call to the same instance is multiplexed over one pooled
+ * connection instead of opening a socket per in-flight request. Only active
+ * with the {@code h2c} profile, which also enables h2c on every embedded Tomcat.
+ * <p>
+ * Exposed as a bean because the Feign OkHttp client picks it up; its only other
+ * consumer is the load-balanced {@link TemplateConfig} template. Both only call
+ * services registered in Eureka.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.http2", name = "h2c", havingValue = "true")
+public class H2cClientConfig {
+	
+	@Bean
+	public OkHttpClient h2cOkHttpClient() {
+		return new OkHttpClient.Builder()
+				.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE))
+				.connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+				.connectTimeout(Duration.ofSeconds(2))
+				.readTimeout(Duration.ofSeconds(10))
+				.pingInterval(Duration.ofSeconds(30))
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,16 +1,23 @@
 package com.selimhorri.app.config.template;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import okhttp3.OkHttpClient;
+
 @Configuration
 public class TemplateConfig {
 	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
+	public RestTemplate restTemplateBean(final ObjectProvider<OkHttpClient> h2cClient) {
+		final OkHttpClient okHttpClient = h2cClient.getIfAvailable();
+		if (okHttpClient != null)
+			return new RestTemplate(new OkHttp3ClientHttpRequestFactory(okHttpClient));
 		return new RestTemplate();
 	}
 	
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.template;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Non-blocking, load-balanced client used by the reactive proxy mode. Calls are
+ * executed on the Reactor Netty event loop, so no servlet thread is held while
+ * a downstream service answers.
+ * <p>
+ * Downstream bodies are buffered whole before they are relayed, up to
+ * {@code app.proxy.max-in-memory-size}; a larger one is answered with a 502
+ * by {@link com.selimhorri.app.exception.ApiExceptionHandler}.
+ */
+@Configuration
+public class WebClientConfig {
+
+	@LoadBalanced
+	@Bean
+	public WebClient.Builder loadBalancedWebClientBuilder(@Value("${app.http2.h2c:false}") final boolean h2c,
+			@Value("${app.proxy.max-in-memory-size:16MB}") final DataSize maxInMemorySize) {
+		final HttpClient httpClient = h2c ? HttpClient.create().protocol(HttpProtocol.H2C) : HttpClient.create();
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()));
+	}
+
+
+
+}
+
+
+
+
+
+
+
+
+
+
@@ -3,6 +3,7 @@ package com.selimhorri.app.exception;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -10,10 +11,12 @@ import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CredentialNotFoundException;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.exception.wrapper.OrderViewNotFoundException;
 import com.selimhorri.app.exception.wrapper.UnauthorizedException;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.exception.wrapper.VerificationTokenNotFoundException;
@@ -49,6 +52,49 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			WebClientResponseException.class
+	})
+	public ResponseEntity<ExceptionMsg> handleReactiveProxyException(final WebClientResponseException e) {
+
+		// retrieve() reports a body over the buffer limit as the downstream status, with the limit as cause
+		if (e.getCause() instanceof DataBufferLimitException)
+			return this.handleDownstreamBodyTooLarge((DataBufferLimitException) e.getCause());
+
+		log.info("**ApiExceptionHandler controller, handle reactive proxy exception*\n");
+		// relay the downstream status: a missing product stays a 404, a failing service a 5xx
+		final var resolved = HttpStatus.resolve(e.getRawStatusCode());
+		final var status = resolved != null ? resolved : HttpStatus.BAD_GATEWAY;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg(e.getResponseBodyAsString())
+						.httpStatus(status)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				status);
+	}
+
+	@ExceptionHandler(value = {
+			DataBufferLimitException.class
+	})
+	public ResponseEntity<ExceptionMsg> handleDownstreamBodyTooLarge(final DataBufferLimitException e) {
+
+		log.info("**ApiExceptionHandler controller, handle oversized downstream body*\n");
+		// the service answered, but more than app.proxy.max-in-memory-size for the reactive mode to relay
+		final var badGateway = HttpStatus.BAD_GATEWAY;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg(e.getMessage())
+						.httpStatus(badGateway)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				badGateway);
+	}
+
 	@ExceptionHandler(value = {
 			MethodArgumentNotValidException.class,
 			HttpMessageNotReadableException.class
@@ -91,7 +137,9 @@ public class ApiExceptionHandler {
 			CredentialNotFoundException.class,
 			VerificationTokenNotFoundException.class,
 			FavouriteNotFoundException.class,
+			OrderViewNotFoundException.class,
 			IllegalStateException.class,
+			IllegalArgumentException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
 
@@ -0,0 +1,35 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class OrderViewNotFoundException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public OrderViewNotFoundException() {
+		super();
+	}
+	
+	public OrderViewNotFoundException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public OrderViewNotFoundException(String message) {
+		super(message);
+	}
+	
+	public OrderViewNotFoundException(Throwable cause) {
+		super(cause);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -4,11 +4,16 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import com.selimhorri.app.jwt.util.JwtUtil;
+import com.selimhorri.app.security.InternalSecrets;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -17,7 +22,16 @@ import io.jsonwebtoken.SignatureAlgorithm;
 @Component
 public class JwtUtilImpl implements JwtUtil {
 
-	private static final String SECRET_KEY = "secret";
+	private final String secretKey;
+
+	/**
+	 * The key is shared with the api-gateway, which verifies the tokens issued
+	 * here; see {@link InternalSecrets}.
+	 */
+	public JwtUtilImpl(@Value("${app.security.jwt-secret:}") final String secretKey, final Environment environment) {
+		this.secretKey = InternalSecrets.require("app.security.jwt-secret", secretKey, InternalSecrets.DEV_JWT_SECRET,
+				environment);
+	}
 
 	@Override
 	public String extractUsername(final String token) {
@@ -36,7 +50,7 @@ public class JwtUtilImpl implements JwtUtil {
 	}
 
 	private Claims extractAllClaims(final String token) {
-		return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+		return Jwts.parser().setSigningKey(this.secretKey).parseClaimsJws(token).getBody();
 	}
 
 	private Boolean isTokenExpired(final String token) {
@@ -47,6 +61,9 @@ public class JwtUtilImpl implements JwtUtil {
 	public String generateToken(final UserDetails userDetails, final String userId) {
 		final Map<String, Object> claims = new HashMap<>();
 		claims.put("userId", userId);
+		claims.put("roles", userDetails.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.collect(Collectors.toList()));
 		return this.createToken(claims, userDetails.getUsername());
 	}
 
@@ -56,7 +73,7 @@ public class JwtUtilImpl implements JwtUtil {
 				.setSubject(subject)
 				.setIssuedAt(new Date(System.currentTimeMillis()))
 				.setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-				.signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+				.signWith(SignatureAlgorithm.HS256, this.secretKey)
 				.compact();
 	}
 
@@ -0,0 +1,170 @@
+package com.selimhorri.app.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Reads the identity the api-gateway already verified from its signed
+ * internal headers, so requests coming through the gateway skip token parsing
+ * and the user-service credential lookup. The signature covers the second
+ * the headers were issued at; outside {@code app.security.identity-max-age}
+ * of now they are ignored, so a captured header set cannot be replayed.
+ */
+@Component
+public class GatewayIdentityVerifier {
+	
+	public static final String USER_ID_HEADER = "X-User-Id";
+	public static final String USERNAME_HEADER = "X-User-Name";
+	public static final String ROLES_HEADER = "X-User-Roles";
+	public static final String ISSUED_AT_HEADER = "X-User-Issued-At";
+	public static final String SIGNATURE_HEADER = "X-User-Signature";
+	
+	private final byte[] secret;
+	private final Duration maxAge;
+	private final Clock clock;
+	
+	/**
+	 * @throws IllegalStateException if the secret is blank, or the development
+	 *         value outside the local profile; see {@link InternalSecrets}
+	 */
+	@Autowired
+	public GatewayIdentityVerifier(@Value("${app.security.identity-secret:}") final String secret,
+			@Value("${app.security.identity-max-age:30s}") final Duration maxAge, final Environment environment) {
+		this(InternalSecrets.require("app.security.identity-secret", secret, InternalSecrets.DEV_IDENTITY_SECRET,
+				environment), maxAge, Clock.systemUTC());
+	}
+	
+	GatewayIdentityVerifier(final String secret, final Duration maxAge, final Clock clock) {
+		this.secret = secret.getBytes(StandardCharsets.UTF_8);
+		this.maxAge = maxAge;
+		this.clock = clock;
+	}
+	
+	public Optional<GatewayIdentity> verify(final HttpServletRequest request) {
+		
+		final String signature = request.getHeader(SIGNATURE_HEADER);
+		if (this.secret.length == 0 || signature == null)
+			return Optional.empty();
+		
+		final String userId = nullToEmpty(request.getHeader(USER_ID_HEADER));
+		final String username = nullToEmpty(request.getHeader(USERNAME_HEADER));
+		final String roles = nullToEmpty(request.getHeader(ROLES_HEADER));
+		final String issuedAt = nullToEmpty(request.getHeader(ISSUED_AT_HEADER));
+		
+		// tokens issued before roles were added to the claims fall back to the full check
+		if (username.isEmpty() || roles.isEmpty() || !this.isFresh(issuedAt))
+			return Optional.empty();
+		
+		final byte[] expected = this.sign(userId + "\n" + username + "\n" + roles + "\n" + issuedAt);
+		final byte[] actual;
+		try {
+			actual = Base64.getUrlDecoder().decode(signature);
+		}
+		catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+		if (!MessageDigest.isEqual(expected, actual))
+			return Optional.empty();
+		
+		return Optional.of(new GatewayIdentity(userId, User.withUsername(username)
+				.password("")
+				.authorities(Arrays.stream(roles.split(","))
+						.map(SimpleGrantedAuthority::new)
+						.collect(Collectors.toList()))
+				.build()));
+	}
+	
+	/**
+	 * Signs an identity the same way the api-gateway does, for requests
+	 * proxy-client sends to itself on behalf of an already authenticated caller.
+	 * Empty when no identity secret is configured.
+	 */
+	public Optional<HttpHeaders> identityHeaders(final String userId, final UserDetails userDetails) {
+		
+		if (this.secret.length == 0)
+			return Optional.empty();
+		
+		final String username = userDetails.getUsername();
+		final String roles = userDetails.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.collect(Collectors.joining(","));
+		final String safeUserId = nullToEmpty(userId);
+		final String issuedAt = Long.toString(this.clock.instant().getEpochSecond());
+		
+		final var headers = new HttpHeaders();
+		headers.set(USER_ID_HEADER, safeUserId);
+		headers.set(USERNAME_HEADER, username);
+		headers.set(ROLES_HEADER, roles);
+		headers.set(ISSUED_AT_HEADER, issuedAt);
+		headers.set(SIGNATURE_HEADER, Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(this.sign(safeUserId + "\n" + username + "\n" + roles + "\n" + issuedAt)));
+		return Optional.of(headers);
+	}
+	
+	private boolean isFresh(final String issuedAt) {
+		final Instant issued;
+		try {
+			issued = Instant.ofEpochSecond(Long.parseLong(issuedAt));
+		}
+		catch (NumberFormatException | DateTimeException e) {
+			return false;
+		}
+		// both ways: a clock skewed ahead of the gateway must not stretch the window
+		final Duration age = Duration.between(issued, this.clock.instant()).abs();
+		return age.compareTo(this.maxAge) <= 0;
+	}
+	
+	private byte[] sign(final String payload) {
+		try {
+			final var mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(this.secret, "HmacSHA256"));
+			return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (NoSuchAlgorithmException | InvalidKeyException e) {
+			throw new IllegalStateException("Unable to sign identity headers", e);
+		}
+	}
+	
+	private static String nullToEmpty(final String value) {
+		return (value == null) ? "" : value;
+	}
+	
+	@AllArgsConstructor
+	@Getter
+	public static final class GatewayIdentity {
+		
+		private final String userId;
+		private final UserDetails userDetails;
+		
+	}
+	
+	
+	
+}
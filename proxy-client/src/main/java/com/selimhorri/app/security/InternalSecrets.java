@@ -0,0 +1,41 @@
+package com.selimhorri.app.security;
+
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Startup checks of the secrets shared with the api-gateway and the domain
+ * services. None of them may fall back to a default: a blank value is always
+ * refused, and the well-known development value only passes under the
+ * {@value #LOCAL_PROFILE} profile. The dev profile is what compose and k8s
+ * run, so it does not count.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class InternalSecrets {
+
+	public static final String LOCAL_PROFILE = "local";
+
+	public static final String DEV_JWT_SECRET = "secret";
+	public static final String DEV_IDENTITY_SECRET = "dev-internal-identity-secret";
+	public static final String DEV_ORDER_VIEW_TOKEN = "dev-order-view-token";
+
+	/**
+	 * @return the value, once it is known to be usable
+	 * @throws IllegalStateException if it is blank, or the development value outside the local profile
+	 */
+	public static String require(final String property, final String value, final String devValue,
+			final Environment environment) {
+		if (value == null || value.isBlank())
+			throw new IllegalStateException(property + " must be set");
+		if (value.equals(devValue) && !environment.acceptsProfiles(Profiles.of(LOCAL_PROFILE)))
+			throw new IllegalStateException(property + " is the development value; set a real secret or run with the "
+					+ LOCAL_PROFILE + " profile");
+		return value;
+	}
+
+
+
+}
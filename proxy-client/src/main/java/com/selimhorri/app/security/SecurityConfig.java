@@ -187,6 +187,10 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 				.antMatchers(HttpMethod.DELETE, "/api/shippings/*")
 				.hasAnyRole(RoleBasedAuthority.ROLE_ADMIN.getRole(), RoleBasedAuthority.ROLE_USER.getRole())
 
+				// Order view resource
+				.antMatchers(HttpMethod.POST, "/api/order-views/notifications").permitAll()
+				.antMatchers(HttpMethod.POST, "/api/order-views/rebuild").hasRole(RoleBasedAuthority.ROLE_ADMIN.getRole())
+
 				// Default
 				.antMatchers("/api/**")
 				.hasAnyRole(RoleBasedAuthority.ROLE_USER.getRole(),
@@ -0,0 +1,141 @@
+package com.selimhorri.app.business.account.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.business.account.model.AccountDto;
+import com.selimhorri.app.business.account.model.AccountSection;
+
+import reactor.core.publisher.Mono;
+
+class AccountServiceImplTest {
+
+    private static final String USER = "/user-service/api/users/7";
+    private static final String CARTS = "/order-service/api/carts?userId=7";
+    private static final String ORDERS = "/order-service/api/orders?userId=7";
+    private static final String FAVOURITES = "/favourite-service/api/favourites?userId=7";
+    private static final String PAYMENTS = "/payment-service/api/payments?orderIds=5,6";
+
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Map<String, HttpStatus> failures = new ConcurrentHashMap<>();
+    private final Map<String, Duration> delays = new ConcurrentHashMap<>();
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    private AccountServiceImpl accountService;
+
+    @BeforeEach
+    void setUp() {
+        bodies.put(USER, "{\"userId\":7,\"firstName\":\"Selim\","
+                + "\"credential\":{\"username\":\"selimhorri\",\"password\":\"$2a$hash\"}}");
+        bodies.put(CARTS, "{\"collection\":[{\"cartId\":3}]}");
+        bodies.put(ORDERS, "{\"collection\":[{\"orderId\":5},{\"orderId\":6}]}");
+        bodies.put(FAVOURITES, "{\"collection\":[{\"userId\":7,\"productId\":22}]}");
+        bodies.put(PAYMENTS, "{\"collection\":[{\"paymentId\":1,\"isPayed\":true}]}");
+
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            final String target = request.url().getRawPath()
+                    + (request.url().getRawQuery() == null ? "" : "?" + request.url().getRawQuery());
+            calls.add(target);
+            final HttpStatus status = failures.getOrDefault(target, HttpStatus.OK);
+            final var response = ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(status.is2xxSuccessful() ? bodies.get(target) : "{\"msg\":\"boom\"}")
+                    .build();
+            return Mono.delay(delays.getOrDefault(target, Duration.ZERO)).thenReturn(response);
+        });
+        accountService = new AccountServiceImpl(builder, Duration.ofMillis(200));
+    }
+
+    private AccountDto account(final Set<AccountSection> sections) {
+        return accountService.findByUserId(7, sections).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void findByUserId_shouldAssembleEverySectionWithoutThePassword() {
+        final var account = account(EnumSet.allOf(AccountSection.class));
+
+        assertEquals(7, account.getUserId());
+        assertEquals("selimhorri", account.getUserDto().getCredentialDto().getUsername());
+        assertNull(account.getUserDto().getCredentialDto().getPassword());
+        assertEquals(1, account.getCarts().size());
+        assertEquals(2, account.getOrders().size());
+        assertEquals(1, account.getFavourites().size());
+        assertEquals(1, account.getPayments().size());
+        assertNull(account.getErrors());
+        // orders are shared by the orders and payments sections
+        assertEquals(1, calls.stream().filter(ORDERS::equals).count());
+    }
+
+    @Test
+    void findByUserId_shouldReportAFailingSectionAndKeepTheOthers() {
+        failures.put(FAVOURITES, HttpStatus.INTERNAL_SERVER_ERROR);
+
+        final var account = account(EnumSet.allOf(AccountSection.class));
+
+        assertNull(account.getFavourites());
+        assertEquals(Map.of("favourites", "unavailable"), account.getErrors());
+        assertNotNull(account.getUserDto());
+        assertEquals(2, account.getOrders().size());
+        assertEquals(1, account.getPayments().size());
+    }
+
+    @Test
+    void findByUserId_shouldDropBothOrderSectionsWhenOrderServiceTimesOut() {
+        delays.put(ORDERS, Duration.ofSeconds(2));
+
+        final var account = account(EnumSet.allOf(AccountSection.class));
+
+        assertNull(account.getOrders());
+        assertNull(account.getPayments());
+        assertEquals(Map.of("orders", "unavailable", "payments", "unavailable"), account.getErrors());
+        assertEquals(1, account.getCarts().size());
+        assertFalse(calls.contains(PAYMENTS));
+    }
+
+    @Test
+    void findByUserId_shouldSkipPaymentsForAUserWithoutOrders() {
+        bodies.put(ORDERS, "{\"collection\":[]}");
+
+        final var account = account(EnumSet.of(AccountSection.PAYMENTS));
+
+        assertTrue(account.getPayments().isEmpty());
+        assertEquals(List.of(ORDERS), calls);
+    }
+
+    @Test
+    void findByUserId_shouldOnlyCallTheServicesOfTheRequestedFields() {
+        final var account = account(AccountSection.parse("user, payments"));
+
+        assertNotNull(account.getUserDto());
+        assertEquals(1, account.getPayments().size());
+        assertNull(account.getCarts());
+        assertNull(account.getOrders());
+        assertNull(account.getFavourites());
+        // order-service is still asked for the order ids the payments hang off
+        assertEquals(Set.of(USER, ORDERS, PAYMENTS), Set.copyOf(calls));
+    }
+
+    @Test
+    void parse_shouldSelectEverySectionWithoutFieldsAndRejectUnknownOnes() {
+        assertEquals(EnumSet.allOf(AccountSection.class), AccountSection.parse(null));
+        assertEquals(EnumSet.allOf(AccountSection.class), AccountSection.parse(" "));
+        assertEquals(EnumSet.of(AccountSection.CARTS), AccountSection.parse("CARTS,"));
+        assertThrows(IllegalArgumentException.class, () -> AccountSection.parse("user,password"));
+    }
+
+}
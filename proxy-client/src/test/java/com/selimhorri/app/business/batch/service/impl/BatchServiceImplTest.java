@@ -0,0 +1,102 @@
+package com.selimhorri.app.business.batch.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.business.batch.model.BatchItemRequest;
+import com.selimhorri.app.business.batch.model.BatchItemResponse;
+import com.selimhorri.app.business.batch.model.BatchRequest;
+import com.selimhorri.app.config.batch.BatchProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class BatchServiceImplTest {
+
+    private static final String BASE_URL = "http://127.0.0.1:8900/app";
+
+    private BatchProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BatchServiceImpl batchService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BatchProperties();
+        properties.setItemTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            switch (request.url().getPath()) {
+                case "/app/api/products/1":
+                    return Mono.just(json(HttpStatus.OK, "{\"productId\":1}"));
+                case "/app/api/products/404":
+                    return Mono.just(json(HttpStatus.NOT_FOUND, "{\"msg\":\"Product not found\"}"));
+                case "/app/api/products/slow":
+                    return Mono.delay(Duration.ofSeconds(2)).map(tick -> json(HttpStatus.OK, "{}"));
+                default:
+                    return Mono.error(new ConnectException("Connection refused"));
+            }
+        });
+        batchService = new BatchServiceImpl(properties, new ObjectMapper(), meterRegistry, builder);
+    }
+
+    private static ClientResponse json(final HttpStatus status, final String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static BatchItemRequest get(final String path) {
+        return BatchItemRequest.builder().method("GET").path(path).build();
+    }
+
+    @Test
+    void execute_shouldReportEachFailureInItsOwnSlot() {
+        final var response = batchService.execute(new BatchRequest(List.of(
+                get("/api/products/1"),
+                get("/api/products/404"),
+                get("/api/products/slow"),
+                get("/api/products/down"))), BASE_URL, new HttpHeaders())
+                .block(Duration.ofSeconds(5));
+
+        final List<BatchItemResponse> items = List.copyOf(response.getResponses());
+        assertEquals(List.of(0, 1, 2, 3), items.stream().map(BatchItemResponse::getIndex).collect(Collectors.toList()));
+        assertEquals(List.of(200, 404, 502, 502), items.stream().map(BatchItemResponse::getStatus).collect(Collectors.toList()));
+        assertEquals(1, items.get(0).getBody().get("productId").asInt());
+        assertEquals("Product not found", items.get(1).getBody().get("msg").asText());
+        assertEquals(2.0, meterRegistry.counter("proxy.batch.items", "method", "GET", "status", "5xx").count());
+    }
+
+    @Test
+    void execute_shouldRejectMoreRequestsThanTheLimit() {
+        final var request = new BatchRequest(Collections.nCopies(properties.getMaxRequests() + 1, get("/api/products/1")));
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(request, BASE_URL, new HttpHeaders()));
+    }
+
+    @Test
+    void execute_shouldRejectNestedBatchesAndPathsOutsideTheApi() {
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(
+                new BatchRequest(List.of(get("/api/batch"))), BASE_URL, new HttpHeaders()));
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(
+                new BatchRequest(List.of(get("/api/../actuator/env"))), BASE_URL, new HttpHeaders()));
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(
+                new BatchRequest(List.of(BatchItemRequest.builder().method("TRACE").path("/api/products").build())),
+                BASE_URL, new HttpHeaders()));
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.selimhorri.app.business.order.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.selimhorri.app.business.auth.util.ReactiveAuthUtil;
+import com.selimhorri.app.business.order.service.OrderReactiveClientService;
+import com.selimhorri.app.exception.wrapper.UnauthorizedException;
+
+import reactor.core.publisher.Mono;
+
+class ReactiveOrderControllerTest {
+
+    private static final Map<String, String> DOWNSTREAM = Map.of(
+            "/order-service/api/orders", "{\"collection\":[{\"orderId\":5,\"orderDesc\":\"init\"}]}",
+            "/order-service/api/orders/5", "{\"orderId\":5,\"orderDesc\":\"init\",\"cart\":{\"cartId\":3}}",
+            "/order-service/api/carts/3", "{\"cartId\":3,\"user\":{\"userId\":7}}");
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private ReactiveOrderController controller;
+
+    @BeforeEach
+    void setUp() {
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            final String path = request.url().getPath();
+            calls.add(request.method() + " " + path);
+            final String body = DOWNSTREAM.get(path);
+            if (body == null)
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"msg\":\"Order not found\"}")
+                        .build());
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(request.method() == HttpMethod.DELETE ? "true" : body)
+                    .build());
+        });
+        controller = new ReactiveOrderController(new ReactiveAuthUtil(builder), new OrderReactiveClientService(builder));
+    }
+
+    private static MockHttpServletRequest authenticatedAs(final String userId) {
+        final var request = new MockHttpServletRequest();
+        request.setAttribute("userId", userId);
+        return request;
+    }
+
+    private static UserDetails user(final String role) {
+        return User.withUsername("selimhorri").password("").authorities(role).build();
+    }
+
+    @Test
+    void findAll_shouldMapTheCollection() {
+        final var response = controller.findAll().block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(5, response.getBody().getCollection().iterator().next().getOrderId());
+    }
+
+    @Test
+    void findAllFields_shouldRelayTheListingUnmapped() {
+        final var request = new MockHttpServletRequest("GET", "/api/orders");
+        request.setQueryString("fields=orderId");
+
+        final var response = controller.findAllFields(request).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(DOWNSTREAM.get("/order-service/api/orders"),
+                new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(List.of("GET /order-service/api/orders"), calls);
+    }
+
+    @Test
+    void findById_shouldResolveTheOwnerThroughTheCartBeforeLoadingTheOrder() {
+        final var response = controller.findById("5", authenticatedAs("7"), user("ROLE_USER"))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("init", response.getBody().getOrderDesc());
+        assertEquals(List.of("GET /order-service/api/orders/5", "GET /order-service/api/carts/3",
+                "GET /order-service/api/orders/5"), calls);
+    }
+
+    @Test
+    void findById_shouldRejectAnotherUsersOrder() {
+        final var response = controller.findById("5", authenticatedAs("8"), user("ROLE_USER"));
+
+        assertThrows(UnauthorizedException.class, () -> response.block(Duration.ofSeconds(5)));
+        // the order itself is never fetched for the caller
+        assertEquals(2, calls.size());
+    }
+
+    @Test
+    void findById_shouldLetAnAdminReadAnyOrder() {
+        final var response = controller.findById("5", authenticatedAs("8"), user("ROLE_ADMIN"))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(5, response.getBody().getOrderId());
+    }
+
+    @Test
+    void findById_shouldPropagateTheDownstreamStatusOfAMissingOrder() {
+        // an unresolvable owner does not fail the check, the lookup itself answers 404
+        final var error = assertThrows(WebClientResponseException.class,
+                () -> controller.findById("404", authenticatedAs("7"), user("ROLE_USER")).block(Duration.ofSeconds(5)));
+
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatusCode());
+    }
+
+    @Test
+    void deleteById_shouldDeleteAnOwnedOrder() {
+        final var response = controller.deleteById("5", authenticatedAs("7"), user("ROLE_USER"))
+                .block(Duration.ofSeconds(5));
+
+        assertTrue(response.getBody());
+        assertEquals("DELETE /order-service/api/orders/5", calls.get(calls.size() - 1));
+    }
+
+}
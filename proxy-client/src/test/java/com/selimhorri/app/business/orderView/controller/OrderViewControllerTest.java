@@ -0,0 +1,95 @@
+package com.selimhorri.app.business.orderView.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.business.auth.util.AuthUtil;
+import com.selimhorri.app.business.orderView.model.OrderViewDto;
+import com.selimhorri.app.business.orderView.service.OrderViewService;
+import com.selimhorri.app.exception.wrapper.OrderViewNotFoundException;
+
+class OrderViewControllerTest {
+
+    private OrderViewService orderViewService;
+    private OrderViewController controller;
+
+    @BeforeEach
+    void setUp() {
+        orderViewService = mock(OrderViewService.class);
+        controller = new OrderViewController(orderViewService, new AuthUtil(mock(RestTemplate.class)),
+                "order-view-test-token", new MockEnvironment());
+        when(orderViewService.findById(5)).thenReturn(OrderViewDto.builder().orderId(5).userId(7).build());
+        when(orderViewService.findById(6)).thenThrow(new OrderViewNotFoundException("Order with id: 6 not found"));
+    }
+
+    private static MockHttpServletRequest authenticatedAs(final String userId) {
+        final var request = new MockHttpServletRequest();
+        request.setAttribute("userId", userId);
+        return request;
+    }
+
+    private static UserDetails user(final String role) {
+        return User.withUsername("selimhorri").password("").authorities(role).build();
+    }
+
+    @Test
+    void findById_shouldServeTheOwnersOrder() {
+        final var response = controller.findById("5", authenticatedAs("7"), user("ROLE_USER"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7, response.getBody().getUserId());
+    }
+
+    @Test
+    void findById_shouldServeAnyOrderToAnAdmin() {
+        final var response = controller.findById("5", authenticatedAs("1"), user("ROLE_ADMIN"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void findById_shouldAnswerSomeoneElsesOrderLikeAMissingOne() {
+        final var foreign = assertThrows(OrderViewNotFoundException.class,
+                () -> controller.findById("5", authenticatedAs("8"), user("ROLE_USER")));
+        final var missing = assertThrows(OrderViewNotFoundException.class,
+                () -> controller.findById("6", authenticatedAs("8"), user("ROLE_USER")));
+
+        assertEquals("Order with id: 5 not found", foreign.getMessage());
+        assertEquals("Order with id: 6 not found", missing.getMessage());
+    }
+
+    @Test
+    void findById_shouldRejectANonNumericIdBeforeAnyLookup() {
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.findById("5abc", authenticatedAs("7"), user("ROLE_USER")));
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.findById("99999999999", authenticatedAs("7"), user("ROLE_USER")));
+
+        verify(orderViewService, never()).findById(any());
+    }
+
+    @Test
+    void findAll_shouldRejectANonNumericUserId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.findAll("me", authenticatedAs("7"), user("ROLE_USER")));
+
+        verify(orderViewService, never()).findAllByUserId(any());
+    }
+
+    @Test
+    void constructor_shouldRefuseABlankNotificationToken() {
+        assertThrows(IllegalStateException.class,
+                () -> new OrderViewController(orderViewService, new AuthUtil(mock(RestTemplate.class)), "",
+                        new MockEnvironment()));
+    }
+
+}
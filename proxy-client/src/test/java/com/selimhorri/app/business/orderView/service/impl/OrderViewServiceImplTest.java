@@ -0,0 +1,202 @@
+package com.selimhorri.app.business.orderView.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.orderItem.model.OrderItemDto;
+import com.selimhorri.app.business.orderItem.model.response.OrderItemOrderItemServiceDtoCollectionResponse;
+import com.selimhorri.app.business.orderView.model.OrderChangeNotification;
+import com.selimhorri.app.business.orderView.model.OrderViewDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.exception.wrapper.OrderViewNotFoundException;
+
+class OrderViewServiceImplTest {
+
+    private static final String ORDERS = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL;
+    private static final String SHIPPINGS = AppConstant.DiscoveredDomainsApi.SHIPPING_SERVICE_API_URL;
+    private static final String PAYMENTS = AppConstant.DiscoveredDomainsApi.PAYMENT_SERVICE_API_URL;
+    private static final Duration FRESH = Duration.ofMinutes(1);
+    private static final Duration ALWAYS_STALE = Duration.ofSeconds(-1);
+
+    private RestTemplate restTemplate;
+    private OrderViewServiceImpl orderViewService;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        orderViewService = new OrderViewServiceImpl(restTemplate, FRESH, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewService.shutdown();
+    }
+
+    private static OrderDto order(final int orderId, final int userId, final String status) {
+        return OrderDto.builder()
+                .orderId(orderId)
+                .orderStatus(status)
+                .orderDesc("order " + orderId)
+                .cartDto(CartDto.builder().cartId(orderId * 10).userId(userId).build())
+                .build();
+    }
+
+    private static OrderItemDto item(final int orderId) {
+        return OrderItemDto.builder().orderId(orderId).productId(22).orderedQuantity(2).build();
+    }
+
+    private static PaymentDto payment(final int orderId) {
+        return PaymentDto.builder()
+                .paymentId(orderId * 100)
+                .isPayed(true)
+                .orderDto(com.selimhorri.app.business.payment.model.OrderDto.builder().orderId(orderId).build())
+                .build();
+    }
+
+    private void givenOrdersOfUser(final int userId, final OrderDto... orders) {
+        when(restTemplate.getForObject(ORDERS + "?userId=" + userId, OrderOrderServiceDtoCollectionResponse.class))
+                .thenReturn(new OrderOrderServiceDtoCollectionResponse(List.of(orders)));
+    }
+
+    private void givenItems(final String orderIds, final OrderItemDto... items) {
+        when(restTemplate.getForObject(SHIPPINGS + "?orderIds=" + orderIds,
+                OrderItemOrderItemServiceDtoCollectionResponse.class))
+                .thenReturn(new OrderItemOrderItemServiceDtoCollectionResponse(List.of(items)));
+    }
+
+    private void givenPayments(final String orderIds, final PaymentDto... payments) {
+        when(restTemplate.getForObject(PAYMENTS + "?orderIds=" + orderIds,
+                PaymentPaymentServiceDtoCollectionResponse.class))
+                .thenReturn(new PaymentPaymentServiceDtoCollectionResponse(List.of(payments)));
+    }
+
+    private static List<Integer> orderIds(final List<OrderViewDto> views) {
+        return views.stream().map(OrderViewDto::getOrderId).collect(Collectors.toList());
+    }
+
+    @Test
+    void findAllByUserId_shouldAssembleViewsWithOneShippingCall() {
+        givenOrdersOfUser(7, order(5, 7, "ORDERED"), order(6, 7, "CREATED"), order(4, 7, "ORDERED"));
+        givenItems("5,4", item(5), item(4));
+        givenPayments("5,6,4", payment(5));
+
+        final List<OrderViewDto> views = orderViewService.findAllByUserId(7);
+
+        assertEquals(List.of(6, 5, 4), orderIds(views));
+        final OrderViewDto view = views.get(1);
+        assertEquals(7, view.getUserId());
+        assertEquals(50, view.getCartId());
+        assertEquals(1, view.getOrderItemDtos().size());
+        assertEquals(1, view.getPaymentDtos().size());
+        assertNull(view.getPaymentDtos().iterator().next().getOrderDto());
+        // only ORDERED orders have visible shipping items
+        assertTrue(views.get(0).getOrderItemDtos().isEmpty());
+        verify(restTemplate, times(1)).getForObject(SHIPPINGS + "?orderIds=5,4",
+                OrderItemOrderItemServiceDtoCollectionResponse.class);
+        verify(restTemplate, never()).getForObject(startsWith(SHIPPINGS + "/"), any());
+    }
+
+    @Test
+    void findAllByUserId_shouldServeAFreshListFromTheProjection() {
+        givenOrdersOfUser(7, order(5, 7, "ORDERED"));
+        givenItems("5", item(5));
+        givenPayments("5");
+
+        orderViewService.findAllByUserId(7);
+        final OrderViewDto view = orderViewService.findById(5);
+
+        assertEquals(List.of(5), orderIds(orderViewService.findAllByUserId(7)));
+        assertEquals(5, view.getOrderId());
+        verify(restTemplate, times(1)).getForObject(ORDERS + "?userId=7", OrderOrderServiceDtoCollectionResponse.class);
+        verify(restTemplate, never()).getForObject(ORDERS + "/5", OrderDto.class);
+    }
+
+    @Test
+    void findAllByUserId_shouldDropOrdersNoLongerReturnedOnceStale() {
+        orderViewService = new OrderViewServiceImpl(restTemplate, ALWAYS_STALE, false);
+        givenOrdersOfUser(7, order(5, 7, "CREATED"), order(6, 7, "CREATED"));
+        givenPayments("5,6");
+        assertEquals(List.of(6, 5), orderIds(orderViewService.findAllByUserId(7)));
+
+        givenOrdersOfUser(7, order(5, 7, "CREATED"));
+        givenPayments("5");
+
+        assertEquals(List.of(5), orderIds(orderViewService.findAllByUserId(7)));
+    }
+
+    @Test
+    void findById_shouldRefreshAStaleView() {
+        orderViewService = new OrderViewServiceImpl(restTemplate, ALWAYS_STALE, false);
+        when(restTemplate.getForObject(ORDERS + "/5", OrderDto.class))
+                .thenReturn(order(5, 7, "ORDERED"), order(5, 7, "PAID"));
+        givenItems("5", item(5));
+        givenPayments("5");
+
+        assertEquals(1, orderViewService.findById(5).getOrderItemDtos().size());
+        final OrderViewDto refreshed = orderViewService.findById(5);
+
+        assertEquals("PAID", refreshed.getOrderStatus());
+        assertTrue(refreshed.getOrderItemDtos().isEmpty());
+        verify(restTemplate, times(2)).getForObject(ORDERS + "/5", OrderDto.class);
+    }
+
+    @Test
+    void findById_shouldThrowWhenTheOrderIsGone() {
+        when(restTemplate.getForObject(ORDERS + "/5", OrderDto.class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request",
+                        HttpHeaders.EMPTY, null, null));
+
+        assertThrows(OrderViewNotFoundException.class, () -> orderViewService.findById(5));
+    }
+
+    @Test
+    void rebuild_shouldSwapInEveryOrder() {
+        when(restTemplate.getForObject(ORDERS, OrderOrderServiceDtoCollectionResponse.class))
+                .thenReturn(new OrderOrderServiceDtoCollectionResponse(
+                        List.of(order(5, 7, "ORDERED"), order(6, 7, "CREATED"), order(8, 9, "ORDERED"))));
+        when(restTemplate.getForObject(SHIPPINGS, OrderItemOrderItemServiceDtoCollectionResponse.class))
+                .thenReturn(new OrderItemOrderItemServiceDtoCollectionResponse(List.of(item(5), item(8))));
+        givenPayments("5,6,8", payment(8));
+
+        final var rebuilt = orderViewService.rebuild();
+
+        assertEquals(3, rebuilt.getOrders());
+        assertEquals(2, rebuilt.getUsers());
+        assertEquals(List.of(6, 5), orderIds(orderViewService.findAllByUserId(7)));
+        assertEquals(1, orderViewService.findById(8).getPaymentDtos().size());
+        // everything is served from the rebuilt projection
+        verify(restTemplate, never()).getForObject(startsWith(ORDERS + "?userId="), any());
+        verify(restTemplate, never()).getForObject(startsWith(ORDERS + "/"), any());
+    }
+
+    @Test
+    void onChange_shouldRefreshTheOrderInTheBackground() {
+        when(restTemplate.getForObject(ORDERS + "/5", OrderDto.class))
+                .thenReturn(order(5, 7, "ORDERED"), order(5, 7, "PAID"));
+        givenItems("5", item(5));
+        givenPayments("5");
+        orderViewService.findById(5);
+
+        orderViewService.onChange(OrderChangeNotification.builder().source("payment-service").orderId(5).build());
+
+        verify(restTemplate, timeout(2000).times(2)).getForObject(ORDERS + "/5", OrderDto.class);
+    }
+
+}
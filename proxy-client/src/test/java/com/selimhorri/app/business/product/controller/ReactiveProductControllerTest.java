@@ -0,0 +1,162 @@
+package com.selimhorri.app.business.product.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.selimhorri.app.business.product.service.ProductReactiveClientService;
+import com.selimhorri.app.config.template.WebClientConfig;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+
+import reactor.core.publisher.Mono;
+
+class ReactiveProductControllerTest {
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+    private ReactiveProductController controller(final HttpStatus status, final String body) {
+        final var builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(json(status, body));
+        });
+        return new ReactiveProductController(new ProductReactiveClientService(builder));
+    }
+
+    private static ClientResponse json(final HttpStatus status, final String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, "\"v1\"")
+                .header("X-Internal", "hidden")
+                .body(body)
+                .build();
+    }
+
+    @Test
+    void findCatalogPage_shouldForwardTheQueryStringAndRelayTheBody() {
+        final String page = "{\"content\":[{\"productId\":1}],\"nextCursor\":\"abc\"}";
+        final var request = new MockHttpServletRequest("GET", "/api/products/catalog");
+        request.setQueryString("size=20&cursor=a%2Bb");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v0\"");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        final var response = controller(HttpStatus.OK, page).findCatalogPage(request)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst("X-Internal"));
+
+        final var sent = requests.get(0);
+        // the encoded query is sent as is, not encoded a second time
+        assertEquals("http://PRODUCT-SERVICE/product-service/api/products/catalog?size=20&cursor=a%2Bb",
+                sent.url().toString());
+        assertEquals("\"v0\"", sent.headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertNull(sent.headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void findAllFields_shouldForwardTheProjectionToTheListing() {
+        final var request = new MockHttpServletRequest("GET", "/api/products");
+        request.setQueryString("fields=productId,sku");
+
+        final var response = controller(HttpStatus.OK, "{\"collection\":[{\"productId\":1}]}")
+                .findAllFields(request)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("http://PRODUCT-SERVICE/product-service/api/products?fields=productId,sku",
+                requests.get(0).url().toString());
+    }
+
+    @Test
+    void search_suggest_findFacets_shouldTargetTheirDownstreamPaths() {
+        final var request = new MockHttpServletRequest("GET", "/api/products/search");
+        request.setQueryString("q=asus");
+        final var controller = controller(HttpStatus.OK, "[]");
+
+        controller.search(request).block(Duration.ofSeconds(5));
+        controller.suggest(request).block(Duration.ofSeconds(5));
+        controller.findFacets(request).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("/product-service/api/products/search", "/product-service/api/products/suggest",
+                "/product-service/api/products/facets"),
+                requests.stream().map(sent -> sent.url().getPath()).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findCatalogPage_shouldRelayADownstreamErrorWithItsStatus() {
+        final var request = new MockHttpServletRequest("GET", "/api/products/catalog");
+        request.setQueryString("cursor=broken");
+
+        final var response = controller(HttpStatus.BAD_REQUEST, "{\"msg\":\"Invalid cursor\"}")
+                .findCatalogPage(request)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("{\"msg\":\"Invalid cursor\"}", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void findById_shouldMapTheProduct() {
+        final var response = controller(HttpStatus.OK, "{\"productId\":1,\"productTitle\":\"asus\"}")
+                .findById("1")
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("asus", response.getBody().getProductTitle());
+        assertEquals("/product-service/api/products/1", requests.get(0).url().getPath());
+    }
+
+    @Test
+    void findById_shouldKeepTheDownstreamStatusOnError() {
+        final var error = assertThrows(WebClientResponseException.class,
+                () -> controller(HttpStatus.NOT_FOUND, "{\"msg\":\"Product not found\"}")
+                        .findById("404")
+                        .block(Duration.ofSeconds(5)));
+
+        final var handled = new ApiExceptionHandler().handleReactiveProxyException(error);
+
+        assertEquals(HttpStatus.NOT_FOUND, handled.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, handled.getBody().getHttpStatus());
+        assertEquals("{\"msg\":\"Product not found\"}", handled.getBody().getMsg());
+    }
+
+    @Test
+    void handleReactiveProxyException_shouldMapAnUnknownStatusToBadGateway() {
+        final var error = WebClientResponseException.create(599, "Unknown", new HttpHeaders(),
+                new byte[0], StandardCharsets.UTF_8);
+
+        assertEquals(HttpStatus.BAD_GATEWAY, new ApiExceptionHandler().handleReactiveProxyException(error).getStatusCode());
+    }
+
+    @Test
+    void findAll_shouldAnswerBadGatewayForABodyOverTheConfiguredLimit() {
+        final String listing = "{\"collection\":[" + "{\"productId\":1},".repeat(64) + "{\"productId\":2}]}";
+        final var builder = new WebClientConfig().loadBalancedWebClientBuilder(false, DataSize.ofBytes(256))
+                .exchangeFunction(request -> Mono.just(json(HttpStatus.OK, listing)));
+        final var controller = new ReactiveProductController(new ProductReactiveClientService(builder));
+
+        final var error = assertThrows(WebClientResponseException.class,
+                () -> controller.findAll().block(Duration.ofSeconds(5)));
+
+        assertTrue(error.getCause() instanceof DataBufferLimitException);
+        assertEquals(HttpStatus.BAD_GATEWAY, new ApiExceptionHandler().handleReactiveProxyException(error).getStatusCode());
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.selimhorri.app.config.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+class BatchPayloadLimitFilterTest {
+
+    private static final String SMALL_BATCH = "{\"requests\":[{\"method\":\"GET\",\"path\":\"/api/products/1\"}]}";
+
+    private BatchPayloadLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        final var properties = new BatchProperties();
+        properties.setMaxBatchSize(DataSize.ofBytes(64));
+        filter = new BatchPayloadLimitFilter(properties);
+    }
+
+    private static MockHttpServletRequest batch(final String body) {
+        final var request = new MockHttpServletRequest("POST", "/app/api/batch");
+        request.setContextPath("/app");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /**
+     * Transfer-Encoding: chunked, so the container reports no length.
+     */
+    private static MockHttpServletRequest chunkedBatch(final String body) {
+        final var request = new MockHttpServletRequest("POST", "/app/api/batch") {
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+        };
+        request.setContextPath("/app");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void filter_shouldRejectADeclaredLengthOverTheLimitWithoutReadingIt() throws Exception {
+        final var request = batch("x".repeat(65));
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals(65, request.getInputStream().readAllBytes().length);
+    }
+
+    @Test
+    void filter_shouldRejectAChunkedBodyOverTheLimit() throws Exception {
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(chunkedBatch("x".repeat(1_000)), response, chain);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void filter_shouldReplayAChunkedBodyWithinTheLimit() throws Exception {
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(chunkedBatch(SMALL_BATCH), response, chain);
+
+        final var forwarded = (HttpServletRequest) chain.getRequest();
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(SMALL_BATCH.length(), forwarded.getContentLengthLong());
+        assertEquals(SMALL_BATCH, StreamUtils.copyToString(forwarded.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void filter_shouldAcceptABodyOfExactlyTheLimit() throws Exception {
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(chunkedBatch("x".repeat(64)), response, chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void filter_shouldIgnoreOtherEndpoints() throws Exception {
+        final var request = new MockHttpServletRequest("POST", "/app/api/products");
+        request.setContextPath("/app");
+        request.setContent("x".repeat(1_000).getBytes(StandardCharsets.UTF_8));
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.selimhorri.app.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+class GatewayIdentityVerifierTest {
+
+    private static final String SECRET = "test-identity-secret";
+    private static final Instant NOW = Instant.parse("2024-03-01T10:00:00Z");
+
+    private final GatewayIdentityVerifier verifier =
+            new GatewayIdentityVerifier(SECRET, Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    /**
+     * Same payload and encoding as IdentityHeaders.sign in api-gateway.
+     */
+    private static String gatewaySignature(final String secret, final String userId, final String username,
+            final String roles, final long issuedAt) throws Exception {
+        final var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        final String payload = userId + "\n" + username + "\n" + roles + "\n" + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MockHttpServletRequest request(final long issuedAt, final String signature) {
+        final var request = new MockHttpServletRequest();
+        request.addHeader(GatewayIdentityVerifier.USER_ID_HEADER, "7");
+        request.addHeader(GatewayIdentityVerifier.USERNAME_HEADER, "selimhorri");
+        request.addHeader(GatewayIdentityVerifier.ROLES_HEADER, "ROLE_USER");
+        request.addHeader(GatewayIdentityVerifier.ISSUED_AT_HEADER, Long.toString(issuedAt));
+        request.addHeader(GatewayIdentityVerifier.SIGNATURE_HEADER, signature);
+        return request;
+    }
+
+    @Test
+    void verify_shouldAcceptFreshHeadersSignedByTheGateway() throws Exception {
+        final long issuedAt = NOW.minusSeconds(5).getEpochSecond();
+        final var request = request(issuedAt, gatewaySignature(SECRET, "7", "selimhorri", "ROLE_USER", issuedAt));
+
+        final var identity = verifier.verify(request).orElseThrow();
+
+        assertEquals("7", identity.getUserId());
+        assertEquals("selimhorri", identity.getUserDetails().getUsername());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                List.copyOf(identity.getUserDetails().getAuthorities()));
+    }
+
+    @Test
+    void verify_shouldRejectReplayedHeadersOutsideTheWindow() throws Exception {
+        final long stale = NOW.minusSeconds(31).getEpochSecond();
+        final long future = NOW.plusSeconds(31).getEpochSecond();
+
+        assertTrue(verifier.verify(request(stale,
+                gatewaySignature(SECRET, "7", "selimhorri", "ROLE_USER", stale))).isEmpty());
+        assertTrue(verifier.verify(request(future,
+                gatewaySignature(SECRET, "7", "selimhorri", "ROLE_USER", future))).isEmpty());
+    }
+
+    @Test
+    void verify_shouldRejectAMovedIssuedAt() throws Exception {
+        final long signedAt = NOW.minusSeconds(300).getEpochSecond();
+        // the original signature with a fresh timestamp pasted in
+        final var request = request(NOW.getEpochSecond(),
+                gatewaySignature(SECRET, "7", "selimhorri", "ROLE_USER", signedAt));
+
+        assertTrue(verifier.verify(request).isEmpty());
+    }
+
+    @Test
+    void verify_shouldRejectTamperedOrMalformedHeaders() throws Exception {
+        final long issuedAt = NOW.getEpochSecond();
+
+        assertTrue(verifier.verify(request(issuedAt,
+                gatewaySignature(SECRET, "7", "selimhorri", "ROLE_ADMIN", issuedAt))).isEmpty());
+        assertTrue(verifier.verify(request(issuedAt,
+                gatewaySignature("another-secret", "7", "selimhorri", "ROLE_USER", issuedAt))).isEmpty());
+        assertTrue(verifier.verify(request(issuedAt, "not base64 !")).isEmpty());
+
+        final var withoutIssuedAt = request(issuedAt,
+                gatewaySignature(SECRET, "7", "selimhorri", "ROLE_USER", issuedAt));
+        withoutIssuedAt.removeHeader(GatewayIdentityVerifier.ISSUED_AT_HEADER);
+        assertTrue(verifier.verify(withoutIssuedAt).isEmpty());
+    }
+
+    @Test
+    void identityHeaders_shouldRoundTripThroughVerify() {
+        final var userDetails = User.withUsername("selimhorri").password("")
+                .authorities("ROLE_USER").build();
+
+        final var headers = verifier.identityHeaders("7", userDetails).orElseThrow();
+        final var request = new MockHttpServletRequest();
+        headers.forEach((name, values) -> request.addHeader(name, values.get(0)));
+
+        assertEquals(Long.toString(NOW.getEpochSecond()), headers.getFirst(GatewayIdentityVerifier.ISSUED_AT_HEADER));
+        assertEquals("selimhorri", verifier.verify(request).orElseThrow().getUserDetails().getUsername());
+    }
+
+    @Test
+    void verify_shouldBeDisabledWithoutASecret() throws Exception {
+        final var disabled = new GatewayIdentityVerifier("", Duration.ofSeconds(30), Clock.fixed(NOW, ZoneOffset.UTC));
+        final long issuedAt = NOW.getEpochSecond();
+
+        assertTrue(disabled.verify(request(issuedAt,
+                gatewaySignature("", "7", "selimhorri", "ROLE_USER", issuedAt))).isEmpty());
+    }
+
+    @Test
+    void constructor_shouldRefuseABlankSecret() {
+        assertThrows(IllegalStateException.class,
+                () -> new GatewayIdentityVerifier(" ", Duration.ofSeconds(30), new MockEnvironment()));
+    }
+
+    @Test
+    void constructor_shouldRefuseTheDevSecretOutsideTheLocalProfile() {
+        final var environment = new MockEnvironment();
+        environment.setActiveProfiles("dev");
+
+        assertThrows(IllegalStateException.class, () -> new GatewayIdentityVerifier(
+                InternalSecrets.DEV_IDENTITY_SECRET, Duration.ofSeconds(30), environment));
+    }
+
+    @Test
+    void constructor_shouldAcceptTheDevSecretUnderTheLocalProfile() {
+        final var environment = new MockEnvironment();
+        environment.setActiveProfiles("dev", InternalSecrets.LOCAL_PROFILE);
+
+        assertDoesNotThrow(() -> new GatewayIdentityVerifier(
+                InternalSecrets.DEV_IDENTITY_SECRET, Duration.ofSeconds(30), environment));
+    }
+
+}
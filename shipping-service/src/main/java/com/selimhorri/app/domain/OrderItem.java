@@ -41,4 +41,8 @@ public final class OrderItem extends AbstractMappedEntity implements Serializabl
 	@Column(name = "is_active")
 	private boolean isActive;
 
+	// Reserva de stock en product-service; null en los artículos anteriores a las reservas
+	@Column(name = "reservation_id")
+	private String reservationId;
+
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +11,6 @@ import com.selimhorri.app.domain.OrderItem;
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
     List<OrderItem> findByIsActiveTrue();
     Optional<OrderItem> findByOrderIdAndIsActiveTrue(Integer orderId); 
+    List<OrderItem> findByOrderIdInAndIsActiveTrue(Collection<Integer> orderIds);
 
 }
@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.dto.OrderItemDto;
@@ -58,6 +61,19 @@ public class OrderItemResource {
 		return ResponseEntity.ok(this.orderItemService.findById(Integer.parseInt(orderId)));
 	}
 	
+	/**
+	 * Obtiene los artículos activos de un conjunto de órdenes.
+	 *
+	 * @param orderIds IDs de las órdenes separados por comas
+	 * @return ResponseEntity con los artículos de esas órdenes
+	 */
+	@GetMapping(params = "orderIds")
+	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAllByOrderIds(
+			@RequestParam("orderIds") final List<Integer> orderIds) {
+		log.info("Obteniendo artículos de envío de las órdenes: {}", orderIds);
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.findAllByOrderIds(orderIds)));
+	}
+	
 	// ========== CREACIÓN ==========
 
 	/**
@@ -8,6 +8,7 @@ public interface OrderItemService {
 	
 	List<OrderItemDto> findAll();
 	OrderItemDto findById(final int shippingId);
+	List<OrderItemDto> findAllByOrderIds(final List<Integer> orderIds);
 	OrderItemDto save(final OrderItemDto orderItemDto);
 	void deleteById(final int shippingId);
 	
@@ -1,11 +1,18 @@
 package com.selimhorri.app.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
@@ -15,8 +22,11 @@ import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.OrderStatus;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
 import com.selimhorri.app.helper.OrderItemMappingHelper;
+import com.selimhorri.app.notification.OrderViewNotifier;
 import com.selimhorri.app.repository.OrderItemRepository;
 import com.selimhorri.app.service.OrderItemService;
 
@@ -29,8 +39,12 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderItemServiceImpl implements OrderItemService {
 
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCTS =
+			new ParameterizedTypeReference<>() {};
+
 	private final OrderItemRepository orderItemRepository;
 	private final RestTemplate restTemplate;
+	private final OrderViewNotifier orderViewNotifier;
 
 	@Override
 	public List<OrderItemDto> findAll() {
@@ -147,6 +161,44 @@ public class OrderItemServiceImpl implements OrderItemService {
 		return dto;
 	}
 
+	/**
+	 * Artículos activos de varias órdenes, con sus productos resueltos en una sola
+	 * llamada a product-service. A diferencia de findById no consulta cada orden:
+	 * quien pide el lote ya las tiene y decide qué estados mostrar.
+	 */
+	@Override
+	public List<OrderItemDto> findAllByOrderIds(final List<Integer> orderIds) {
+		log.info("*** OrderItemDto List, service; fetch active orderItems of orders {} *", orderIds);
+		if (orderIds.isEmpty())
+			return List.of();
+		final List<OrderItemDto> orderItems = this.orderItemRepository.findByOrderIdInAndIsActiveTrue(orderIds)
+				.stream()
+				.map(OrderItemMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+		if (orderItems.isEmpty())
+			return orderItems;
+
+		final String productIds = orderItems.stream()
+				.map(OrderItemDto::getProductId)
+				.distinct()
+				.map(String::valueOf)
+				.collect(Collectors.joining(","));
+		try {
+			final DtoCollectionResponse<ProductDto> products = this.restTemplate.exchange(
+					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "?productIds=" + productIds,
+					HttpMethod.GET, null, PRODUCTS).getBody();
+			if (products != null && products.getCollection() != null) {
+				final Map<Integer, ProductDto> byId = products.getCollection().stream()
+						.collect(Collectors.toMap(ProductDto::getProductId, Function.identity(), (a, b) -> a));
+				orderItems.forEach(o -> o.setProductDto(byId.getOrDefault(o.getProductId(), o.getProductDto())));
+			}
+		} catch (RestClientException e) {
+			// Sin product-service los artículos se devuelven solo con el id del producto
+			log.warn("Failed to fetch products {}: {}", productIds, e.getMessage());
+		}
+		return orderItems;
+	}
+
 	@Override
 	public OrderItemDto save(final OrderItemDto orderItemDto) {
 		log.info("*** OrderItemDto, service; save orderItem *");
@@ -177,30 +229,40 @@ public class OrderItemServiceImpl implements OrderItemService {
 			throw new OrderItemNotFoundException("Error verifying order existence: " + e.getMessage());
 		}
 
-		// Verify the product exists
+		// Reserve the stock atomically in product-service; a plain quantity check
+		// let two concurrent orders both take the last units
+		final StockReservationDto reservation;
 		try {
-			ProductDto product = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "/"
-							+ orderItemDto.getProductId(),
-					ProductDto.class);
-
-			if (product == null) {
-				throw new OrderItemNotFoundException(
-						"Product with ID " + orderItemDto.getProductId() + " not found");
-			}
-
-			if (product.getQuantity() < orderItemDto.getOrderedQuantity()) {
-				throw new IllegalArgumentException(
-						"You cannot order more units than there is available, available units: "
-								+ product.getQuantity());
-			}
+			reservation = this.restTemplate.postForObject(
+					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_RESERVATION_API_URL,
+					StockReservationDto.builder()
+							.productId(orderItemDto.getProductId())
+							.quantity(orderItemDto.getOrderedQuantity())
+							.build(),
+					StockReservationDto.class);
+		} catch (HttpClientErrorException.NotFound e) {
+			throw new OrderItemNotFoundException(
+					"Product with ID " + orderItemDto.getProductId() + " not found");
+		} catch (HttpClientErrorException.Conflict e) {
+			throw new IllegalArgumentException(
+					"You cannot order more units than there is available for product " + orderItemDto.getProductId());
 		} catch (RestClientException e) {
-			throw new OrderItemNotFoundException("Error verifying product existence: " + e.getMessage());
+			throw new OrderItemNotFoundException("Error reserving product stock: " + e.getMessage());
 		}
 
-		// Save the order item
-		OrderItemDto savedItem = OrderItemMappingHelper.map(
-				this.orderItemRepository.save(OrderItemMappingHelper.mapForCreation(orderItemDto)));
+		// Save the order item; the reservation is confirmed once it is committed and
+		// released if it never is
+		OrderItemDto savedItem;
+		try {
+			final OrderItem orderItem = OrderItemMappingHelper.mapForCreation(orderItemDto);
+			orderItem.setReservationId(reservation.getReservationId());
+			savedItem = OrderItemMappingHelper.map(this.orderItemRepository.save(orderItem));
+			this.confirmAfterCommit(reservation.getReservationId());
+		} catch (RuntimeException e) {
+			this.releaseQuietly(reservation.getReservationId());
+			throw e;
+		}
+		this.orderViewNotifier.orderChanged(orderItemDto.getOrderId());
 
 		// Update order status after successful save
 		try {
@@ -245,6 +307,10 @@ public class OrderItemServiceImpl implements OrderItemService {
 
 						orderItem.setActive(false);
 						this.orderItemRepository.save(orderItem);
+						// Cancelar el artículo devuelve el stock reservado
+						if (orderItem.getReservationId() != null)
+							this.releaseReservation(orderItem.getReservationId());
+						this.orderViewNotifier.orderChanged(orderItem.getOrderId());
 						log.info("OrderItem with id {} has been deactivated", orderItemId);
 
 					} catch (RestClientException e) {
@@ -257,4 +323,61 @@ public class OrderItemServiceImpl implements OrderItemService {
 							String.format("OrderItem with id: %s not found", orderItemId));
 				});
 	}
+
+	/**
+	 * Confirma la reserva después del commit de la transacción en curso y la
+	 * libera si termina en rollback; sin transacción activa se confirma de
+	 * inmediato. Confirmar antes del commit dejaba el stock descontado para un
+	 * artículo que podía no llegar a guardarse.
+	 */
+	private void confirmAfterCommit(final String reservationId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.confirmReservation(reservationId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				try {
+					confirmReservation(reservationId);
+				} catch (RestClientException e) {
+					// El artículo ya está guardado: la reserva sin confirmar vence sola
+					log.error("Failed to confirm stock reservation {}", reservationId, e);
+				}
+			}
+
+			@Override
+			public void afterCompletion(final int status) {
+				if (status != STATUS_COMMITTED)
+					releaseQuietly(reservationId);
+			}
+		});
+	}
+
+	private void confirmReservation(final String reservationId) {
+		this.restTemplate.postForObject(
+				AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_RESERVATION_API_URL + "/" + reservationId + "/confirm",
+				null,
+				StockReservationDto.class);
+	}
+
+	private void releaseQuietly(final String reservationId) {
+		try {
+			this.releaseReservation(reservationId);
+		} catch (RuntimeException e) {
+			// La reserva retenida vence sola
+			log.error("Failed to release stock reservation {}", reservationId, e);
+		}
+	}
+
+	private void releaseReservation(final String reservationId) {
+		try {
+			this.restTemplate.delete(
+					AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_RESERVATION_API_URL + "/" + reservationId);
+		} catch (RestClientException e) {
+			throw new IllegalStateException(
+					"Could not release stock reservation " + reservationId + ": " + e.getMessage());
+		}
+	}
+
 }
\ No newline at end of file
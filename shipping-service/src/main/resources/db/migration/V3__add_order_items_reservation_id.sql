@@ -0,0 +1,3 @@
+
+ALTER TABLE order_items ADD COLUMN reservation_id VARCHAR(36);
+
@@ -9,28 +9,49 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.OrderStatus;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.StockReservationDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
+import com.selimhorri.app.notification.OrderViewNotifier;
 import com.selimhorri.app.repository.OrderItemRepository;
 
 @ExtendWith(MockitoExtension.class)
 class OrderItemServiceImplTest {
 
+    private static final String RESERVATIONS_URL =
+            AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_RESERVATION_API_URL;
+
     @Mock
     private OrderItemRepository orderItemRepository;
 
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OrderViewNotifier orderViewNotifier;
+
     @InjectMocks
     private OrderItemServiceImpl orderItemService;
 
@@ -144,6 +165,7 @@ class OrderItemServiceImplTest {
 
         verify(orderItemRepository, times(1)).findByOrderIdAndIsActiveTrue(5);
         verify(orderItemRepository, times(1)).save(argThat(item -> !item.isActive()));
+        verify(orderViewNotifier, times(1)).orderChanged(5);
     }
 
     @Test
@@ -159,4 +181,151 @@ class OrderItemServiceImplTest {
         verify(orderItemRepository, times(1)).findByOrderIdAndIsActiveTrue(99);
         verify(orderItemRepository, never()).save(any());
     }
+
+    @Test
+    void deleteById_shouldReleaseStockReservation() {
+        testOrderItem.setReservationId("res-1");
+        when(orderItemRepository.findByOrderIdAndIsActiveTrue(5)).thenReturn(Optional.of(testOrderItem));
+        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
+        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(orderDto);
+
+        orderItemService.deleteById(5);
+
+        verify(restTemplate, times(1)).delete(RESERVATIONS_URL + "/res-1");
+    }
+
+    @Test
+    void findAllByOrderIds_shouldResolveProductsInOneCall() {
+        OrderItem otherItem = new OrderItem();
+        otherItem.setOrderedQuantity(1);
+        otherItem.setProductId(10);
+        otherItem.setOrderId(6);
+        otherItem.setActive(true);
+        when(orderItemRepository.findByOrderIdInAndIsActiveTrue(List.of(5, 6)))
+                .thenReturn(List.of(testOrderItem, otherItem));
+        when(restTemplate.exchange(eq(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL + "?productIds=10"),
+                eq(HttpMethod.GET), isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .thenReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(productDto))));
+
+        List<OrderItemDto> result = orderItemService.findAllByOrderIds(List.of(5, 6));
+
+        assertEquals(2, result.size());
+        assertEquals("Teclado Mecánico RGB", result.get(0).getProductDto().getProductTitle());
+        assertEquals("Teclado Mecánico RGB", result.get(1).getProductDto().getProductTitle());
+        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+    }
+
+    @Test
+    void findAllByOrderIds_shouldKeepItemsWhenProductsAreUnavailable() {
+        when(orderItemRepository.findByOrderIdInAndIsActiveTrue(List.of(5))).thenReturn(List.of(testOrderItem));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(),
+                ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .thenThrow(new ResourceAccessException("product-service caído"));
+
+        List<OrderItemDto> result = orderItemService.findAllByOrderIds(List.of(5));
+
+        assertEquals(1, result.size());
+        assertEquals(10, result.get(0).getProductDto().getProductId());
+    }
+
+    @Test
+    void findAllByOrderIds_shouldSkipTheRepositoryForNoIds() {
+        assertTrue(orderItemService.findAllByOrderIds(List.of()).isEmpty());
+        verifyNoInteractions(orderItemRepository, restTemplate);
+    }
+
+    @Test
+    void save_shouldReserveStockAndConfirmReservation() {
+        OrderItemDto orderItemDto = OrderItemDto.builder().orderId(5).productId(10).orderedQuantity(2).build();
+        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(createdOrder());
+        when(restTemplate.postForObject(eq(RESERVATIONS_URL), any(StockReservationDto.class), eq(StockReservationDto.class)))
+                .thenReturn(StockReservationDto.builder().reservationId("res-1").productId(10).quantity(2).status("HELD").build());
+        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
+
+        OrderItemDto result = orderItemService.save(orderItemDto);
+
+        assertEquals(10, result.getProductId());
+        verify(orderItemRepository, times(1)).save(argThat(item -> "res-1".equals(item.getReservationId())));
+        verify(restTemplate, times(1)).postForObject(RESERVATIONS_URL + "/res-1/confirm", null, StockReservationDto.class);
+        verify(restTemplate, never()).getForObject(anyString(), eq(ProductDto.class));
+    }
+
+    @Test
+    void save_shouldRejectWhenStockCannotBeReserved() {
+        OrderItemDto orderItemDto = OrderItemDto.builder().orderId(5).productId(10).orderedQuantity(200).build();
+        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(createdOrder());
+        when(restTemplate.postForObject(eq(RESERVATIONS_URL), any(StockReservationDto.class), eq(StockReservationDto.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", HttpHeaders.EMPTY, null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> orderItemService.save(orderItemDto));
+        verify(orderItemRepository, never()).save(any());
+    }
+
+    @Test
+    void save_shouldReleaseReservationWhenItemCannotBeSaved() {
+        OrderItemDto orderItemDto = OrderItemDto.builder().orderId(5).productId(10).orderedQuantity(2).build();
+        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(createdOrder());
+        when(restTemplate.postForObject(eq(RESERVATIONS_URL), any(StockReservationDto.class), eq(StockReservationDto.class)))
+                .thenReturn(StockReservationDto.builder().reservationId("res-1").build());
+        when(orderItemRepository.save(any(OrderItem.class))).thenThrow(new IllegalStateException("duplicate key"));
+
+        assertThrows(IllegalStateException.class, () -> orderItemService.save(orderItemDto));
+        verify(restTemplate, times(1)).delete(RESERVATIONS_URL + "/res-1");
+        verify(orderViewNotifier, never()).orderChanged(anyInt());
+    }
+
+    @Test
+    void save_shouldConfirmTheReservationOnlyAfterCommit() {
+        OrderItemDto orderItemDto = OrderItemDto.builder().orderId(5).productId(10).orderedQuantity(2).build();
+        givenReservation();
+        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderItemService.save(orderItemDto);
+            verify(restTemplate, never()).postForObject(RESERVATIONS_URL + "/res-1/confirm", null, StockReservationDto.class);
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(restTemplate, times(1)).postForObject(RESERVATIONS_URL + "/res-1/confirm", null, StockReservationDto.class);
+        verify(restTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void save_shouldReleaseTheReservationOnRollback() {
+        OrderItemDto orderItemDto = OrderItemDto.builder().orderId(5).productId(10).orderedQuantity(2).build();
+        givenReservation();
+        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderItemService.save(orderItemDto);
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(restTemplate, never()).postForObject(RESERVATIONS_URL + "/res-1/confirm", null, StockReservationDto.class);
+        verify(restTemplate, times(1)).delete(RESERVATIONS_URL + "/res-1");
+    }
+
+    private void givenReservation() {
+        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenReturn(createdOrder());
+        when(restTemplate.postForObject(eq(RESERVATIONS_URL), any(StockReservationDto.class), eq(StockReservationDto.class)))
+                .thenReturn(StockReservationDto.builder().reservationId("res-1").productId(10).quantity(2).status("HELD").build());
+    }
+
+    private static OrderDto createdOrder() {
+        return OrderDto.builder()
+                .orderId(5)
+                .orderStatus(OrderStatus.CREATED.name())
+                .build();
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.selimhorri.app.dto.fields;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.dto.CredentialDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.helper.FieldSelectionHelper;
+
+import lombok.Getter;
+
+/**
+ * The fields {@code GET /api/users?fields=} accepts, with the JSON path each
+ * is written under and the entity attribute it is read from. {@code credential}
+ * alone selects every credential field. The password hash has no constant,
+ * so it can never be selected.
+ */
+public enum UserField {
+
+	USER_ID("userId", "userId", (user, value) -> user.setUserId((Integer) value)),
+	FIRST_NAME("firstName", "firstName", (user, value) -> user.setFirstName((String) value)),
+	LAST_NAME("lastName", "lastName", (user, value) -> user.setLastName((String) value)),
+	IMAGE_URL("imageUrl", "imageUrl", (user, value) -> user.setImageUrl((String) value)),
+	EMAIL("email", "email", (user, value) -> user.setEmail((String) value)),
+	PHONE("phone", "phone", (user, value) -> user.setPhone((String) value)),
+	CREDENTIAL_ID("credential.credentialId", "credential.credentialId",
+			(user, value) -> credential(user).setCredentialId((Integer) value)),
+	USERNAME("credential.username", "credential.username",
+			(user, value) -> credential(user).setUsername((String) value)),
+	ROLE_BASED_AUTHORITY("credential.roleBasedAuthority", "credential.roleBasedAuthority",
+			(user, value) -> credential(user).setRoleBasedAuthority((RoleBasedAuthority) value)),
+	IS_ENABLED("credential.isEnabled", "credential.isEnabled",
+			(user, value) -> credential(user).setIsEnabled((Boolean) value)),
+	IS_ACCOUNT_NON_EXPIRED("credential.isAccountNonExpired", "credential.isAccountNonExpired",
+			(user, value) -> credential(user).setIsAccountNonExpired((Boolean) value)),
+	IS_ACCOUNT_NON_LOCKED("credential.isAccountNonLocked", "credential.isAccountNonLocked",
+			(user, value) -> credential(user).setIsAccountNonLocked((Boolean) value)),
+	IS_CREDENTIALS_NON_EXPIRED("credential.isCredentialsNonExpired", "credential.isCredentialsNonExpired",
+			(user, value) -> credential(user).setIsCredentialsNonExpired((Boolean) value));
+
+	@Getter
+	private final String path;
+	@Getter
+	private final String attribute;
+	private final BiConsumer<UserDto, Object> setter;
+
+	UserField(final String path, final String attribute, final BiConsumer<UserDto, Object> setter) {
+		this.path = path;
+		this.attribute = attribute;
+		this.setter = setter;
+	}
+
+	public void copy(final UserDto userDto, final Object value) {
+		if (value != null)
+			this.setter.accept(userDto, value);
+	}
+
+	/**
+	 * Parses the comma-separated parameter into fields in declaration order.
+	 *
+	 * @throws IllegalArgumentException for an unknown name, or when no field is named
+	 */
+	public static List<UserField> parse(final String fields) {
+		return FieldSelectionHelper.parse(UserField.class, UserField::getPath, fields, "usuario");
+	}
+
+	private static CredentialDto credential(final UserDto userDto) {
+		if (userDto.getCredentialDto() == null)
+			userDto.setCredentialDto(new CredentialDto());
+		return userDto.getCredentialDto();
+	}
+
+}
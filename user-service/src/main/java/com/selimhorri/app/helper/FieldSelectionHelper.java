@@ -0,0 +1,110 @@
+package com.selimhorri.app.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Selection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Utilidades para los listados con {@code fields=}: qué columnas se
+ * seleccionan y qué parte del JSON se escribe. Las rutas van con punto,
+ * por ejemplo {@code credential.username}.
+ */
+public interface FieldSelectionHelper {
+
+	/**
+	 * Una selección por atributo, en el mismo orden. La asociación de una ruta
+	 * con punto se une con LEFT JOIN la primera vez, salvo que la consulta ya
+	 * la tenga en {@code joins}.
+	 */
+	public static List<Selection<?>> select(final From<?, ?> root, final Map<String, Join<?, ?>> joins,
+			final List<String> attributes) {
+		final List<Selection<?>> selections = new ArrayList<>(attributes.size());
+		for (final String attribute : attributes) {
+			final int dot = attribute.indexOf('.');
+			if (dot < 0)
+				selections.add(root.get(attribute));
+			else
+				selections.add(joins.computeIfAbsent(attribute.substring(0, dot),
+						association -> root.join(association, JoinType.LEFT))
+						.get(attribute.substring(dot + 1)));
+		}
+		return selections;
+	}
+
+	/**
+	 * Las constantes de {@code type} nombradas en un {@code fields=} separado
+	 * por comas, en el orden en que se declaran. Nombrar un objeto, por
+	 * ejemplo {@code credential}, selecciona todos sus campos.
+	 *
+	 * @throws IllegalArgumentException si un campo no existe o no se indica ninguno
+	 */
+	public static <E extends Enum<E>> List<E> parse(final Class<E> type, final Function<E, String> path,
+			final String fields, final String resource) {
+		final Set<E> selected = EnumSet.noneOf(type);
+		for (final String name : fields.split(",")) {
+			final String trimmed = name.strip();
+			if (trimmed.isEmpty())
+				continue;
+			final List<E> matching = Arrays.stream(type.getEnumConstants())
+					.filter(field -> path.apply(field).equals(trimmed) || path.apply(field).startsWith(trimmed + "."))
+					.collect(Collectors.toUnmodifiableList());
+			if (matching.isEmpty())
+				throw new IllegalArgumentException(String.format(
+						"Campo de %s desconocido: %s. Campos válidos: %s", resource, trimmed,
+						Arrays.stream(type.getEnumConstants()).map(path).collect(Collectors.joining(", "))));
+			selected.addAll(matching);
+		}
+		if (selected.isEmpty())
+			throw new IllegalArgumentException(String.format("Debe indicarse al menos un campo de %s", resource));
+		return List.copyOf(selected);
+	}
+
+	/**
+	 * Serializa cada DTO y conserva solo las rutas pedidas; un campo pedido
+	 * que viene a null se mantiene como null.
+	 */
+	public static List<ObjectNode> retain(final ObjectMapper objectMapper, final List<?> dtos,
+			final Collection<String> paths) {
+		return dtos.stream()
+				.map(dto -> {
+					final ObjectNode node = objectMapper.valueToTree(dto);
+					retain(node, paths);
+					return node;
+				})
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	private static void retain(final ObjectNode node, final Collection<String> paths) {
+		final Map<String, List<String>> nested = new LinkedHashMap<>();
+		for (final String path : paths) {
+			final int dot = path.indexOf('.');
+			final List<String> rest = nested.computeIfAbsent(dot < 0 ? path : path.substring(0, dot),
+					name -> new ArrayList<>());
+			if (dot >= 0)
+				rest.add(path.substring(dot + 1));
+		}
+		node.retain(nested.keySet());
+		nested.forEach((name, rest) -> {
+			final JsonNode child = node.get(name);
+			if (!rest.isEmpty() && child instanceof ObjectNode)
+				retain((ObjectNode) child, rest);
+		});
+	}
+
+}
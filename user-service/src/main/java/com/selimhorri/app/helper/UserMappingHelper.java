@@ -1,9 +1,14 @@
 package com.selimhorri.app.helper;
 
+import java.util.List;
+
+import javax.persistence.Tuple;
+
 import com.selimhorri.app.domain.Credential;
 import com.selimhorri.app.domain.User;
 import com.selimhorri.app.dto.CredentialDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.fields.UserField;
 
 public interface UserMappingHelper {
 
@@ -35,6 +40,13 @@ public interface UserMappingHelper {
 				.build();
 	}
 
+	public static UserDto map(final Tuple tuple, final List<UserField> fields) {
+		final UserDto userDto = new UserDto();
+		for (int i = 0; i < fields.size(); i++)
+			fields.get(i).copy(userDto, tuple.get(i));
+		return userDto;
+	}
+
 	public static User mapOnlyUser(final UserDto userDto) {
 		if (userDto == null)
 			return null;
@@ -2,17 +2,22 @@ package com.selimhorri.app.repository;
 
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.selimhorri.app.domain.Credential;
 
 public interface CredentialRepository extends JpaRepository<Credential, Integer> {
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	Optional<Credential> findByUsername(final String username);
 	
+	// Sin caché de consultas: un acierto devolvería la credencial sin el User del JOIN FETCH
 	@Query("SELECT c FROM Credential c JOIN FETCH c.user WHERE c.username = :username")
 	Optional<Credential> findByUsernameWithUser(final String username);
 
@@ -20,6 +25,7 @@ public interface CredentialRepository extends JpaRepository<Credential, Integer>
 
 	boolean existsByUserUserId(Integer userId);
 
+    // Hibernate invalida la región credentials y las consultas cacheadas sobre la tabla
     @Modifying
     @Transactional
     @Query("DELETE FROM Credential c WHERE c.credentialId = :credentialId")
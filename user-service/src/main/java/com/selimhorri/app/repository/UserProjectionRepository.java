@@ -0,0 +1,16 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import javax.persistence.Tuple;
+
+public interface UserProjectionRepository {
+
+	/**
+	 * Una tupla por usuario con credenciales, ordenada por id, con solo los
+	 * atributos pedidos y en ese orden. Nunca se lee la contraseña: no hay
+	 * campo que la seleccione.
+	 */
+	List<Tuple> findAllProjected(final List<String> attributes);
+
+}
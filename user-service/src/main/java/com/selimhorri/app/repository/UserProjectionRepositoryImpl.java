@@ -0,0 +1,44 @@
+package com.selimhorri.app.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
+import com.selimhorri.app.domain.User;
+import com.selimhorri.app.helper.FieldSelectionHelper;
+
+/**
+ * Proyección de usuarios con Criteria: solo las columnas pedidas en lugar
+ * de la entidad completa con su credencial.
+ */
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Tuple> findAllProjected(final List<String> attributes) {
+		final CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		final CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+		final Root<User> user = cq.from(User.class);
+
+		// INNER JOIN: como findAll, deja fuera a los usuarios sin credenciales
+		final Map<String, Join<?, ?>> joins = new HashMap<>();
+		joins.put("credential", user.join("credential", JoinType.INNER));
+
+		cq.multiselect(FieldSelectionHelper.select(user, joins, attributes))
+				.orderBy(cb.asc(user.get("userId")));
+
+		return this.entityManager.createQuery(cq).getResultList();
+	}
+
+}
@@ -1,13 +1,21 @@
 package com.selimhorri.app.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.User;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserProjectionRepository {
 	
 	Optional<User> findByCredentialUsername(final String username);
 	
+	// El JOIN descarta a los usuarios sin credenciales y trae la credencial en la misma consulta
+	@Query("SELECT u FROM User u JOIN FETCH u.credential WHERE u.userId IN :userIds")
+	List<User> findAllWithCredentialByUserIdIn(@Param("userIds") final Collection<Integer> userIds);
+	
 }
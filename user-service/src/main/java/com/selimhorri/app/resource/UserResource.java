@@ -1,5 +1,8 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,10 +15,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.fields.UserField;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.FieldSelectionHelper;
 import com.selimhorri.app.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -36,6 +43,7 @@ import lombok.extern.slf4j.Slf4j;
 public class UserResource {
 	
 	private final UserService userService;
+	private final ObjectMapper objectMapper;
 
 	// ============================================================================
 	// BÚSQUEDA - Endpoints para obtener usuarios
@@ -43,13 +51,38 @@ public class UserResource {
 
 	/**
 	 * Obtiene la lista completa de todos los usuarios del sistema.
+	 * Con {@code fields} (por ejemplo {@code userId,email,credential.username})
+	 * solo se consultan y se devuelven esos campos.
 	 * 
+	 * @param fields Campos separados por comas; sin él se devuelve el usuario completo
 	 * @return ResponseEntity con lista de todos los usuarios con credenciales
 	 */
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<UserDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<?>> findAll(
+			@RequestParam(name = "fields", required = false) final String fields) {
 		log.info("Obteniendo lista completa de usuarios");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAll()));
+		if (fields == null)
+			return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAll()));
+		
+		final List<UserField> userFields = UserField.parse(fields);
+		final List<String> paths = userFields.stream()
+				.map(UserField::getPath)
+				.collect(Collectors.toUnmodifiableList());
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				FieldSelectionHelper.retain(this.objectMapper, this.userService.findAll(userFields), paths)));
+	}
+	
+	/**
+	 * Obtiene varios usuarios por sus identificadores en una sola llamada.
+	 * 
+	 * @param userIds Identificadores separados por comas
+	 * @return ResponseEntity con los usuarios encontrados
+	 */
+	@GetMapping(params = "userIds")
+	public ResponseEntity<DtoCollectionResponse<UserDto>> findAllByIds(
+			@RequestParam("userIds") final List<Integer> userIds) {
+		log.info("Obteniendo usuarios con IDs: {}", userIds);
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAllByIds(userIds)));
 	}
 	
 	/**
@@ -3,10 +3,13 @@ package com.selimhorri.app.service;
 import java.util.List;
 
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.fields.UserField;
 
 public interface UserService {
 	
 	List<UserDto> findAll();
+	List<UserDto> findAll(final List<UserField> fields);
+	List<UserDto> findAllByIds(final List<Integer> userIds);
 	UserDto findById(final Integer userId);
 	UserDto save(final UserDto userDto);
 	UserDto update(final UserDto userDto);
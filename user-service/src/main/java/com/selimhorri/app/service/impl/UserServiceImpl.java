@@ -14,6 +14,7 @@ import com.selimhorri.app.domain.Credential;
 import com.selimhorri.app.domain.RoleBasedAuthority;
 import com.selimhorri.app.domain.User;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.fields.UserField;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.helper.UserMappingHelper;
 import com.selimhorri.app.repository.CredentialRepository;
@@ -62,6 +63,43 @@ public class UserServiceImpl implements UserService {
 				.collect(Collectors.toUnmodifiableList());
 	}
 
+	/**
+	 * Obtiene los usuarios con credenciales leyendo solo las columnas de los
+	 * campos pedidos; la credencial no se carga como entidad.
+	 *
+	 * @param fields Campos a devolver, ya validados
+	 * @return Lista inmutable de UserDto con solo esos campos informados
+	 */
+	@Override
+	public List<UserDto> findAll(final List<UserField> fields) {
+		log.info("Obteniendo campos {} de todos los usuarios con credenciales", fields);
+		final List<String> attributes = fields.stream()
+				.map(UserField::getAttribute)
+				.collect(Collectors.toUnmodifiableList());
+		return this.userRepository.findAllProjected(attributes)
+				.stream()
+				.map(tuple -> UserMappingHelper.map(tuple, fields))
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	/**
+	 * Obtiene en una sola consulta los usuarios con credenciales de los IDs dados.
+	 * Pensado para servicios que enriquecen sus listados; los IDs inexistentes se omiten.
+	 *
+	 * @param userIds Identificadores de los usuarios
+	 * @return Lista inmutable de UserDto encontrados
+	 */
+	@Override
+	public List<UserDto> findAllByIds(final List<Integer> userIds) {
+		log.info("Buscando usuarios con IDs: {}", userIds);
+		if (userIds.isEmpty())
+			return List.of();
+		return this.userRepository.findAllWithCredentialByUserIdIn(userIds)
+				.stream()
+				.map(UserMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
 	/**
 	 * Busca un usuario específico por su identificador.
 	 * Valida que el usuario tenga credenciales antes de retornarlo.
@@ -0,0 +1,103 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.repository.CredentialRepository;
+
+/**
+ * Caché de segundo nivel de Hibernate para Credential: la región
+ * credentials, la caché de consultas por username y su invalidación con el
+ * DELETE en JPQL de CredentialRepository.
+ */
+@Tag("integration")
+@SpringBootTest
+class CredentialSecondLevelCacheIntegrationTest {
+
+    private static final String USERNAME = "cache.test";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private int credentialId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name) VALUES ('Cache', 'Test')");
+        final Integer userId = jdbcTemplate.queryForObject("SELECT MAX(user_id) FROM users", Integer.class);
+        jdbcTemplate.update("INSERT INTO credentials (user_id, username, password, role, is_enabled) VALUES (?, ?, 'x', ?, true)",
+                userId, USERNAME, RoleBasedAuthority.ROLE_USER.name());
+        credentialId = jdbcTemplate.queryForObject("SELECT credential_id FROM credentials WHERE username = ?",
+                Integer.class, USERNAME);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM credentials WHERE username = ?", USERNAME);
+        jdbcTemplate.update("DELETE FROM users WHERE first_name = 'Cache' AND last_name = 'Test'");
+    }
+
+    private CacheRegionStatistics credentials() {
+        return statistics.getDomainDataRegionStatistics("credentials");
+    }
+
+    @Test
+    void shouldServeARepeatedLoadFromTheCredentialsRegion() {
+        credentialRepository.findById(credentialId).orElseThrow();
+
+        assertEquals(RoleBasedAuthority.ROLE_USER,
+                credentialRepository.findById(credentialId).orElseThrow().getRoleBasedAuthority());
+        assertEquals(1, credentials().getPutCount());
+        assertEquals(1, credentials().getHitCount());
+    }
+
+    @Test
+    void shouldCacheTheLookupByUsername() {
+        credentialRepository.findByUsername(USERNAME).orElseThrow();
+        credentialRepository.findByUsername(USERNAME).orElseThrow();
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, credentials().getHitCount());
+    }
+
+    @Test
+    void shouldInvalidateOnTheBulkDelete() {
+        credentialRepository.findById(credentialId).orElseThrow();
+        credentialRepository.findByUsername(USERNAME).orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(Credential.class, credentialId));
+
+        credentialRepository.deleteByCredentialId(credentialId);
+
+        assertFalse(entityManagerFactory.getCache().contains(Credential.class, credentialId));
+        assertTrue(credentialRepository.findById(credentialId).isEmpty());
+        assertTrue(credentialRepository.findByUsername(USERNAME).isEmpty());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+}
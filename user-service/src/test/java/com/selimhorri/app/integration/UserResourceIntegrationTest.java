@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.config.TestSecurityConfig;
 import com.selimhorri.app.dto.CredentialDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.fields.UserField;
 import com.selimhorri.app.service.UserService;
 
 /**
@@ -99,6 +100,35 @@ class UserResourceIntegrationTest {
         verify(userService, times(1)).findAll();
     }
 
+    @Test
+    void shouldFetchOnlyTheRequestedUserFields() throws Exception {
+        UserDto userDto = UserDto.builder()
+                .userId(1)
+                .email("juan.perez@example.com")
+                .credentialDto(CredentialDto.builder().username("juan.perez").build())
+                .build();
+        List<UserField> fields = List.of(UserField.USER_ID, UserField.EMAIL, UserField.USERNAME);
+        when(userService.findAll(fields)).thenReturn(List.of(userDto));
+
+        mockMvc.perform(get("/api/users").param("fields", "userId,email,credential.username"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userId").value(1))
+                .andExpect(jsonPath("$.collection[0].email").value("juan.perez@example.com"))
+                .andExpect(jsonPath("$.collection[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$.collection[0].credential.username").value("juan.perez"))
+                .andExpect(jsonPath("$.collection[0].credential.password").doesNotExist());
+
+        verify(userService, never()).findAll();
+    }
+
+    @Test
+    void shouldRejectAPasswordField() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "credential.password"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void shouldFetchUserById() throws Exception {
         // Mock data
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.Tuple;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,7 @@ import com.selimhorri.app.domain.Credential;
 import com.selimhorri.app.domain.RoleBasedAuthority;
 import com.selimhorri.app.domain.User;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.fields.UserField;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.repository.CredentialRepository;
 import com.selimhorri.app.repository.UserRepository;
@@ -90,6 +92,49 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void findAllWithFields_shouldProjectOnlyTheRequestedColumns() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(0)).thenReturn(1);
+        when(tuple.get(1)).thenReturn("miguel@test.com");
+        when(tuple.get(2)).thenReturn("miguel");
+        when(userRepository.findAllProjected(List.of("userId", "email", "credential.username")))
+                .thenReturn(List.of(tuple));
+
+        List<UserDto> result = userService.findAll(UserField.parse("credential.username,email,userId"));
+
+        assertEquals(1, result.size());
+        assertEquals("miguel@test.com", result.get(0).getEmail());
+        assertNull(result.get(0).getFirstName());
+        assertEquals("miguel", result.get(0).getCredentialDto().getUsername());
+        assertNull(result.get(0).getCredentialDto().getPassword());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void parseFields_shouldNeverSelectThePassword() {
+        assertThrows(IllegalArgumentException.class, () -> UserField.parse("userId,credential.password"));
+        // Pedir la credencial completa tampoco incluye la contraseña
+        assertTrue(UserField.parse("credential").stream()
+                .noneMatch(field -> field.getAttribute().endsWith("password")));
+    }
+
+    @Test
+    void findAllByIds_shouldFetchEveryUserInOneQuery() {
+        when(userRepository.findAllWithCredentialByUserIdIn(List.of(1, 2))).thenReturn(List.of(userWithCredential));
+
+        List<UserDto> result = userService.findAllByIds(List.of(1, 2));
+
+        assertEquals(1, result.size());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void findAllByIds_shouldNotQueryWithoutIds() {
+        assertTrue(userService.findAllByIds(List.of()).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void findById_shouldReturnUserWhenHasCredentials() {
         when(userRepository.findById(1)).thenReturn(Optional.of(userWithCredential));